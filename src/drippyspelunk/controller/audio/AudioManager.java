@@ -1,6 +1,7 @@
 package drippyspelunk.controller.audio;
 
 import drippyspelunk.controller.config.ConfigManager;
+import drippyspelunk.controller.config.Settings;
 import drippyspelunk.controller.states.GameState;
 
 import java.util.ArrayList;
@@ -13,7 +14,7 @@ import java.util.Map;
  *
  * @author David Norman
  * @author Devin Arroyo
- * @version 2.3
+ * @version 2.4
  */
 public class AudioManager implements AudioEventListener {
 
@@ -114,9 +115,11 @@ public class AudioManager implements AudioEventListener {
      * registering itself as an audio event listener.
      */
     public static synchronized void initialize() {
-        myCurrentMusicVolume = ConfigManager.getInstance().getFloat("Audio", "music", DEFAULT_VOLUME);
-        myCurrentSfxVolume = ConfigManager.getInstance().getFloat("Audio", "sfx", DEFAULT_VOLUME);
-        myCurrentUiVolume = ConfigManager.getInstance().getFloat("Audio", "ui", DEFAULT_VOLUME);
+        final Settings settings = ConfigManager.getInstance().getSettings();
+        myCurrentMusicVolume = settings.musicVolume();
+        myCurrentSfxVolume = settings.sfxVolume();
+        myCurrentUiVolume = settings.uiVolume();
+        ConfigManager.getInstance().addSettingsListener(theEvent -> applyVolumes((Settings) theEvent.getNewValue()));
 
         AudioPlayer.preloadMusic("title", MUSIC_PATH + "title_theme.wav");
         AudioPlayer.preloadMusic("dungeon", MUSIC_PATH + "dungeon_ambient.wav");
@@ -126,6 +129,17 @@ public class AudioManager implements AudioEventListener {
         addListener(INSTANCE);
     }
 
+    /**
+     * Applies the volumes of new settings, so edits to settings.ini are heard without restarting.
+     *
+     * @param theSettings The new settings.
+     */
+    private static void applyVolumes(final Settings theSettings) {
+        setMusicVolume(theSettings.musicVolume());
+        setSfxVolume(theSettings.sfxVolume());
+        setUiVolume(theSettings.uiVolume());
+    }
+
     /**
      * Adds a listener to receive audio events.
      *
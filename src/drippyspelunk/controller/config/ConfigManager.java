@@ -2,17 +2,38 @@ package drippyspelunk.controller.config;
 
 import org.ini4j.Ini;
 
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
 import java.io.File;
 import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * A singleton ConfigManager that handles INI file operations.
+ * The settings are parsed once into an immutable {@link Settings} snapshot. A watcher thread reloads
+ * settings.ini when it changes on disk, checks it, and publishes a new snapshot to listeners.
+ * Changes made in game are written behind: they are collected for a short time, then written to a
+ * temporary file that is synced and renamed over settings.ini, so a crash never leaves a partial file.
  *
  * @author Devin Arroyo
- * @version 1.0
+ * @version 1.6
  */
 public final class ConfigManager {
 
+    /**
+     * The property fired with the old and new {@link Settings} when the settings change.
+     */
+    public static final String SETTINGS_PROPERTY = "settings";
+
     /**
      * The path to the configuration file, located in the user's working directory.
      */
@@ -23,19 +44,65 @@ public final class ConfigManager {
      * The single instance of the ConfigManager, enforcing the singleton pattern.
      */
     private static ConfigManager myInstance;
+    /**
+     * How long the watcher waits for more changes after settings.ini changes, in milliseconds.
+     * Editors often write a file in several steps.
+     */
+    private static final long RELOAD_DELAY = 100;
+    /**
+     * How long a change waits for others to share its write, in milliseconds.
+     */
+    private static final long WRITE_DELAY = 250;
+    /**
+     * How long a failed write waits before it is tried again, in milliseconds.
+     */
+    private static final long RETRY_DELAY = 5000;
 
     /**
-     * The Ini object that holds the parsed configuration data.
+     * The current settings snapshot.
      */
-    private final Ini myIni;
+    private final AtomicReference<Settings> mySettings;
+    /**
+     * Supports firing settings change events.
+     */
+    private final PropertyChangeSupport myPCS = new PropertyChangeSupport(this);
+    /**
+     * True while a write is scheduled but has not started.
+     */
+    private final AtomicBoolean myWriteScheduled = new AtomicBoolean();
+    /**
+     * Held while settings.ini is being written, so writes never overlap.
+     */
+    private final Object myWriteLock = new Object();
+    /**
+     * The Ini object that holds the parsed configuration data. Replaced when the file is reloaded.
+     */
+    private volatile Ini myIni;
+    /**
+     * True if the Ini has changes that are not written yet. Guarded by this manager.
+     */
+    private boolean myDirty;
+    /**
+     * The text last written to settings.ini, so the watcher can ignore the game's own writes.
+     * Guarded by this manager.
+     */
+    private String myLastWritten;
 
     /**
      * Private constructor to enforce the singleton pattern.
+     * A file with an invalid value starts with the default settings.
      *
      * @param theIni The Ini object to be managed.
      */
     private ConfigManager(final Ini theIni) {
         myIni = theIni;
+        Settings settings;
+        try {
+            settings = Settings.fromIni(theIni);
+        } catch (final IllegalArgumentException exception) {
+            settings = Settings.DEFAULTS;
+        }
+        mySettings = new AtomicReference<>(settings);
     }
 
     /**
@@ -55,10 +122,86 @@ public final class ConfigManager {
             }
             Ini loadedIni = new Ini(MY_CONFIG_FILE);
             myInstance = new ConfigManager(loadedIni);
+            myInstance.startWatching();
+            Runtime.getRuntime().addShutdownHook(new Thread(myInstance::flush, "SettingsFlush"));
         } catch (IOException ignored) {
         }
     }
 
+    /**
+     * Starts the thread that reloads settings.ini when it changes on disk.
+     */
+    private void startWatching() {
+        final Thread watcher = new Thread(this::watch, "SettingsWatcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Watches the settings directory and reloads settings.ini after it is created or modified.
+     * Changes that arrive within {@link #RELOAD_DELAY} of each other cause a single reload.
+     */
+    private void watch() {
+        final Path directory = MY_CONFIG_FILE.toPath().toAbsolutePath().getParent();
+        final Path fileName = MY_CONFIG_FILE.toPath().getFileName();
+        try (WatchService service = directory.getFileSystem().newWatchService()) {
+            directory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            while (true) {
+                final WatchKey key = service.take();
+                boolean changed = false;
+                for (final WatchEvent<?> event : key.pollEvents()) {
+                    changed |= fileName.equals(event.context());
+                }
+                if (!key.reset()) {
+                    return;
+                }
+                if (changed) {
+                    Thread.sleep(RELOAD_DELAY);
+                    WatchKey pending;
+                    while ((pending = service.poll()) != null) {
+                        pending.pollEvents();
+                        pending.reset();
+                    }
+                    reload();
+                }
+            }
+        } catch (final IOException | InterruptedException ignored) {
+            // Without a watcher the settings still change through setValue.
+        }
+    }
+
+    /**
+     * Reads settings.ini again and publishes it if every value is valid.
+     * An invalid file keeps the current settings. The game's own writes, and edits made while
+     * changes from the game are waiting to be written, are ignored; the game's changes win.
+     */
+    private synchronized void reload() {
+        try {
+            final String text = Files.readString(MY_CONFIG_FILE.toPath());
+            if (myDirty || text.equals(myLastWritten)) {
+                return;
+            }
+            final Ini ini = new Ini(new StringReader(text));
+            ini.setFile(MY_CONFIG_FILE);
+            final Settings settings = Settings.fromIni(ini);
+            myIni = ini;
+            publish(settings);
+        } catch (final IOException | IllegalArgumentException ignored) {
+        }
+    }
+
+    /**
+     * Publishes a settings snapshot and notifies listeners if anything changed.
+     *
+     * @param theSettings The new settings.
+     */
+    private void publish(final Settings theSettings) {
+        final Settings oldSettings = mySettings.getAndSet(theSettings);
+        if (!oldSettings.equals(theSettings)) {
+            myPCS.firePropertyChange(SETTINGS_PROPERTY, oldSettings, theSettings);
+        }
+    }
+
     /**
      * Creates a new configuration file with default settings.
      *
@@ -69,9 +212,9 @@ public final class ConfigManager {
         final Ini defaultIni = new Ini();
         defaultIni.put("Scene", "gui_scale", "1");
         defaultIni.put("Scene", "undecorated", "false");
-        defaultIni.put("Audio", "music", "0.8f");
-        defaultIni.put("Audio", "sfx", "0.8f");
-        defaultIni.put("Audio", "ui", "0.8f");
+        defaultIni.put("Audio", "music", String.valueOf(Settings.DEFAULT_VOLUME));
+        defaultIni.put("Audio", "sfx", String.valueOf(Settings.DEFAULT_VOLUME));
+        defaultIni.put("Audio", "ui", String.valueOf(Settings.DEFAULT_VOLUME));
         defaultIni.put("Scene", "difficulty", "1");
 
 
@@ -106,78 +249,139 @@ public final class ConfigManager {
     }
 
     /**
-     * Retrieves an integer value from the configuration.
+     * Gets the settings file backing the configuration.
      *
-     * @param theSection      The section of the INI file.
-     * @param theKey          The key for the value.
-     * @param theDefaultValue The default value to return if the key is not found or is invalid.
-     * @return The integer value from the INI file, or the default value.
+     * @return The settings.ini file.
      */
-    public int getInt(final String theSection, final String theKey, final int theDefaultValue) {
-        int myValue;
-        try {
-            myValue = myIni.get(theSection, theKey, int.class);
-        } catch (final IllegalArgumentException exception) {
-            myValue = theDefaultValue;
-        }
-        return myValue;
+    public static File getConfigFile() {
+        return MY_CONFIG_FILE;
     }
 
     /**
-     * Retrieves a boolean value from the configuration.
+     * Gets the current settings snapshot.
      *
-     * @param theSection      The section of the INI file.
-     * @param theKey          The key for the value.
-     * @param theDefaultValue The default value to return if the key is not found or is invalid.
-     * @return The boolean value from the INI file, or the default value.
+     * @return The settings.
      */
-    public boolean getBoolean(final String theSection, final String theKey, final boolean theDefaultValue) {
-        boolean myValue;
-        try {
-            myValue = myIni.get(theSection, theKey, boolean.class);
-        } catch (final IllegalArgumentException exception) {
-            myValue = theDefaultValue;
-        }
-        return myValue;
+    public Settings getSettings() {
+        return mySettings.get();
     }
 
     /**
-     * Retrieves a float value from the configuration.
+     * Adds a listener that is told when the settings change, whether from the game or from settings.ini
+     * being edited. Listeners are called on the thread that made the change.
      *
-     * @param theSection      The section of the INI file.
-     * @param theKey          The key for the value.
-     * @param theDefaultValue The default value to return if the key is not found or is invalid.
-     * @return The float value from the INI file, or the default value.
+     * @param theListener The listener.
      */
-    public float getFloat(final String theSection, final String theKey, final float theDefaultValue) {
-        float myValue;
-        try {
-            myValue = myIni.get(theSection, theKey, float.class);
-        } catch (final IllegalArgumentException exception) {
-            myValue = theDefaultValue;
-        }
-        return myValue;
+    public void addSettingsListener(final PropertyChangeListener theListener) {
+        myPCS.addPropertyChangeListener(SETTINGS_PROPERTY, theListener);
     }
 
     /**
-     * Sets a value in the configuration and saves the changes.
+     * Removes a settings listener.
+     *
+     * @param theListener The listener.
+     */
+    public void removeSettingsListener(final PropertyChangeListener theListener) {
+        myPCS.removePropertyChangeListener(SETTINGS_PROPERTY, theListener);
+    }
+
+    /**
+     * Sets a value in the configuration. The change is published right away and written to
+     * settings.ini shortly after, together with any other changes made in the meantime.
      *
      * @param theSection The section of the INI file.
      * @param theKey     The key for the value.
      * @param theValue   The new value to set.
-     * @throws IOException if an I/O error occurs while saving the file.
      */
-    public void setValue(final String theSection, final String theKey, final String theValue) throws IOException {
+    public synchronized void setValue(final String theSection, final String theKey, final String theValue) {
         myIni.put(theSection, theKey, theValue);
-        saveChanges();
+        myDirty = true;
+        try {
+            publish(Settings.fromIni(myIni));
+        } catch (final IllegalArgumentException ignored) {
+            // The value is saved, but the snapshot keeps the last valid settings.
+        }
+        scheduleFlush(WRITE_DELAY);
+    }
+
+    /**
+     * Replaces every setting at once. Listeners are told once, with the whole new snapshot, so they never see
+     * a mix of old and new values. The change is written to settings.ini shortly after, like {@link #setValue}.
+     *
+     * @param theSettings The new settings.
+     */
+    public synchronized void update(final Settings theSettings) {
+        theSettings.writeTo(myIni);
+        myDirty = true;
+        publish(theSettings);
+        scheduleFlush(WRITE_DELAY);
     }
 
     /**
-     * Saves all changes to the INI file.
+     * Schedules a background write, unless one is already scheduled.
      *
+     * @param theDelay How long to wait before writing, in milliseconds.
+     */
+    private void scheduleFlush(final long theDelay) {
+        if (myWriteScheduled.compareAndSet(false, true)) {
+            CompletableFuture.delayedExecutor(theDelay, TimeUnit.MILLISECONDS).execute(this::flush);
+        }
+    }
+
+    /**
+     * Writes any unwritten changes to settings.ini now. Called at shutdown, and by the
+     * background write a short time after a change. A failed write is logged and tried again
+     * after {@link #RETRY_DELAY}, since settings.ini is not reloaded while changes are unwritten.
+     */
+    public void flush() {
+        synchronized (myWriteLock) {
+            myWriteScheduled.set(false);
+            final String text;
+            synchronized (this) {
+                if (!myDirty) {
+                    return;
+                }
+                final StringWriter writer = new StringWriter();
+                try {
+                    myIni.store(writer);
+                } catch (final IOException ignored) {
+                    // A StringWriter never fails.
+                    return;
+                }
+                text = writer.toString();
+                myDirty = false;
+                myLastWritten = text;
+            }
+            try {
+                saveChanges(text);
+            } catch (final IOException exception) {
+                System.out.println("Could not write " + MY_CONFIG_FILE + ": " + exception.getMessage());
+                synchronized (this) {
+                    myDirty = true;
+                }
+                scheduleFlush(RETRY_DELAY);
+            }
+        }
+    }
+
+    /**
+     * Replaces settings.ini with new text. The text is written to a temporary file and synced to disk,
+     * then renamed over settings.ini, so the file is always either the old or the new version.
+     *
+     * @param theText The new contents of settings.ini.
      * @throws IOException if an I/O error occurs during the save operation.
      */
-    private void saveChanges() throws IOException {
-        myIni.store();
+    private void saveChanges(final String theText) throws IOException {
+        final Path target = MY_CONFIG_FILE.toPath();
+        final Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            final ByteBuffer buffer = ByteBuffer.wrap(theText.getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
     }
 }
\ No newline at end of file
@@ -1,22 +1,39 @@
 package drippyspelunk.controller.config;
 
+import drippyspelunk.controller.content.ContentPack;
 import drippyspelunk.model.dungeon.RoomTemplate;
 import org.ini4j.Ini;
 import org.ini4j.Profile.Section;
 
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
 import java.io.File;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * A singleton ConfigManager for loading room templates from an INI file.
+ * A singleton ConfigManager for loading room templates from the content pack, or from an INI file in development.
+ * Each room is compiled once into a template that does not depend on the difficulty;
+ * generators ask the template for a {@link RoomTemplate#forDifficulty(int) difficulty view} instead.
+ * In development mode a watcher thread reloads rooms.ini when it changes on disk, compiles only the
+ * sections that changed, swaps them in all at once, and tells listeners which rooms changed.
  *
  * @author Devin Arroyo
- * @version 1.4
+ * @version 1.8
  */
 public final class RoomConfigManager {
 
+    /**
+     * The property fired with the names of the changed rooms after rooms.ini is reloaded.
+     */
+    public static final String ROOMS_PROPERTY = "rooms";
+    /**
+     * The system property that turns on development mode, such as {@code -Ddrippyspelunk.dev=true}.
+     */
+    public static final String DEV_MODE_PROPERTY = "drippyspelunk.dev";
+
     /**
      * The path to the configuration file for room layouts.
      */
@@ -30,52 +47,83 @@ public final class RoomConfigManager {
      * The width of the room grid in tiles.
      */
     private static final int ROOM_GRID_WIDTH = 15;
+    /**
+     * How long the watcher waits for more changes after rooms.ini changes, in milliseconds.
+     * Editors often write a file in several steps.
+     */
+    private static final long RELOAD_DELAY = 100;
     /**
      * The single instance of the RoomConfigManager.
      */
     private static RoomConfigManager myInstance;
     /**
-     * The current difficulty level of the game.
+     * A map to store and access room templates by their name.
+     * When the templates come from the content pack, each one is added the first time it is asked for.
+     * A reload replaces the whole map, so readers never see a mix of old and new rooms.
      */
-    private static int myDifficulty;
+    private volatile Map<String, RoomTemplate> myRoomTemplates;
     /**
-     * A map to store and access room templates by their name.
+     * The content pack the templates are read from, or null if they were parsed from the INI file.
      */
-    private final Map<String, RoomTemplate> myRoomTemplates;
+    private final ContentPack myContentPack;
+    /**
+     * The definitions the current templates were compiled from, compared against on reload.
+     * Only touched by the constructor and the watcher thread.
+     */
+    private Map<String, RoomDefinition> myDefinitions;
+    /**
+     * Notifies listeners when rooms are reloaded.
+     */
+    private final PropertyChangeSupport myPCS;
 
     /**
      * Private constructor to enforce the singleton pattern.
-     *
-     * @param theDifficulty The current game difficulty level.
+     * Reads from the content pack when one is present and up to date, and otherwise parses the INI file.
      */
-    private RoomConfigManager(int theDifficulty) {
-        myDifficulty = theDifficulty;
-        myRoomTemplates = new HashMap<>();
-        try {
-            Ini ini = new Ini(ROOMS_CONFIG_FILE);
-            parseRoomTemplates(ini);
-        } catch (IOException ignored) {
+    private RoomConfigManager() {
+        myRoomTemplates = new ConcurrentHashMap<>();
+        myPCS = new PropertyChangeSupport(this);
+        myContentPack = ContentPack.getInstance();
+        if (myContentPack == null) {
+            try {
+                myDefinitions = readRoomDefinitions();
+                for (Map.Entry<String, RoomDefinition> entry : myDefinitions.entrySet()) {
+                    myRoomTemplates.put(entry.getKey(), entry.getValue().compile(entry.getKey()));
+                }
+            } catch (IOException ignored) {
+            }
         }
     }
 
     /**
-     * Initializes the singleton instance of the RoomConfigManager.
+     * Initializes the singleton instance of the RoomConfigManager,
+     * and starts watching rooms.ini in development mode.
      */
     public static synchronized void initialize() {
         if (myInstance == null) {
-            myInstance = new RoomConfigManager(myDifficulty);
+            myInstance = new RoomConfigManager();
+            if (isDevMode()) {
+                myInstance.startWatching();
+            }
         }
     }
 
+    /**
+     * Checks whether the game runs in development mode.
+     *
+     * @return True if the {@link #DEV_MODE_PROPERTY} system property is true.
+     */
+    public static boolean isDevMode() {
+        return Boolean.getBoolean(DEV_MODE_PROPERTY);
+    }
+
     /**
      * Gets the singleton instance of the RoomConfigManager.
      *
-     * @param theDifficulty The current game difficulty level.
      * @return The singleton RoomConfigManager instance.
      * @throws IllegalStateException if the manager has not been initialized.
      */
-    public static RoomConfigManager getInstance(int theDifficulty) {
-        myDifficulty = theDifficulty;
+    public static RoomConfigManager getInstance() {
         if (myInstance == null) {
             throw new IllegalStateException("RoomConfigManager has not been initialized.");
         }
@@ -83,26 +131,140 @@ public final class RoomConfigManager {
     }
 
     /**
-     * Parses all room templates from the INI file and populates the map.
+     * Starts the thread that reloads rooms.ini when it changes on disk.
+     */
+    private void startWatching() {
+        final Thread watcher = new Thread(this::watch, "RoomsWatcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Watches the layout directory and reloads rooms.ini after it is created or modified.
+     * Changes that arrive within {@link #RELOAD_DELAY} of each other cause a single reload.
+     */
+    private void watch() {
+        final Path directory = ROOMS_CONFIG_FILE.toPath().toAbsolutePath().getParent();
+        final Path fileName = ROOMS_CONFIG_FILE.toPath().getFileName();
+        try (WatchService service = directory.getFileSystem().newWatchService()) {
+            directory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            if (myDefinitions == null) {
+                // Rooms from the content pack match rooms.ini as it was when the game started.
+                myDefinitions = readRoomDefinitions();
+            }
+            while (true) {
+                final WatchKey key = service.take();
+                boolean changed = false;
+                for (final WatchEvent<?> event : key.pollEvents()) {
+                    changed |= fileName.equals(event.context());
+                }
+                if (!key.reset()) {
+                    return;
+                }
+                if (changed) {
+                    Thread.sleep(RELOAD_DELAY);
+                    WatchKey pending;
+                    while ((pending = service.poll()) != null) {
+                        pending.pollEvents();
+                        pending.reset();
+                    }
+                    reload();
+                }
+            }
+        } catch (final IOException | InterruptedException ignored) {
+            // Without a watcher the rooms stay as they were loaded.
+        }
+    }
+
+    /**
+     * Parses rooms.ini again and compiles every section that differs from the current one.
+     * The new templates replace the old ones in a single step, then listeners are told which rooms changed.
+     * A file that cannot be parsed keeps the current rooms.
+     */
+    private void reload() {
+        final Map<String, RoomDefinition> definitions;
+        try {
+            definitions = readRoomDefinitions();
+        } catch (final IOException | RuntimeException ignored) {
+            return;
+        }
+
+        final Map<String, RoomTemplate> templates = new ConcurrentHashMap<>(myRoomTemplates);
+        final Set<String> changed = new HashSet<>();
+        for (final Map.Entry<String, RoomDefinition> entry : definitions.entrySet()) {
+            if (!entry.getValue().equals(myDefinitions.get(entry.getKey()))) {
+                templates.put(entry.getKey(), entry.getValue().compile(entry.getKey()));
+                changed.add(entry.getKey());
+            }
+        }
+        if (myContentPack == null) {
+            for (final String name : myDefinitions.keySet()) {
+                if (!definitions.containsKey(name)) {
+                    templates.remove(name);
+                    changed.add(name);
+                }
+            }
+        }
+        myDefinitions = definitions;
+        if (!changed.isEmpty()) {
+            myRoomTemplates = templates;
+            myPCS.firePropertyChange(ROOMS_PROPERTY, null, Set.copyOf(changed));
+        }
+    }
+
+    /**
+     * Adds a listener told the names of the changed rooms whenever rooms.ini is reloaded.
+     * Listeners are called on the watcher thread.
      *
-     * @param theIni The Ini object containing room template data.
+     * @param theListener The listener to add.
      */
-    private void parseRoomTemplates(final Ini theIni) {
-        for (String sectionName : theIni.keySet()) {
-            Section section = theIni.get(sectionName);
+    public void addRoomsListener(final PropertyChangeListener theListener) {
+        myPCS.addPropertyChangeListener(ROOMS_PROPERTY, theListener);
+    }
+
+    /**
+     * Removes a rooms listener.
+     *
+     * @param theListener The listener to remove.
+     */
+    public void removeRoomsListener(final PropertyChangeListener theListener) {
+        myPCS.removePropertyChangeListener(ROOMS_PROPERTY, theListener);
+    }
+
+    /**
+     * Gets the INI file the room templates are loaded from.
+     *
+     * @return The rooms.ini file.
+     */
+    public static File getRoomsConfigFile() {
+        return ROOMS_CONFIG_FILE;
+    }
+
+    /**
+     * Parses every room definition from the INI file.
+     *
+     * @return The room definitions by section name.
+     * @throws IOException If the INI file cannot be read.
+     */
+    public static Map<String, RoomDefinition> readRoomDefinitions() throws IOException {
+        Ini ini = new Ini(ROOMS_CONFIG_FILE);
+        Map<String, RoomDefinition> definitions = new LinkedHashMap<>();
+        for (String sectionName : ini.keySet()) {
+            Section section = ini.get(sectionName);
             int[][] layout = parseLayoutGrid(section);
             int[][] tileset = parseTilesetGrid(section);
             int[][] spawnsGrid = parseSpawnsGrid(section);
 
-            int enemyChance = parseSpawnChance(section, "enemyChance", 50) + (20 * myDifficulty);
-            int potionChance = parseSpawnChance(section, "potionChance", 75) - (8 * myDifficulty);
-            int chestChance = parseSpawnChance(section, "chestChance", 25) - (8 * myDifficulty);
-            int bombChance = parseSpawnChance(section, "bombChance", 25) - (8 * myDifficulty);
-            int trapChance = parseSpawnChance(section, "trapChance", 25) + (5 * myDifficulty);
+            int enemyChance = parseSpawnChance(section, "enemyChance", 50);
+            int potionChance = parseSpawnChance(section, "potionChance", 75);
+            int chestChance = parseSpawnChance(section, "chestChance", 25);
+            int bombChance = parseSpawnChance(section, "bombChance", 25);
+            int trapChance = parseSpawnChance(section, "trapChance", 25);
             int breakableWallChance = parseSpawnChance(section, "breakableWallChance", 50);
 
-            myRoomTemplates.put(sectionName, new RoomTemplate(layout, tileset, spawnsGrid, enemyChance, potionChance, chestChance, bombChance, trapChance, breakableWallChance));
+            definitions.put(sectionName, new RoomDefinition(layout, tileset, spawnsGrid, enemyChance, potionChance, chestChance, bombChance, trapChance, breakableWallChance));
         }
+        return definitions;
     }
 
     /**
@@ -113,7 +275,7 @@ public final class RoomConfigManager {
      * @param theDefault The default value if the key is not found or is invalid.
      * @return The parsed spawn chance value.
      */
-    private int parseSpawnChance(final Section theSection, final String theKey, final int theDefault) {
+    private static int parseSpawnChance(final Section theSection, final String theKey, final int theDefault) {
         if (theSection != null) {
             try {
                 return Integer.parseInt(theSection.get(theKey));
@@ -129,7 +291,7 @@ public final class RoomConfigManager {
      * @param theSection The INI section containing the layout data.
      * @return A 2D integer array representing the room's layout.
      */
-    private int[][] parseLayoutGrid(final Section theSection) {
+    private static int[][] parseLayoutGrid(final Section theSection) {
         int[][] grid = new int[ROOM_GRID_HEIGHT][ROOM_GRID_WIDTH];
         for (int i = 0; i < ROOM_GRID_HEIGHT; i++) {
             String key = "layout" + "-" + (char) ('A' + i);
@@ -150,7 +312,7 @@ public final class RoomConfigManager {
      * @param theChar The character to convert.
      * @return The integer representation of the wall type.
      */
-    private int getWallValueFromChar(final char theChar) {
+    private static int getWallValueFromChar(final char theChar) {
         int result = 0;
         if (theChar >= 'A' && theChar <= 'U') {
             result = theChar - 'A' + 11;
@@ -164,7 +326,7 @@ public final class RoomConfigManager {
      * @param theSection The INI section containing the tileset data.
      * @return A 2D integer array representing the room's tileset.
      */
-    private int[][] parseTilesetGrid(final Section theSection) {
+    private static int[][] parseTilesetGrid(final Section theSection) {
         int[][] grid = new int[ROOM_GRID_HEIGHT][ROOM_GRID_WIDTH];
         for (int i = 0; i < ROOM_GRID_HEIGHT; i++) {
             String key = "tileset" + "-" + (char) ('A' + i);
@@ -197,7 +359,7 @@ public final class RoomConfigManager {
      * @param theSection The INI section containing the spawn data.
      * @return A 2D integer array representing the room's spawns.
      */
-    private int[][] parseSpawnsGrid(final Section theSection) {
+    private static int[][] parseSpawnsGrid(final Section theSection) {
         int[][] grid = new int[ROOM_GRID_HEIGHT][ROOM_GRID_WIDTH];
         for (int i = 0; i < ROOM_GRID_HEIGHT; i++) {
             String key = "spawns" + "-" + (char) ('A' + i);
@@ -236,6 +398,13 @@ public final class RoomConfigManager {
      * @return The RoomTemplate object, or null if not found.
      */
     public RoomTemplate getRoomTemplate(final String theRoomName) {
-        return myRoomTemplates.get(theRoomName);
+        final Map<String, RoomTemplate> templates = myRoomTemplates;
+        if (myContentPack == null) {
+            return templates.get(theRoomName);
+        }
+        return templates.computeIfAbsent(theRoomName, theName -> {
+            final RoomDefinition definition = myContentPack.getRoom(theName);
+            return definition == null ? null : definition.compile(theName);
+        });
     }
 }
\ No newline at end of file
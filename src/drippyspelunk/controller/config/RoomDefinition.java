@@ -0,0 +1,216 @@
+package drippyspelunk.controller.config;
+
+import drippyspelunk.model.dungeon.RoomTemplate;
+
+import java.util.Arrays;
+
+/**
+ * A room layout as written in rooms.ini, before any difficulty adjustment.
+ * Definitions are parsed from the INI file in development or read from the content pack,
+ * and compiled once into difficulty-independent {@link RoomTemplate}s.
+ *
+ * @author David Norman
+ * @version 1.2
+ */
+public final class RoomDefinition {
+
+    /**
+     * The wall layout grid.
+     */
+    private final int[][] myLayout;
+    /**
+     * The floor tileset grid.
+     */
+    private final int[][] myTileset;
+    /**
+     * The spawn grid.
+     */
+    private final int[][] mySpawns;
+    /**
+     * The base chance of an enemy spawning.
+     */
+    private final int myEnemyChance;
+    /**
+     * The base chance of a potion spawning.
+     */
+    private final int myPotionChance;
+    /**
+     * The base chance of a chest spawning.
+     */
+    private final int myChestChance;
+    /**
+     * The base chance of a bomb spawning.
+     */
+    private final int myBombChance;
+    /**
+     * The base chance of a trap spawning.
+     */
+    private final int myTrapChance;
+    /**
+     * The chance of a breakable wall appearing.
+     */
+    private final int myBreakableWallChance;
+
+    /**
+     * Constructs a RoomDefinition.
+     *
+     * @param theLayout              The wall layout grid.
+     * @param theTileset             The floor tileset grid.
+     * @param theSpawns              The spawn grid.
+     * @param theEnemyChance         The base chance of an enemy spawning.
+     * @param thePotionChance        The base chance of a potion spawning.
+     * @param theChestChance         The base chance of a chest spawning.
+     * @param theBombChance          The base chance of a bomb spawning.
+     * @param theTrapChance          The base chance of a trap spawning.
+     * @param theBreakableWallChance The chance of a breakable wall appearing.
+     */
+    public RoomDefinition(final int[][] theLayout, final int[][] theTileset, final int[][] theSpawns,
+                          final int theEnemyChance, final int thePotionChance, final int theChestChance,
+                          final int theBombChance, final int theTrapChance, final int theBreakableWallChance) {
+        myLayout = theLayout;
+        myTileset = theTileset;
+        mySpawns = theSpawns;
+        myEnemyChance = theEnemyChance;
+        myPotionChance = thePotionChance;
+        myChestChance = theChestChance;
+        myBombChance = theBombChance;
+        myTrapChance = theTrapChance;
+        myBreakableWallChance = theBreakableWallChance;
+    }
+
+    /**
+     * Compiles this definition into a room template. The template keeps the base chances and
+     * applies a difficulty only when {@link RoomTemplate#forDifficulty(int)} is asked for one.
+     *
+     * @param theName The name of the room's section.
+     * @return The room template.
+     */
+    public RoomTemplate compile(final String theName) {
+        return new RoomTemplate(theName, myLayout, myTileset, mySpawns, myEnemyChance, myPotionChance, myChestChance,
+                myBombChance, myTrapChance, myBreakableWallChance);
+    }
+
+    /**
+     * Gets the wall layout grid.
+     *
+     * @return The layout.
+     */
+    public int[][] getLayout() {
+        return myLayout;
+    }
+
+    /**
+     * Gets the floor tileset grid.
+     *
+     * @return The tileset.
+     */
+    public int[][] getTileset() {
+        return myTileset;
+    }
+
+    /**
+     * Gets the spawn grid.
+     *
+     * @return The spawns.
+     */
+    public int[][] getSpawns() {
+        return mySpawns;
+    }
+
+    /**
+     * Gets the base chance of an enemy spawning.
+     *
+     * @return The enemy chance.
+     */
+    public int getEnemyChance() {
+        return myEnemyChance;
+    }
+
+    /**
+     * Gets the base chance of a potion spawning.
+     *
+     * @return The potion chance.
+     */
+    public int getPotionChance() {
+        return myPotionChance;
+    }
+
+    /**
+     * Gets the base chance of a chest spawning.
+     *
+     * @return The chest chance.
+     */
+    public int getChestChance() {
+        return myChestChance;
+    }
+
+    /**
+     * Gets the base chance of a bomb spawning.
+     *
+     * @return The bomb chance.
+     */
+    public int getBombChance() {
+        return myBombChance;
+    }
+
+    /**
+     * Gets the base chance of a trap spawning.
+     *
+     * @return The trap chance.
+     */
+    public int getTrapChance() {
+        return myTrapChance;
+    }
+
+    /**
+     * Gets the chance of a breakable wall appearing.
+     *
+     * @return The breakable wall chance.
+     */
+    public int getBreakableWallChance() {
+        return myBreakableWallChance;
+    }
+
+    /**
+     * Checks whether another definition has the same grids and chances.
+     *
+     * @param theOther The object to compare with.
+     * @return True if the definitions describe the same room.
+     */
+    @Override
+    public boolean equals(final Object theOther) {
+        if (this == theOther) {
+            return true;
+        }
+        if (!(theOther instanceof RoomDefinition other)) {
+            return false;
+        }
+        return myEnemyChance == other.myEnemyChance
+                && myPotionChance == other.myPotionChance
+                && myChestChance == other.myChestChance
+                && myBombChance == other.myBombChance
+                && myTrapChance == other.myTrapChance
+                && myBreakableWallChance == other.myBreakableWallChance
+                && Arrays.deepEquals(myLayout, other.myLayout)
+                && Arrays.deepEquals(myTileset, other.myTileset)
+                && Arrays.deepEquals(mySpawns, other.mySpawns);
+    }
+
+    /**
+     * Computes a hash code from the grids and chances.
+     *
+     * @return The hash code.
+     */
+    @Override
+    public int hashCode() {
+        int result = Arrays.deepHashCode(myLayout);
+        result = 31 * result + Arrays.deepHashCode(myTileset);
+        result = 31 * result + Arrays.deepHashCode(mySpawns);
+        result = 31 * result + myEnemyChance;
+        result = 31 * result + myPotionChance;
+        result = 31 * result + myChestChance;
+        result = 31 * result + myBombChance;
+        result = 31 * result + myTrapChance;
+        return 31 * result + myBreakableWallChance;
+    }
+}
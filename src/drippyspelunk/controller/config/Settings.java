@@ -0,0 +1,177 @@
+package drippyspelunk.controller.config;
+
+import org.ini4j.Ini;
+
+/**
+ * An immutable snapshot of settings.ini, parsed and checked once.
+ * The game reads settings from the current snapshot instead of looking values up in the INI file.
+ *
+ * @param guiScale    The scale of the graphical user interface.
+ * @param undecorated True if the window is undecorated.
+ * @param musicVolume The volume of music, from 0 to 1.
+ * @param sfxVolume   The volume of sound effects, from 0 to 1.
+ * @param uiVolume    The volume of user interface sounds, from 0 to 1.
+ * @param difficulty  The difficulty level.
+ * @author David Norman
+ * @version 1.1
+ */
+public record Settings(int guiScale, boolean undecorated, float musicVolume, float sfxVolume, float uiVolume,
+                       int difficulty) {
+
+    /**
+     * The smallest GUI scale.
+     */
+    public static final int GUI_SCALE_MIN = 1;
+    /**
+     * The largest GUI scale.
+     */
+    public static final int GUI_SCALE_MAX = 6;
+    /**
+     * The lowest difficulty.
+     */
+    public static final int DIFFICULTY_MIN = 1;
+    /**
+     * The highest difficulty.
+     */
+    public static final int DIFFICULTY_MAX = 3;
+    /**
+     * The volume used when a volume is not set.
+     */
+    public static final float DEFAULT_VOLUME = 0.8f;
+    /**
+     * The settings used for anything settings.ini does not set.
+     */
+    public static final Settings DEFAULTS = new Settings(1, false, DEFAULT_VOLUME, DEFAULT_VOLUME, DEFAULT_VOLUME, 1);
+
+    /**
+     * Constructs a Settings snapshot.
+     *
+     * @param guiScale    The scale of the graphical user interface.
+     * @param undecorated True if the window is undecorated.
+     * @param musicVolume The volume of music, from 0 to 1.
+     * @param sfxVolume   The volume of sound effects, from 0 to 1.
+     * @param uiVolume    The volume of user interface sounds, from 0 to 1.
+     * @param difficulty  The difficulty level.
+     * @throws IllegalArgumentException If a value is out of range.
+     */
+    public Settings {
+        checkRange("gui_scale", guiScale, GUI_SCALE_MIN, GUI_SCALE_MAX);
+        checkRange("difficulty", difficulty, DIFFICULTY_MIN, DIFFICULTY_MAX);
+        checkVolume("music", musicVolume);
+        checkVolume("sfx", sfxVolume);
+        checkVolume("ui", uiVolume);
+    }
+
+    /**
+     * Parses a snapshot from an INI file. Missing values take their defaults.
+     *
+     * @param theIni The parsed INI file.
+     * @return The settings.
+     * @throws IllegalArgumentException If a value is malformed or out of range.
+     */
+    static Settings fromIni(final Ini theIni) {
+        return new Settings(
+                parseInt(theIni, "Scene", "gui_scale", DEFAULTS.guiScale()),
+                parseBoolean(theIni, "Scene", "undecorated", DEFAULTS.undecorated()),
+                parseFloat(theIni, "Audio", "music", DEFAULTS.musicVolume()),
+                parseFloat(theIni, "Audio", "sfx", DEFAULTS.sfxVolume()),
+                parseFloat(theIni, "Audio", "ui", DEFAULTS.uiVolume()),
+                parseInt(theIni, "Scene", "difficulty", DEFAULTS.difficulty()));
+    }
+
+    /**
+     * Puts every value of this snapshot into an INI file.
+     *
+     * @param theIni The INI file to update.
+     */
+    void writeTo(final Ini theIni) {
+        theIni.put("Scene", "gui_scale", String.valueOf(guiScale));
+        theIni.put("Scene", "undecorated", String.valueOf(undecorated));
+        theIni.put("Audio", "music", String.valueOf(musicVolume));
+        theIni.put("Audio", "sfx", String.valueOf(sfxVolume));
+        theIni.put("Audio", "ui", String.valueOf(uiVolume));
+        theIni.put("Scene", "difficulty", String.valueOf(difficulty));
+    }
+
+    /**
+     * Parses an integer value.
+     *
+     * @param theIni     The parsed INI file.
+     * @param theSection The section.
+     * @param theKey     The key.
+     * @param theDefault The value to use if the key is missing.
+     * @return The value.
+     * @throws IllegalArgumentException If the value is not an integer.
+     */
+    private static int parseInt(final Ini theIni, final String theSection, final String theKey, final int theDefault) {
+        final String value = theIni.get(theSection, theKey);
+        return value == null ? theDefault : Integer.parseInt(value.strip());
+    }
+
+    /**
+     * Parses a float value.
+     *
+     * @param theIni     The parsed INI file.
+     * @param theSection The section.
+     * @param theKey     The key.
+     * @param theDefault The value to use if the key is missing.
+     * @return The value.
+     * @throws IllegalArgumentException If the value is not a number.
+     */
+    private static float parseFloat(final Ini theIni, final String theSection, final String theKey,
+                                    final float theDefault) {
+        final String value = theIni.get(theSection, theKey);
+        return value == null ? theDefault : Float.parseFloat(value.strip());
+    }
+
+    /**
+     * Parses a boolean value.
+     *
+     * @param theIni     The parsed INI file.
+     * @param theSection The section.
+     * @param theKey     The key.
+     * @param theDefault The value to use if the key is missing.
+     * @return The value.
+     * @throws IllegalArgumentException If the value is not true or false.
+     */
+    private static boolean parseBoolean(final Ini theIni, final String theSection, final String theKey,
+                                        final boolean theDefault) {
+        final String value = theIni.get(theSection, theKey);
+        if (value == null) {
+            return theDefault;
+        }
+        return switch (value.strip().toLowerCase()) {
+            case "true" -> true;
+            case "false" -> false;
+            default -> throw new IllegalArgumentException(theKey + " must be true or false, not " + value);
+        };
+    }
+
+    /**
+     * Checks that a whole-number setting is in range.
+     *
+     * @param theKey   The setting's key.
+     * @param theValue The value.
+     * @param theMin   The smallest allowed value.
+     * @param theMax   The largest allowed value.
+     * @throws IllegalArgumentException If the value is out of range.
+     */
+    private static void checkRange(final String theKey, final int theValue, final int theMin, final int theMax) {
+        if (theValue < theMin || theValue > theMax) {
+            throw new IllegalArgumentException(theKey + " must be from " + theMin + " to " + theMax + ", not " + theValue);
+        }
+    }
+
+    /**
+     * Checks that a volume is from 0 to 1.
+     *
+     * @param theKey    The setting's key.
+     * @param theVolume The volume.
+     * @throws IllegalArgumentException If the volume is out of range.
+     */
+    private static void checkVolume(final String theKey, final float theVolume) {
+        if (!(theVolume >= 0 && theVolume <= 1)) {
+            throw new IllegalArgumentException(theKey + " must be from 0 to 1, not " + theVolume);
+        }
+    }
+}
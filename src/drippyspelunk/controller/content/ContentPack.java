@@ -0,0 +1,539 @@
+package drippyspelunk.controller.content;
+
+import drippyspelunk.controller.config.RoomConfigManager;
+import drippyspelunk.controller.config.RoomDefinition;
+import drippyspelunk.controller.database.DatabaseManager;
+import drippyspelunk.controller.sprite.SpriteManager;
+import drippyspelunk.controller.sprite.SpriteSheetEntry;
+import drippyspelunk.model.dungeon.entity.dungeoncharacter.Character;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * A compiled, versioned pack of the game's content: room definitions, character definitions and the sprite index.
+ * The pack is built ahead of time by {@link ContentPackBuilder} and memory mapped at runtime, so startup
+ * reads only the directory and each room is decoded from its slice of the file the first time it is needed.
+ * The pack remembers a checksum of every source it was built from; if a source that is present has changed,
+ * or the pack is missing or damaged, the game falls back to reading rooms.ini, the database and the built-in
+ * sprite index directly.
+ * <p>
+ * Layout, big-endian:
+ * <pre>
+ * int   magic "DCPK"
+ * int   format version
+ * int   CRC-32 of rooms.ini
+ * int   CRC-32 of characters.csv, or 0 if it was built from the built-in roster
+ * int   CRC-32 of the sprite index
+ * int   offset and length of the rooms, characters and sprites sections
+ * </pre>
+ * Rooms are fixed-size records of six spawn chances and three grids of one byte per cell,
+ * found through a directory of names read when the pack is opened.
+ *
+ * @author David Norman
+ * @version 1.1
+ */
+public final class ContentPack {
+
+    /**
+     * The content pack file.
+     */
+    private static final File PACK_FILE = new File(System.getProperty("user.dir") + "/res/content.pack");
+    /**
+     * The magic number at the start of every pack, "DCPK".
+     */
+    private static final int MAGIC = 0x4443504B;
+    /**
+     * The version of the pack layout. Packs of any other version are ignored.
+     */
+    private static final int FORMAT_VERSION = 2;
+    /**
+     * The size of the header in bytes: five ints, then an offset and a length for each of three sections.
+     */
+    private static final int HEADER_SIZE = 5 * Integer.BYTES + 6 * Integer.BYTES;
+
+    /**
+     * The opened pack, or null if there is no usable pack.
+     */
+    private static ContentPack myInstance;
+    /**
+     * True once opening the pack has been attempted.
+     */
+    private static boolean myOpenAttempted;
+
+    /**
+     * The mapped rooms section.
+     */
+    private final ByteBuffer myRooms;
+    /**
+     * The mapped characters section.
+     */
+    private final ByteBuffer myCharacters;
+    /**
+     * The mapped sprites section.
+     */
+    private final ByteBuffer mySprites;
+    /**
+     * The position of each room's record in the rooms section, by room name.
+     */
+    private final Map<String, Integer> myRoomPositions;
+    /**
+     * The number of rows in each room grid.
+     */
+    private final int myRoomRows;
+    /**
+     * The number of columns in each room grid.
+     */
+    private final int myRoomColumns;
+
+    /**
+     * Constructs a ContentPack over a mapped file and reads its room directory.
+     *
+     * @param theBuffer The whole mapped pack, positioned after the checksums.
+     * @throws IOException If a section lies outside the file.
+     */
+    private ContentPack(final ByteBuffer theBuffer) throws IOException {
+        myRooms = section(theBuffer);
+        myCharacters = section(theBuffer);
+        mySprites = section(theBuffer);
+
+        final ByteBuffer rooms = myRooms.duplicate();
+        myRoomRows = rooms.getInt();
+        myRoomColumns = rooms.getInt();
+        final int count = rooms.getInt();
+        if (myRoomRows <= 0 || myRoomColumns <= 0 || count < 0) {
+            throw new IOException("The content pack's room directory is damaged.");
+        }
+        final int recordSize = 6 * Integer.BYTES + 3 * myRoomRows * myRoomColumns;
+        final Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            positions.put(readString(rooms), rooms.getInt());
+        }
+        final int recordsStart = rooms.position();
+        for (final Map.Entry<String, Integer> entry : positions.entrySet()) {
+            final int position = recordsStart + entry.getValue() * recordSize;
+            if (position + recordSize > myRooms.limit()) {
+                throw new IOException("Room " + entry.getKey() + " lies outside the content pack.");
+            }
+            entry.setValue(position);
+        }
+        myRoomPositions = Collections.unmodifiableMap(positions);
+    }
+
+    /**
+     * Gets the content pack, opening it the first time.
+     *
+     * @return The pack, or null if there is no pack or it is out of date, so the game should use the source files.
+     */
+    public static synchronized ContentPack getInstance() {
+        if (!myOpenAttempted) {
+            myOpenAttempted = true;
+            myInstance = open();
+        }
+        return myInstance;
+    }
+
+    /**
+     * Gets the content pack file.
+     *
+     * @return The content.pack file.
+     */
+    public static File getPackFile() {
+        return PACK_FILE;
+    }
+
+    /**
+     * Maps the pack file and checks that it is current.
+     *
+     * @return The pack, or null if it is missing, damaged, of another version or out of date.
+     */
+    private static ContentPack open() {
+        if (!PACK_FILE.isFile()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(PACK_FILE.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                return null;
+            }
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                return null;
+            }
+            final int roomsChecksum = buffer.getInt();
+            final int charactersChecksum = buffer.getInt();
+            final int spritesChecksum = buffer.getInt();
+            if (!isCurrent(RoomConfigManager.getRoomsConfigFile(), roomsChecksum)
+                    || !isCurrent(DatabaseManager.getCharacterCatalogFile(), charactersChecksum)
+                    || spritesChecksum != checksum(encodeSprites(SpriteManager.getDefaultSheets()))) {
+                return null;
+            }
+            return new ContentPack(buffer);
+        } catch (final IOException | RuntimeException ignored) {
+            // A missing, damaged or partly written pack only costs the faster startup.
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether a source file still matches the checksum it had when the pack was built.
+     * A source that is not present, as in a release that ships only the pack, does not make the pack stale.
+     *
+     * @param theSource   The source file.
+     * @param theChecksum The checksum recorded in the pack.
+     * @return True if the source is missing or unchanged.
+     * @throws IOException If the source cannot be read.
+     */
+    private static boolean isCurrent(final File theSource, final int theChecksum) throws IOException {
+        return !theSource.isFile() || checksum(Files.readAllBytes(theSource.toPath())) == theChecksum;
+    }
+
+    /**
+     * Reads the next section entry of the header.
+     *
+     * @param theBuffer The whole pack, positioned at a section entry.
+     * @return A read-only view of the section, sharing the mapped memory.
+     * @throws IOException If the section lies outside the file.
+     */
+    private static ByteBuffer section(final ByteBuffer theBuffer) throws IOException {
+        final int offset = theBuffer.getInt();
+        final int length = theBuffer.getInt();
+        if (offset < HEADER_SIZE || length < 0 || offset > theBuffer.capacity() - length) {
+            throw new IOException("A section lies outside the content pack.");
+        }
+        return theBuffer.slice(offset, length).asReadOnlyBuffer();
+    }
+
+    /**
+     * Gets a room definition.
+     *
+     * @param theRoomName The room's section name in rooms.ini.
+     * @return The definition, or null if the pack has no such room.
+     */
+    public RoomDefinition getRoom(final String theRoomName) {
+        final Integer position = myRoomPositions.get(theRoomName);
+        if (position == null) {
+            return null;
+        }
+        final ByteBuffer room = myRooms.duplicate().position(position);
+        final int enemyChance = room.getInt();
+        final int potionChance = room.getInt();
+        final int chestChance = room.getInt();
+        final int bombChance = room.getInt();
+        final int trapChance = room.getInt();
+        final int breakableWallChance = room.getInt();
+        final int[][] layout = readGrid(room);
+        final int[][] tileset = readGrid(room);
+        final int[][] spawns = readGrid(room);
+        return new RoomDefinition(layout, tileset, spawns, enemyChance, potionChance, chestChance,
+                bombChance, trapChance, breakableWallChance);
+    }
+
+    /**
+     * Gets the names of every room in the pack.
+     *
+     * @return The room names.
+     */
+    public Set<String> getRoomNames() {
+        return myRoomPositions.keySet();
+    }
+
+    /**
+     * Reads one room grid, stored as a byte per cell.
+     *
+     * @param theBuffer The buffer, positioned at the grid.
+     * @return The grid.
+     */
+    private int[][] readGrid(final ByteBuffer theBuffer) {
+        final int[][] grid = new int[myRoomRows][myRoomColumns];
+        for (int row = 0; row < myRoomRows; row++) {
+            for (int column = 0; column < myRoomColumns; column++) {
+                grid[row][column] = Byte.toUnsignedInt(theBuffer.get());
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Reads every character definition in the pack.
+     *
+     * @return The characters, in catalog order, with ids counting from 1.
+     */
+    public List<Character> getCharacters() {
+        final ByteBuffer buffer = myCharacters.duplicate();
+        final int count = buffer.getInt();
+        final List<Character> characters = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final String name = readString(buffer);
+            final Character.CharacterType type = Character.CharacterType.valueOf(readString(buffer));
+            final String characterClass = readString(buffer);
+            final Character character = new Character(name, type, characterClass,
+                    buffer.getInt(), buffer.getInt(), buffer.getDouble(), buffer.getInt(), buffer.getInt(),
+                    buffer.getInt(), buffer.getInt(), buffer.getInt());
+            character.setPreferredBiome(buffer.getInt());
+            character.setId(i + 1);
+            characters.add(character);
+        }
+        return characters;
+    }
+
+    /**
+     * Reads the sprite index in the pack.
+     *
+     * @return The sprite sheets, in load order.
+     */
+    public List<SpriteSheetEntry> getSpriteSheets() {
+        final ByteBuffer buffer = mySprites.duplicate();
+        final int count = buffer.getInt();
+        final List<SpriteSheetEntry> sheets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final String identifier = readString(buffer);
+            final String path = readString(buffer);
+            final SpriteSheetEntry.Layout layout = SpriteSheetEntry.Layout.values()[buffer.get()];
+            final int width = buffer.getInt();
+            final int height = buffer.getInt();
+            final int frames = buffer.getInt();
+            final char startChar = buffer.getChar();
+            final int stateCount = buffer.get();
+            final List<String> states = new ArrayList<>(stateCount);
+            for (int state = 0; state < stateCount; state++) {
+                states.add(readString(buffer));
+            }
+            final int[] palette = new int[buffer.getShort()];
+            for (int colour = 0; colour < palette.length; colour++) {
+                palette[colour] = buffer.getInt();
+            }
+            sheets.add(new SpriteSheetEntry(identifier, path, layout, width, height, frames, startChar, states,
+                    palette));
+        }
+        return sheets;
+    }
+
+    /**
+     * Reads a string stored as a short length and UTF-8 bytes.
+     *
+     * @param theBuffer The buffer, positioned at the string.
+     * @return The string.
+     */
+    private static String readString(final ByteBuffer theBuffer) {
+        final int length = Short.toUnsignedInt(theBuffer.getShort());
+        if (length > theBuffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        final String value = StandardCharsets.UTF_8.decode(theBuffer.slice(theBuffer.position(), length)).toString();
+        theBuffer.position(theBuffer.position() + length);
+        return value;
+    }
+
+    /**
+     * Writes a content pack. The pack is written to a temporary file and moved into place,
+     * so a running game never maps a half-written pack.
+     *
+     * @param theFile               The pack file.
+     * @param theRooms              The room definitions by name.
+     * @param theRoomRows           The number of rows in each room grid.
+     * @param theRoomColumns        The number of columns in each room grid.
+     * @param theCharacters         The character definitions.
+     * @param theSprites            The sprite index.
+     * @param theRoomsChecksum      The checksum of rooms.ini.
+     * @param theCharactersChecksum The checksum of characters.csv, or 0 for the built-in roster.
+     * @throws IOException If the pack cannot be written.
+     */
+    static void write(final File theFile, final Map<String, RoomDefinition> theRooms, final int theRoomRows,
+                      final int theRoomColumns, final List<Character> theCharacters,
+                      final List<SpriteSheetEntry> theSprites, final int theRoomsChecksum,
+                      final int theCharactersChecksum) throws IOException {
+        final byte[] rooms = encodeRooms(theRooms, theRoomRows, theRoomColumns);
+        final byte[] characters = encodeCharacters(theCharacters);
+        final byte[] sprites = encodeSprites(theSprites);
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(theRoomsChecksum);
+        out.writeInt(theCharactersChecksum);
+        out.writeInt(checksum(sprites));
+        int offset = HEADER_SIZE;
+        for (final byte[] section : new byte[][]{rooms, characters, sprites}) {
+            out.writeInt(offset);
+            out.writeInt(section.length);
+            offset += section.length;
+        }
+        out.write(rooms);
+        out.write(characters);
+        out.write(sprites);
+        out.flush();
+
+        final File parent = theFile.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        final File temp = new File(theFile.getPath() + ".tmp");
+        Files.write(temp.toPath(), bytes.toByteArray());
+        Files.move(temp.toPath(), theFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Encodes the rooms section: the grid size, a directory of names and record numbers, then fixed-size records.
+     *
+     * @param theRooms       The room definitions by name.
+     * @param theRoomRows    The number of rows in each room grid.
+     * @param theRoomColumns The number of columns in each room grid.
+     * @return The section bytes.
+     * @throws IOException If a grid is the wrong size or a cell does not fit in a byte.
+     */
+    private static byte[] encodeRooms(final Map<String, RoomDefinition> theRooms, final int theRoomRows,
+                                      final int theRoomColumns) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(theRoomRows);
+        out.writeInt(theRoomColumns);
+        out.writeInt(theRooms.size());
+        int record = 0;
+        for (final String name : theRooms.keySet()) {
+            writeString(out, name);
+            out.writeInt(record++);
+        }
+        for (final RoomDefinition room : theRooms.values()) {
+            out.writeInt(room.getEnemyChance());
+            out.writeInt(room.getPotionChance());
+            out.writeInt(room.getChestChance());
+            out.writeInt(room.getBombChance());
+            out.writeInt(room.getTrapChance());
+            out.writeInt(room.getBreakableWallChance());
+            writeGrid(out, room.getLayout(), theRoomRows, theRoomColumns);
+            writeGrid(out, room.getTileset(), theRoomRows, theRoomColumns);
+            writeGrid(out, room.getSpawns(), theRoomRows, theRoomColumns);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes one room grid as a byte per cell.
+     *
+     * @param theOut     The stream to write to.
+     * @param theGrid    The grid.
+     * @param theRows    The expected number of rows.
+     * @param theColumns The expected number of columns.
+     * @throws IOException If the grid is the wrong size or a cell does not fit in a byte.
+     */
+    private static void writeGrid(final DataOutputStream theOut, final int[][] theGrid, final int theRows,
+                                  final int theColumns) throws IOException {
+        if (theGrid.length != theRows) {
+            throw new IOException("A room grid has " + theGrid.length + " rows instead of " + theRows + ".");
+        }
+        for (final int[] row : theGrid) {
+            if (row.length != theColumns) {
+                throw new IOException("A room grid has " + row.length + " columns instead of " + theColumns + ".");
+            }
+            for (final int cell : row) {
+                if (cell < 0 || cell > 0xFF) {
+                    throw new IOException("A room grid cell of " + cell + " does not fit in the content pack.");
+                }
+                theOut.writeByte(cell);
+            }
+        }
+    }
+
+    /**
+     * Encodes the characters section.
+     *
+     * @param theCharacters The character definitions.
+     * @return The section bytes.
+     * @throws IOException If a character cannot be written.
+     */
+    private static byte[] encodeCharacters(final List<Character> theCharacters) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(theCharacters.size());
+        for (final Character character : theCharacters) {
+            writeString(out, character.getMyName());
+            writeString(out, character.getCharacterType().name());
+            writeString(out, character.getCharacterClass());
+            out.writeInt(character.getBaseHP());
+            out.writeInt(character.getBaseAttackSpeed());
+            out.writeDouble(character.getBaseChanceToHit());
+            out.writeInt(character.getBaseMinDamage());
+            out.writeInt(character.getBaseMaxDamage());
+            out.writeInt(character.getMoveSpeed());
+            out.writeInt(character.getVisionStat());
+            out.writeInt(character.getLevel());
+            out.writeInt(character.getPreferredBiome());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Encodes the sprites section. Also used to check whether a pack's sprite index matches the game's.
+     *
+     * @param theSprites The sprite index.
+     * @return The section bytes.
+     */
+    private static byte[] encodeSprites(final List<SpriteSheetEntry> theSprites) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(theSprites.size());
+            for (final SpriteSheetEntry sheet : theSprites) {
+                writeString(out, sheet.getIdentifier());
+                writeString(out, sheet.getPath());
+                out.writeByte(sheet.getLayout().ordinal());
+                out.writeInt(sheet.getSpriteWidth());
+                out.writeInt(sheet.getSpriteHeight());
+                out.writeInt(sheet.getFrameCount());
+                out.writeChar(sheet.getStartChar());
+                out.writeByte(sheet.getStates().size());
+                for (final String state : sheet.getStates()) {
+                    writeString(out, state);
+                }
+                final int[] palette = sheet.getPalette();
+                out.writeShort(palette.length);
+                for (final int colour : palette) {
+                    out.writeInt(colour);
+                }
+            }
+        } catch (final IOException theException) {
+            // A ByteArrayOutputStream never fails.
+            throw new UncheckedIOException(theException);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes a string as a short length and UTF-8 bytes.
+     *
+     * @param theOut   The stream to write to.
+     * @param theValue The string.
+     * @throws IOException If the string is too long or cannot be written.
+     */
+    private static void writeString(final DataOutputStream theOut, final String theValue) throws IOException {
+        final byte[] bytes = theValue.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IOException("A string is too long for the content pack.");
+        }
+        theOut.writeShort(bytes.length);
+        theOut.write(bytes);
+    }
+
+    /**
+     * Computes the CRC-32 of some bytes.
+     *
+     * @param theBytes The bytes.
+     * @return The checksum.
+     */
+    static int checksum(final byte[] theBytes) {
+        final CRC32 crc = new CRC32();
+        crc.update(theBytes);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,63 @@
+package drippyspelunk.controller.content;
+
+import drippyspelunk.controller.config.RoomConfigManager;
+import drippyspelunk.controller.config.RoomDefinition;
+import drippyspelunk.controller.database.DatabaseManager;
+import drippyspelunk.controller.sprite.SpriteManager;
+import drippyspelunk.controller.sprite.SpriteSheetEntry;
+import drippyspelunk.model.dungeon.entity.dungeoncharacter.Character;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The build step that compiles rooms.ini, the character catalog and the sprite index into a content pack.
+ * Run it from the game's working directory after changing any of them:
+ * <pre>
+ * java -cp &lt;classpath&gt; drippyspelunk.controller.content.ContentPackBuilder [output file]
+ * </pre>
+ * Until the pack is rebuilt, the game notices the changed sources and reads them directly.
+ *
+ * @author David Norman
+ * @version 1.0
+ */
+public final class ContentPackBuilder {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private ContentPackBuilder() {
+    }
+
+    /**
+     * Builds the content pack.
+     *
+     * @param theArgs An optional output file, which defaults to res/content.pack.
+     * @throws IOException If a source cannot be read or the pack cannot be written.
+     */
+    public static void main(final String[] theArgs) throws IOException {
+        final File output = theArgs.length > 0 ? new File(theArgs[0]) : ContentPack.getPackFile();
+
+        final File roomsFile = RoomConfigManager.getRoomsConfigFile();
+        final Map<String, RoomDefinition> rooms = RoomConfigManager.readRoomDefinitions();
+        if (rooms.isEmpty()) {
+            throw new IOException("No rooms were found in " + roomsFile + ".");
+        }
+        final int[][] firstLayout = rooms.values().iterator().next().getLayout();
+
+        final File charactersFile = DatabaseManager.getCharacterCatalogFile();
+        final List<Character> characters = DatabaseManager.readCharacterDefinitions();
+        final int charactersChecksum = charactersFile.isFile()
+                ? ContentPack.checksum(Files.readAllBytes(charactersFile.toPath())) : 0;
+
+        final List<SpriteSheetEntry> sprites = SpriteManager.getDefaultSheets();
+
+        ContentPack.write(output, rooms, firstLayout.length, firstLayout[0].length, characters, sprites,
+                ContentPack.checksum(Files.readAllBytes(roomsFile.toPath())), charactersChecksum);
+        System.out.println("Wrote " + output + ": " + rooms.size() + " rooms, " + characters.size()
+                + " characters, " + sprites.size() + " sprite sheets.");
+    }
+}
@@ -13,7 +13,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * It implements the {@link Runnable} interface to run the game logic in a separate thread.
  *
  * @author Devin Arroyo
- * @version 1.9
+ * @version 1.10
  */
 public class ProgramDriver implements Runnable {
 
@@ -176,7 +176,7 @@ public class ProgramDriver implements Runnable {
      * @return The GUI scale as an integer.
      */
     public int getGuiScale() {
-        return ConfigManager.getInstance().getInt("Scene", "gui_scale", 1);
+        return ConfigManager.getInstance().getSettings().guiScale();
     }
 
     /**
@@ -201,6 +201,6 @@ public class ProgramDriver implements Runnable {
      * @return The difficulty level as an integer.
      */
     public int getDifficulty() {
-        return ConfigManager.getInstance().getInt("Scene", "difficulty", 1);
+        return ConfigManager.getInstance().getSettings().difficulty();
     }
 }
\ No newline at end of file
@@ -3,24 +3,38 @@ package drippyspelunk.controller.core;
 import drippyspelunk.controller.audio.AudioManager;
 import drippyspelunk.controller.config.ConfigManager;
 import drippyspelunk.controller.config.RoomConfigManager;
+import drippyspelunk.controller.database.DatabaseManager;
 import drippyspelunk.controller.input.IController;
 import drippyspelunk.controller.sprite.SpriteManager;
 import drippyspelunk.controller.states.*;
+import drippyspelunk.model.dungeon.AutosaveJournal;
+import drippyspelunk.model.dungeon.CancellationToken;
 import drippyspelunk.model.dungeon.DungeonCrawlerLogic;
 import drippyspelunk.model.dungeon.DungeonCrawlerLogic.GameEndingType;
+import drippyspelunk.model.dungeon.DungeonGenerationPipeline;
+import drippyspelunk.model.dungeon.DungeonPool;
+import drippyspelunk.model.dungeon.GeneratedDungeon;
+import drippyspelunk.model.dungeon.IGenerationListener;
+import drippyspelunk.model.dungeon.SaveGame;
 import drippyspelunk.model.dungeon.entity.dungeoncharacter.Character;
 
 import javax.swing.*;
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
 
 /**
  * Manages the state of the application and allows for scene changes.
  *
  * @author Devin Arroyo
  * @author David Norman
- * @version 1.15
+ * @version 1.22
  */
 public class StateManager {
 
+    /**
+     * The name of the thread that generates a dungeon for a new game.
+     */
+    private static final String GENERATOR_THREAD_NAME = "DungeonGenerator";
     /**
      * The singleton instance of the StateManager.
      */
@@ -33,6 +47,10 @@ public class StateManager {
      * The main program driver responsible for the game loop and window management.
      */
     private ProgramDriver myDriver;
+    /**
+     * The token of the dungeon being generated for a new game, or null if none is pending.
+     */
+    private CancellationToken myPendingGeneration;
 
     /**
      * Private constructor to enforce the singleton pattern.
@@ -42,6 +60,7 @@ public class StateManager {
         AudioManager.initialize();
         SpriteManager.initialize();
         RoomConfigManager.initialize();
+        DatabaseManager.initialize();
     }
 
     /**
@@ -108,7 +127,7 @@ public class StateManager {
             SwingUtilities.invokeLater(() -> {
                 myDriver.updateWindowContent(theNewState,
                         theNewState.getController(),
-                        ConfigManager.getInstance().getBoolean("Scene", "undecorated", false));
+                        ConfigManager.getInstance().getSettings().undecorated());
             });
         }
 
@@ -120,7 +139,9 @@ public class StateManager {
      * Reinitializes the title screen, resetting configurations and audio.
      */
     public void reinitializeTitleScreen() {
+        cancelDungeonGeneration();
         ConfigManager.initialize();
+        DungeonPool.getInstance().clear();
 
         AudioManager.stopMusic();
         AudioManager.playMusicForState(GameState.TITLE_SCREEN);
@@ -134,20 +155,165 @@ public class StateManager {
      */
     public void goToTitleScreen() {
         transitionToState(new TitleScreenState(this, myDriver.getGuiScale()));
+        // Fill the dungeon pool in the background while the title screen is idle.
+        DungeonPool.getInstance().startProducing(myDriver.getDifficulty());
     }
 
     /**
      * Transitions the application to the dungeon crawler game state.
+     * Takes a pre-generated dungeon from the pool when one is ready. Otherwise the dungeon is
+     * generated on a background thread while the title screen shows its progress,
+     * and the game starts once it is done unless the generation is cancelled first.
      *
      * @param theSelectedCharacter The character selected by the player.
      * @param thePlayerName        The name of the player.
      */
     public void goToDungeonCrawler(final Character theSelectedCharacter, final String thePlayerName) {
-        if (myCurrentScene instanceof DungeonCrawlerState) {
+        if (myCurrentScene instanceof DungeonCrawlerState || myPendingGeneration != null) {
             return;
         }
 
-        DungeonCrawlerLogic gameLogic = new DungeonCrawlerLogic(theSelectedCharacter, thePlayerName, myDriver.getDifficulty());
+        final int difficulty = myDriver.getDifficulty();
+        final DungeonPool pool = DungeonPool.getInstance();
+        pool.stopProducing();
+        final GeneratedDungeon dungeon = pool.take(difficulty);
+
+        if (dungeon != null) {
+            startDungeonCrawler(theSelectedCharacter, thePlayerName, difficulty, dungeon);
+            return;
+        }
+
+        final CancellationToken token = new CancellationToken();
+        final IGenerationListener listener = myCurrentScene instanceof TitleScreenState titleScreen
+                ? titleScreen.getLogic()
+                : null;
+        myPendingGeneration = token;
+
+        final Thread generatorThread = new Thread(() -> {
+            try {
+                final GeneratedDungeon generated = DungeonGenerationPipeline.createDefault().run(difficulty, token, listener);
+                SwingUtilities.invokeLater(() -> {
+                    if (myPendingGeneration == token && !token.isCancelled()) {
+                        myPendingGeneration = null;
+                        startDungeonCrawler(theSelectedCharacter, thePlayerName, difficulty, generated);
+                    }
+                });
+            } catch (final CancellationException ignored) {
+                // The player backed out of the new game, so the dungeon is no longer needed.
+            } catch (final RuntimeException theException) {
+                // Fall back to generating during init, which reports the failure as before.
+                SwingUtilities.invokeLater(() -> {
+                    if (myPendingGeneration == token) {
+                        myPendingGeneration = null;
+                        startDungeonCrawler(theSelectedCharacter, thePlayerName, difficulty, null);
+                    }
+                });
+            }
+        }, GENERATOR_THREAD_NAME);
+        generatorThread.setDaemon(true);
+        generatorThread.start();
+    }
+
+    /**
+     * Continues the game saved in a slot. The save is read and its floor regenerated from its seed
+     * on a background thread while the title screen shows the progress, then the game starts with
+     * the saved changes applied. Nothing happens if the slot cannot be read.
+     *
+     * @param theSlot The save slot to load.
+     */
+    public void loadGame(final int theSlot) {
+        loadGame(() -> SaveGame.readSlot(theSlot));
+    }
+
+    /**
+     * Continues the autosaved game, rebuilt from its snapshot and journal, the same way as {@link #loadGame(int)}.
+     */
+    public void loadAutosave() {
+        loadGame(AutosaveJournal::recover);
+    }
+
+    /**
+     * Reads a save and regenerates its floor on a background thread, then starts the game.
+     *
+     * @param theReader Reads the save, on the background thread.
+     */
+    private void loadGame(final ISaveReader theReader) {
+        if (myCurrentScene instanceof DungeonCrawlerState || myPendingGeneration != null) {
+            return;
+        }
+
+        DungeonPool.getInstance().stopProducing();
+
+        final CancellationToken token = new CancellationToken();
+        final IGenerationListener listener = myCurrentScene instanceof TitleScreenState titleScreen
+                ? titleScreen.getLogic()
+                : null;
+        myPendingGeneration = token;
+
+        final Thread loaderThread = new Thread(() -> {
+            try {
+                final SaveGame save = theReader.read();
+                final GeneratedDungeon floor = DungeonGenerationPipeline.createDefault()
+                        .run(save.getFloorDifficulty(), save.getFloorSeed(), token, listener);
+                final Character character = save.getCharacterName().isEmpty()
+                        ? null
+                        : DatabaseManager.getMyInstance().getCharacterByName(save.getCharacterName());
+                SwingUtilities.invokeLater(() -> {
+                    if (myPendingGeneration == token && !token.isCancelled()) {
+                        myPendingGeneration = null;
+                        final DungeonCrawlerLogic gameLogic = new DungeonCrawlerLogic(character, save, floor);
+                        transitionToState(new DungeonCrawlerState(gameLogic, myDriver.getGuiScale()));
+                    }
+                });
+            } catch (final CancellationException ignored) {
+                // The player backed out of loading, so the floor is no longer needed.
+            } catch (final IOException | RuntimeException theException) {
+                // An unreadable save or a failed generation returns to the title screen.
+                System.out.println("Could not load the game: " + theException);
+                SwingUtilities.invokeLater(() -> {
+                    if (myPendingGeneration == token) {
+                        cancelDungeonGeneration();
+                    }
+                });
+            }
+        }, GENERATOR_THREAD_NAME);
+        loaderThread.setDaemon(true);
+        loaderThread.start();
+    }
+
+    /**
+     * Cancels the dungeon being generated for a new game, if any.
+     */
+    public void cancelDungeonGeneration() {
+        if (myPendingGeneration != null) {
+            myPendingGeneration.cancel();
+            myPendingGeneration = null;
+            if (myDriver != null) {
+                DungeonPool.getInstance().startProducing(myDriver.getDifficulty());
+            }
+        }
+    }
+
+    /**
+     * Checks if a dungeon is being generated for a new game.
+     *
+     * @return True if a generation is pending, false otherwise.
+     */
+    public boolean isGeneratingDungeon() {
+        return myPendingGeneration != null;
+    }
+
+    /**
+     * Creates the game logic and switches to the dungeon crawler state.
+     *
+     * @param theSelectedCharacter The character selected by the player.
+     * @param thePlayerName        The name of the player.
+     * @param theDifficulty        The difficulty level of the game.
+     * @param theDungeon           The generated dungeon, or null to generate one during init.
+     */
+    private void startDungeonCrawler(final Character theSelectedCharacter, final String thePlayerName,
+                                     final int theDifficulty, final GeneratedDungeon theDungeon) {
+        DungeonCrawlerLogic gameLogic = new DungeonCrawlerLogic(theSelectedCharacter, thePlayerName, theDifficulty, theDungeon);
 
         transitionToState(new DungeonCrawlerState(gameLogic, myDriver.getGuiScale()));
     }
@@ -202,4 +368,19 @@ public class StateManager {
         return myDriver != null && myDriver.isPaused();
     }
 
-}
\ No newline at end of file
+
+    /**
+     * Reads a saved game.
+     */
+    @FunctionalInterface
+    private interface ISaveReader {
+
+        /**
+         * Reads the save.
+         *
+         * @return The save.
+         * @throws IOException If the save cannot be read.
+         */
+        SaveGame read() throws IOException;
+    }
+}
@@ -0,0 +1,251 @@
+package drippyspelunk.controller.database;
+
+import drippyspelunk.model.dungeon.entity.dungeoncharacter.Character;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * An immutable in-memory copy of the Characters table.
+ * Characters are indexed by name, type, class and preferred biome, and every biome has a precomputed
+ * spawn table, so picking a random enemy is a single array index instead of a database query.
+ *
+ * @author David Norman
+ * @version 1.3
+ */
+public final class CharacterCatalog {
+
+    /**
+     * The class name of dragon enemies, which only spawn in their own biome.
+     */
+    private static final String DRAGON_CLASS = "Dragon";
+    /**
+     * The highest biome number with a spawn table.
+     */
+    private static final int MAX_BIOME = 5;
+    /**
+     * An empty spawn table.
+     */
+    private static final Character[] NO_CHARACTERS = new Character[0];
+    /**
+     * Every character in the catalog.
+     */
+    private final List<Character> myCharacters;
+    /**
+     * The character with each name. When names repeat, the first row wins.
+     */
+    private final Map<String, Character> myCharactersByName;
+    /**
+     * The characters of each type.
+     */
+    private final Map<Character.CharacterType, List<Character>> myCharactersByType;
+    /**
+     * The characters of each class.
+     */
+    private final Map<String, List<Character>> myCharactersByClass;
+    /**
+     * The characters that prefer each biome.
+     */
+    private final Map<Integer, List<Character>> myCharactersByBiome;
+    /**
+     * The enemies that can spawn in each biome, indexed by biome number.
+     */
+    private final Character[][] myBiomeSpawnTables;
+    /**
+     * Every enemy, used for spawns that ignore biomes.
+     */
+    private final Character[] myEnemies;
+
+    /**
+     * Constructs a CharacterCatalog from the rows of the Characters table.
+     *
+     * @param theCharacters Every character loaded from the database.
+     */
+    CharacterCatalog(final List<Character> theCharacters) {
+        myCharacters = List.copyOf(theCharacters);
+
+        final Map<String, Character> byName = new HashMap<>();
+        final Map<Character.CharacterType, List<Character>> byType = new EnumMap<>(Character.CharacterType.class);
+        final Map<String, List<Character>> byClass = new HashMap<>();
+        final Map<Integer, List<Character>> byBiome = new HashMap<>();
+        for (final Character character : myCharacters) {
+            byName.putIfAbsent(character.getMyName(), character);
+            byType.computeIfAbsent(character.getCharacterType(), theKey -> new ArrayList<>()).add(character);
+            byClass.computeIfAbsent(character.getCharacterClass(), theKey -> new ArrayList<>()).add(character);
+            byBiome.computeIfAbsent(character.getPreferredBiome(), theKey -> new ArrayList<>()).add(character);
+        }
+        myCharactersByName = Collections.unmodifiableMap(byName);
+        myCharactersByType = freeze(byType);
+        myCharactersByClass = freeze(byClass);
+        myCharactersByBiome = freeze(byBiome);
+
+        myEnemies = getCharactersByType(Character.CharacterType.ENEMY).toArray(NO_CHARACTERS);
+        myBiomeSpawnTables = new Character[MAX_BIOME + 1][];
+        for (int biome = 0; biome <= MAX_BIOME; biome++) {
+            myBiomeSpawnTables[biome] = buildSpawnTable(biome);
+        }
+    }
+
+    /**
+     * Makes an index unmodifiable.
+     *
+     * @param theIndex The index to freeze. Its lists are replaced with unmodifiable copies.
+     * @param <K>      The type of the index keys.
+     * @return An unmodifiable view of the index.
+     */
+    private static <K> Map<K, List<Character>> freeze(final Map<K, List<Character>> theIndex) {
+        for (final Map.Entry<K, List<Character>> entry : theIndex.entrySet()) {
+            entry.setValue(List.copyOf(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(theIndex);
+    }
+
+    /**
+     * Builds the table of enemies that can spawn in a biome.
+     * Biome 1: All enemies except dragons
+     * Biome 2: Goblins
+     * Biome 3: Skeletons
+     * Biome 4: Orcs
+     * Biome 5: Dragons
+     * Biomes 2 to 4 fall back to any non-dragon enemy when their class has no enemies.
+     *
+     * @param theBiome The biome number.
+     * @return The enemies that can spawn in the biome.
+     */
+    private Character[] buildSpawnTable(final int theBiome) {
+        return switch (theBiome) {
+            case 1 -> nonDragonEnemies();
+            case 2, 3, 4 -> {
+                final String enemyClass = switch (theBiome) {
+                    case 2 -> "Goblin";
+                    case 3 -> "Skeleton";
+                    default -> "Orc";
+                };
+                final Character[] preferred = enemiesOfClass(enemyClass);
+                yield preferred.length > 0 ? preferred : nonDragonEnemies();
+            }
+            case 5 -> enemiesOfClass(DRAGON_CLASS);
+            default -> NO_CHARACTERS;
+        };
+    }
+
+    /**
+     * Gets every enemy that is not a dragon.
+     *
+     * @return The non-dragon enemies.
+     */
+    private Character[] nonDragonEnemies() {
+        final List<Character> enemies = new ArrayList<>();
+        for (final Character enemy : myEnemies) {
+            if (!DRAGON_CLASS.equals(enemy.getCharacterClass())) {
+                enemies.add(enemy);
+            }
+        }
+        return enemies.toArray(NO_CHARACTERS);
+    }
+
+    /**
+     * Gets every enemy of a class.
+     *
+     * @param theCharacterClass The class name.
+     * @return The enemies of that class.
+     */
+    private Character[] enemiesOfClass(final String theCharacterClass) {
+        final List<Character> enemies = new ArrayList<>();
+        for (final Character enemy : myEnemies) {
+            if (theCharacterClass.equals(enemy.getCharacterClass())) {
+                enemies.add(enemy);
+            }
+        }
+        return enemies.toArray(NO_CHARACTERS);
+    }
+
+    /**
+     * Picks a random character from a table.
+     *
+     * @param theTable  The table to pick from.
+     * @param theRandom The random number generator to use.
+     * @return A random character, or null if the table is empty.
+     */
+    private static Character pick(final Character[] theTable, final Random theRandom) {
+        return theTable.length == 0 ? null : theTable[theRandom.nextInt(theTable.length)];
+    }
+
+    /**
+     * Gets every character in the catalog.
+     *
+     * @return An unmodifiable list of characters.
+     */
+    public List<Character> getCharacters() {
+        return myCharacters;
+    }
+
+    /**
+     * Gets a character by name.
+     *
+     * @param theName The name of the character.
+     * @return The character, or null if no character has the name.
+     */
+    public Character getCharacterByName(final String theName) {
+        return myCharactersByName.get(theName);
+    }
+
+    /**
+     * Gets the characters of a type.
+     *
+     * @param theType The character type.
+     * @return An unmodifiable list of characters, empty if there are none.
+     */
+    public List<Character> getCharactersByType(final Character.CharacterType theType) {
+        return myCharactersByType.getOrDefault(theType, List.of());
+    }
+
+    /**
+     * Gets the characters of a class.
+     *
+     * @param theCharacterClass The class name.
+     * @return An unmodifiable list of characters, empty if there are none.
+     */
+    public List<Character> getCharactersByClass(final String theCharacterClass) {
+        return myCharactersByClass.getOrDefault(theCharacterClass, List.of());
+    }
+
+    /**
+     * Gets the characters that prefer a biome.
+     *
+     * @param theBiome The biome number, or 0 for characters with no preference.
+     * @return An unmodifiable list of characters, empty if there are none.
+     */
+    public List<Character> getCharactersByPreferredBiome(final int theBiome) {
+        return myCharactersByBiome.getOrDefault(theBiome, List.of());
+    }
+
+    /**
+     * Picks a random enemy.
+     *
+     * @param theRandom The random number generator to use.
+     * @return A random enemy, or null if there are none.
+     */
+    public Character getRandomEnemy(final Random theRandom) {
+        return pick(myEnemies, theRandom);
+    }
+
+    /**
+     * Picks a random enemy that can spawn in a biome.
+     *
+     * @param theBiome  The biome number.
+     * @param theRandom The random number generator to use.
+     * @return A random enemy, or null if none can spawn in the biome.
+     */
+    public Character getRandomEnemyForBiome(final int theBiome, final Random theRandom) {
+        if (theBiome < 0 || theBiome > MAX_BIOME) {
+            return null;
+        }
+        return pick(myBiomeSpawnTables[theBiome], theRandom);
+    }
+}
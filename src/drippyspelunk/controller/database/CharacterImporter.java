@@ -0,0 +1,262 @@
+package drippyspelunk.controller.database;
+
+import drippyspelunk.model.dungeon.entity.dungeoncharacter.Character;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Imports character and enemy definitions from a CSV catalog into the Characters table.
+ * The first line names the columns, so they may come in any order; blank lines and lines
+ * starting with '#' are ignored. Every row is upserted by name in one batched transaction,
+ * and a catalog whose hash matches the last import of the same source is skipped entirely.
+ *
+ * @author David Norman
+ * @version 1.0
+ */
+final class CharacterImporter {
+
+    /**
+     * The character used to separate columns.
+     */
+    private static final String SEPARATOR = ",";
+    /**
+     * The start of a comment line.
+     */
+    private static final String COMMENT_PREFIX = "#";
+    /**
+     * The columns every catalog must have.
+     */
+    private static final List<String> COLUMNS = List.of("name", "characterType", "characterClass", "baseHP",
+            "baseAttackSpeed", "baseChanceToHit", "baseMinDamage", "baseMaxDamage", "moveSpeed", "visionStat",
+            "level", "preferredBiome");
+    /**
+     * Inserts a character, or updates the character with the same name.
+     */
+    private static final String UPSERT_SQL = """
+            INSERT INTO Characters (name, characterType, characterClass, baseHP, baseAttackSpeed,
+                                    baseChanceToHit, baseMinDamage, baseMaxDamage, moveSpeed, visionStat, level, preferredBiome)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT(name) DO UPDATE SET
+                characterType = excluded.characterType,
+                characterClass = excluded.characterClass,
+                baseHP = excluded.baseHP,
+                baseAttackSpeed = excluded.baseAttackSpeed,
+                baseChanceToHit = excluded.baseChanceToHit,
+                baseMinDamage = excluded.baseMinDamage,
+                baseMaxDamage = excluded.baseMaxDamage,
+                moveSpeed = excluded.moveSpeed,
+                visionStat = excluded.visionStat,
+                level = excluded.level,
+                preferredBiome = excluded.preferredBiome
+            """;
+    /**
+     * Reads the hash of the last import of a source.
+     */
+    private static final String SELECT_HASH_SQL = "SELECT hash FROM ContentImports WHERE source = ?";
+    /**
+     * Records the hash of an import.
+     */
+    private static final String UPSERT_HASH_SQL = """
+            INSERT INTO ContentImports (source, hash, importedAt) VALUES (?, ?, ?)
+            ON CONFLICT(source) DO UPDATE SET hash = excluded.hash, importedAt = excluded.importedAt
+            """;
+
+    /**
+     * The executor that owns the database connection.
+     */
+    private final DatabaseExecutor myExecutor;
+
+    /**
+     * Constructs a CharacterImporter.
+     *
+     * @param theExecutor The executor that owns the database connection.
+     */
+    CharacterImporter(final DatabaseExecutor theExecutor) {
+        myExecutor = theExecutor;
+    }
+
+    /**
+     * Creates the table that remembers what has been imported. Runs on the database thread.
+     *
+     * @throws SQLException If a database access error occurs.
+     */
+    void createTable() throws SQLException {
+        try (Statement stmt = myExecutor.getConnection().createStatement()) {
+            stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS ContentImports (
+                        source TEXT PRIMARY KEY,
+                        hash TEXT NOT NULL,
+                        importedAt INTEGER NOT NULL
+                    )
+                    """);
+        }
+    }
+
+    /**
+     * Imports a catalog unless the same catalog was already imported from the same source.
+     * Runs on the database thread.
+     *
+     * @param theSource  The name the import is remembered under, such as the catalog's path.
+     * @param theCatalog The catalog's CSV text.
+     * @return The number of characters upserted, or 0 if the catalog was unchanged.
+     * @throws SQLException If a database access error occurs, in which case nothing is changed.
+     */
+    int importCatalog(final String theSource, final String theCatalog) throws SQLException {
+        final String hash = hash(theCatalog);
+        final PreparedStatement selectHash = myExecutor.prepare(SELECT_HASH_SQL);
+        selectHash.setString(1, theSource);
+        try (ResultSet rs = selectHash.executeQuery()) {
+            if (rs.next() && hash.equals(rs.getString(1))) {
+                return 0;
+            }
+        }
+
+        final List<Character> characters = parse(theCatalog);
+        final Connection connection = myExecutor.getConnection();
+        try {
+            connection.setAutoCommit(false);
+            final PreparedStatement upsert = myExecutor.prepare(UPSERT_SQL);
+            for (final Character character : characters) {
+                bindCharacter(upsert, character);
+                upsert.addBatch();
+            }
+            upsert.executeBatch();
+
+            final PreparedStatement upsertHash = myExecutor.prepare(UPSERT_HASH_SQL);
+            upsertHash.setString(1, theSource);
+            upsertHash.setString(2, hash);
+            upsertHash.setLong(3, System.currentTimeMillis());
+            upsertHash.executeUpdate();
+            connection.commit();
+        } catch (final SQLException theException) {
+            connection.rollback();
+            throw theException;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        return characters.size();
+    }
+
+    /**
+     * Parses the rows of a catalog. Rows with the wrong number of columns, an unknown character
+     * type, or a value that is not a number where one is expected are skipped.
+     *
+     * @param theCatalog The catalog's CSV text.
+     * @return The characters, in catalog order.
+     * @throws SQLException If the header does not name every required column.
+     */
+    static List<Character> parse(final String theCatalog) throws SQLException {
+        final List<Character> characters = new ArrayList<>();
+        Map<String, Integer> columns = null;
+
+        for (final String rawLine : theCatalog.split("\\R")) {
+            final String line = rawLine.strip();
+            if (line.isEmpty() || line.startsWith(COMMENT_PREFIX)) {
+                continue;
+            }
+            final String[] values = line.split(SEPARATOR, -1);
+            if (columns == null) {
+                columns = readHeader(values);
+                continue;
+            }
+            if (values.length != columns.size()) {
+                continue;
+            }
+            try {
+                final Character character = new Character(
+                        value(values, columns, "name"),
+                        Character.CharacterType.valueOf(value(values, columns, "characterType")),
+                        value(values, columns, "characterClass"),
+                        Integer.parseInt(value(values, columns, "baseHP")),
+                        Integer.parseInt(value(values, columns, "baseAttackSpeed")),
+                        Double.parseDouble(value(values, columns, "baseChanceToHit")),
+                        Integer.parseInt(value(values, columns, "baseMinDamage")),
+                        Integer.parseInt(value(values, columns, "baseMaxDamage")),
+                        Integer.parseInt(value(values, columns, "moveSpeed")),
+                        Integer.parseInt(value(values, columns, "visionStat")),
+                        Integer.parseInt(value(values, columns, "level")));
+                character.setPreferredBiome(Integer.parseInt(value(values, columns, "preferredBiome")));
+                characters.add(character);
+            } catch (final IllegalArgumentException ignored) {
+                // A malformed row is skipped so one typo does not block the whole catalog.
+            }
+        }
+        return characters;
+    }
+
+    /**
+     * Reads the header line of a catalog.
+     *
+     * @param theValues The header's column names.
+     * @return The index of each column by name.
+     * @throws SQLException If a required column is missing.
+     */
+    private static Map<String, Integer> readHeader(final String[] theValues) throws SQLException {
+        final Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < theValues.length; i++) {
+            columns.put(theValues[i].strip(), i);
+        }
+        for (final String column : COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new SQLException("The character catalog has no " + column + " column.");
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Gets a value of a row by its column name.
+     *
+     * @param theValues  The row's values.
+     * @param theColumns The index of each column by name.
+     * @param theColumn  The column name.
+     * @return The value, without surrounding whitespace.
+     */
+    private static String value(final String[] theValues, final Map<String, Integer> theColumns,
+                                final String theColumn) {
+        return theValues[theColumns.get(theColumn)].strip();
+    }
+
+    /**
+     * Binds a character to the parameters of the upsert statement.
+     *
+     * @param thePSTMT     The upsert statement.
+     * @param theCharacter The character.
+     * @throws SQLException If a database access error occurs.
+     */
+    private static void bindCharacter(final PreparedStatement thePSTMT, final Character theCharacter)
+            throws SQLException {
+        thePSTMT.setString(1, theCharacter.getMyName());
+        thePSTMT.setString(2, theCharacter.getCharacterType().name());
+        thePSTMT.setString(3, theCharacter.getCharacterClass());
+        thePSTMT.setInt(4, theCharacter.getBaseHP());
+        thePSTMT.setInt(5, theCharacter.getBaseAttackSpeed());
+        thePSTMT.setDouble(6, theCharacter.getBaseChanceToHit());
+        thePSTMT.setInt(7, theCharacter.getBaseMinDamage());
+        thePSTMT.setInt(8, theCharacter.getBaseMaxDamage());
+        thePSTMT.setInt(9, theCharacter.getMoveSpeed());
+        thePSTMT.setInt(10, theCharacter.getVisionStat());
+        thePSTMT.setInt(11, theCharacter.getLevel());
+        thePSTMT.setInt(12, theCharacter.getPreferredBiome());
+    }
+
+    /**
+     * Hashes a catalog.
+     *
+     * @param theCatalog The catalog's text.
+     * @return The SHA-256 hash as hex.
+     */
+    private static String hash(final String theCatalog) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(theCatalog.getBytes(StandardCharsets.UTF_8)));
+        } catch (final NoSuchAlgorithmException theException) {
+            // Every Java platform is required to support SHA-256.
+            throw new IllegalStateException(theException);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package drippyspelunk.controller.database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Owns a database connection on a single dedicated thread.
+ * Every use of the connection is submitted as a task and runs on that thread, so the game and
+ * UI threads never block on disk I/O and the connection is never shared between threads.
+ * The connection runs in write-ahead logging mode with normal synchronization.
+ *
+ * @author David Norman
+ * @version 1.0
+ */
+public final class DatabaseExecutor {
+
+    /**
+     * The name of the database thread.
+     */
+    private static final String THREAD_NAME = "DatabaseThread";
+    /**
+     * The single thread that runs every task.
+     */
+    private final ExecutorService myExecutor;
+    /**
+     * Prepared statements by their SQL, only touched on the database thread.
+     */
+    private final Map<String, PreparedStatement> myStatements = new HashMap<>();
+    /**
+     * The database thread.
+     */
+    private volatile Thread myThread;
+    /**
+     * The connection owned by the database thread, or null if it could not be opened.
+     */
+    private Connection myConnection;
+
+    /**
+     * Constructs a DatabaseExecutor and starts opening the connection on its thread.
+     *
+     * @param theURL The JDBC URL of the database.
+     */
+    public DatabaseExecutor(final String theURL) {
+        myExecutor = Executors.newSingleThreadExecutor(theRunnable -> {
+            final Thread thread = new Thread(theRunnable, THREAD_NAME);
+            thread.setDaemon(true);
+            myThread = thread;
+            return thread;
+        });
+        submit(theExecutor -> {
+            myConnection = DriverManager.getConnection(theURL);
+            try (Statement stmt = myConnection.createStatement()) {
+                stmt.execute("PRAGMA journal_mode=WAL");
+                stmt.execute("PRAGMA synchronous=NORMAL");
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Submits a task to run on the database thread.
+     * A task that throws completes the future exceptionally with the thrown exception,
+     * as does every task submitted after {@link #shutdown()}.
+     *
+     * @param theTask The task to run.
+     * @param <T>     The type of the task's result.
+     * @return A future for the task's result.
+     */
+    public <T> CompletableFuture<T> submit(final IDatabaseTask<T> theTask) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return theTask.execute(this);
+                } catch (final SQLException e) {
+                    throw new CompletionException(e);
+                }
+            }, myExecutor);
+        } catch (final RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new SQLException("The database executor is shut down.", e));
+        }
+    }
+
+    /**
+     * Gets the connection. Only callable from a task.
+     *
+     * @return The connection.
+     * @throws SQLException if the connection could not be opened.
+     */
+    public Connection getConnection() throws SQLException {
+        checkThread();
+        if (myConnection == null) {
+            throw new SQLException("The database connection is not open.");
+        }
+        return myConnection;
+    }
+
+    /**
+     * Gets a prepared statement for some SQL, reusing the statement from earlier tasks.
+     * Only callable from a task.
+     *
+     * @param theSQL The SQL of the statement.
+     * @return The prepared statement, with its parameters cleared.
+     * @throws SQLException if the statement cannot be prepared.
+     */
+    public PreparedStatement prepare(final String theSQL) throws SQLException {
+        checkThread();
+        PreparedStatement statement = myStatements.get(theSQL);
+        if (statement == null || statement.isClosed()) {
+            statement = getConnection().prepareStatement(theSQL);
+            myStatements.put(theSQL, statement);
+        } else {
+            statement.clearParameters();
+        }
+        return statement;
+    }
+
+    /**
+     * Returns true if the caller is running on the database thread.
+     *
+     * @return True if the caller is on the database thread.
+     */
+    public boolean isDatabaseThread() {
+        return Thread.currentThread() == myThread;
+    }
+
+    /**
+     * Closes every cached statement and the connection after the tasks already submitted,
+     * then stops the database thread.
+     *
+     * @return A future that completes once the connection is closed.
+     */
+    public CompletableFuture<Void> shutdown() {
+        final CompletableFuture<Void> closed = submit(theExecutor -> {
+            for (final PreparedStatement statement : myStatements.values()) {
+                try {
+                    statement.close();
+                } catch (final SQLException ignored) {
+                }
+            }
+            myStatements.clear();
+            if (myConnection != null) {
+                myConnection.close();
+                myConnection = null;
+            }
+            return null;
+        });
+        myExecutor.shutdown();
+        return closed;
+    }
+
+    /**
+     * Checks that the caller is on the database thread.
+     *
+     * @throws IllegalStateException if the caller is on another thread.
+     */
+    private void checkThread() {
+        if (!isDatabaseThread()) {
+            throw new IllegalStateException("The database connection is only usable on " + THREAD_NAME + ".");
+        }
+    }
+
+    /**
+     * A unit of work that runs on the database thread.
+     *
+     * @param <T> The type of the task's result.
+     */
+    @FunctionalInterface
+    public interface IDatabaseTask<T> {
+
+        /**
+         * Runs the task.
+         *
+         * @param theExecutor The executor, for the connection and prepared statements.
+         * @return The task's result.
+         * @throws SQLException If a database access error occurs.
+         */
+        T execute(DatabaseExecutor theExecutor) throws SQLException;
+    }
+}
@@ -1,16 +1,32 @@
 package drippyspelunk.controller.database;
 
+import drippyspelunk.controller.content.ContentPack;
 import drippyspelunk.model.dungeon.entity.dungeoncharacter.Character;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Manages SQLite database connections and character data operations.
+ * The connection lives on a {@link DatabaseExecutor} thread; every query runs there, and
+ * callers read characters from an in-memory catalog that the database thread keeps current.
+ * The catalog is loaded once at startup by {@link #initialize()}; later reloads replace it when they finish,
+ * so a lookup never waits on the disk. Failed database tasks are logged. A shutdown hook writes any queued runs
+ * and closes the connection before the application exits.
  *
  * @author David Norman
- * @version 1.2
+ * @version 1.12
  */
 public class DatabaseManager {
 
@@ -18,6 +34,44 @@ public class DatabaseManager {
      * The URL for the SQLite database file.
      */
     private static final String DB_URL = "jdbc:sqlite:res/userdata/database/gamedata.db";
+    /**
+     * The CSV catalog of player and enemy templates, imported when it changes.
+     */
+    private static final File CHARACTER_CATALOG_FILE = new File(
+            System.getProperty("user.dir") + "/res/data/characters.csv");
+    /**
+     * The source name the built-in roster is imported under.
+     */
+    private static final String DEFAULT_CATALOG_SOURCE = "builtin";
+    /**
+     * The roster imported into an empty database when there is no catalog file.
+     */
+    private static final String DEFAULT_CATALOG = """
+            name,characterType,characterClass,baseHP,baseAttackSpeed,baseChanceToHit,baseMinDamage,baseMaxDamage,moveSpeed,visionStat,level,preferredBiome
+            # Enemies, by preferred biome
+            Skeleton Warrior,ENEMY,Skeleton,60,4,0.65,8,15,2,5,1,1
+            Goblin Scout,ENEMY,Goblin,40,5,0.75,5,12,3,7,1,2
+            Orc Brute,ENEMY,Orc,120,2,0.60,15,25,1,4,1,3
+            Orc Berserker,ENEMY,Orc,100,3,0.70,12,22,2,4,1,4
+            Ancient Dragon,ENEMY,Dragon,200,1,0.80,15,40,1,10,5,5
+            # Player class templates (no biome preference)
+            Shadow Thief,PLAYER,Thief,80,8,0.90,15,30,4,2,1,0
+            Noble Hero,PLAYER,Hero,150,3,0.75,25,40,3,1,1,0
+            Battle Warrior,PLAYER,Warrior,120,1,0.70,35,50,3,1,1,0
+            Holy Priestess,PLAYER,Priestess,100,3,0.80,20,30,3,3,1,0
+            """;
+    /**
+     * How often the character catalog checks the database for changes, in milliseconds.
+     */
+    private static final long CATALOG_CHECK_INTERVAL = 1000;
+    /**
+     * The catalog served if the first load failed, until a later check loads the database.
+     */
+    private static final CharacterCatalog EMPTY_CATALOG = new CharacterCatalog(List.of());
+    /**
+     * How long closing the connection waits for queued tasks to finish, in seconds.
+     */
+    private static final long CLOSE_WAIT_SECONDS = 5;
 
     /**
      * The singleton instance of the DatabaseManager.
@@ -25,24 +79,78 @@ public class DatabaseManager {
     private static DatabaseManager myInstance;
 
     /**
-     * The active connection to the SQLite database.
+     * The executor that owns the connection to the SQLite database.
+     */
+    private final DatabaseExecutor myExecutor;
+    /**
+     * The store of finished runs, kept in the same database.
+     */
+    private final RunHistoryStore myRunHistory;
+    /**
+     * Imports the character catalog into the Characters table.
+     */
+    private final CharacterImporter myImporter;
+    /**
+     * A random number generator for callers that do not supply their own.
      */
-    private Connection myConnection;
+    private final Random myRandom = new Random();
+    /**
+     * The in-memory copy of the Characters table, or null until it is first loaded.
+     * Volatile so name lookups can read it without locking.
+     */
+    private volatile CharacterCatalog myCatalog;
+    /**
+     * True if the catalog was read from the content pack, which replaces the Characters table as its source.
+     */
+    private final boolean myCatalogFromPack;
+    /**
+     * The database data version the catalog was loaded at. Only touched on the database thread.
+     */
+    private long myCatalogDataVersion;
+    /**
+     * The time the catalog last checked the database for changes, in milliseconds.
+     */
+    private volatile long myLastCatalogCheck;
 
     /**
      * Private constructor to enforce singleton pattern.
      */
     private DatabaseManager() {
-        try {
-            // Create database directory if it doesn't exist
-            java.io.File dbDir = new java.io.File("res/userdata/database");
-            if (!dbDir.exists()) {
-                dbDir.mkdirs();
-            }
+        // Create database directory if it doesn't exist
+        java.io.File dbDir = new java.io.File("res/userdata/database");
+        if (!dbDir.exists()) {
+            dbDir.mkdirs();
+        }
 
-            myConnection = DriverManager.getConnection(DB_URL);
+        final ContentPack pack = ContentPack.getInstance();
+        myCatalogFromPack = pack != null;
+        if (myCatalogFromPack) {
+            myCatalog = new CharacterCatalog(pack.getCharacters());
+        }
+
+        myExecutor = new DatabaseExecutor(DB_URL);
+        myImporter = new CharacterImporter(myExecutor);
+        logFailure(myExecutor.submit(theExecutor -> {
             initializeDatabase();
-        } catch (SQLException ignored) {
+            return null;
+        }), "initialize the database");
+        myRunHistory = new RunHistoryStore(myExecutor);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::closeConnection, "DatabaseClose"));
+    }
+
+    /**
+     * Creates the singleton instance and waits for the character catalog to be loaded the first time.
+     * This method should be called once at the start of the application, so no lookup during play
+     * has to wait for the database.
+     */
+    public static void initialize() {
+        final DatabaseManager manager = getMyInstance();
+        if (manager.myCatalog == null) {
+            try {
+                manager.loadCatalogAsync().join();
+            } catch (final CompletionException ignored) {
+                // Already logged; lookups serve an empty catalog until a later check loads it.
+            }
         }
     }
 
@@ -59,7 +167,8 @@ public class DatabaseManager {
     }
 
     /**
-     * Initializes the database by creating the 'Characters' table if it doesn't exist and populating it with default data.
+     * Initializes the database by creating the 'Characters' table if it doesn't exist and importing the character catalog.
+     * Runs on the database thread.
      *
      * @throws SQLException If a database access error occurs.
      */
@@ -82,175 +191,172 @@ public class DatabaseManager {
                 )
                 """;
 
-        try (Statement stmt = myConnection.createStatement()) {
+        try (Statement stmt = myExecutor.getConnection().createStatement()) {
             stmt.execute(createTableSQL);
-            populateDefaultData();
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_characters_type_class ON Characters(characterType, characterClass)");
+        }
+        final boolean namesUnique = createUniqueNameIndex();
+        myImporter.createTable();
+        if (!myCatalogFromPack && namesUnique) {
+            importCharacterCatalog();
         }
     }
 
     /**
-     * Populates the 'Characters' table with default player and enemy data if it's currently empty.
+     * Replaces the old name index with a unique one, which catalog imports upsert against.
+     * Databases from before the index may repeat a name. No rows are deleted to make the index fit:
+     * the repeated names are logged and the old index is kept until they are removed by hand.
+     * Runs on the database thread.
      *
+     * @return True if the unique index exists, false if repeated names prevent it.
      * @throws SQLException If a database access error occurs.
      */
-    private void populateDefaultData() throws SQLException {
-        // Check if data already exists
-        String checkSQL = "SELECT COUNT(*) FROM Characters";
-        try (Statement stmt = myConnection.createStatement();
-             ResultSet rs = stmt.executeQuery(checkSQL)) {
-
-            if (rs.getInt(1) > 0) {
-                return;
+    private boolean createUniqueNameIndex() throws SQLException {
+        try (Statement stmt = myExecutor.getConnection().createStatement()) {
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT 1 FROM sqlite_master WHERE type = 'index' AND name = 'idx_characters_unique_name'")) {
+                if (rs.next()) {
+                    return true;
+                }
             }
+            final List<String> repeatedNames = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT name FROM Characters GROUP BY name HAVING COUNT(*) > 1 ORDER BY name")) {
+                while (rs.next()) {
+                    repeatedNames.add(rs.getString(1));
+                }
+            }
+            if (!repeatedNames.isEmpty()) {
+                System.out.println("Characters repeats the names " + String.join(", ", repeatedNames)
+                        + "; the catalog is not imported until each name is used once.");
+                return false;
+            }
+            stmt.execute("DROP INDEX IF EXISTS idx_characters_name");
+            stmt.execute("CREATE UNIQUE INDEX idx_characters_unique_name ON Characters(name)");
         }
+        return true;
+    }
 
-        String insertSQL = """
-                INSERT INTO Characters (name, characterType, characterClass, baseHP, baseAttackSpeed, 
-                                      baseChanceToHit, baseMinDamage, baseMaxDamage, moveSpeed, visionStat, level, preferredBiome) 
-                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-                """;
-
-        try (PreparedStatement pstmt = myConnection.prepareStatement(insertSQL)) {
-            // Insert Enemy data with biome preferences
-            // Biome 1: Basic enemies (Skeletons)
-            insertCharacter(pstmt, "Skeleton Warrior", "ENEMY", "Skeleton", 60, 4, 0.65, 8, 15, 2, 5, 1, 1);
-
-            // Biome 2: Goblins
-            insertCharacter(pstmt, "Goblin Scout", "ENEMY", "Goblin", 40, 5, 0.75, 5, 12, 3, 7, 1, 2);
+    /**
+     * Imports the character catalog file, or the built-in roster if there is no file and the
+     * Characters table is empty. Unchanged catalogs are skipped. Runs on the database thread.
+     *
+     * @return The number of characters imported.
+     * @throws SQLException If a database access error occurs.
+     */
+    private int importCharacterCatalog() throws SQLException {
+        final Path catalogPath = CHARACTER_CATALOG_FILE.toPath();
+        int imported = 0;
+        if (Files.isRegularFile(catalogPath)) {
+            try {
+                imported = myImporter.importCatalog(catalogPath.toString(), Files.readString(catalogPath));
+            } catch (final IOException theException) {
+                System.out.println("Could not read " + catalogPath + ": " + theException.getMessage());
+            }
+        } else if (isCharacterTableEmpty()) {
+            imported = myImporter.importCatalog(DEFAULT_CATALOG_SOURCE, DEFAULT_CATALOG);
+        }
+        return imported;
+    }
 
-            // Biome 3: Orcs
-            insertCharacter(pstmt, "Orc Brute", "ENEMY", "Orc", 120, 2, 0.60, 15, 25, 1, 4, 1, 3);
+    /**
+     * Gets the CSV catalog file of player and enemy templates.
+     *
+     * @return The characters.csv file.
+     */
+    public static File getCharacterCatalogFile() {
+        return CHARACTER_CATALOG_FILE;
+    }
 
-            // Biome 4: Deeper cave enemies (More Orcs)
-            insertCharacter(pstmt, "Orc Berserker", "ENEMY", "Orc", 100, 3, 0.70, 12, 22, 2, 4, 1, 4);
+    /**
+     * Reads every character definition from the catalog file, or from the built-in roster if there is no file.
+     *
+     * @return The characters, in catalog order.
+     * @throws IOException If the catalog file cannot be read or has no header.
+     */
+    public static List<Character> readCharacterDefinitions() throws IOException {
+        final String catalog = CHARACTER_CATALOG_FILE.isFile()
+                ? Files.readString(CHARACTER_CATALOG_FILE.toPath()) : DEFAULT_CATALOG;
+        try {
+            return CharacterImporter.parse(catalog);
+        } catch (final SQLException theException) {
+            throw new IOException(theException.getMessage(), theException);
+        }
+    }
 
-            // Biome 5: End-game/Dragon lairs (Dragons)
-            insertCharacter(pstmt, "Ancient Dragon", "ENEMY", "Dragon", 200, 1, 0.80, 15, 40, 1, 10, 5, 5);
+    /**
+     * Checks whether the Characters table has no rows. Runs on the database thread.
+     *
+     * @return True if the table is empty.
+     * @throws SQLException If a database access error occurs.
+     */
+    private boolean isCharacterTableEmpty() throws SQLException {
+        try (Statement stmt = myExecutor.getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM Characters")) {
 
-            // Insert Player class templates (no biome preference)
-            insertCharacter(pstmt, "Shadow Thief", "PLAYER", "Thief", 80, 8, 0.90, 15, 30, 4, 2, 1, 0);
-            insertCharacter(pstmt, "Noble Hero", "PLAYER", "Hero", 150, 3, 0.75, 25, 40, 3, 1, 1, 0);
-            insertCharacter(pstmt, "Battle Warrior", "PLAYER", "Warrior", 120, 1, 0.70, 35, 50, 3, 1, 1, 0);
-            insertCharacter(pstmt, "Holy Priestess", "PLAYER", "Priestess", 100, 3, 0.80, 20, 30, 3, 3, 1, 0);
+            return rs.getInt(1) == 0;
         }
     }
 
     /**
-     * Inserts a character's data into the database.
+     * Imports the character catalog file again, for editing the roster while the game runs.
+     * Nothing is written if the file has not changed since the last import, or if the characters come
+     * from the content pack.
      *
-     * @param thePSTMT          The prepared statement to use for the insertion.
-     * @param theName           The character's name.
-     * @param theType           The character's type (PLAYER or ENEMY).
-     * @param theCharClass      The character's class.
-     * @param theHP             The character's base hit points.
-     * @param theAttackSpeed    The character's base attack speed.
-     * @param theHitChance      The character's base chance to hit.
-     * @param theMinDmg         The character's base minimum damage.
-     * @param theMaxDmg         The character's base maximum damage.
-     * @param theMoveSpeed      The character's move speed.
-     * @param theVision         The character's vision stat.
-     * @param theLevel          The character's level.
-     * @param thePreferredBiome The character's preferred biome.
-     * @throws SQLException If a database access error occurs.
+     * @return A future for the number of characters imported.
      */
-    private void insertCharacter(PreparedStatement thePSTMT, String theName, String theType, String theCharClass,
-                                 int theHP, int theAttackSpeed, double theHitChance, int theMinDmg, int theMaxDmg,
-                                 int theMoveSpeed, int theVision, int theLevel, int thePreferredBiome) throws SQLException {
-        thePSTMT.setString(1, theName);
-        thePSTMT.setString(2, theType);
-        thePSTMT.setString(3, theCharClass);
-        thePSTMT.setInt(4, theHP);
-        thePSTMT.setInt(5, theAttackSpeed);
-        thePSTMT.setDouble(6, theHitChance);
-        thePSTMT.setInt(7, theMinDmg);
-        thePSTMT.setInt(8, theMaxDmg);
-        thePSTMT.setInt(9, theMoveSpeed);
-        thePSTMT.setInt(10, theVision);
-        thePSTMT.setInt(11, theLevel);
-        thePSTMT.setInt(12, thePreferredBiome);
-        thePSTMT.executeUpdate();
+    public CompletableFuture<Integer> reimportCharacters() {
+        return myExecutor.submit(theExecutor -> {
+            if (myCatalogFromPack) {
+                return 0;
+            }
+            final int imported = importCharacterCatalog();
+            if (imported > 0) {
+                loadCatalog();
+            }
+            return imported;
+        });
     }
 
     /**
-     * Gets a character from the database by their name.
+     * Gets a character by their name.
+     * Served from the in-memory catalog, so entity construction never waits on the database
+     * once the catalog is loaded.
      *
      * @param theName The name of the character to retrieve.
      * @return A Character object if found, otherwise null.
      */
     public Character getCharacterByName(String theName) {
-        String sql = "SELECT * FROM Characters WHERE name = ?";
-        try (PreparedStatement pstmt = myConnection.prepareStatement(sql)) {
-            pstmt.setString(1, theName);
-            ResultSet rs = pstmt.executeQuery();
-
-            if (rs.next()) {
-                return createCharacterFromResultSet(rs);
-            }
-        } catch (SQLException ignored) {
-        }
-        return null;
+        return getCatalog().getCharacterByName(theName);
     }
 
     /**
-     * Gets a list of characters from the database based on their type.
+     * Gets a list of characters based on their type.
      *
      * @param theType The CharacterType (PLAYER or ENEMY).
      * @return A list of Character objects.
      */
     public List<Character> getCharactersByType(Character.CharacterType theType) {
-        List<Character> characters = new ArrayList<>();
-        String sql = "SELECT * FROM Characters WHERE characterType = ?";
-
-        try (PreparedStatement pstmt = myConnection.prepareStatement(sql)) {
-            pstmt.setString(1, theType.toString());
-            ResultSet rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                characters.add(createCharacterFromResultSet(rs));
-            }
-        } catch (SQLException ignored) {
-        }
-        return characters;
+        return new ArrayList<>(getCatalog().getCharactersByType(theType));
     }
 
     /**
-     * Gets a list of characters from the database based on their class.
+     * Gets a list of characters based on their class.
      *
      * @param theCharacterClass The character's class name.
      * @return A list of Character objects.
      */
     public List<Character> getCharactersByClass(String theCharacterClass) {
-        List<Character> characters = new ArrayList<>();
-        String sql = "SELECT * FROM Characters WHERE characterClass = ?";
-
-        try (PreparedStatement pstmt = myConnection.prepareStatement(sql)) {
-            pstmt.setString(1, theCharacterClass);
-            ResultSet rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                characters.add(createCharacterFromResultSet(rs));
-            }
-        } catch (SQLException ignored) {
-        }
-        return characters;
+        return new ArrayList<>(getCatalog().getCharactersByClass(theCharacterClass));
     }
 
     /**
-     * Gets a random enemy from the database.
+     * Gets a random enemy.
      *
      * @return A random Character object of type ENEMY, or null if none are found.
      */
     public Character getRandomEnemy() {
-        String sql = "SELECT * FROM Characters WHERE characterType = 'ENEMY' ORDER BY RANDOM() LIMIT 1";
-        try (Statement stmt = myConnection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            if (rs.next()) {
-                return createCharacterFromResultSet(rs);
-            }
-        } catch (SQLException ignored) {
-        }
-        return null;
+        return getCatalog().getRandomEnemy(myRandom);
     }
 
     /**
@@ -262,82 +368,141 @@ public class DatabaseManager {
      * Biome 5: Dragons
      *
      * @param theBiome The biome number.
-     * @return A random Character object of type ENEMY, or null if an error occurs.
+     * @return A random Character object of type ENEMY, or null if none can spawn in the biome.
      */
     public Character getRandomEnemyForBiome(int theBiome) {
-        return switch (theBiome) {
-            case 1 -> getRandomNonDragonEnemy();
-            case 2, 3, 4 -> getRandomEnemyByPreference(theBiome);
-            case 5 -> getRandomDragonEnemy();
-            default -> null;
-        };
+        return getRandomEnemyForBiome(theBiome, myRandom);
     }
 
     /**
-     * Gets a random non-dragon enemy (for starting area and cross-biome spawning).
+     * Gets a random enemy for the specified biome using the caller's random number generator,
+     * so a seeded generator always picks the same enemies.
      *
-     * @return A random Character object that is not a Dragon.
+     * @param theBiome  The biome number.
+     * @param theRandom The random number generator to use.
+     * @return A random Character object of type ENEMY, or null if none can spawn in the biome.
      */
-    private Character getRandomNonDragonEnemy() {
-        String sql = "SELECT * FROM Characters WHERE characterType = 'ENEMY' AND characterClass != 'Dragon' ORDER BY RANDOM() LIMIT 1";
-        try (Statement stmt = myConnection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    public Character getRandomEnemyForBiome(int theBiome, Random theRandom) {
+        return getCatalog().getRandomEnemyForBiome(theBiome, theRandom);
+    }
 
-            if (rs.next()) {
-                return createCharacterFromResultSet(rs);
-            }
-        } catch (SQLException ignored) {
+    /**
+     * Gets the in-memory catalog of every character.
+     * The current catalog is always returned immediately, and at most once a second the database
+     * thread is asked to reload it if the database has changed.
+     *
+     * @return The character catalog, empty if it has not been loaded yet.
+     */
+    public CharacterCatalog getCatalog() {
+        final CharacterCatalog catalog = myCatalog;
+        final long now = System.currentTimeMillis();
+        if (!myCatalogFromPack && now - myLastCatalogCheck >= CATALOG_CHECK_INTERVAL) {
+            myLastCatalogCheck = now;
+            logFailure(myExecutor.submit(theExecutor ->
+                    catalog == null || readDataVersion() != myCatalogDataVersion ? loadCatalog() : catalog),
+                    "reload the character catalog");
         }
-        return null;
+        return catalog != null ? catalog : EMPTY_CATALOG;
     }
 
     /**
-     * Gets a random dragon enemy (for dragon territory only).
+     * Reloads the catalog on the database thread. The current catalog keeps being served until the reload finishes.
      *
-     * @return A random Character object of class Dragon.
+     * @return A future for the reloaded catalog.
      */
-    private Character getRandomDragonEnemy() {
-        String sql = "SELECT * FROM Characters WHERE characterType = 'ENEMY' AND characterClass = 'Dragon' ORDER BY RANDOM() LIMIT 1";
-        try (Statement stmt = myConnection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    public CompletableFuture<CharacterCatalog> loadCatalogAsync() {
+        if (myCatalogFromPack) {
+            return CompletableFuture.completedFuture(myCatalog);
+        }
+        return logFailure(myExecutor.submit(theExecutor -> loadCatalog()), "load the character catalog");
+    }
 
-            if (rs.next()) {
-                return createCharacterFromResultSet(rs);
+    /**
+     * Reloads the cached characters from the database in the background; lookups keep getting the old
+     * characters until the new ones are loaded. Call this after changing the Characters table through this
+     * connection; changes made by other connections are picked up through the database's data version.
+     * Does nothing while the characters come from the content pack.
+     */
+    public void invalidateCharacterCache() {
+        loadCatalogAsync();
+    }
+
+    /**
+     * Gets the executor that owns the database connection, for other tables in the same database.
+     *
+     * @return The database executor.
+     */
+    public DatabaseExecutor getExecutor() {
+        return myExecutor;
+    }
+
+    /**
+     * Gets the store of finished runs.
+     *
+     * @return The run history store.
+     */
+    public RunHistoryStore getRunHistory() {
+        return myRunHistory;
+    }
+
+    /**
+     * Logs the failure of a database task, if it fails.
+     *
+     * @param theFuture The task's future.
+     * @param theAction What the task does, for the log message.
+     * @param <T>       The type of the task's result.
+     * @return The same future.
+     */
+    private static <T> CompletableFuture<T> logFailure(final CompletableFuture<T> theFuture, final String theAction) {
+        theFuture.whenComplete((theResult, theException) -> {
+            if (theException != null) {
+                final Throwable cause = theException instanceof CompletionException && theException.getCause() != null
+                        ? theException.getCause() : theException;
+                System.out.println("Could not " + theAction + ": " + cause.getMessage());
             }
-        } catch (SQLException ignored) {
-        }
-        return null;
+        });
+        return theFuture;
     }
 
     /**
-     * Gets a random enemy by biome preference (for specific biome spawning).
+     * Loads every row of the Characters table into a new catalog and makes it the current one.
+     * Runs on the database thread. If the table cannot be read, the current catalog is kept.
      *
-     * @param theBiome The biome number.
-     * @return A random Character object matching the biome preference, or a non-dragon enemy as a fallback.
-     */
-    private Character getRandomEnemyByPreference(int theBiome) {
-        String enemyClass = switch (theBiome) {
-            case 2 -> "Goblin";
-            case 3 -> "Skeleton";
-            case 4 -> "Orc";
-            default -> null;
-        };
-
-        if (enemyClass != null) {
-            String sql = "SELECT * FROM Characters WHERE characterType = 'ENEMY' AND characterClass = ? ORDER BY RANDOM() LIMIT 1";
-            try (PreparedStatement pstmt = myConnection.prepareStatement(sql)) {
-                pstmt.setString(1, enemyClass);
-                ResultSet rs = pstmt.executeQuery();
+     * @return The new catalog.
+     * @throws SQLException If a database access error occurs.
+     */
+    private CharacterCatalog loadCatalog() throws SQLException {
+        final List<Character> characters = new ArrayList<>();
+        try (Statement stmt = myExecutor.getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM Characters")) {
 
-                if (rs.next()) {
-                    return createCharacterFromResultSet(rs);
-                }
-            } catch (SQLException ignored) {
+            while (rs.next()) {
+                characters.add(createCharacterFromResultSet(rs));
             }
         }
+        final CharacterCatalog catalog = new CharacterCatalog(characters);
+        myCatalogDataVersion = readDataVersion();
+        myLastCatalogCheck = System.currentTimeMillis();
+        myCatalog = catalog;
+        return catalog;
+    }
 
-        // Fallback to any non-dragon enemy
-        return getRandomNonDragonEnemy();
+    /**
+     * Reads the database's data version, which changes whenever another connection commits a change.
+     * Runs on the database thread.
+     *
+     * @return The data version, or 0 if it cannot be read.
+     */
+    private long readDataVersion() {
+        try (Statement stmt = myExecutor.getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA data_version")) {
+
+            if (rs.next()) {
+                return rs.getLong(1);
+            }
+        } catch (SQLException ignored) {
+        }
+        return 0;
     }
 
     /**
@@ -374,14 +539,17 @@ public class DatabaseManager {
     }
 
     /**
-     * Closes the database connection.
+     * Writes any queued runs, then closes the database connection once every queued task has run,
+     * waiting for it to close. Called at shutdown.
      */
     public void closeConnection() {
+        logFailure(myRunHistory.flush(), "write the queued runs");
         try {
-            if (myConnection != null && !myConnection.isClosed()) {
-                myConnection.close();
-            }
-        } catch (SQLException ignored) {
+            myExecutor.shutdown().get(CLOSE_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (final ExecutionException | TimeoutException theException) {
+            System.out.println("Could not close the database: " + theException.getMessage());
+        } catch (final InterruptedException ignored) {
+            Thread.currentThread().interrupt();
         }
     }
-}
\ No newline at end of file
+}
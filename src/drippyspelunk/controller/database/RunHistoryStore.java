@@ -0,0 +1,266 @@
+package drippyspelunk.controller.database;
+
+import drippyspelunk.model.dungeon.DungeonCrawlerLogic.GameEndingType;
+import drippyspelunk.model.dungeon.RunRecord;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Stores finished runs in the RunHistory table and answers leaderboard and history queries.
+ * Runs are queued and written in batches on the database thread, each batch in one transaction.
+ * Queries page by keyset instead of by offset, so every page is a short index range scan
+ * no matter how many runs are stored.
+ *
+ * @author David Norman
+ * @version 1.0
+ */
+public final class RunHistoryStore {
+
+    /**
+     * How long a queued run waits for others to share its batch, in milliseconds.
+     */
+    private static final long BATCH_DELAY = 250;
+    /**
+     * The ending type of runs that count for the leaderboard.
+     */
+    private static final String WIN = GameEndingType.WIN.name();
+    /**
+     * The columns read for a run, in the order {@link #createRunFromResultSet(ResultSet)} expects.
+     */
+    private static final String RUN_COLUMNS = "id, endedAt, playerName, characterClass, difficulty, floorSeed, "
+            + "floorReached, endingType, durationTicks, kills, roomsVisited, pillarsCollected";
+    /**
+     * Inserts one run.
+     */
+    private static final String INSERT_SQL = """
+            INSERT INTO RunHistory (endedAt, playerName, characterClass, difficulty, floorSeed, floorReached,
+                                    endingType, durationTicks, kills, roomsVisited, pillarsCollected)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    /**
+     * Selects a page of the fastest wins at a difficulty, after a given duration and id.
+     */
+    private static final String LEADERBOARD_SQL = "SELECT " + RUN_COLUMNS + " FROM RunHistory"
+            + " WHERE difficulty = ? AND endingType = ? AND (durationTicks, id) > (?, ?)"
+            + " ORDER BY durationTicks, id LIMIT ?";
+    /**
+     * Selects a page of the newest runs, before a given id.
+     */
+    private static final String HISTORY_SQL = "SELECT " + RUN_COLUMNS + " FROM RunHistory"
+            + " WHERE id < ? ORDER BY id DESC LIMIT ?";
+
+    /**
+     * The executor that owns the database connection.
+     */
+    private final DatabaseExecutor myExecutor;
+    /**
+     * Runs waiting to be written.
+     */
+    private final Queue<RunRecord> myPending = new ConcurrentLinkedQueue<>();
+    /**
+     * True while a batch write is scheduled but has not started.
+     */
+    private final AtomicBoolean myFlushScheduled = new AtomicBoolean();
+
+    /**
+     * Constructs a RunHistoryStore and creates its table on the database thread.
+     *
+     * @param theExecutor The executor that owns the database connection.
+     */
+    RunHistoryStore(final DatabaseExecutor theExecutor) {
+        myExecutor = theExecutor;
+        myExecutor.submit(theDatabase -> {
+            createTable();
+            return null;
+        });
+    }
+
+    /**
+     * Creates the RunHistory table and its indexes if they don't exist. Runs on the database thread.
+     *
+     * @throws SQLException If a database access error occurs.
+     */
+    private void createTable() throws SQLException {
+        final String createTableSQL = """
+                CREATE TABLE IF NOT EXISTS RunHistory (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    endedAt INTEGER NOT NULL,
+                    playerName TEXT NOT NULL,
+                    characterClass TEXT NOT NULL,
+                    difficulty INTEGER NOT NULL,
+                    floorSeed INTEGER NOT NULL,
+                    floorReached INTEGER NOT NULL,
+                    endingType TEXT NOT NULL,
+                    durationTicks INTEGER NOT NULL,
+                    kills INTEGER NOT NULL,
+                    roomsVisited INTEGER NOT NULL,
+                    pillarsCollected INTEGER NOT NULL
+                )
+                """;
+
+        try (Statement stmt = myExecutor.getConnection().createStatement()) {
+            stmt.execute(createTableSQL);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_runs_leaderboard ON RunHistory(difficulty, endingType, durationTicks)");
+        }
+    }
+
+    /**
+     * Queues a finished run. It is written with any other runs queued within a short delay.
+     *
+     * @param theRun The run.
+     */
+    public void record(final RunRecord theRun) {
+        myPending.offer(theRun);
+        if (myFlushScheduled.compareAndSet(false, true)) {
+            CompletableFuture.delayedExecutor(BATCH_DELAY, TimeUnit.MILLISECONDS).execute(this::flush);
+        }
+    }
+
+    /**
+     * Writes every queued run now.
+     *
+     * @return A future for the number of runs written.
+     */
+    public CompletableFuture<Integer> flush() {
+        return myExecutor.submit(theDatabase -> writePending());
+    }
+
+    /**
+     * Writes every queued run in one transaction. Runs on the database thread.
+     * If the write fails, the runs are queued again for the next batch.
+     *
+     * @return The number of runs written.
+     * @throws SQLException If a database access error occurs.
+     */
+    private int writePending() throws SQLException {
+        myFlushScheduled.set(false);
+        final List<RunRecord> batch = new ArrayList<>();
+        RunRecord run;
+        while ((run = myPending.poll()) != null) {
+            batch.add(run);
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        final Connection connection = myExecutor.getConnection();
+        try {
+            connection.setAutoCommit(false);
+            final PreparedStatement pstmt = myExecutor.prepare(INSERT_SQL);
+            for (final RunRecord pendingRun : batch) {
+                pstmt.setLong(1, pendingRun.getEndedAt());
+                pstmt.setString(2, pendingRun.getPlayerName());
+                pstmt.setString(3, pendingRun.getCharacterClass());
+                pstmt.setInt(4, pendingRun.getDifficulty());
+                pstmt.setLong(5, pendingRun.getFloorSeed());
+                pstmt.setInt(6, pendingRun.getFloorReached());
+                pstmt.setString(7, pendingRun.getEndingType().name());
+                pstmt.setLong(8, pendingRun.getDurationTicks());
+                pstmt.setInt(9, pendingRun.getKills());
+                pstmt.setInt(10, pendingRun.getRoomsVisited());
+                pstmt.setInt(11, pendingRun.getPillarsCollected());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            connection.commit();
+        } catch (final SQLException theException) {
+            connection.rollback();
+            myPending.addAll(batch);
+            throw theException;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        return batch.size();
+    }
+
+    /**
+     * Gets a page of the leaderboard: the fastest wins at a difficulty.
+     *
+     * @param theDifficulty The difficulty level.
+     * @param theAfter      The last run of the previous page, or null for the first page.
+     * @param theLimit      The largest number of runs to return.
+     * @return A future for the runs, fastest first.
+     */
+    public CompletableFuture<List<RunRecord>> getLeaderboardPage(final int theDifficulty, final RunRecord theAfter,
+                                                                 final int theLimit) {
+        return myExecutor.submit(theDatabase -> {
+            final PreparedStatement pstmt = theDatabase.prepare(LEADERBOARD_SQL);
+            pstmt.setInt(1, theDifficulty);
+            pstmt.setString(2, WIN);
+            pstmt.setLong(3, theAfter != null ? theAfter.getDurationTicks() : Long.MIN_VALUE);
+            pstmt.setLong(4, theAfter != null ? theAfter.getId() : Long.MIN_VALUE);
+            pstmt.setInt(5, theLimit);
+            return readRuns(pstmt);
+        });
+    }
+
+    /**
+     * Gets a page of the run history: every run, newest first.
+     *
+     * @param theAfter The last run of the previous page, or null for the first page.
+     * @param theLimit The largest number of runs to return.
+     * @return A future for the runs, newest first.
+     */
+    public CompletableFuture<List<RunRecord>> getHistoryPage(final RunRecord theAfter, final int theLimit) {
+        return myExecutor.submit(theDatabase -> {
+            final PreparedStatement pstmt = theDatabase.prepare(HISTORY_SQL);
+            pstmt.setLong(1, theAfter != null ? theAfter.getId() : Long.MAX_VALUE);
+            pstmt.setInt(2, theLimit);
+            return readRuns(pstmt);
+        });
+    }
+
+    /**
+     * Runs a query and reads every run it returns. Runs on the database thread.
+     *
+     * @param thePSTMT The prepared query.
+     * @return The runs.
+     * @throws SQLException If a database access error occurs.
+     */
+    private List<RunRecord> readRuns(final PreparedStatement thePSTMT) throws SQLException {
+        final List<RunRecord> runs = new ArrayList<>();
+        try (ResultSet rs = thePSTMT.executeQuery()) {
+            while (rs.next()) {
+                runs.add(createRunFromResultSet(rs));
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * Creates a RunRecord from a ResultSet row.
+     *
+     * @param theResultSet The ResultSet, positioned on a row with {@link #RUN_COLUMNS}.
+     * @return The run.
+     * @throws SQLException If a database access error occurs.
+     */
+    private RunRecord createRunFromResultSet(final ResultSet theResultSet) throws SQLException {
+        GameEndingType endingType;
+        try {
+            endingType = GameEndingType.valueOf(theResultSet.getString("endingType"));
+        } catch (final IllegalArgumentException e) {
+            // An ending type this version of the game no longer has.
+            endingType = GameEndingType.ENEMY;
+        }
+        return new RunRecord(
+                theResultSet.getLong("id"),
+                theResultSet.getLong("endedAt"),
+                theResultSet.getString("playerName"),
+                theResultSet.getString("characterClass"),
+                theResultSet.getInt("difficulty"),
+                theResultSet.getLong("floorSeed"),
+                theResultSet.getInt("floorReached"),
+                endingType,
+                theResultSet.getLong("durationTicks"),
+                theResultSet.getInt("kills"),
+                theResultSet.getInt("roomsVisited"),
+                theResultSet.getInt("pillarsCollected"));
+    }
+}
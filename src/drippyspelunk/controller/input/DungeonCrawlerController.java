@@ -3,11 +3,15 @@ package drippyspelunk.controller.input;
 import drippyspelunk.controller.audio.AudioEvent;
 import drippyspelunk.controller.audio.AudioManager;
 import drippyspelunk.controller.core.StateManager;
+import drippyspelunk.controller.sprite.SpriteManager;
 import drippyspelunk.model.dungeon.DungeonCrawlerLogic;
 import drippyspelunk.model.dungeon.DungeonCrawlerLogic.AttackType;
 import drippyspelunk.model.dungeon.DungeonCrawlerLogic.GameEndingType;
+import drippyspelunk.model.dungeon.Room;
+import drippyspelunk.model.dungeon.SaveGame;
 import drippyspelunk.model.dungeon.entity.GameObject;
 import drippyspelunk.model.dungeon.entity.asset.ActiveBomb;
+import drippyspelunk.model.dungeon.entity.asset.Door;
 import drippyspelunk.model.dungeon.entity.dungeoncharacter.Enemy;
 import drippyspelunk.model.dungeon.entity.dungeoncharacter.Player;
 import drippyspelunk.view.dungeon.CombatOverlay;
@@ -21,8 +25,6 @@ import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Random;
 
 /**
@@ -30,7 +32,7 @@ import java.util.Random;
  *
  * @author Devin Arroyo
  * @author David Norman
- * @version 1.13
+ * @version 1.18
  */
 public class DungeonCrawlerController implements IController, PropertyChangeListener, ActionListener {
 
@@ -109,6 +111,21 @@ public class DungeonCrawlerController implements IController, PropertyChangeList
      */
     private static final String SAVE_GAME_COMMAND = "SAVE_GAME";
 
+    /**
+     * The overlay message shown while a save is being written.
+     */
+    private static final String SAVING_MESSAGE = "Saving...";
+
+    /**
+     * The overlay message shown after a save was written, followed by its slot.
+     */
+    private static final String SAVED_MESSAGE = "Saved to slot ";
+
+    /**
+     * The overlay message shown when a save could not be written, followed by the reason.
+     */
+    private static final String SAVE_FAILED_MESSAGE = "Save failed: ";
+
     /**
      * Action command for returning to the title screen.
      */
@@ -164,16 +181,6 @@ public class DungeonCrawlerController implements IController, PropertyChangeList
      */
     private static final String DIALOG_UNKNOWN_BUTTON = "Unknown button pressed: ";
 
-    /**
-     * The state of a bomb when it is ticking.
-     */
-    private static final String BOMB_STATE_TICKING = "ticking";
-
-    /**
-     * The state of a bomb when it is exploding.
-     */
-    private static final String BOMB_STATE_EXPLOSION = "explosion";
-
     /**
      * Starting frame index for animations.
      */
@@ -193,14 +200,6 @@ public class DungeonCrawlerController implements IController, PropertyChangeList
      * Manages application state transitions.
      */
     private final StateManager myStateManager;
-    /**
-     * Maps active bombs to their animation tick counters.
-     */
-    private final Map<ActiveBomb, Integer> myBombAnimationTickCounters = new HashMap<>();
-    /**
-     * Maps active bombs to their current animation frames.
-     */
-    private final Map<ActiveBomb, Integer> myBombAnimationFrames = new HashMap<>();
     /**
      * Timer for the overlay animation.
      */
@@ -269,6 +268,7 @@ public class DungeonCrawlerController implements IController, PropertyChangeList
         myView = theView;
         myStateManager = theStateManager;
         myLogic.addPropertyChangeListener(this);
+        prefetchBiomes(myLogic.getCurrentRoom());
         if (myView != null) {
             myContentPanel = theView.getDungeonScreen().getDungeonContentPanel();
             myOverlayPanel = theView.getDungeonScreen().getOverlayPanel();
@@ -399,6 +399,7 @@ public class DungeonCrawlerController implements IController, PropertyChangeList
             case KeyEvent.VK_D, KeyEvent.VK_RIGHT -> myLogic.playerMoveRight(true);
             case KeyEvent.VK_S, KeyEvent.VK_DOWN -> myLogic.playerMoveDown(true);
             case KeyEvent.VK_W, KeyEvent.VK_UP -> myLogic.playerMoveUp(true);
+            case KeyEvent.VK_F5 -> myLogic.rebuildCurrentRoom();
             case KeyEvent.VK_ESCAPE, KeyEvent.VK_P -> {
                 AudioManager.dispatch(AudioEvent.MENU_SELECT);
                 myView.getDungeonScreen().toggleOverlayVisibility();
@@ -431,6 +432,27 @@ public class DungeonCrawlerController implements IController, PropertyChangeList
         myLogic.useInventoryItem(theSlotIndex);
     }
 
+    /**
+     * Saves the game to a slot in the background and reports the outcome on the overlay.
+     *
+     * @param theSlot The slot number.
+     */
+    private void saveToSlot(final int theSlot) {
+        myOverlayPanel.showStatus(SAVING_MESSAGE);
+        myLogic.createSave().writeToSlotAsync(theSlot).whenComplete((theResult, theException) -> {
+            if (theException == null) {
+                myOverlayPanel.showStatus(SAVED_MESSAGE + theSlot);
+            } else {
+                // Unwrap the CompletionException and UncheckedIOException around the IOException.
+                Throwable cause = theException;
+                while (cause.getCause() != null) {
+                    cause = cause.getCause();
+                }
+                myOverlayPanel.showStatus(SAVE_FAILED_MESSAGE + cause.getClass().getSimpleName());
+            }
+        });
+    }
+
     @Override
     public void actionPerformed(final ActionEvent theEvent) {
         final String actionCommand = theEvent.getActionCommand();
@@ -447,6 +469,9 @@ public class DungeonCrawlerController implements IController, PropertyChangeList
                     myOverlayAnimationTimer.stop();
                 }
                 case QUIT_COMMAND -> System.exit(0);
+                // The game is paused while the overlay is open, so the snapshot is consistent.
+                case QUICK_SAVE_COMMAND -> saveToSlot(SaveGame.QUICK_SAVE_SLOT);
+                case SAVE_GAME_COMMAND -> saveToSlot(SaveGame.getNextManualSlot());
                 case COMBAT_BLOCK_COMMAND -> myLogic.performBlock();
                 case COMBAT_RUN_COMMAND -> myLogic.runFromCombat();
                 case COMBAT_LIGHT_ATTACK_COMMAND -> myLogic.performAttack(AttackType.LIGHT);
@@ -539,10 +564,7 @@ public class DungeonCrawlerController implements IController, PropertyChangeList
             myEnemyAnimationTickCounter = RENDER_TIMESTAMP_DEFAULT;
             for (final Enemy enemy : myLogic.getCurrentRoom().getEnemies()) {
                 if (enemy.isAlive()) {
-                    final int oldFrame = myLogic.getEnemyAnimationFrame(enemy);
-                    final int newFrame = (oldFrame + INCREMENT_STEP) % ANIMATION_FRAME_COUNT;
-                    myLogic.setEnemyAnimationFrame(enemy, newFrame);
-                    myContentPanel.setEnemyAnimationFrame(enemy, newFrame);
+                    enemy.setAnimationFrame((enemy.getAnimationFrame() + INCREMENT_STEP) % ANIMATION_FRAME_COUNT);
                 }
             }
         }
@@ -566,29 +588,42 @@ public class DungeonCrawlerController implements IController, PropertyChangeList
     private void updateActiveBombAnimations() {
         for (final GameObject obj : myLogic.getAllObjects()) {
             if (obj instanceof ActiveBomb activeBomb) {
-                myBombAnimationTickCounters.putIfAbsent(activeBomb, RENDER_TIMESTAMP_DEFAULT);
-                myBombAnimationFrames.putIfAbsent(activeBomb, RENDER_TIMESTAMP_DEFAULT);
-                int tickCounter = myBombAnimationTickCounters.get(activeBomb);
-                int frameIndex = myBombAnimationFrames.get(activeBomb);
-                String animationState;
+                int tickCounter = activeBomb.getAnimationTicks();
+                int frameIndex = activeBomb.getAnimationFrame();
                 if (!activeBomb.getMyExploded()) {
-                    animationState = BOMB_STATE_TICKING;
                     tickCounter++;
                     if (tickCounter >= BOMB_TICKING_UPDATE_RATE) {
                         tickCounter = RENDER_TIMESTAMP_DEFAULT;
                         frameIndex = (frameIndex + INCREMENT_STEP) % BOMB_TICKING_FRAME_COUNT;
                     }
                 } else {
-                    animationState = BOMB_STATE_EXPLOSION;
                     tickCounter++;
                     if (tickCounter >= BOMB_EXPLOSION_UPDATE_RATE) {
                         tickCounter = RENDER_TIMESTAMP_DEFAULT;
                         frameIndex = (frameIndex + INCREMENT_STEP) % BOMB_EXPLOSION_FRAME_COUNT;
                     }
                 }
-                myBombAnimationTickCounters.put(activeBomb, tickCounter);
-                myBombAnimationFrames.put(activeBomb, frameIndex);
-                myContentPanel.setActiveBombAnimationFrame(activeBomb, animationState, frameIndex);
+                activeBomb.setAnimationTicks(tickCounter);
+                activeBomb.setAnimationFrame(frameIndex);
+            }
+        }
+    }
+
+    /**
+     * Starts loading the tile sheets of a room's biome and of the biomes behind its doors,
+     * so the next room the player walks into is ready to draw.
+     *
+     * @param theRoom The room the player is in, or null.
+     */
+    private void prefetchBiomes(final Room theRoom) {
+        if (theRoom == null) {
+            return;
+        }
+        SpriteManager.prefetchBiome(theRoom.getBiome());
+        for (final Door door : theRoom.getDoors()) {
+            final Room target = myLogic.getRoom(door.getTargetRoomId());
+            if (target != null) {
+                SpriteManager.prefetchBiome(target.getBiome());
             }
         }
     }
@@ -607,6 +642,8 @@ public class DungeonCrawlerController implements IController, PropertyChangeList
             AudioManager.dispatch(AudioEvent.PLAYER_FOOTSTEP_STOP);
         } else if (DungeonCrawlerLogic.PLAYER_DOOR_PROPERTY.equals(propertyName)) {
             AudioManager.dispatch(AudioEvent.PLAYER_DOOR_OPEN);
+        } else if (DungeonCrawlerLogic.CURRENT_ROOM_PROPERTY.equals(propertyName)) {
+            prefetchBiomes((Room) theEvent.getNewValue());
         } else if (DungeonCrawlerLogic.GAME_OVER_PROPERTY.equals(propertyName)) {
             final GameEndingType endingType = (GameEndingType) theEvent.getNewValue();
             myStateManager.goToGameOver(endingType);
@@ -3,12 +3,14 @@ package drippyspelunk.controller.input;
 import drippyspelunk.controller.audio.AudioEvent;
 import drippyspelunk.controller.audio.AudioManager;
 import drippyspelunk.controller.core.StateManager;
+import drippyspelunk.model.dungeon.RunRecord;
 import drippyspelunk.model.dungeon.entity.dungeoncharacter.Character;
 import drippyspelunk.model.menu.SettingsData;
 import drippyspelunk.model.menu.TitleScreenLogic;
 import drippyspelunk.view.title.TitleExpandedMenu;
 import drippyspelunk.view.title.TitleScreenView;
 
+import javax.swing.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
@@ -21,7 +23,7 @@ import java.util.List;
  * updates the model, and reacts to model changes.
  *
  * @author Devin Arroyo
- * @version 2.7
+ * @version 2.11
  */
 public class TitleScreenController implements IController, ActionListener, PropertyChangeListener {
 
@@ -72,10 +74,19 @@ public class TitleScreenController implements IController, ActionListener, Prope
 
         AudioManager.dispatch(AudioEvent.MENU_SELECT);
 
+        final TitleExpandedMenu.PanelType previousPanelType = myCurrentPanelType;
+
         switch (actionCommand) {
             case "New Game" -> myCurrentPanelType = TitleExpandedMenu.PanelType.NEW_GAME;
             case "Load Game" -> myCurrentPanelType = TitleExpandedMenu.PanelType.LOAD_GAME;
             case "Settings" -> myCurrentPanelType = TitleExpandedMenu.PanelType.SETTINGS;
+            case "Run History" -> {
+                myCurrentPanelType = TitleExpandedMenu.PanelType.RUN_HISTORY;
+                myLogic.loadLeaderboard();
+                myLogic.loadNewestRuns();
+            }
+            case TitleExpandedMenu.OLDER_RUNS_COMMAND -> myLogic.loadOlderRuns();
+            case TitleExpandedMenu.NEWEST_RUNS_COMMAND -> myLogic.loadNewestRuns();
             case "Credits" -> myCurrentPanelType = TitleExpandedMenu.PanelType.CREDITS;
             case "Close Application" -> myCurrentPanelType = TitleExpandedMenu.PanelType.CLOSE_APPLICATION;
             case "Back", "No" -> myCurrentPanelType = TitleExpandedMenu.PanelType.EMPTY;
@@ -84,6 +95,7 @@ public class TitleScreenController implements IController, ActionListener, Prope
                 myCurrentPanelType = TitleExpandedMenu.PanelType.EMPTY;
             }
             case "Yes" -> System.exit(0);
+            case TitleExpandedMenu.LOAD_AUTOSAVE_COMMAND -> myStateManager.loadAutosave();
             case "Start New Game" -> {
                 final Character selectedCharacter = myLogic.getSelectedCharacter();
                 final String playerName = myView.getNewGamePanel().getPlayerName();
@@ -93,6 +105,10 @@ public class TitleScreenController implements IController, ActionListener, Prope
                 }
             }
             default -> {
+                if (actionCommand.startsWith(TitleExpandedMenu.LOAD_SLOT_COMMAND_PREFIX)) {
+                    myStateManager.loadGame(Integer.parseInt(
+                            actionCommand.substring(TitleExpandedMenu.LOAD_SLOT_COMMAND_PREFIX.length())));
+                }
                 Character selectedCharacter = findCharacterForAction(actionCommand);
                 if (selectedCharacter != null) {
                     myLogic.setSelectedCharacter(selectedCharacter);
@@ -100,6 +116,12 @@ public class TitleScreenController implements IController, ActionListener, Prope
             }
         }
 
+        if (myCurrentPanelType != previousPanelType) {
+            // Leaving the new game or load game menu abandons any dungeon still being generated for it.
+            myStateManager.cancelDungeonGeneration();
+            myView.getNewGamePanel().hideGenerationProgress();
+        }
+
         myView.showPanel(myCurrentPanelType);
     }
 
@@ -166,5 +188,22 @@ public class TitleScreenController implements IController, ActionListener, Prope
     @Override
     public void propertyChange(PropertyChangeEvent theEvent) {
         String propertyName = theEvent.getPropertyName();
+
+        if (TitleScreenLogic.GENERATION_PROGRESS_PROPERTY.equals(propertyName)) {
+            final String stageName = myLogic.getGenerationStage();
+            final double progress = (Double) theEvent.getNewValue();
+            SwingUtilities.invokeLater(() -> {
+                if (myStateManager.isGeneratingDungeon()) {
+                    myView.getNewGamePanel().showGenerationProgress(stageName, progress);
+                }
+            });
+        } else if (TitleScreenLogic.LEADERBOARD_PROPERTY.equals(propertyName)) {
+            final List<RunRecord> runs = myLogic.getLeaderboard();
+            final int difficulty = myLogic.getCurrentSettings().getDifficulty();
+            SwingUtilities.invokeLater(() -> myView.getExpandedMenu().getRunHistoryPanel().showLeaderboard(difficulty, runs));
+        } else if (TitleScreenLogic.RUN_HISTORY_PROPERTY.equals(propertyName)) {
+            final List<RunRecord> runs = myLogic.getHistoryPage();
+            SwingUtilities.invokeLater(() -> myView.getExpandedMenu().getRunHistoryPanel().showHistory(runs));
+        }
     }
 }
\ No newline at end of file
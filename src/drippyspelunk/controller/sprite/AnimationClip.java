@@ -0,0 +1,124 @@
+package drippyspelunk.controller.sprite;
+
+/**
+ * The frames of one animated sprite sheet, resolved to atlas handles once when the sprites are loaded.
+ * Frames are indexed by state, direction and frame number, so drawing an animation needs no identifier strings.
+ * A sheet without directions, such as the bomb, has a single direction.
+ *
+ * @author David Norman
+ * @version 1.0
+ */
+public final class AnimationClip {
+
+    /**
+     * The state index of a character's standing frames.
+     */
+    public static final int STANDING = 0;
+    /**
+     * The state index of a character's walking frames.
+     */
+    public static final int WALKING = 1;
+    /**
+     * The direction index of frames facing north.
+     */
+    public static final int NORTH = 0;
+    /**
+     * The direction index of frames facing east.
+     */
+    public static final int EAST = 1;
+    /**
+     * The direction index of frames facing south.
+     */
+    public static final int SOUTH = 2;
+    /**
+     * The direction index of frames facing west.
+     */
+    public static final int WEST = 3;
+    /**
+     * The direction index of a sheet without directions.
+     */
+    public static final int NO_DIRECTION = 0;
+    /**
+     * The names of a character's states, by state index.
+     */
+    static final String[] CHARACTER_STATES = {"standing", "walking"};
+    /**
+     * The names of a character's directions, by direction index.
+     */
+    static final String[] CHARACTER_DIRECTIONS = {"north", "east", "south", "west"};
+
+    /**
+     * The handle of every frame, indexed by state, direction and frame number.
+     */
+    private final int[][][] myHandles;
+
+    /**
+     * Constructs an AnimationClip.
+     *
+     * @param theHandles The handle of every frame, indexed by state, direction and frame number.
+     */
+    private AnimationClip(final int[][][] theHandles) {
+        myHandles = theHandles;
+    }
+
+    /**
+     * Resolves the frames of a sheet whose sprites are named prefix_state_direction_frame,
+     * or prefix_state_frame when there are no directions.
+     *
+     * @param theAtlas       The atlas holding the frames.
+     * @param thePrefix      The identifier prefix of the sheet.
+     * @param theStates      The state names, by state index.
+     * @param theDirections  The direction names, by direction index, or none for a sheet without directions.
+     * @param theFrameCounts The number of frames in each state.
+     * @return The clip. Frames missing from the atlas have the handle {@link SpriteAtlas#NO_SPRITE}.
+     */
+    static AnimationClip resolve(final SpriteAtlas theAtlas, final String thePrefix, final String[] theStates,
+                                 final String[] theDirections, final int[] theFrameCounts) {
+        final int directionCount = Math.max(theDirections.length, 1);
+        final int[][][] handles = new int[theStates.length][directionCount][];
+        for (int state = 0; state < theStates.length; state++) {
+            for (int direction = 0; direction < directionCount; direction++) {
+                final String name = theDirections.length == 0
+                        ? thePrefix + "_" + theStates[state] + "_"
+                        : thePrefix + "_" + theStates[state] + "_" + theDirections[direction] + "_";
+                handles[state][direction] = new int[Math.max(theFrameCounts[state], 1)];
+                for (int frame = 0; frame < handles[state][direction].length; frame++) {
+                    handles[state][direction][frame] = theAtlas.getHandle(name + frame);
+                }
+            }
+        }
+        return new AnimationClip(handles);
+    }
+
+    /**
+     * Gets the number of states.
+     *
+     * @return The state count.
+     */
+    public int getStateCount() {
+        return myHandles.length;
+    }
+
+    /**
+     * Gets the number of frames in a state.
+     *
+     * @param theState The state index.
+     * @return The frame count.
+     */
+    public int getFrameCount(final int theState) {
+        return myHandles[theState][NO_DIRECTION].length;
+    }
+
+    /**
+     * Gets the handle of a frame. Frame numbers past the end of the state wrap around.
+     *
+     * @param theState     The state index.
+     * @param theDirection The direction index.
+     * @param theFrame     The frame number.
+     * @return The handle, or {@link SpriteAtlas#NO_SPRITE} if the frame is not in the atlas.
+     */
+    public int getFrame(final int theState, final int theDirection, final int theFrame) {
+        final int[] frames = myHandles[theState][theDirection];
+        return frames[theFrame % frames.length];
+    }
+}
@@ -0,0 +1,140 @@
+package drippyspelunk.controller.sprite;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.IndexColorModel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Indexed-colour sprite sheets and their palette-swapped variants.
+ * A sheet with at most {@value #MAX_COLOURS} colours is stored as one byte per pixel with an {@link IndexColorModel},
+ * and a variant of it is the same pixels seen through a recoloured palette: the variant shares the sheet's raster,
+ * so it costs only its palette. A sheet with too many colours to index is recoloured pixel by pixel instead.
+ * A palette table is either pairs of colours, each base colour followed by the one that replaces it,
+ * or a single colour that every colour of the sheet is multiplied by.
+ *
+ * @author David Norman
+ * @version 1.1
+ */
+final class PaletteSwap {
+
+    /**
+     * The most colours an indexed sheet can hold.
+     */
+    private static final int MAX_COLOURS = 256;
+    /**
+     * The number of bits in each index.
+     */
+    private static final int INDEX_BITS = 8;
+    /**
+     * The colour every fully transparent pixel is stored as, always at index 0.
+     */
+    private static final int TRANSPARENT = 0;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private PaletteSwap() {
+    }
+
+    /**
+     * Converts a sheet to one byte per pixel with an indexed palette. Index 0 is always fully transparent,
+     * so empty space around frames packed from the sheet stays clear.
+     *
+     * @param theSheet The decoded sheet.
+     * @return The indexed sheet, the sheet itself if it is already indexed one byte per pixel,
+     * or the sheet itself if it has too many colours to index.
+     */
+    static BufferedImage toIndexed(final BufferedImage theSheet) {
+        if (theSheet.getType() == BufferedImage.TYPE_BYTE_INDEXED) {
+            return theSheet;
+        }
+        final int width = theSheet.getWidth();
+        final int height = theSheet.getHeight();
+        final int[] pixels = theSheet.getRGB(0, 0, width, height, null, 0, width);
+        final int[] palette = new int[MAX_COLOURS];
+        final Map<Integer, Integer> indexes = new HashMap<>();
+        indexes.put(TRANSPARENT, 0);
+        palette[0] = TRANSPARENT;
+        final byte[] indices = new byte[pixels.length];
+        for (int i = 0; i < pixels.length; i++) {
+            final int colour = pixels[i] >>> 24 == 0 ? TRANSPARENT : pixels[i];
+            Integer index = indexes.get(colour);
+            if (index == null) {
+                if (indexes.size() == MAX_COLOURS) {
+                    return theSheet;
+                }
+                index = indexes.size();
+                indexes.put(colour, index);
+                palette[index] = colour;
+            }
+            indices[i] = (byte) index.intValue();
+        }
+
+        final IndexColorModel model = new IndexColorModel(INDEX_BITS, indexes.size(), palette, 0, true, -1,
+                DataBuffer.TYPE_BYTE);
+        final BufferedImage indexed = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_INDEXED, model);
+        indexed.getRaster().setDataElements(0, 0, width, height, indices);
+        return indexed;
+    }
+
+    /**
+     * Makes a palette-swapped variant of a sheet.
+     *
+     * @param theSheet        The base sheet, indexed if it has few enough colours.
+     * @param thePaletteTable Each base colour, as ARGB, followed by the colour that replaces it,
+     *                        or a single colour to tint the sheet with.
+     * @return The variant. For an indexed sheet it shares the sheet's raster and differs only in its palette.
+     */
+    static BufferedImage apply(final BufferedImage theSheet, final int[] thePaletteTable) {
+        final IntUnaryOperator recolour;
+        if (thePaletteTable.length == 1) {
+            recolour = theColour -> tint(theColour, thePaletteTable[0]);
+        } else {
+            final Map<Integer, Integer> swaps = new HashMap<>();
+            for (int i = 0; i + 1 < thePaletteTable.length; i += 2) {
+                swaps.put(thePaletteTable[i], thePaletteTable[i + 1]);
+            }
+            recolour = theColour -> swaps.getOrDefault(theColour, theColour);
+        }
+
+        if (theSheet.getColorModel() instanceof IndexColorModel model) {
+            final int[] palette = new int[model.getMapSize()];
+            model.getRGBs(palette);
+            for (int i = 0; i < palette.length; i++) {
+                palette[i] = recolour.applyAsInt(palette[i]);
+            }
+            final IndexColorModel swapped = new IndexColorModel(model.getPixelSize(), palette.length, palette, 0,
+                    true, -1, model.getTransferType());
+            return new BufferedImage(swapped, theSheet.getRaster(), false, null);
+        }
+
+        final int width = theSheet.getWidth();
+        final int height = theSheet.getHeight();
+        final int[] pixels = theSheet.getRGB(0, 0, width, height, null, 0, width);
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = recolour.applyAsInt(pixels[i]);
+        }
+        final BufferedImage variant = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        variant.setRGB(0, 0, width, height, pixels, 0, width);
+        return variant;
+    }
+
+    /**
+     * Multiplies the red, green and blue of a colour by those of a tint, keeping the colour's alpha.
+     *
+     * @param theColour The colour, as ARGB.
+     * @param theTint   The tint, as RGB.
+     * @return The tinted colour.
+     */
+    private static int tint(final int theColour, final int theTint) {
+        int tinted = theColour & 0xFF000000;
+        for (int shift = 0; shift <= 16; shift += 8) {
+            final int channel = (theColour >>> shift & 0xFF) * (theTint >>> shift & 0xFF) / 0xFF;
+            tinted |= channel << shift;
+        }
+        return tinted;
+    }
+}
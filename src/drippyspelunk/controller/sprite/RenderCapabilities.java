@@ -0,0 +1,104 @@
+package drippyspelunk.controller.sprite;
+
+import java.awt.*;
+import java.awt.image.VolatileImage;
+
+/**
+ * Chooses how sprites and room backgrounds are drawn, once at startup.
+ * When the screen's pipeline keeps translucent {@link VolatileImage}s in video memory, hot sprites and the
+ * room background are drawn from volatile images; otherwise, on a headless or software pipeline,
+ * everything is drawn from the managed images of the {@link ScaledSpriteCache}.
+ * The volatile path can be turned off by setting the {@value #VOLATILE_IMAGES_PROPERTY} system property to false.
+ *
+ * @author David Norman
+ * @version 1.0
+ */
+public final class RenderCapabilities {
+
+    /**
+     * The system property that turns the volatile image path off when set to false.
+     */
+    public static final String VOLATILE_IMAGES_PROPERTY = "drippyspelunk.volatileImages";
+    /**
+     * The width and height of the image made to probe the pipeline.
+     */
+    private static final int PROBE_SIZE = 32;
+
+    /**
+     * The screen's graphics configuration if volatile images are used, or null if they are not.
+     */
+    private static volatile GraphicsConfiguration myConfiguration;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private RenderCapabilities() {
+    }
+
+    /**
+     * Probes the screen's pipeline for accelerated translucent volatile images and logs the chosen render path.
+     * This method should be called once at the start of the application, before anything is drawn.
+     */
+    public static synchronized void probe() {
+        myConfiguration = null;
+        final String reason;
+        if (!Boolean.parseBoolean(System.getProperty(VOLATILE_IMAGES_PROPERTY, "true"))) {
+            reason = "turned off by " + VOLATILE_IMAGES_PROPERTY;
+        } else if (GraphicsEnvironment.isHeadless()) {
+            reason = "headless";
+        } else {
+            final GraphicsConfiguration configuration = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            if (isAccelerated(configuration)) {
+                myConfiguration = configuration;
+                reason = "accelerated";
+            } else {
+                reason = "software pipeline";
+            }
+        }
+        System.out.println("Render path: " + (myConfiguration != null ? "volatile images" : "managed images")
+                + " (" + reason + ")");
+    }
+
+    /**
+     * Checks whether a graphics configuration keeps translucent volatile images in video memory.
+     *
+     * @param theConfiguration The graphics configuration.
+     * @return True if a translucent volatile image made for it is accelerated.
+     */
+    private static boolean isAccelerated(final GraphicsConfiguration theConfiguration) {
+        if (!theConfiguration.getImageCapabilities().isAccelerated()) {
+            return false;
+        }
+        VolatileImage image = null;
+        try {
+            image = theConfiguration.createCompatibleVolatileImage(PROBE_SIZE, PROBE_SIZE, Transparency.TRANSLUCENT);
+            return image != null && image.validate(theConfiguration) != VolatileImage.IMAGE_INCOMPATIBLE
+                    && image.getCapabilities().isAccelerated();
+        } catch (final RuntimeException ignored) {
+            return false;
+        } finally {
+            if (image != null) {
+                image.flush();
+            }
+        }
+    }
+
+    /**
+     * Checks whether hot sprites and room backgrounds are drawn from volatile images.
+     *
+     * @return True if the volatile image path was chosen.
+     */
+    public static boolean isAccelerated() {
+        return myConfiguration != null;
+    }
+
+    /**
+     * Gets the graphics configuration volatile images are made for.
+     *
+     * @return The configuration, or null if the managed image path was chosen.
+     */
+    public static GraphicsConfiguration getConfiguration() {
+        return myConfiguration;
+    }
+}
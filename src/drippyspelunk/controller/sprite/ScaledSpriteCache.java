@@ -0,0 +1,154 @@
+package drippyspelunk.controller.sprite;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
+import java.util.Arrays;
+
+/**
+ * Copies of atlas sprites already scaled to the sizes they are drawn at, in the screen's native image format.
+ * The panels draw every sprite at its size times the GUI scale, so each copy is made once, with
+ * nearest-neighbour scaling, and every later draw is a plain unscaled blit. A cache belongs to one GUI scale;
+ * {@link SpriteManager} replaces it when the scale setting changes, and drops a group's copies when the
+ * group is unloaded from the atlas. On the volatile image path the copies are also the source
+ * a {@link VolatileSpriteCache} restores hot sprites from.
+ *
+ * @author David Norman
+ * @version 1.2
+ */
+public final class ScaledSpriteCache {
+
+    /**
+     * The most pixels the cache holds. Sprites drawn once the cache is full are scaled from the atlas instead.
+     */
+    private static final long MAX_CACHED_PIXELS = 1L << 23;
+
+    /**
+     * The atlas the sprites are copied from.
+     */
+    private final SpriteAtlas myAtlas;
+    /**
+     * The GUI scale the cache was made for.
+     */
+    private final int myScale;
+    /**
+     * The screen's graphics configuration, or null if there is no screen.
+     */
+    private final GraphicsConfiguration myConfiguration;
+    /**
+     * The scaled copies of each sprite, indexed by handle. Most sprites are drawn at a single size.
+     */
+    private final BufferedImage[][] myImages;
+    /**
+     * The number of pixels held by the cache.
+     */
+    private long myCachedPixels;
+
+    /**
+     * Constructs an empty ScaledSpriteCache.
+     *
+     * @param theAtlas The atlas the sprites are copied from.
+     * @param theScale The GUI scale the cache is for.
+     */
+    public ScaledSpriteCache(final SpriteAtlas theAtlas, final int theScale) {
+        myAtlas = theAtlas;
+        myScale = theScale;
+        myConfiguration = GraphicsEnvironment.isHeadless() ? null
+                : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+        myImages = new BufferedImage[theAtlas.getFrameCount()][];
+    }
+
+    /**
+     * Gets the GUI scale the cache was made for.
+     *
+     * @return The GUI scale.
+     */
+    public int getScale() {
+        return myScale;
+    }
+
+    /**
+     * Draws a sprite at a destination rectangle, from its scaled copy when the cache can hold one.
+     *
+     * @param theGraphics The graphics to draw with.
+     * @param theHandle   The sprite's handle.
+     * @param theX        The destination x-coordinate.
+     * @param theY        The destination y-coordinate.
+     * @param theWidth    The destination width.
+     * @param theHeight   The destination height.
+     * @param theObserver The image observer, or null.
+     */
+    public void draw(final Graphics2D theGraphics, final int theHandle, final int theX, final int theY,
+                     final int theWidth, final int theHeight, final ImageObserver theObserver) {
+        final BufferedImage image = getImage(theHandle, theWidth, theHeight);
+        if (image != null) {
+            theGraphics.drawImage(image, theX, theY, theObserver);
+        } else {
+            myAtlas.draw(theGraphics, theHandle, theX, theY, theWidth, theHeight, theObserver);
+        }
+    }
+
+    /**
+     * Gets the copy of a sprite scaled to a size, making it the first time it is asked for.
+     *
+     * @param theHandle The sprite's handle.
+     * @param theWidth  The width.
+     * @param theHeight The height.
+     * @return The scaled copy, or null if the size is empty, the cache is full or the sprite's group is not loaded.
+     */
+    synchronized BufferedImage getImage(final int theHandle, final int theWidth, final int theHeight) {
+        final BufferedImage[] images = myImages[theHandle];
+        if (images != null) {
+            for (final BufferedImage image : images) {
+                if (image.getWidth() == theWidth && image.getHeight() == theHeight) {
+                    return image;
+                }
+            }
+        }
+        final long pixels = (long) theWidth * theHeight;
+        if (theWidth <= 0 || theHeight <= 0 || myCachedPixels + pixels > MAX_CACHED_PIXELS) {
+            return null;
+        }
+        final BufferedImage source = myAtlas.getImage(theHandle);
+        if (source == null) {
+            return null;
+        }
+
+        final BufferedImage image = myConfiguration != null
+                ? myConfiguration.createCompatibleImage(theWidth, theHeight, Transparency.TRANSLUCENT)
+                : new BufferedImage(theWidth, theHeight, BufferedImage.TYPE_INT_ARGB_PRE);
+        final Graphics2D graphics = image.createGraphics();
+        graphics.setComposite(AlphaComposite.Src);
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        graphics.drawImage(source, 0, 0, theWidth, theHeight, null);
+        graphics.dispose();
+
+        if (images == null) {
+            myImages[theHandle] = new BufferedImage[]{image};
+        } else {
+            final BufferedImage[] grown = Arrays.copyOf(images, images.length + 1);
+            grown[images.length] = image;
+            myImages[theHandle] = grown;
+        }
+        myCachedPixels += pixels;
+        return image;
+    }
+
+    /**
+     * Drops the scaled copies of a range of sprites.
+     *
+     * @param theFirstHandle The first handle.
+     * @param theCount       The number of handles.
+     */
+    public synchronized void evict(final int theFirstHandle, final int theCount) {
+        for (int handle = theFirstHandle; handle < theFirstHandle + theCount; handle++) {
+            final BufferedImage[] images = myImages[handle];
+            if (images != null) {
+                for (final BufferedImage image : images) {
+                    myCachedPixels -= (long) image.getWidth() * image.getHeight();
+                }
+                myImages[handle] = null;
+            }
+        }
+    }
+}
@@ -2,7 +2,6 @@ package drippyspelunk.controller.sprite;
 
 import javax.imageio.ImageIO;
 import javax.swing.*;
-import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
@@ -13,90 +12,117 @@ import java.util.concurrent.ConcurrentHashMap;
  * A class to hold and manage a single sprite.
  * It provides methods for preloading sprites from file paths or existing
  * BufferedImage objects and retrieving them by a unique identifier.
+ * Every sprite is a handle into the {@link SpriteAtlas} set with {@link #setAtlas(SpriteAtlas)};
+ * preloaded frames wait until {@link #packGroup(int)} packs their group into the atlas.
+ * Frames may be preloaded from several threads at once.
  *
  * @author Devin Arroyo
- * @version 1.1
+ * @version 1.3
  */
 public final class Sprite {
 
     /**
-     * A thread-safe map to store all preloaded sprites,
+     * A thread-safe map to store all sprites,
      * with their unique identifiers as keys.
      */
     private static final Map<String, Sprite> mySprites = new ConcurrentHashMap<>();
+    /**
+     * The frames preloaded since their group was last packed, by identifier.
+     */
+    private static final Map<String, BufferedImage> myFrames = new ConcurrentHashMap<>();
+    /**
+     * The atlas every sprite is drawn from, or null before it is set.
+     */
+    private static volatile SpriteAtlas myAtlas;
 
     /**
-     * The graphical representation of the sprite.
+     * The sprite's handle in the atlas.
      */
-    private final ImageIcon myImage;
+    private final int myHandle;
 
     /**
-     * Private constructor to create a Sprite from a file path.
+     * Private constructor to create a Sprite from its handle in the atlas.
      *
-     * @param theFilepath The path to the image file.
-     * @throws RuntimeException if the image cannot be loaded.
+     * @param theHandle The handle.
      */
-    private Sprite(final String theFilepath) {
-        try (InputStream inputStream = getClass().getResourceAsStream(theFilepath)) {
+    private Sprite(final int theHandle) {
+        myHandle = theHandle;
+    }
+
+    /**
+     * Preloads a sprite into the manager from a file path.
+     * If a sprite with the same identifier already exists, it will be overwritten.
+     *
+     * @param theIdentifier The unique identifier for the sprite.
+     * @param theFilepath   The file path to the sprite image.
+     */
+    public static void preloadSprite(final String theIdentifier, final String theFilepath) {
+        try (InputStream inputStream = Sprite.class.getResourceAsStream(theFilepath)) {
             if (inputStream == null) {
                 throw new IOException("Resource not found: " + theFilepath);
             }
-            Image image = ImageIO.read(inputStream);
+            final BufferedImage image = ImageIO.read(inputStream);
             if (image == null) {
                 throw new IOException("Failed to read image from " + theFilepath);
             }
-            myImage = new ImageIcon(image);
-
-        } catch (IOException exception) {
-            throw new RuntimeException("Failed to initialize sprite from " + theFilepath, exception);
+            myFrames.put(theIdentifier, image);
+        } catch (final IOException ignored) {
         }
     }
 
     /**
-     * Private constructor to create a Sprite from a BufferedImage.
+     * Preloads a sprite into the manager from a BufferedImage.
+     * If a sprite with the same identifier already exists, it will be overwritten.
      *
-     * @param theImage The BufferedImage to create the sprite from.
-     * @throws IllegalArgumentException if the BufferedImage is null.
+     * @param theIdentifier The unique identifier for the sprite.
+     * @param theImage      The BufferedImage of the sprite.
      */
-    private Sprite(final BufferedImage theImage) {
-        if (theImage == null) {
-            throw new IllegalArgumentException("BufferedImage cannot be null.");
+    public static void preloadSpriteFromImage(final String theIdentifier, final BufferedImage theImage) {
+        if (theImage != null) {
+            myFrames.put(theIdentifier, theImage);
         }
-        myImage = new ImageIcon(theImage);
     }
 
     /**
-     * Preloads a sprite into the manager from a file path.
-     * If a sprite with the same identifier already exists, it will be overwritten.
+     * Sets the atlas every sprite is drawn from and makes its sprites available by identifier.
      *
-     * @param theIdentifier The unique identifier for the sprite.
-     * @param theFilepath   The file path to the sprite image.
+     * @param theAtlas The atlas, with its handles reserved.
      */
-    public static synchronized void preloadSprite(final String theIdentifier, final String theFilepath) {
-        try {
-            final Sprite sprite = new Sprite(theFilepath);
-            mySprites.put(theIdentifier, sprite);
-        } catch (final RuntimeException ignored) {
+    public static synchronized void setAtlas(final SpriteAtlas theAtlas) {
+        myAtlas = theAtlas;
+        mySprites.clear();
+        myFrames.clear();
+        for (final Map.Entry<String, Integer> entry : theAtlas.getHandles().entrySet()) {
+            mySprites.put(entry.getKey(), new Sprite(entry.getValue()));
         }
     }
 
     /**
-     * Preloads a sprite into the manager from a BufferedImage.
-     * If a sprite with the same identifier already exists, it will be overwritten.
+     * Packs the preloaded frames of a group into the atlas. The decoded sheets are not kept; only the atlas pages are.
      *
-     * @param theIdentifier The unique identifier for the sprite.
-     * @param theImage      The BufferedImage of the sprite.
+     * @param theGroup The group.
      */
-    public static synchronized void preloadSpriteFromImage(final String theIdentifier, final BufferedImage theImage) {
-        try {
-            final Sprite sprite = new Sprite(theImage);
-            mySprites.put(theIdentifier, sprite);
-        } catch (final RuntimeException ignored) {
+    public static void packGroup(final int theGroup) {
+        final SpriteAtlas atlas = myAtlas;
+        final int firstHandle = atlas.getFirstHandle(theGroup);
+        final BufferedImage[] frames = new BufferedImage[atlas.getFrameCount(theGroup)];
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = myFrames.remove(atlas.getIdentifier(firstHandle + i));
         }
+        atlas.pack(theGroup, frames);
+    }
+
+    /**
+     * Gets the atlas every sprite is drawn from.
+     *
+     * @return The atlas, or null before it is set.
+     */
+    public static SpriteAtlas getAtlas() {
+        return myAtlas;
     }
 
     /**
-     * Retrieves a preloaded Sprite from the manager using its identifier.
+     * Retrieves a Sprite from the manager using its identifier.
      *
      * @param theIdentifier The unique identifier of the sprite.
      * @return The Sprite object, or null if not found.
@@ -106,18 +132,31 @@ public final class Sprite {
     }
 
     /**
-     * Clears all preloaded sprites from memory.
+     * Clears all sprites from memory.
      */
-    public static void cleanupSprites() {
+    public static synchronized void cleanupSprites() {
         mySprites.clear();
+        myFrames.clear();
+        myAtlas = null;
+    }
+
+    /**
+     * Gets the sprite's handle in the atlas.
+     *
+     * @return The handle.
+     */
+    public int getHandle() {
+        return myHandle;
     }
 
     /**
-     * Gets the ImageIcon representation of this sprite.
+     * Gets the ImageIcon representation of this sprite. The icon's image shares its pixels with the atlas,
+     * so it is made on each call rather than kept, which would keep an unloaded group's pages alive.
      *
-     * @return The ImageIcon.
+     * @return The ImageIcon, or null if the sprite's group is not loaded.
      */
     public ImageIcon getImageIcon() {
-        return myImage;
+        final BufferedImage image = myAtlas.getImage(myHandle);
+        return image == null ? null : new ImageIcon(image);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,525 @@
+package drippyspelunk.controller.sprite;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.ImageObserver;
+import java.awt.image.IndexColorModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A texture atlas: every sprite frame packed into a few large page images, each frame known by a dense integer handle.
+ * Drawing a frame copies its region of a page, so the renderers need no per-frame image objects or lookups.
+ * Frames are reserved in groups before any image is decoded, so every handle is known up front;
+ * each group's frames are packed into pages of their own when the group is loaded, and the pages can be
+ * dropped again with {@link #unload(int)}. Frames with an indexed palette stay indexed in the atlas.
+ *
+ * @author David Norman
+ * @version 1.3
+ */
+public final class SpriteAtlas {
+
+    /**
+     * The handle returned for a sprite that is not in the atlas.
+     */
+    public static final int NO_SPRITE = -1;
+    /**
+     * The width and largest height of a page, in pixels.
+     */
+    private static final int PAGE_SIZE = 2048;
+    /**
+     * The transparent gap left around each frame, in pixels, so scaled frames never sample their neighbours.
+     */
+    private static final int PADDING = 1;
+    /**
+     * The number of ints stored per frame in the region table: page, x, y, width, height.
+     */
+    private static final int REGION_STRIDE = 5;
+
+    /**
+     * The identifier of every frame, indexed by handle.
+     */
+    private final String[] myIdentifiers;
+    /**
+     * The first handle of every group, followed by the frame count.
+     */
+    private final int[] myGroupStarts;
+    /**
+     * The group of every frame, indexed by handle.
+     */
+    private final int[] myGroups;
+    /**
+     * The page within its group and source rectangle of every frame, {@link #REGION_STRIDE} ints per handle.
+     * A group's regions are written before its pages are published.
+     */
+    private final int[] myRegions;
+    /**
+     * The pages of every group, or null for a group that is not loaded.
+     */
+    private final AtomicReferenceArray<BufferedImage[]> myPages;
+    /**
+     * The handle of every sprite by its identifier.
+     */
+    private final Map<String, Integer> myHandles;
+
+    /**
+     * Constructs a SpriteAtlas with every group unloaded.
+     *
+     * @param theIdentifiers The identifier of every frame, indexed by handle.
+     * @param theGroupStarts The first handle of every group, followed by the frame count.
+     * @param theHandles     The handle of every sprite by its identifier.
+     */
+    private SpriteAtlas(final String[] theIdentifiers, final int[] theGroupStarts, final Map<String, Integer> theHandles) {
+        myIdentifiers = theIdentifiers;
+        myGroupStarts = theGroupStarts;
+        myGroups = new int[theIdentifiers.length];
+        for (int group = 0; group < theGroupStarts.length - 1; group++) {
+            Arrays.fill(myGroups, theGroupStarts[group], theGroupStarts[group + 1], group);
+        }
+        myRegions = new int[theIdentifiers.length * REGION_STRIDE];
+        myPages = new AtomicReferenceArray<>(theGroupStarts.length - 1);
+        myHandles = Collections.unmodifiableMap(theHandles);
+    }
+
+    /**
+     * Gets the handle of a sprite. Look handles up once, when a renderer is set up, not while drawing.
+     *
+     * @param theIdentifier The sprite identifier.
+     * @return The handle, or {@link #NO_SPRITE} if the atlas does not hold the sprite.
+     */
+    public int getHandle(final String theIdentifier) {
+        final Integer handle = myHandles.get(theIdentifier);
+        return handle == null ? NO_SPRITE : handle;
+    }
+
+    /**
+     * Gets the handle of every sprite by its identifier.
+     *
+     * @return An unmodifiable map of handles.
+     */
+    public Map<String, Integer> getHandles() {
+        return myHandles;
+    }
+
+    /**
+     * Gets the identifier of a frame.
+     *
+     * @param theHandle The frame's handle.
+     * @return The identifier.
+     */
+    public String getIdentifier(final int theHandle) {
+        return myIdentifiers[theHandle];
+    }
+
+    /**
+     * Gets the number of frames. Handles run from 0 to one less than the frame count.
+     *
+     * @return The frame count.
+     */
+    public int getFrameCount() {
+        return myIdentifiers.length;
+    }
+
+    /**
+     * Gets the number of groups.
+     *
+     * @return The group count.
+     */
+    public int getGroupCount() {
+        return myPages.length();
+    }
+
+    /**
+     * Gets the group a frame belongs to.
+     *
+     * @param theHandle The frame's handle.
+     * @return The group.
+     */
+    public int getGroup(final int theHandle) {
+        return myGroups[theHandle];
+    }
+
+    /**
+     * Gets the first handle of a group. A group's handles are consecutive.
+     *
+     * @param theGroup The group.
+     * @return The first handle.
+     */
+    public int getFirstHandle(final int theGroup) {
+        return myGroupStarts[theGroup];
+    }
+
+    /**
+     * Gets the number of frames in a group.
+     *
+     * @param theGroup The group.
+     * @return The frame count.
+     */
+    public int getFrameCount(final int theGroup) {
+        return myGroupStarts[theGroup + 1] - myGroupStarts[theGroup];
+    }
+
+    /**
+     * Checks whether a group's pages are loaded.
+     *
+     * @param theGroup The group.
+     * @return True if the group can be drawn.
+     */
+    public boolean isLoaded(final int theGroup) {
+        return myPages.get(theGroup) != null;
+    }
+
+    /**
+     * Gets the number of bytes a group's pages take. Pages that share their pixels are counted once.
+     *
+     * @param theGroup The group.
+     * @return The size in bytes, or 0 if the group is not loaded.
+     */
+    public long getByteSize(final int theGroup) {
+        final BufferedImage[] pages = myPages.get(theGroup);
+        long size = 0;
+        if (pages != null) {
+            final Set<DataBuffer> counted = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (final BufferedImage page : pages) {
+                final DataBuffer buffer = page.getRaster().getDataBuffer();
+                if (counted.add(buffer)) {
+                    size += (long) buffer.getSize() * buffer.getNumBanks()
+                            * DataBuffer.getDataTypeSize(buffer.getDataType()) / Byte.SIZE;
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Gets the width of a frame in a loaded group.
+     *
+     * @param theHandle The frame's handle.
+     * @return The width in pixels.
+     */
+    public int getWidth(final int theHandle) {
+        return myRegions[theHandle * REGION_STRIDE + 3];
+    }
+
+    /**
+     * Gets the height of a frame in a loaded group.
+     *
+     * @param theHandle The frame's handle.
+     * @return The height in pixels.
+     */
+    public int getHeight(final int theHandle) {
+        return myRegions[theHandle * REGION_STRIDE + 4];
+    }
+
+    /**
+     * Gets a frame as an image. The image shares its pixels with the page, so nothing is copied.
+     *
+     * @param theHandle The frame's handle.
+     * @return The frame image, or null if its group is not loaded or the frame could not be decoded.
+     */
+    public BufferedImage getImage(final int theHandle) {
+        final BufferedImage[] pages = myPages.get(myGroups[theHandle]);
+        final int region = theHandle * REGION_STRIDE;
+        if (pages == null || myRegions[region + 3] == 0) {
+            return null;
+        }
+        return pages[myRegions[region]].getSubimage(myRegions[region + 1], myRegions[region + 2],
+                myRegions[region + 3], myRegions[region + 4]);
+    }
+
+    /**
+     * Draws a frame scaled to a destination rectangle. Nothing is drawn if the frame's group is not loaded.
+     *
+     * @param theGraphics The graphics to draw with.
+     * @param theHandle   The frame's handle.
+     * @param theX        The destination x-coordinate.
+     * @param theY        The destination y-coordinate.
+     * @param theWidth    The destination width.
+     * @param theHeight   The destination height.
+     * @param theObserver The image observer, or null.
+     */
+    public void draw(final Graphics2D theGraphics, final int theHandle, final int theX, final int theY,
+                     final int theWidth, final int theHeight, final ImageObserver theObserver) {
+        final BufferedImage[] pages = myPages.get(myGroups[theHandle]);
+        final int region = theHandle * REGION_STRIDE;
+        if (pages == null || myRegions[region + 3] == 0) {
+            return;
+        }
+        final int sourceX = myRegions[region + 1];
+        final int sourceY = myRegions[region + 2];
+        theGraphics.drawImage(pages[myRegions[region]],
+                theX, theY, theX + theWidth, theY + theHeight,
+                sourceX, sourceY, sourceX + myRegions[region + 3], sourceY + myRegions[region + 4],
+                theObserver);
+    }
+
+    /**
+     * Packs a group's frames into pages and makes the group drawable. Frames are placed tallest first
+     * on shelves across each page, and each page is only as large as it needs to be.
+     * Frames with an indexed palette are packed onto pages of their own with that palette, one byte per pixel.
+     * When a palette-swapped variant's frames share their pixels with frames already packed, the variant's pages
+     * share those pages' pixels too, so the variant costs only its palette.
+     * Packing the same frames again gives the same regions, so a group can be reloaded while it is drawn.
+     *
+     * @param theGroup  The group.
+     * @param theFrames The group's frames, in handle order; a null frame is left empty.
+     */
+    public synchronized void pack(final int theGroup, final BufferedImage[] theFrames) {
+        final int firstHandle = myGroupStarts[theGroup];
+        final Map<IndexColorModel, List<Integer>> formats = new LinkedHashMap<>();
+        for (int i = 0; i < theFrames.length; i++) {
+            if (theFrames[i] != null) {
+                final IndexColorModel palette = theFrames[i].getColorModel() instanceof IndexColorModel model
+                        ? model : null;
+                formats.computeIfAbsent(palette, thePalette -> new ArrayList<>()).add(i);
+            } else {
+                Arrays.fill(myRegions, (firstHandle + i) * REGION_STRIDE, (firstHandle + i + 1) * REGION_STRIDE, 0);
+            }
+        }
+
+        final List<BufferedImage> pages = new ArrayList<>();
+        final List<PackedFormat> packed = new ArrayList<>();
+        for (final Map.Entry<IndexColorModel, List<Integer>> format : formats.entrySet()) {
+            final PackedFormat shared = format.getKey() == null ? null
+                    : findSharedPixels(packed, theFrames, format.getValue());
+            final int firstPage = pages.size();
+            if (shared != null) {
+                for (int page = shared.firstPage(); page < shared.firstPage() + shared.pageCount(); page++) {
+                    pages.add(new BufferedImage(format.getKey(), pages.get(page).getRaster(), false, null));
+                }
+                for (int i = 0; i < format.getValue().size(); i++) {
+                    final int region = (firstHandle + format.getValue().get(i)) * REGION_STRIDE;
+                    final int sharedRegion = (firstHandle + shared.frames().get(i)) * REGION_STRIDE;
+                    System.arraycopy(myRegions, sharedRegion, myRegions, region, REGION_STRIDE);
+                    myRegions[region] += firstPage - shared.firstPage();
+                }
+            } else {
+                packShelves(firstHandle, theFrames, format.getValue(), format.getKey(), pages);
+            }
+            packed.add(new PackedFormat(format.getValue(), firstPage, pages.size() - firstPage));
+        }
+        myPages.set(theGroup, pages.toArray(new BufferedImage[0]));
+    }
+
+    /**
+     * Packs frames of one format onto new pages on shelves, tallest first.
+     *
+     * @param theFirstHandle The first handle of the group.
+     * @param theFrames      The group's frames, in handle order.
+     * @param theIndices     The indices of the frames to pack.
+     * @param thePalette     The palette the frames share, or null for ARGB frames.
+     * @param thePages       The group's pages, which the new pages are added to.
+     */
+    private void packShelves(final int theFirstHandle, final BufferedImage[] theFrames, final List<Integer> theIndices,
+                             final IndexColorModel thePalette, final List<BufferedImage> thePages) {
+        final List<Integer> order = new ArrayList<>(theIndices);
+        order.sort(Comparator.comparingInt((Integer theIndex) -> theFrames[theIndex].getHeight()).reversed());
+
+        final int firstPage = thePages.size();
+        final List<int[]> pageSizes = new ArrayList<>();
+        int page = -1;
+        int shelfX = PAGE_SIZE;
+        int shelfY = 0;
+        int shelfHeight = 0;
+        for (final int index : order) {
+            final BufferedImage frame = theFrames[index];
+            final int width = frame.getWidth() + PADDING * 2;
+            final int height = frame.getHeight() + PADDING * 2;
+            if (shelfX + width > PAGE_SIZE) {
+                shelfY += shelfHeight;
+                shelfX = 0;
+                shelfHeight = height;
+            }
+            if (page < 0 || shelfY + height > PAGE_SIZE) {
+                page++;
+                pageSizes.add(new int[]{0, 0});
+                shelfX = 0;
+                shelfY = 0;
+                shelfHeight = height;
+            }
+            final int[] size = pageSizes.get(page);
+            size[0] = Math.max(size[0], shelfX + width);
+            size[1] = Math.max(size[1], shelfY + height);
+
+            final int region = (theFirstHandle + index) * REGION_STRIDE;
+            myRegions[region] = firstPage + page;
+            myRegions[region + 1] = shelfX + PADDING;
+            myRegions[region + 2] = shelfY + PADDING;
+            myRegions[region + 3] = frame.getWidth();
+            myRegions[region + 4] = frame.getHeight();
+            shelfX += width;
+        }
+
+        for (final int[] size : pageSizes) {
+            thePages.add(thePalette == null ? new BufferedImage(size[0], size[1], BufferedImage.TYPE_INT_ARGB)
+                    : createIndexedPage(thePalette, size[0], size[1]));
+        }
+        if (thePalette == null) {
+            final Graphics2D[] graphics = new Graphics2D[pageSizes.size()];
+            for (int i = 0; i < graphics.length; i++) {
+                graphics[i] = thePages.get(firstPage + i).createGraphics();
+                graphics[i].setComposite(AlphaComposite.Src);
+            }
+            for (final int index : order) {
+                final int region = (theFirstHandle + index) * REGION_STRIDE;
+                graphics[myRegions[region] - firstPage].drawImage(theFrames[index],
+                        myRegions[region + 1], myRegions[region + 2], null);
+            }
+            for (final Graphics2D pageGraphics : graphics) {
+                pageGraphics.dispose();
+            }
+        } else {
+            for (final int index : order) {
+                final int region = (theFirstHandle + index) * REGION_STRIDE;
+                thePages.get(myRegions[region]).getRaster().setRect(myRegions[region + 1], myRegions[region + 2],
+                        theFrames[index].getRaster());
+            }
+        }
+    }
+
+    /**
+     * Creates an indexed page, cleared to the palette's first fully transparent colour if it has one.
+     *
+     * @param thePalette The palette.
+     * @param theWidth   The width.
+     * @param theHeight  The height.
+     * @return The page.
+     */
+    private static BufferedImage createIndexedPage(final IndexColorModel thePalette, final int theWidth,
+                                                   final int theHeight) {
+        final WritableRaster raster = thePalette.createCompatibleWritableRaster(theWidth, theHeight);
+        for (int index = 0; index < thePalette.getMapSize(); index++) {
+            if (thePalette.getAlpha(index) == 0) {
+                if (index != 0) {
+                    final int[] row = new int[theWidth];
+                    Arrays.fill(row, index);
+                    for (int y = 0; y < theHeight; y++) {
+                        raster.setSamples(0, y, theWidth, 1, 0, row);
+                    }
+                }
+                break;
+            }
+        }
+        return new BufferedImage(thePalette, raster, false, null);
+    }
+
+    /**
+     * Finds an already packed format whose frames show the same pixels as some indexed frames, one for one,
+     * as a palette-swapped variant and its base sheet do.
+     *
+     * @param thePacked  The formats packed so far.
+     * @param theFrames  The group's frames, in handle order.
+     * @param theIndices The indices of the indexed frames.
+     * @return The packed format, or null if none shares the frames' pixels.
+     */
+    private static PackedFormat findSharedPixels(final List<PackedFormat> thePacked, final BufferedImage[] theFrames,
+                                                 final List<Integer> theIndices) {
+        for (final PackedFormat format : thePacked) {
+            if (format.frames().size() != theIndices.size()) {
+                continue;
+            }
+            boolean shared = true;
+            for (int i = 0; i < theIndices.size() && shared; i++) {
+                final Raster raster = theFrames[theIndices.get(i)].getRaster();
+                final Raster packedRaster = theFrames[format.frames().get(i)].getRaster();
+                shared = raster.getDataBuffer() == packedRaster.getDataBuffer()
+                        && raster.getSampleModelTranslateX() == packedRaster.getSampleModelTranslateX()
+                        && raster.getSampleModelTranslateY() == packedRaster.getSampleModelTranslateY()
+                        && raster.getWidth() == packedRaster.getWidth()
+                        && raster.getHeight() == packedRaster.getHeight();
+            }
+            if (shared) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Drops a group's pages. The group's handles stay valid and draw nothing until it is packed again.
+     *
+     * @param theGroup The group.
+     */
+    public void unload(final int theGroup) {
+        myPages.set(theGroup, null);
+    }
+
+    /**
+     * Reserves handles for sprite frames, group by group, before any of them is decoded.
+     * Handles are given out in the order identifiers are reserved; reserving an identifier
+     * that is already taken gives back its handle.
+     */
+    public static final class Builder {
+
+        /**
+         * The identifiers reserved so far, indexed by handle.
+         */
+        private final List<String> myIdentifiers = new ArrayList<>();
+        /**
+         * The first handle of every group started so far.
+         */
+        private final List<Integer> myGroupStarts = new ArrayList<>();
+        /**
+         * The handle of every sprite by its identifier.
+         */
+        private final Map<String, Integer> myHandles = new HashMap<>();
+
+        /**
+         * Starts a new group. Identifiers reserved from now on belong to it.
+         *
+         * @return The group.
+         */
+        public int startGroup() {
+            myGroupStarts.add(myIdentifiers.size());
+            return myGroupStarts.size() - 1;
+        }
+
+        /**
+         * Reserves a handle in the current group.
+         *
+         * @param theIdentifier The sprite identifier.
+         * @return The handle.
+         */
+        public int reserve(final String theIdentifier) {
+            final Integer existing = myHandles.get(theIdentifier);
+            if (existing != null) {
+                return existing;
+            }
+            if (myGroupStarts.isEmpty()) {
+                startGroup();
+            }
+            final int handle = myIdentifiers.size();
+            myIdentifiers.add(theIdentifier);
+            myHandles.put(theIdentifier, handle);
+            return handle;
+        }
+
+        /**
+         * Creates the atlas with every group unloaded.
+         *
+         * @return The atlas.
+         */
+        public SpriteAtlas build() {
+            final int[] groupStarts = new int[myGroupStarts.size() + 1];
+            for (int i = 0; i < myGroupStarts.size(); i++) {
+                groupStarts[i] = myGroupStarts.get(i);
+            }
+            groupStarts[myGroupStarts.size()] = myIdentifiers.size();
+            return new SpriteAtlas(myIdentifiers.toArray(new String[0]), groupStarts, new HashMap<>(myHandles));
+        }
+    }
+
+    /**
+     * The frames of one format in a group, after they were packed.
+     *
+     * @param frames    The indices of the frames within the group, in handle order.
+     * @param firstPage The first of the format's pages within the group.
+     * @param pageCount The number of pages the format takes.
+     */
+    private record PackedFormat(List<Integer> frames, int firstPage, int pageCount) {
+    }
+}
@@ -1,16 +1,44 @@
 package drippyspelunk.controller.sprite;
 
+import drippyspelunk.controller.config.ConfigManager;
+import drippyspelunk.controller.config.Settings;
+import drippyspelunk.controller.content.ContentPack;
+
 import javax.imageio.ImageIO;
 import javax.swing.*;
+import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Manages all sprite loadings for the application.
+ * Every frame is packed into one {@link SpriteAtlas}; renderers look up a frame's handle once
+ * with {@link #getHandle(String)} and draw it with {@link #drawSprite}. Animated sheets are also
+ * resolved into {@link AnimationClip}s, so animations are drawn without building identifier strings.
+ * Sprites are drawn through a {@link ScaledSpriteCache} for the current GUI scale, which is replaced
+ * when the scale setting changes. When {@link RenderCapabilities} finds accelerated volatile images at startup,
+ * the sprites drawn most often are also kept in video memory by a {@link VolatileSpriteCache}.
+ * <p>
+ * Handles are reserved from the sprite index at startup without decoding anything. The sheets are then
+ * decoded in groups on a pool of loader threads: the common sheets in the background as soon as the game starts,
+ * and each biome's floor and wall sheets and each ending image only when they are first drawn or prefetched.
+ * Biome and ending groups are unloaded, least recently used first, when together they take more than
+ * the heap budget set by the {@value #SPRITE_BUDGET_PROPERTY} system property, in megabytes.
+ * Indexed-colour sheets stay one byte per pixel in the atlas, and palette-swapped variants made with
+ * {@link SpriteSheetEntry#withPalette(String, int...)} share their base sheet's pixels.
  *
  * @author Devin Arroyo
- * @version 1.4
+ * @version 1.14
  */
 public final class SpriteManager {
 
@@ -18,11 +46,101 @@ public final class SpriteManager {
      * The base path for all sprite resources.
      */
     private static final String SPRITES_PATH = "/sprite/";
+    /**
+     * The tint of the Orc Berserker, an elite orc drawn from the orc sheet.
+     */
+    private static final int BERSERKER_TINT = 0xFF8070;
+    /**
+     * The number of biomes with their own floor and wall sheets.
+     */
+    public static final int BIOME_COUNT = 5;
+    /**
+     * The system property that sets the heap budget, in megabytes, of the sheets loaded on demand.
+     */
+    public static final String SPRITE_BUDGET_PROPERTY = "drippyspelunk.spriteBudget";
+    /**
+     * The heap budget, in megabytes, used when the budget property is not set.
+     */
+    private static final int DEFAULT_SPRITE_BUDGET = 16;
+    /**
+     * The identifier prefix of the floor sheets, followed by the biome.
+     */
+    private static final String FLOOR_SHEET_PREFIX = "floor_sprite_biome";
+    /**
+     * The identifier prefix of the wall sheets, followed by the biome.
+     */
+    private static final String WALL_SHEET_PREFIX = "wall_sprite_biome";
+    /**
+     * The identifier prefix of the ending images.
+     */
+    private static final String ENDING_PREFIX = "ending_";
+    /**
+     * The name of the group of sheets loaded at startup and never unloaded.
+     */
+    private static final String CORE_GROUP = "core";
+    /**
+     * The name prefix of the biome groups, followed by the biome.
+     */
+    private static final String BIOME_GROUP_PREFIX = "biome";
+    /**
+     * The group the core sheets are reserved in.
+     */
+    private static final int CORE_GROUP_INDEX = 0;
+    /**
+     * The name of the loader threads.
+     */
+    private static final String LOADER_THREAD_NAME = "SpriteLoader";
+    /**
+     * The pool of loader threads that decode sheets.
+     */
+    private static final ExecutorService LOADER = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1), theRunnable -> {
+                final Thread thread = new Thread(theRunnable, LOADER_THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+            });
 
     /**
      * The singleton instance of the SpriteManager.
      */
     private static final SpriteManager INSTANCE = new SpriteManager();
+    /**
+     * The animation clip of every animated and character sheet, by the sheet's identifier.
+     */
+    private static volatile Map<String, AnimationClip> myAnimationClips = Map.of();
+    /**
+     * The scaled copies of the sprites for the current GUI scale.
+     */
+    private static volatile ScaledSpriteCache myScaledSprites;
+    /**
+     * The hot sprites kept in video memory for the current GUI scale, or null on the managed image path.
+     */
+    private static volatile VolatileSpriteCache myVolatileSprites;
+    /**
+     * Every group by its name.
+     */
+    private static Map<String, Integer> myGroups = Map.of();
+    /**
+     * The sheets of every group, indexed by group.
+     */
+    private static List<List<SpriteSheetEntry>> myGroupSheets = List.of();
+    /**
+     * The load of every group that is loading or loaded, indexed by group; null for a group that is not.
+     */
+    private static CompletableFuture<?>[] myGroupLoads = new CompletableFuture<?>[0];
+    /**
+     * When every group was last used, indexed by group, on the clock of {@link #myUseClock}.
+     * Drawing updates it without locking, so it is only a hint for choosing what to unload.
+     */
+    private static long[] myLastUsed = new long[0];
+    /**
+     * A counter that advances each time a group is used.
+     */
+    private static long myUseClock;
+    /**
+     * The heap budget of the biome and ending groups, in bytes.
+     */
+    private static long myBudget;
 
     /**
      * Private constructor to enforce a singleton pattern.
@@ -31,23 +149,263 @@ public final class SpriteManager {
     }
 
     /**
-     * Initializes the SpriteManager by loading all necessary sprites and sprite sheets from the resources.
+     * Initializes the SpriteManager by reserving a handle for every sprite and starting to decode the common sheets
+     * in the background. The title screen draws no atlas sprites, so nothing here waits for an image.
+     * The sprite index comes from the content pack when one is present and up to date.
+     * The render path is probed here too, before anything is drawn.
      * This method should be called once at the start of the application.
      */
     public static synchronized void initialize() {
-        new SpriteBuilder().setIdentifier("exampleSheet").setPath(SPRITES_PATH + "example.png").load();
+        RenderCapabilities.probe();
+        final ContentPack pack = ContentPack.getInstance();
+        final List<SpriteSheetEntry> sheets = pack != null ? pack.getSpriteSheets() : getDefaultSheets();
+
+        final Map<String, List<SpriteSheetEntry>> groupSheets = new LinkedHashMap<>();
+        groupSheets.put(CORE_GROUP, new ArrayList<>());
+        for (final SpriteSheetEntry sheet : sheets) {
+            groupSheets.computeIfAbsent(getGroupName(sheet.getIdentifier()), theName -> new ArrayList<>()).add(sheet);
+        }
+        final SpriteAtlas.Builder builder = new SpriteAtlas.Builder();
+        final Map<String, Integer> groups = new HashMap<>();
+        for (final Map.Entry<String, List<SpriteSheetEntry>> entry : groupSheets.entrySet()) {
+            groups.put(entry.getKey(), builder.startGroup());
+            for (final SpriteSheetEntry sheet : entry.getValue()) {
+                for (final String identifier : sheet.getSpriteIdentifiers()) {
+                    builder.reserve(identifier);
+                }
+            }
+        }
+        Sprite.setAtlas(builder.build());
+        myGroups = Map.copyOf(groups);
+        myGroupSheets = List.copyOf(groupSheets.values());
+        myGroupLoads = new CompletableFuture<?>[groupSheets.size()];
+        myLastUsed = new long[groupSheets.size()];
+        myBudget = Integer.getInteger(SPRITE_BUDGET_PROPERTY, DEFAULT_SPRITE_BUDGET) * 1024L * 1024L;
+        myAnimationClips = resolveAnimationClips(sheets, Sprite.getAtlas());
+
+        final ConfigManager config = ConfigManager.getInstance();
+        createSpriteCaches(config.getSettings().guiScale());
+        config.addSettingsListener(theEvent -> applySettings((Settings) theEvent.getNewValue()));
+
+        loadGroup(CORE_GROUP_INDEX);
+    }
+
+    /**
+     * Gets the name of the group a sheet is loaded in.
+     *
+     * @param theIdentifier The identifier of the sheet.
+     * @return The group name: the biome group for floor and wall sheets, the sheet's own group for an ending image,
+     * and the core group for everything else.
+     */
+    private static String getGroupName(final String theIdentifier) {
+        if (theIdentifier.startsWith(FLOOR_SHEET_PREFIX)) {
+            return BIOME_GROUP_PREFIX + theIdentifier.substring(FLOOR_SHEET_PREFIX.length());
+        }
+        if (theIdentifier.startsWith(WALL_SHEET_PREFIX)) {
+            return BIOME_GROUP_PREFIX + theIdentifier.substring(WALL_SHEET_PREFIX.length());
+        }
+        if (theIdentifier.startsWith(ENDING_PREFIX)) {
+            return theIdentifier;
+        }
+        return CORE_GROUP;
+    }
+
+    /**
+     * Starts loading a group if it is not loaded or loading. Each image is decoded once, on its own loader thread,
+     * for the sheet and any palette-swapped variants cut from it, and the group is packed into the atlas
+     * once they are all done. Every window is repainted then, so sprites skipped while it was loading are drawn.
+     *
+     * @param theGroup The group.
+     * @return The group's load.
+     */
+    private static synchronized CompletableFuture<?> loadGroup(final int theGroup) {
+        myLastUsed[theGroup] = ++myUseClock;
+        CompletableFuture<?> load = myGroupLoads[theGroup];
+        if (load == null) {
+            final Map<String, List<SpriteSheetEntry>> images = new LinkedHashMap<>();
+            for (final SpriteSheetEntry sheet : myGroupSheets.get(theGroup)) {
+                images.computeIfAbsent(sheet.getPath(), thePath -> new ArrayList<>()).add(sheet);
+            }
+            final List<CompletableFuture<?>> decodes = new ArrayList<>();
+            for (final Map.Entry<String, List<SpriteSheetEntry>> image : images.entrySet()) {
+                decodes.add(CompletableFuture.runAsync(() -> SpriteSheetEntry.loadAll(image.getValue()), LOADER)
+                        .exceptionally(theException -> {
+                            // A sheet that fails to load draws nothing.
+                            final Throwable cause = theException.getCause() != null
+                                    ? theException.getCause() : theException;
+                            System.out.println("Could not load sprite sheet " + image.getKey() + ": " + cause);
+                            return null;
+                        }));
+            }
+            load = CompletableFuture.allOf(decodes.toArray(new CompletableFuture<?>[0])).thenRunAsync(() -> {
+                Sprite.packGroup(theGroup);
+                unloadOverBudget(theGroup);
+            }, LOADER);
+            load.whenComplete((theResult, theException) -> SwingUtilities.invokeLater(() -> {
+                for (final Window window : Window.getWindows()) {
+                    window.repaint();
+                }
+            }));
+            myGroupLoads[theGroup] = load;
+        }
+        return load;
+    }
+
+    /**
+     * Unloads the least recently used biome and ending groups until together they fit in the budget.
+     *
+     * @param theKeptGroup A group that is not unloaded, because it was just loaded.
+     */
+    private static synchronized void unloadOverBudget(final int theKeptGroup) {
+        final SpriteAtlas atlas = Sprite.getAtlas();
+        long size = 0;
+        for (int group = 0; group < atlas.getGroupCount(); group++) {
+            if (group != CORE_GROUP_INDEX) {
+                size += atlas.getByteSize(group);
+            }
+        }
+        while (size > myBudget) {
+            int oldest = -1;
+            for (int group = 0; group < atlas.getGroupCount(); group++) {
+                if (group != CORE_GROUP_INDEX && group != theKeptGroup && atlas.isLoaded(group)
+                        && (oldest < 0 || myLastUsed[group] < myLastUsed[oldest])) {
+                    oldest = group;
+                }
+            }
+            if (oldest < 0) {
+                return;
+            }
+            size -= atlas.getByteSize(oldest);
+            myGroupLoads[oldest] = null;
+            atlas.unload(oldest);
+            final VolatileSpriteCache volatileSprites = myVolatileSprites;
+            if (volatileSprites != null) {
+                volatileSprites.evict(atlas.getFirstHandle(oldest), atlas.getFrameCount(oldest));
+            } else {
+                myScaledSprites.evict(atlas.getFirstHandle(oldest), atlas.getFrameCount(oldest));
+            }
+        }
+    }
+
+    /**
+     * Makes sure the group of a sprite is loaded, waiting for it if it is not, and marks the group as used.
+     *
+     * @param theAtlas  The atlas.
+     * @param theHandle The sprite's handle.
+     */
+    private static void ensureLoaded(final SpriteAtlas theAtlas, final int theHandle) {
+        final int group = theAtlas.getGroup(theHandle);
+        if (theAtlas.isLoaded(group)) {
+            myLastUsed[group] = ++myUseClock;
+        } else {
+            loadGroup(group).join();
+        }
+    }
+
+    /**
+     * Checks whether the group of a sprite is loaded and marks the group as used. A group that is not loaded
+     * is started loading instead, so this never waits.
+     *
+     * @param theAtlas  The atlas.
+     * @param theHandle The sprite's handle.
+     * @return True if the sprite can be drawn now.
+     */
+    private static boolean isReady(final SpriteAtlas theAtlas, final int theHandle) {
+        final int group = theAtlas.getGroup(theHandle);
+        if (theAtlas.isLoaded(group)) {
+            myLastUsed[group] = ++myUseClock;
+            return true;
+        }
+        loadGroup(group);
+        return false;
+    }
 
-        new SpriteBuilder().setIdentifier("floor_sprite_biome1").setPath(SPRITES_PATH + "floor_sprite_biome1.png").loadFromSheetWithCharacters(32, 32, 9, 'a');
-        new SpriteBuilder().setIdentifier("floor_sprite_biome2").setPath(SPRITES_PATH + "floor_sprite_biome2.png").loadFromSheetWithCharacters(32, 32, 9, 'a');
-        new SpriteBuilder().setIdentifier("floor_sprite_biome3").setPath(SPRITES_PATH + "floor_sprite_biome3.png").loadFromSheetWithCharacters(32, 32, 9, 'a');
-        new SpriteBuilder().setIdentifier("floor_sprite_biome4").setPath(SPRITES_PATH + "floor_sprite_biome4.png").loadFromSheetWithCharacters(32, 32, 9, 'a');
-        new SpriteBuilder().setIdentifier("floor_sprite_biome5").setPath(SPRITES_PATH + "floor_sprite_biome5.png").loadFromSheetWithCharacters(32, 32, 9, 'a');
+    /**
+     * Starts loading a biome's floor and wall sheets in the background, so a room in that biome
+     * can be drawn as soon as it is entered.
+     *
+     * @param theBiome The biome.
+     */
+    public static void prefetchBiome(final int theBiome) {
+        final Integer group = myGroups.get(BIOME_GROUP_PREFIX + theBiome);
+        if (group != null) {
+            loadGroup(group);
+        }
+    }
 
-        new SpriteBuilder().setIdentifier("wall_sprite_biome1").setPath(SPRITES_PATH + "wall_sprite_biome1.png").loadFromSheetWithCharacters(32, 32, 21, 'A');
-        new SpriteBuilder().setIdentifier("wall_sprite_biome2").setPath(SPRITES_PATH + "wall_sprite_biome2.png").loadFromSheetWithCharacters(32, 32, 21, 'A');
-        new SpriteBuilder().setIdentifier("wall_sprite_biome3").setPath(SPRITES_PATH + "wall_sprite_biome3.png").loadFromSheetWithCharacters(32, 32, 21, 'A');
-        new SpriteBuilder().setIdentifier("wall_sprite_biome4").setPath(SPRITES_PATH + "wall_sprite_biome4.png").loadFromSheetWithCharacters(32, 32, 21, 'A');
-        new SpriteBuilder().setIdentifier("wall_sprite_biome5").setPath(SPRITES_PATH + "wall_sprite_biome5.png").loadFromSheetWithCharacters(32, 32, 21, 'A');
+    /**
+     * Replaces the sprite caches when the GUI scale changes. The new caches fill as sprites are drawn.
+     *
+     * @param theSettings The new settings.
+     */
+    private static void applySettings(final Settings theSettings) {
+        final ScaledSpriteCache scaledSprites = myScaledSprites;
+        if (scaledSprites != null && scaledSprites.getScale() != theSettings.guiScale()) {
+            createSpriteCaches(theSettings.guiScale());
+        }
+    }
+
+    /**
+     * Creates empty sprite caches for a GUI scale, with a volatile image cache in front of the scaled copies
+     * if the volatile image path was chosen.
+     *
+     * @param theScale The GUI scale.
+     */
+    private static void createSpriteCaches(final int theScale) {
+        final ScaledSpriteCache scaledSprites = new ScaledSpriteCache(Sprite.getAtlas(), theScale);
+        final GraphicsConfiguration configuration = RenderCapabilities.getConfiguration();
+        myVolatileSprites = configuration == null ? null
+                : new VolatileSpriteCache(Sprite.getAtlas(), scaledSprites, configuration);
+        myScaledSprites = scaledSprites;
+    }
+
+    /**
+     * Resolves the animation clip of every animated and character sheet.
+     * Character sheets get a standing and a walking state in each of the four directions.
+     *
+     * @param theSheets The sprite index.
+     * @param theAtlas  The atlas the sheets were packed into.
+     * @return The clips, by sheet identifier.
+     */
+    private static Map<String, AnimationClip> resolveAnimationClips(final List<SpriteSheetEntry> theSheets,
+                                                                    final SpriteAtlas theAtlas) {
+        final Map<String, AnimationClip> clips = new HashMap<>();
+        for (final SpriteSheetEntry sheet : theSheets) {
+            switch (sheet.getLayout()) {
+                case ANIMATED -> {
+                    final String[] states = sheet.getStates().toArray(new String[0]);
+                    final int[] frameCounts = new int[states.length];
+                    Arrays.fill(frameCounts, sheet.getFrameCount());
+                    clips.put(sheet.getIdentifier(), AnimationClip.resolve(theAtlas, sheet.getIdentifier(),
+                            states, new String[0], frameCounts));
+                }
+                case CHARACTER -> clips.put(sheet.getIdentifier(), AnimationClip.resolve(theAtlas,
+                        sheet.getIdentifier(), AnimationClip.CHARACTER_STATES, AnimationClip.CHARACTER_DIRECTIONS,
+                        new int[]{1, sheet.getFrameCount() - 1}));
+                default -> {
+                }
+            }
+        }
+        return Map.copyOf(clips);
+    }
+
+    /**
+     * Gets the sprite index built into the game: every sprite and sprite sheet and how each is cut into sprites.
+     *
+     * @return The sprite index, in load order.
+     */
+    public static List<SpriteSheetEntry> getDefaultSheets() {
+        final List<SpriteSheetEntry> sheets = new ArrayList<>();
+        sheets.add(SpriteSheetEntry.image("exampleSheet", SPRITES_PATH + "example.png"));
+
+        for (int biome = 1; biome <= BIOME_COUNT; biome++) {
+            sheets.add(SpriteSheetEntry.strip(FLOOR_SHEET_PREFIX + biome,
+                    SPRITES_PATH + FLOOR_SHEET_PREFIX + biome + ".png", 32, 32, 9, 'a'));
+        }
+        for (int biome = 1; biome <= BIOME_COUNT; biome++) {
+            sheets.add(SpriteSheetEntry.strip(WALL_SHEET_PREFIX + biome,
+                    SPRITES_PATH + WALL_SHEET_PREFIX + biome + ".png", 32, 32, 21, 'A'));
+        }
 
         // Player sprite configuration (4 directions, 9 frames: 1 standing + 8 walking)
         final String[] playerStates = new String[]{
@@ -56,8 +414,8 @@ public final class SpriteManager {
         };
         final int playerFrameCount = 9; // Standing frame + 8 walking frames
 
-        new SpriteBuilder().setIdentifier("player").setPath(SPRITES_PATH + "player_animated_spritesheet.png")
-                .loadEnemyAnimatedSheet(32, 64, playerFrameCount, playerStates);
+        sheets.add(SpriteSheetEntry.character("player", SPRITES_PATH + "player_animated_spritesheet.png",
+                32, 64, playerFrameCount, playerStates));
 
         // Enemy sprite configuration (4 directions, 9 frames: 1 standing + 8 walking)
         final String[] enemyStates = new String[]{
@@ -66,60 +424,42 @@ public final class SpriteManager {
         };
         final int enemyFrameCount = 9; // Standing frame + 8 walking frames
 
-        new SpriteBuilder().setIdentifier("skeleton").setPath(SPRITES_PATH + "skeleton_animated_spritesheet.png")
-                .loadEnemyAnimatedSheet(32, 64, enemyFrameCount, enemyStates);
-
-        new SpriteBuilder().setIdentifier("goblin").setPath(SPRITES_PATH + "goblin_animated_spritesheet.png")
-                .loadEnemyAnimatedSheet(32, 64, enemyFrameCount, enemyStates);
-
-        new SpriteBuilder().setIdentifier("orc").setPath(SPRITES_PATH + "orc_animated_spritesheet.png")
-                .loadEnemyAnimatedSheet(32, 64, enemyFrameCount, enemyStates);
+        sheets.add(SpriteSheetEntry.character("skeleton", SPRITES_PATH + "skeleton_animated_spritesheet.png",
+                32, 64, enemyFrameCount, enemyStates));
+        sheets.add(SpriteSheetEntry.character("goblin", SPRITES_PATH + "goblin_animated_spritesheet.png",
+                32, 64, enemyFrameCount, enemyStates));
+        final SpriteSheetEntry orc = SpriteSheetEntry.character("orc", SPRITES_PATH + "orc_animated_spritesheet.png",
+                32, 64, enemyFrameCount, enemyStates);
+        sheets.add(orc);
+        // Elite variants are recoloured from their class's sheet when it loads, so they need no art files.
+        sheets.add(orc.withPalette("orc_berserker", BERSERKER_TINT));
+        sheets.add(SpriteSheetEntry.character("dragon", SPRITES_PATH + "dragon_animated_spritesheet.png",
+                64, 64, enemyFrameCount, enemyStates));
+
+        sheets.add(SpriteSheetEntry.image("bomb_consumable", SPRITES_PATH + "bomb_consumable.png"));
+        sheets.add(SpriteSheetEntry.animated("bomb", SPRITES_PATH + "bomb_animated_spritesheet.png",
+                128, 96, 19, "ticking", "explosion"));
+
+        for (final String image : new String[]{
+                "health_potion", "poison_potion", "speed_potion", "mystery_potion", "vision_potion",
+                "chest_closed", "chest_open", "breakable_wall", "trap", "pillar", "exit"}) {
+            sheets.add(SpriteSheetEntry.image(image, SPRITES_PATH + image + ".png"));
+        }
 
-        new SpriteBuilder().setIdentifier("dragon").setPath(SPRITES_PATH + "dragon_animated_spritesheet.png")
-                .loadEnemyAnimatedSheet(64, 64, enemyFrameCount, enemyStates);
+        sheets.add(SpriteSheetEntry.animated("controls", SPRITES_PATH + "controls_animated_spritesheet.png",
+                80, 360, 3, "normal", "combat"));
 
-        new SpriteBuilder().setIdentifier("bomb_consumable").setPath(SPRITES_PATH + "bomb_consumable.png").load();
+        sheets.add(SpriteSheetEntry.image("overlay_background_left", SPRITES_PATH + "overlay_background_left.png"));
+        sheets.add(SpriteSheetEntry.animated("overlay_background_right", SPRITES_PATH + "overlay_background_right.png",
+                360, 360, 12, "normal"));
 
-        final String[] bombStates = new String[]{
-                "ticking", "explosion"
-        };
-        new SpriteBuilder().setIdentifier("bomb").setPath(SPRITES_PATH + "bomb_animated_spritesheet.png")
-                .loadAnimatedSheet(128, 96, 19, 2, bombStates);
-
-        new SpriteBuilder().setIdentifier("health_potion").setPath(SPRITES_PATH + "health_potion.png").load();
-        new SpriteBuilder().setIdentifier("poison_potion").setPath(SPRITES_PATH + "poison_potion.png").load();
-        new SpriteBuilder().setIdentifier("speed_potion").setPath(SPRITES_PATH + "speed_potion.png").load();
-        new SpriteBuilder().setIdentifier("mystery_potion").setPath(SPRITES_PATH + "mystery_potion.png").load();
-        new SpriteBuilder().setIdentifier("vision_potion").setPath(SPRITES_PATH + "vision_potion.png").load();
-
-        new SpriteBuilder().setIdentifier("chest_closed").setPath(SPRITES_PATH + "chest_closed.png").load();
-        new SpriteBuilder().setIdentifier("chest_open").setPath(SPRITES_PATH + "chest_open.png").load();
-        new SpriteBuilder().setIdentifier("breakable_wall").setPath(SPRITES_PATH + "breakable_wall.png").load();
-        new SpriteBuilder().setIdentifier("trap").setPath(SPRITES_PATH + "trap.png").load();
-        new SpriteBuilder().setIdentifier("pillar").setPath(SPRITES_PATH + "pillar.png").load();
-        new SpriteBuilder().setIdentifier("exit").setPath(SPRITES_PATH + "exit.png").load();
-
-        new SpriteBuilder().setIdentifier("controls").setPath(SPRITES_PATH + "controls_animated_spritesheet.png")
-                .loadAnimatedSheet(80, 360, 3, 2,
-                        "normal", "combat");
-
-        new SpriteBuilder().setIdentifier("overlay_background_left").setPath(SPRITES_PATH + "overlay_background_left.png").load();
-        new SpriteBuilder().setIdentifier("overlay_background_right").setPath(SPRITES_PATH + "overlay_background_right.png")
-                .loadAnimatedSheet(360, 360, 12, 1,
-                        "normal");
-
-        new SpriteBuilder().setIdentifier("resume_game_sprite").setPath(SPRITES_PATH + "resume_game_sprite.png").load();
-        new SpriteBuilder().setIdentifier("save_game_sprite").setPath(SPRITES_PATH + "save_game_sprite.png").load();
-        new SpriteBuilder().setIdentifier("main_menu_sprite").setPath(SPRITES_PATH + "main_menu_sprite.png").load();
-        new SpriteBuilder().setIdentifier("quit_game_sprite").setPath(SPRITES_PATH + "quit_game_sprite.png").load();
-
-        new SpriteBuilder().setIdentifier("ending_win").setPath(SPRITES_PATH + "ending_win.png").load();
-        new SpriteBuilder().setIdentifier("ending_fake_win").setPath(SPRITES_PATH + "ending_fake_win.png").load();
-        new SpriteBuilder().setIdentifier("ending_death_bomb").setPath(SPRITES_PATH + "ending_death_bomb.png").load();
-        new SpriteBuilder().setIdentifier("ending_death_trap").setPath(SPRITES_PATH + "ending_death_trap.png").load();
-        new SpriteBuilder().setIdentifier("ending_death_poison").setPath(SPRITES_PATH + "ending_death_poison.png").load();
-        new SpriteBuilder().setIdentifier("ending_death_mystery").setPath(SPRITES_PATH + "ending_death_mystery.png").load();
-        new SpriteBuilder().setIdentifier("ending_death_enemy").setPath(SPRITES_PATH + "ending_death_enemy.png").load();
+        for (final String image : new String[]{
+                "resume_game_sprite", "save_game_sprite", "main_menu_sprite", "quit_game_sprite",
+                "ending_win", "ending_fake_win", "ending_death_bomb", "ending_death_trap",
+                "ending_death_poison", "ending_death_mystery", "ending_death_enemy"}) {
+            sheets.add(SpriteSheetEntry.image(image, SPRITES_PATH + image + ".png"));
+        }
+        return sheets;
     }
 
     /**
@@ -132,10 +472,10 @@ public final class SpriteManager {
     }
 
     /**
-     * Gets an ImageIcon for the sprite with the given identifier.
+     * Gets an ImageIcon for the sprite with the given identifier, waiting for its sheet to load if it has not.
      *
      * @param theIdentifier The unique identifier of the sprite.
-     * @return An ImageIcon for the requested sprite.
+     * @return An ImageIcon for the requested sprite, or null if its sheet could not be decoded.
      * @throws IllegalArgumentException if the sprite is not found.
      */
     public static ImageIcon getSprite(final String theIdentifier) {
@@ -143,9 +483,61 @@ public final class SpriteManager {
         if (sprite == null) {
             throw new IllegalArgumentException("Sprite not found " + theIdentifier);
         }
+        ensureLoaded(Sprite.getAtlas(), sprite.getHandle());
         return sprite.getImageIcon();
     }
 
+    /**
+     * Gets the atlas handle of the sprite with the given identifier.
+     * Renderers look handles up once, not while drawing.
+     *
+     * @param theIdentifier The unique identifier of the sprite.
+     * @return The handle, or {@link SpriteAtlas#NO_SPRITE} if the sprite is not loaded.
+     */
+    public static int getHandle(final String theIdentifier) {
+        final SpriteAtlas atlas = Sprite.getAtlas();
+        return atlas == null ? SpriteAtlas.NO_SPRITE : atlas.getHandle(theIdentifier);
+    }
+
+    /**
+     * Gets the animation clip of an animated or character sheet.
+     * Renderers look clips up once, not while drawing.
+     *
+     * @param theIdentifier The identifier of the sheet.
+     * @return The clip, or null if no such sheet is loaded.
+     */
+    public static AnimationClip getAnimationClip(final String theIdentifier) {
+        return myAnimationClips.get(theIdentifier);
+    }
+
+    /**
+     * Draws a sprite scaled to a destination rectangle. The first draw of a sprite at a size keeps a scaled copy,
+     * so later draws at that size are unscaled blits, from video memory once the sprite is hot on the volatile
+     * image path. A sprite whose sheet is not loaded yet draws nothing until its group has loaded in the
+     * background and the windows are repainted.
+     *
+     * @param theGraphics The graphics to draw with.
+     * @param theHandle   The sprite's handle, from {@link #getHandle(String)}.
+     * @param theX        The destination x-coordinate.
+     * @param theY        The destination y-coordinate.
+     * @param theWidth    The destination width.
+     * @param theHeight   The destination height.
+     * @return True if the sprite was drawn, false if its sheet is still loading.
+     */
+    public static boolean drawSprite(final Graphics2D theGraphics, final int theHandle, final int theX, final int theY,
+                                     final int theWidth, final int theHeight) {
+        if (!isReady(Sprite.getAtlas(), theHandle)) {
+            return false;
+        }
+        final VolatileSpriteCache volatileSprites = myVolatileSprites;
+        if (volatileSprites != null) {
+            volatileSprites.draw(theGraphics, theHandle, theX, theY, theWidth, theHeight);
+        } else {
+            myScaledSprites.draw(theGraphics, theHandle, theX, theY, theWidth, theHeight, null);
+        }
+        return true;
+    }
+
     /**
      * A helper class for building and loading sprites.
      */
@@ -160,6 +552,11 @@ public final class SpriteManager {
          */
         private String myPath;
 
+        /**
+         * The already decoded sheet to cut the sprites from, or null to read the sheet from the path.
+         */
+        private BufferedImage mySheet;
+
         /**
          * Sets the unique identifier for the sprite.
          *
@@ -182,14 +579,47 @@ public final class SpriteManager {
             return this;
         }
 
+        /**
+         * Sets an already decoded sheet to cut the sprites from instead of reading the path.
+         *
+         * @param theSheet The decoded sheet.
+         * @return This SpriteBuilder instance for chaining.
+         */
+        public SpriteBuilder setSheet(final BufferedImage theSheet) {
+            mySheet = theSheet;
+            return this;
+        }
+
+        /**
+         * Gets the sheet to cut the sprites from, reading it from the path if it was not set.
+         *
+         * @return The decoded sheet.
+         * @throws IOException if the sheet cannot be read.
+         */
+        private BufferedImage readSheet() throws IOException {
+            if (mySheet != null) {
+                return mySheet;
+            }
+            try (InputStream inputStream = getClass().getResourceAsStream(myPath)) {
+                if (inputStream == null) {
+                    throw new IOException("Resource not found " + myPath);
+                }
+                return ImageIO.read(inputStream);
+            }
+        }
+
         /**
          * Loads a single static sprite image.
          */
         public void load() {
-            if (myIdentifier == null || myPath == null) {
+            if (myIdentifier == null) {
                 return;
             }
-            Sprite.preloadSprite(myIdentifier, myPath);
+            if (mySheet != null) {
+                Sprite.preloadSpriteFromImage(myIdentifier, mySheet);
+            } else if (myPath != null) {
+                Sprite.preloadSprite(myIdentifier, myPath);
+            }
         }
 
         /**
@@ -202,11 +632,8 @@ public final class SpriteManager {
          * @param theStartChar    The starting character for the identifier suffix.
          */
         public void loadFromSheetWithCharacters(final int theSpriteWidth, final int theSpriteHeight, final int theSpriteCount, final char theStartChar) {
-            try (InputStream inputStream = getClass().getResourceAsStream(myPath)) {
-                if (inputStream == null) {
-                    throw new IOException("Resource not found " + myPath);
-                }
-                BufferedImage sheet = ImageIO.read(inputStream);
+            try {
+                BufferedImage sheet = readSheet();
 
                 for (int i = 0; i < theSpriteCount; i++) {
                     BufferedImage subImage = sheet.getSubimage(0, i * theSpriteHeight, theSpriteWidth, theSpriteHeight);
@@ -238,11 +665,8 @@ public final class SpriteManager {
             if (theStateIdentifiers.length != theStateCount) {
                 throw new IllegalArgumentException("Number of state identifiers must match state count");
             }
-            try (InputStream inputStream = getClass().getResourceAsStream(myPath)) {
-                if (inputStream == null) {
-                    throw new IOException("Resource not found " + myPath);
-                }
-                BufferedImage sheet = ImageIO.read(inputStream);
+            try {
+                BufferedImage sheet = readSheet();
 
                 for (int row = 0; row < theStateCount; row++) {
                     for (int col = 0; col < theFrameCount; col++) {
@@ -266,11 +690,8 @@ public final class SpriteManager {
          * @param theStateIdentifiers An array of identifiers for each state (standing and walking).
          */
         public void loadEnemyAnimatedSheet(final int theSpriteWidth, final int theSpriteHeight, final int theFrameCount, final String... theStateIdentifiers) {
-            try (InputStream inputStream = getClass().getResourceAsStream(myPath)) {
-                if (inputStream == null) {
-                    throw new IOException("Resource not found " + myPath);
-                }
-                BufferedImage sheet = ImageIO.read(inputStream);
+            try {
+                BufferedImage sheet = readSheet();
 
                 // 4 directions: north, west, south, east (rows 0, 1, 2, 3)
                 for (int direction = 0; direction < 4; direction++) {
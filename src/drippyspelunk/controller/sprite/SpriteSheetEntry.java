@@ -0,0 +1,363 @@
+package drippyspelunk.controller.sprite;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One entry of the sprite index: a sprite or sprite sheet, where it is loaded from, and how it is cut into sprites.
+ * The index is built in code by {@link SpriteManager} and can be read back from a content pack.
+ * An entry made with {@link #withPalette(String, int...)} is a palette-swapped variant: it is cut from the same
+ * image as its base sheet, recoloured through a palette table when it is loaded, so it needs no art file of its own.
+ * The table either replaces some colours or, when it holds a single colour, tints the whole sheet.
+ *
+ * @author David Norman
+ * @version 1.3
+ */
+public final class SpriteSheetEntry {
+
+    /**
+     * The identifier of the sprite, or the prefix of the sprites cut from the sheet.
+     */
+    private final String myIdentifier;
+    /**
+     * The resource path of the image.
+     */
+    private final String myPath;
+    /**
+     * How the image is cut into sprites.
+     */
+    private final Layout myLayout;
+    /**
+     * The width of each sprite, or 0 for a single image.
+     */
+    private final int mySpriteWidth;
+    /**
+     * The height of each sprite, or 0 for a single image.
+     */
+    private final int mySpriteHeight;
+    /**
+     * The number of sprites in a strip, or frames in each animation row.
+     */
+    private final int myFrameCount;
+    /**
+     * The character the identifiers of a strip start at.
+     */
+    private final char myStartChar;
+    /**
+     * The names of the animation states.
+     */
+    private final List<String> myStates;
+    /**
+     * The palette table of a variant: each base colour, as ARGB, followed by the colour that replaces it,
+     * or a single colour the sheet is tinted with. Empty for a sheet drawn in its own colours.
+     */
+    private final int[] myPalette;
+
+    /**
+     * Constructs a SpriteSheetEntry.
+     *
+     * @param theIdentifier   The identifier of the sprite, or the prefix of the sprites cut from the sheet.
+     * @param thePath         The resource path of the image.
+     * @param theLayout       How the image is cut into sprites.
+     * @param theSpriteWidth  The width of each sprite.
+     * @param theSpriteHeight The height of each sprite.
+     * @param theFrameCount   The number of sprites in a strip, or frames in each animation row.
+     * @param theStartChar    The character the identifiers of a strip start at.
+     * @param theStates       The names of the animation states.
+     * @param thePalette      The palette table of a variant, or an empty table for a sheet in its own colours.
+     * @throws IllegalArgumentException if the palette table holds neither pairs of colours nor a single tint.
+     */
+    public SpriteSheetEntry(final String theIdentifier, final String thePath, final Layout theLayout,
+                            final int theSpriteWidth, final int theSpriteHeight, final int theFrameCount,
+                            final char theStartChar, final List<String> theStates, final int[] thePalette) {
+        if (thePalette.length % 2 != 0 && thePalette.length != 1) {
+            throw new IllegalArgumentException("Palette table must hold pairs of colours or one tint " + theIdentifier);
+        }
+        myIdentifier = theIdentifier;
+        myPath = thePath;
+        myLayout = theLayout;
+        mySpriteWidth = theSpriteWidth;
+        mySpriteHeight = theSpriteHeight;
+        myFrameCount = theFrameCount;
+        myStartChar = theStartChar;
+        myStates = List.copyOf(theStates);
+        myPalette = thePalette.clone();
+    }
+
+    /**
+     * Creates an entry for a single image.
+     *
+     * @param theIdentifier The sprite identifier.
+     * @param thePath       The resource path of the image.
+     * @return The entry.
+     */
+    static SpriteSheetEntry image(final String theIdentifier, final String thePath) {
+        return new SpriteSheetEntry(theIdentifier, thePath, Layout.IMAGE, 0, 0, 0, '\0', List.of(), new int[0]);
+    }
+
+    /**
+     * Creates an entry for a vertical strip of sprites named with a character suffix.
+     *
+     * @param theIdentifier   The identifier prefix.
+     * @param thePath         The resource path of the sheet.
+     * @param theSpriteWidth  The width of each sprite.
+     * @param theSpriteHeight The height of each sprite.
+     * @param theSpriteCount  The number of sprites.
+     * @param theStartChar    The first identifier suffix.
+     * @return The entry.
+     */
+    static SpriteSheetEntry strip(final String theIdentifier, final String thePath, final int theSpriteWidth,
+                                  final int theSpriteHeight, final int theSpriteCount, final char theStartChar) {
+        return new SpriteSheetEntry(theIdentifier, thePath, Layout.STRIP, theSpriteWidth, theSpriteHeight,
+                theSpriteCount, theStartChar, List.of(), new int[0]);
+    }
+
+    /**
+     * Creates an entry for an animated sheet with one row per state.
+     *
+     * @param theIdentifier   The identifier prefix.
+     * @param thePath         The resource path of the sheet.
+     * @param theSpriteWidth  The width of each frame.
+     * @param theSpriteHeight The height of each frame.
+     * @param theFrameCount   The number of frames in each row.
+     * @param theStates       The state of each row.
+     * @return The entry.
+     */
+    static SpriteSheetEntry animated(final String theIdentifier, final String thePath, final int theSpriteWidth,
+                                     final int theSpriteHeight, final int theFrameCount, final String... theStates) {
+        return new SpriteSheetEntry(theIdentifier, thePath, Layout.ANIMATED, theSpriteWidth, theSpriteHeight,
+                theFrameCount, '\0', List.of(theStates), new int[0]);
+    }
+
+    /**
+     * Creates an entry for a character sheet with a standing frame and walking frames for each direction.
+     *
+     * @param theIdentifier   The identifier prefix.
+     * @param thePath         The resource path of the sheet.
+     * @param theSpriteWidth  The width of each frame.
+     * @param theSpriteHeight The height of each frame.
+     * @param theFrameCount   The number of frames in each row, including the standing frame.
+     * @param theStates       The standing states followed by the walking states.
+     * @return The entry.
+     */
+    static SpriteSheetEntry character(final String theIdentifier, final String thePath, final int theSpriteWidth,
+                                      final int theSpriteHeight, final int theFrameCount, final String... theStates) {
+        return new SpriteSheetEntry(theIdentifier, thePath, Layout.CHARACTER, theSpriteWidth, theSpriteHeight,
+                theFrameCount, '\0', List.of(theStates), new int[0]);
+    }
+
+    /**
+     * Creates a palette-swapped variant of this sheet: the same image cut the same way, with some colours replaced.
+     *
+     * @param theIdentifier   The identifier prefix of the variant.
+     * @param thePaletteTable Each base colour, as ARGB, followed by the colour that replaces it,
+     *                        or a single RGB colour to tint the whole sheet with.
+     * @return The variant entry.
+     * @throws IllegalArgumentException if the palette table holds neither pairs of colours nor a single tint.
+     */
+    public SpriteSheetEntry withPalette(final String theIdentifier, final int... thePaletteTable) {
+        return new SpriteSheetEntry(theIdentifier, myPath, myLayout, mySpriteWidth, mySpriteHeight, myFrameCount,
+                myStartChar, myStates, thePaletteTable);
+    }
+
+    /**
+     * Loads sheets that are cut from the same image, decoding the image only once.
+     * When any of them is a palette-swapped variant the image is converted to indexed colour first,
+     * so the base sheet and every variant share its pixels.
+     *
+     * @param theSheets The sheets, all with the same path.
+     * @throws RuntimeException if the image cannot be read.
+     */
+    static void loadAll(final List<SpriteSheetEntry> theSheets) {
+        final String path = theSheets.get(0).myPath;
+        BufferedImage image;
+        try (InputStream inputStream = SpriteSheetEntry.class.getResourceAsStream(path)) {
+            if (inputStream == null) {
+                throw new IOException("Resource not found " + path);
+            }
+            image = ImageIO.read(inputStream);
+            if (image == null) {
+                throw new IOException("Failed to read image from " + path);
+            }
+        } catch (final IOException exception) {
+            throw new RuntimeException("Failed to load sprite sheet " + path, exception);
+        }
+        for (final SpriteSheetEntry sheet : theSheets) {
+            if (sheet.myPalette.length > 0) {
+                image = PaletteSwap.toIndexed(image);
+                break;
+            }
+        }
+        for (final SpriteSheetEntry sheet : theSheets) {
+            sheet.load(image);
+        }
+    }
+
+    /**
+     * Registers the sprites cut from the decoded image, recoloured first if this sheet is a variant.
+     *
+     * @param theImage The decoded image.
+     */
+    private void load(final BufferedImage theImage) {
+        final SpriteManager.SpriteBuilder builder = new SpriteManager.SpriteBuilder()
+                .setIdentifier(myIdentifier).setPath(myPath)
+                .setSheet(myPalette.length == 0 ? theImage : PaletteSwap.apply(theImage, myPalette));
+        final String[] states = myStates.toArray(new String[0]);
+        switch (myLayout) {
+            case IMAGE -> builder.load();
+            case STRIP -> builder.loadFromSheetWithCharacters(mySpriteWidth, mySpriteHeight, myFrameCount, myStartChar);
+            case ANIMATED -> builder.loadAnimatedSheet(mySpriteWidth, mySpriteHeight, myFrameCount, states.length, states);
+            case CHARACTER -> builder.loadEnemyAnimatedSheet(mySpriteWidth, mySpriteHeight, myFrameCount, states);
+        }
+    }
+
+    /**
+     * Lists the identifiers of the sprites cut from the image, in the order {@link #loadAll(List)} registers them.
+     * The identifiers are known without decoding the image.
+     *
+     * @return The sprite identifiers.
+     */
+    List<String> getSpriteIdentifiers() {
+        final List<String> identifiers = new ArrayList<>();
+        switch (myLayout) {
+            case IMAGE -> identifiers.add(myIdentifier);
+            case STRIP -> {
+                for (int i = 0; i < myFrameCount; i++) {
+                    final char suffix;
+                    if (myStartChar == 'A' && i < 26) {
+                        suffix = (char) ('A' + i);
+                    } else if (myStartChar == 'A') {
+                        suffix = (char) ('a' + (i - 26));
+                    } else {
+                        suffix = (char) (myStartChar + i);
+                    }
+                    identifiers.add(myIdentifier + "_" + suffix);
+                }
+            }
+            case ANIMATED -> {
+                for (final String state : myStates) {
+                    for (int frame = 0; frame < myFrameCount; frame++) {
+                        identifiers.add(myIdentifier + "_" + state + "_" + frame);
+                    }
+                }
+            }
+            case CHARACTER -> {
+                for (int direction = 0; direction < 4; direction++) {
+                    identifiers.add(myIdentifier + "_" + myStates.get(direction) + "_0");
+                    for (int frame = 1; frame < myFrameCount; frame++) {
+                        identifiers.add(myIdentifier + "_" + myStates.get(direction + 4) + "_" + (frame - 1));
+                    }
+                }
+            }
+        }
+        return identifiers;
+    }
+
+    /**
+     * Gets the identifier of the sprite, or the prefix of the sprites cut from the sheet.
+     *
+     * @return The identifier.
+     */
+    public String getIdentifier() {
+        return myIdentifier;
+    }
+
+    /**
+     * Gets the resource path of the image.
+     *
+     * @return The path.
+     */
+    public String getPath() {
+        return myPath;
+    }
+
+    /**
+     * Gets how the image is cut into sprites.
+     *
+     * @return The layout.
+     */
+    public Layout getLayout() {
+        return myLayout;
+    }
+
+    /**
+     * Gets the width of each sprite.
+     *
+     * @return The sprite width, or 0 for a single image.
+     */
+    public int getSpriteWidth() {
+        return mySpriteWidth;
+    }
+
+    /**
+     * Gets the height of each sprite.
+     *
+     * @return The sprite height, or 0 for a single image.
+     */
+    public int getSpriteHeight() {
+        return mySpriteHeight;
+    }
+
+    /**
+     * Gets the number of sprites in a strip, or frames in each animation row.
+     *
+     * @return The frame count.
+     */
+    public int getFrameCount() {
+        return myFrameCount;
+    }
+
+    /**
+     * Gets the character the identifiers of a strip start at.
+     *
+     * @return The start character.
+     */
+    public char getStartChar() {
+        return myStartChar;
+    }
+
+    /**
+     * Gets the names of the animation states.
+     *
+     * @return The states.
+     */
+    public List<String> getStates() {
+        return myStates;
+    }
+
+    /**
+     * Gets the palette table of a variant.
+     *
+     * @return Each base colour, as ARGB, followed by the colour that replaces it, or a single tint;
+     * empty for a sheet in its own colours.
+     */
+    public int[] getPalette() {
+        return myPalette.clone();
+    }
+
+    /**
+     * How an image is cut into sprites.
+     */
+    public enum Layout {
+        /**
+         * The whole image is one sprite.
+         */
+        IMAGE,
+        /**
+         * A vertical strip of sprites named with a character suffix.
+         */
+        STRIP,
+        /**
+         * One row of frames per animation state.
+         */
+        ANIMATED,
+        /**
+         * A standing frame and walking frames for each of four directions.
+         */
+        CHARACTER
+    }
+}
@@ -0,0 +1,260 @@
+package drippyspelunk.controller.sprite;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.Arrays;
+
+/**
+ * Hot sprites kept in video memory, in front of a {@link ScaledSpriteCache}.
+ * A sprite becomes hot once it has been drawn {@value #HOT_DRAW_COUNT} times at one size; from then on its
+ * scaled copy is also kept in a {@link VolatileImage} and drawn from there. The contents of a volatile image can
+ * be lost at any time, for example when the display mode changes, so every draw validates the image first,
+ * redraws it from the scaled copy if it was restored or had to be remade, and blits again if the contents were
+ * lost during the blit. Sprites that are not hot, or that do not fit in video memory, are drawn from the
+ * scaled copies. Caches are only made when {@link RenderCapabilities} chose the volatile image path.
+ *
+ * @author David Norman
+ * @version 1.0
+ */
+public final class VolatileSpriteCache {
+
+    /**
+     * The number of draws at one size after which a sprite is kept in video memory.
+     */
+    private static final int HOT_DRAW_COUNT = 30;
+    /**
+     * The most pixels the cache keeps in video memory.
+     */
+    private static final long MAX_VOLATILE_PIXELS = 1L << 22;
+
+    /**
+     * The scaled copies the volatile images are drawn from.
+     */
+    private final ScaledSpriteCache myScaledSprites;
+    /**
+     * The graphics configuration the volatile images are made for.
+     */
+    private final GraphicsConfiguration myConfiguration;
+    /**
+     * The sizes each sprite is drawn at, indexed by handle.
+     */
+    private final Entry[][] myEntries;
+    /**
+     * The number of pixels kept in video memory.
+     */
+    private long myVolatilePixels;
+
+    /**
+     * Constructs an empty VolatileSpriteCache.
+     *
+     * @param theAtlas         The atlas the sprites come from.
+     * @param theScaledSprites The scaled copies the volatile images are drawn from.
+     * @param theConfiguration The graphics configuration to make the volatile images for.
+     */
+    public VolatileSpriteCache(final SpriteAtlas theAtlas, final ScaledSpriteCache theScaledSprites,
+                               final GraphicsConfiguration theConfiguration) {
+        myScaledSprites = theScaledSprites;
+        myConfiguration = theConfiguration;
+        myEntries = new Entry[theAtlas.getFrameCount()][];
+    }
+
+    /**
+     * Gets the scaled sprite cache the volatile images are drawn from.
+     *
+     * @return The scaled sprite cache.
+     */
+    public ScaledSpriteCache getScaledSprites() {
+        return myScaledSprites;
+    }
+
+    /**
+     * Draws a sprite at a destination rectangle, from video memory when the sprite is hot.
+     *
+     * @param theGraphics The graphics to draw with.
+     * @param theHandle   The sprite's handle.
+     * @param theX        The destination x-coordinate.
+     * @param theY        The destination y-coordinate.
+     * @param theWidth    The destination width.
+     * @param theHeight   The destination height.
+     */
+    public void draw(final Graphics2D theGraphics, final int theHandle, final int theX, final int theY,
+                     final int theWidth, final int theHeight) {
+        final Entry entry = getHotEntry(theHandle, theWidth, theHeight);
+        if (entry == null || !drawVolatile(theGraphics, entry, theHandle, theX, theY)) {
+            myScaledSprites.draw(theGraphics, theHandle, theX, theY, theWidth, theHeight, null);
+        }
+    }
+
+    /**
+     * Blits a hot sprite from its volatile image, restoring the image as often as its contents are lost.
+     *
+     * @param theGraphics The graphics to draw with.
+     * @param theEntry    The sprite's entry for the size it is drawn at.
+     * @param theHandle   The sprite's handle.
+     * @param theX        The destination x-coordinate.
+     * @param theY        The destination y-coordinate.
+     * @return False if the image could not be restored, because the scaled copy is not available.
+     */
+    private boolean drawVolatile(final Graphics2D theGraphics, final Entry theEntry, final int theHandle,
+                                 final int theX, final int theY) {
+        VolatileImage image = theEntry.myImage;
+        do {
+            if (image == null) {
+                return false;
+            }
+            int status = image.validate(myConfiguration);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                image.flush();
+                image = myConfiguration.createCompatibleVolatileImage(theEntry.myWidth, theEntry.myHeight,
+                        Transparency.TRANSLUCENT);
+                theEntry.myImage = image;
+                status = VolatileImage.IMAGE_RESTORED;
+            }
+            if (status != VolatileImage.IMAGE_OK || !theEntry.myValid) {
+                final BufferedImage source = myScaledSprites.getImage(theHandle, theEntry.myWidth, theEntry.myHeight);
+                if (source == null) {
+                    return false;
+                }
+                final Graphics2D graphics = image.createGraphics();
+                graphics.setComposite(AlphaComposite.Src);
+                graphics.drawImage(source, 0, 0, null);
+                graphics.dispose();
+                theEntry.myValid = true;
+            }
+            theGraphics.drawImage(image, theX, theY, null);
+        } while (image.contentsLost());
+        return true;
+    }
+
+    /**
+     * Counts a draw of a sprite at a size and gets its entry if the sprite is hot at that size,
+     * making its volatile image the first time.
+     *
+     * @param theHandle The sprite's handle.
+     * @param theWidth  The width.
+     * @param theHeight The height.
+     * @return The entry, or null if the sprite is not hot or is not kept in video memory.
+     */
+    private synchronized Entry getHotEntry(final int theHandle, final int theWidth, final int theHeight) {
+        Entry entry = null;
+        final Entry[] entries = myEntries[theHandle];
+        if (entries != null) {
+            for (final Entry candidate : entries) {
+                if (candidate.myWidth == theWidth && candidate.myHeight == theHeight) {
+                    entry = candidate;
+                    break;
+                }
+            }
+        }
+        if (entry == null) {
+            if (theWidth <= 0 || theHeight <= 0) {
+                return null;
+            }
+            entry = new Entry(theWidth, theHeight);
+            myEntries[theHandle] = entries == null ? new Entry[]{entry} : append(entries, entry);
+        }
+        if (entry.myImage != null) {
+            return entry;
+        }
+        if (entry.myRejected || ++entry.myDraws < HOT_DRAW_COUNT) {
+            return null;
+        }
+
+        final long pixels = (long) theWidth * theHeight;
+        if (myVolatilePixels + pixels > MAX_VOLATILE_PIXELS) {
+            entry.myRejected = true;
+            return null;
+        }
+        final VolatileImage image = myConfiguration.createCompatibleVolatileImage(theWidth, theHeight,
+                Transparency.TRANSLUCENT);
+        if (image == null || !image.getCapabilities().isAccelerated()) {
+            // Video memory is full; a volatile image in system memory is no faster than the scaled copy.
+            if (image != null) {
+                image.flush();
+            }
+            entry.myRejected = true;
+            return null;
+        }
+        entry.myImage = image;
+        myVolatilePixels += pixels;
+        return entry;
+    }
+
+    /**
+     * Adds an entry to the end of an array of entries.
+     *
+     * @param theEntries The entries.
+     * @param theEntry   The entry to add.
+     * @return A new array with the entry added.
+     */
+    private static Entry[] append(final Entry[] theEntries, final Entry theEntry) {
+        final Entry[] grown = Arrays.copyOf(theEntries, theEntries.length + 1);
+        grown[theEntries.length] = theEntry;
+        return grown;
+    }
+
+    /**
+     * Drops the volatile images of a range of sprites and their scaled copies.
+     *
+     * @param theFirstHandle The first handle.
+     * @param theCount       The number of handles.
+     */
+    public synchronized void evict(final int theFirstHandle, final int theCount) {
+        for (int handle = theFirstHandle; handle < theFirstHandle + theCount; handle++) {
+            final Entry[] entries = myEntries[handle];
+            if (entries != null) {
+                for (final Entry entry : entries) {
+                    if (entry.myImage != null) {
+                        myVolatilePixels -= (long) entry.myWidth * entry.myHeight;
+                        entry.myImage.flush();
+                    }
+                }
+                myEntries[handle] = null;
+            }
+        }
+        myScaledSprites.evict(theFirstHandle, theCount);
+    }
+
+    /**
+     * One size a sprite is drawn at: how often it has been drawn and, once it is hot, its volatile image.
+     */
+    private static final class Entry {
+
+        /**
+         * The width the sprite is drawn at.
+         */
+        private final int myWidth;
+        /**
+         * The height the sprite is drawn at.
+         */
+        private final int myHeight;
+        /**
+         * The number of draws counted before the sprite became hot.
+         */
+        private int myDraws;
+        /**
+         * True if the sprite does not fit in video memory and is always drawn from its scaled copy.
+         */
+        private boolean myRejected;
+        /**
+         * True once the volatile image has been drawn into.
+         */
+        private boolean myValid;
+        /**
+         * The volatile image, or null while the sprite is not hot.
+         */
+        private VolatileImage myImage;
+
+        /**
+         * Constructs an Entry for a size that has not been drawn yet.
+         *
+         * @param theWidth  The width.
+         * @param theHeight The height.
+         */
+        private Entry(final int theWidth, final int theHeight) {
+            myWidth = theWidth;
+            myHeight = theHeight;
+        }
+    }
+}
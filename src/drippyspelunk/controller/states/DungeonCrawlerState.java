@@ -14,7 +14,7 @@ import javax.swing.*;
  *
  * @author Devin Arroyo
  * @author David Norman
- * @version 1.5
+ * @version 1.6
  */
 public class DungeonCrawlerState implements IState {
 
@@ -138,6 +138,10 @@ public class DungeonCrawlerState implements IState {
     @Override
     public void dispose() {
         System.out.println("Disposing Dungeon Crawler ");
+        // Stop background work such as the next floor's generation.
+        if (myLogic != null) {
+            myLogic.dispose();
+        }
         // Remove listeners to prevent memory leaks and unexpected behavior.
         if (myLogic != null && myFullPanel != null) {
             myLogic.removePropertyChangeListener(myFullPanel);
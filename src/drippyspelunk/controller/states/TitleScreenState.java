@@ -15,7 +15,7 @@ import java.awt.*;
  *
  * @author Devin Arroyo
  * @author David Norman
- * @version 1.5
+ * @version 1.6
  */
 public class TitleScreenState implements IState {
 
@@ -145,4 +145,13 @@ public class TitleScreenState implements IState {
     public JComponent getSceneUI() {
         return myFullPanel;
     }
+
+    /**
+     * Gets the logic component of the title screen.
+     *
+     * @return The title screen logic, or null once the state is disposed.
+     */
+    public TitleScreenLogic getLogic() {
+        return myLogic;
+    }
 }
\ No newline at end of file
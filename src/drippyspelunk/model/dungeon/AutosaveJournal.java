@@ -0,0 +1,629 @@
+package drippyspelunk.model.dungeon;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only autosave journal.
+ * The game thread only encodes a few small records and queues them; a background writer appends
+ * everything queued since its last write in one group and syncs it once. When the journal grows
+ * past a threshold, or a new floor starts, the writer folds the journal into a base snapshot
+ * holding only the latest record of each kind and starts an empty journal. Recovery reads the
+ * base and replays the journal up to the first torn or damaged record.
+ * <p>
+ * Both files start with an epoch. Each compaction bumps it, so a journal left behind by a
+ * compaction that was interrupted is recognised as already folded into the base. A new writer continues
+ * from the epoch of the base it finds, and empties any journal an earlier game left before it writes
+ * its own first base, so that journal is never replayed onto the new game.
+ *
+ * @author David Norman
+ * @version 1.2
+ */
+public final class AutosaveJournal {
+
+    /**
+     * The record holding what identifies the current floor and the floors already left.
+     */
+    static final int RECORD_FLOOR = 0;
+    /**
+     * The record holding the game's counters and the room the player is in.
+     */
+    static final int RECORD_STATE = 1;
+    /**
+     * The record holding the player.
+     */
+    static final int RECORD_PLAYER = 2;
+    /**
+     * The record holding the inventory.
+     */
+    static final int RECORD_INVENTORY = 3;
+    /**
+     * The record holding the changes of one room.
+     */
+    static final int RECORD_ROOM = 4;
+    /**
+     * The number of record kinds that only keep their latest record.
+     */
+    private static final int SINGLE_RECORD_COUNT = RECORD_ROOM;
+    /**
+     * The queue entry that asks the writer to delete the autosave.
+     */
+    private static final int COMMAND_DISCARD = -1;
+    /**
+     * The queue entry that asks the writer to stop.
+     */
+    private static final int COMMAND_CLOSE = -2;
+    /**
+     * The size the journal may reach before it is folded into the base.
+     */
+    private static final long COMPACTION_THRESHOLD = 64 * 1024;
+    /**
+     * The largest payload a record may have. Anything larger is a damaged length.
+     */
+    private static final int MAX_PAYLOAD_SIZE = 1 << 20;
+    /**
+     * The directory the autosave is kept in.
+     */
+    private static final String SAVE_DIRECTORY = "res/userdata/saves";
+    /**
+     * The file name of the base snapshot.
+     */
+    private static final String BASE_FILE_NAME = "autosave.base";
+    /**
+     * The file name of the journal.
+     */
+    private static final String JOURNAL_FILE_NAME = "autosave.journal";
+    /**
+     * The extension of a base snapshot that is still being written.
+     */
+    private static final String TEMP_EXTENSION = ".tmp";
+    /**
+     * The name of the writer thread.
+     */
+    private static final String WRITER_THREAD_NAME = "AutosaveWriter";
+
+    /**
+     * Records waiting for the writer.
+     */
+    private final BlockingQueue<JournalRecord> myQueue = new LinkedBlockingQueue<>();
+    /**
+     * The latest record of each kind, only touched by the writer.
+     */
+    private final FoldedState myFolded = new FoldedState();
+    /**
+     * The open journal, only touched by the writer, or null if it is not open.
+     */
+    private FileChannel myJournal;
+    /**
+     * The epoch of the current base and journal, only touched by the writer.
+     */
+    private long myEpoch;
+
+    /**
+     * Constructs an AutosaveJournal and starts its writer. Nothing is written until the first floor record.
+     */
+    public AutosaveJournal() {
+        final Thread writerThread = new Thread(this::runWriter, WRITER_THREAD_NAME);
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Checks if there is an autosave to recover.
+     *
+     * @return True if a base snapshot exists, false otherwise.
+     */
+    public static boolean exists() {
+        return Files.isRegularFile(getPath(BASE_FILE_NAME));
+    }
+
+    /**
+     * Rebuilds the autosaved game from the base snapshot and the journal.
+     * Replaying stops at the first record that was torn by a crash or is otherwise damaged.
+     *
+     * @return The autosaved game.
+     * @throws IOException If there is no autosave or its base snapshot is damaged.
+     */
+    public static SaveGame recover() throws IOException {
+        final FoldedState folded = new FoldedState();
+        final long epoch;
+        try (DataInputStream input = openForReading(getPath(BASE_FILE_NAME))) {
+            epoch = input.readLong();
+            if (!replay(input, folded)) {
+                throw new IOException("The autosave snapshot is damaged.");
+            }
+        }
+        final Path journalPath = getPath(JOURNAL_FILE_NAME);
+        if (Files.isRegularFile(journalPath)) {
+            try (DataInputStream input = openForReading(journalPath)) {
+                if (input.readLong() == epoch) {
+                    replay(input, folded);
+                }
+            } catch (final EOFException ignored) {
+                // The journal was never started, so the base is the whole autosave.
+            }
+        }
+        return folded.toSaveGame();
+    }
+
+    /**
+     * Queues the record that starts a floor. The writer folds everything into a fresh base right away,
+     * since no room of the previous floor is needed anymore.
+     *
+     * @param thePlayerName      The name the player entered.
+     * @param theCharacterName   The name of the selected character template, or null.
+     * @param theDifficulty      The difficulty the run was started at.
+     * @param theFloor           The floor number.
+     * @param theFloorDifficulty The difficulty the floor was generated at.
+     * @param theFloorSeed       The seed the floor was generated from.
+     * @param theSummaries       The encoded summaries of the floors already left.
+     */
+    void appendFloor(final String thePlayerName, final String theCharacterName, final int theDifficulty,
+                     final int theFloor, final int theFloorDifficulty, final long theFloorSeed,
+                     final byte[] theSummaries) {
+        append(RECORD_FLOOR, 0, SaveGame.toBytes(theOutput -> {
+            theOutput.writeUTF(thePlayerName != null ? thePlayerName : "");
+            theOutput.writeUTF(theCharacterName != null ? theCharacterName : "");
+            theOutput.writeByte(theDifficulty);
+            theOutput.writeByte(theFloor);
+            theOutput.writeByte(theFloorDifficulty);
+            theOutput.writeLong(theFloorSeed);
+            theOutput.write(theSummaries);
+        }));
+    }
+
+    /**
+     * Queues the record holding the game's counters and the room the player is in.
+     *
+     * @param theGameTicks        The current game tick.
+     * @param thePillarsToCollect The number of pillars still to collect.
+     * @param theFloorStartTick   The game tick the player entered the floor on.
+     * @param theRandomState      The state of the game's random number generator.
+     * @param theCurrentRoomKey   The key of the room the player is in.
+     * @param theRunStats         The encoded statistics of the run so far.
+     */
+    void appendState(final long theGameTicks, final int thePillarsToCollect, final long theFloorStartTick,
+                     final long theRandomState, final long theCurrentRoomKey, final byte[] theRunStats) {
+        final long savedAt = System.currentTimeMillis();
+        append(RECORD_STATE, 0, SaveGame.toBytes(theOutput -> {
+            theOutput.writeLong(savedAt);
+            theOutput.writeLong(theGameTicks);
+            theOutput.writeByte(thePillarsToCollect);
+            theOutput.writeLong(theFloorStartTick);
+            theOutput.writeLong(theRandomState);
+            theOutput.writeLong(theCurrentRoomKey);
+            theOutput.write(theRunStats);
+        }));
+    }
+
+    /**
+     * Queues a record. Only the latest record of a kind, or of a room, survives compaction.
+     *
+     * @param theType    The record kind.
+     * @param theKey     The room key for room records, otherwise 0.
+     * @param thePayload The encoded record.
+     */
+    void append(final int theType, final long theKey, final byte[] thePayload) {
+        myQueue.offer(new JournalRecord(theType, theKey, thePayload));
+    }
+
+    /**
+     * Deletes the autosave once everything queued before has been written. Used when the run ends.
+     */
+    public void discard() {
+        myQueue.offer(new JournalRecord(COMMAND_DISCARD, 0, null));
+    }
+
+    /**
+     * Stops the writer once everything queued has been written.
+     */
+    public void close() {
+        myQueue.offer(new JournalRecord(COMMAND_CLOSE, 0, null));
+    }
+
+    /**
+     * Runs the writer: waits for records, then writes everything queued so far as one group.
+     */
+    private void runWriter() {
+        final List<JournalRecord> group = new ArrayList<>();
+        boolean running = true;
+        while (running) {
+            try {
+                group.add(myQueue.take());
+            } catch (final InterruptedException theException) {
+                break;
+            }
+            myQueue.drainTo(group);
+
+            final List<JournalRecord> pending = new ArrayList<>();
+            boolean compact = false;
+            for (final JournalRecord record : group) {
+                if (record.myType == COMMAND_CLOSE) {
+                    running = false;
+                } else if (record.myType == COMMAND_DISCARD) {
+                    deleteFiles();
+                    pending.clear();
+                    compact = false;
+                } else {
+                    myFolded.apply(record);
+                    if (record.myType == RECORD_FLOOR) {
+                        compact = true;
+                    } else {
+                        pending.add(record);
+                    }
+                }
+            }
+            group.clear();
+
+            try {
+                if (compact || (!pending.isEmpty() && appendGroup(pending) > COMPACTION_THRESHOLD)) {
+                    compact();
+                }
+            } catch (final IOException ignored) {
+                // Autosaving is best effort; the next group tries again.
+            }
+        }
+        closeJournal();
+    }
+
+    /**
+     * Appends a group of records to the journal and syncs it once.
+     *
+     * @param theRecords The records.
+     * @return The size of the journal afterwards.
+     * @throws IOException If the journal cannot be written.
+     */
+    private long appendGroup(final List<JournalRecord> theRecords) throws IOException {
+        if (myJournal == null) {
+            if (!myFolded.isComplete()) {
+                // Nothing can be recovered until the first floor record has made a base.
+                return 0;
+            }
+            compact();
+            return 0;
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(bytes);
+        for (final JournalRecord record : theRecords) {
+            writeRecord(output, record);
+        }
+        output.flush();
+        writeFully(myJournal, bytes.toByteArray());
+        myJournal.force(false);
+        return myJournal.size();
+    }
+
+    /**
+     * Folds everything into a new base snapshot and starts an empty journal.
+     *
+     * @throws IOException If the files cannot be written.
+     */
+    private void compact() throws IOException {
+        if (!myFolded.isComplete()) {
+            return;
+        }
+        final Path basePath = getPath(BASE_FILE_NAME);
+        final Path tempPath = basePath.resolveSibling(BASE_FILE_NAME + TEMP_EXTENSION);
+        Files.createDirectories(basePath.getParent());
+
+        if (myJournal == null) {
+            myJournal = FileChannel.open(getPath(JOURNAL_FILE_NAME), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            myJournal.truncate(0);
+            myJournal.force(false);
+            myEpoch = Math.max(myEpoch, readEpoch(basePath));
+        }
+        final long epoch = myEpoch + 1;
+        try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            output.writeLong(epoch);
+            for (final JournalRecord record : myFolded.getRecords()) {
+                writeRecord(output, record);
+            }
+            output.flush();
+            channel.force(true);
+        }
+        Files.move(tempPath, basePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        myEpoch = epoch;
+
+        myJournal.truncate(0);
+        myJournal.position(0);
+        writeFully(myJournal, ByteBuffer.allocate(Long.BYTES).putLong(epoch).array());
+        myJournal.force(false);
+    }
+
+    /**
+     * Reads the epoch of a base snapshot.
+     *
+     * @param theBasePath The path of the base snapshot.
+     * @return The epoch, or 0 if there is no readable base.
+     */
+    private static long readEpoch(final Path theBasePath) {
+        try (DataInputStream input = openForReading(theBasePath)) {
+            return input.readLong();
+        } catch (final IOException ignored) {
+            return 0;
+        }
+    }
+
+    /**
+     * Deletes the base snapshot and the journal.
+     */
+    private void deleteFiles() {
+        closeJournal();
+        myFolded.clear();
+        try {
+            Files.deleteIfExists(getPath(BASE_FILE_NAME));
+            Files.deleteIfExists(getPath(JOURNAL_FILE_NAME));
+        } catch (final IOException ignored) {
+        }
+    }
+
+    /**
+     * Closes the journal if it is open.
+     */
+    private void closeJournal() {
+        if (myJournal != null) {
+            try {
+                myJournal.close();
+            } catch (final IOException ignored) {
+            }
+            myJournal = null;
+        }
+    }
+
+    /**
+     * Writes a record as its kind, key, length, payload, and a checksum of all four.
+     *
+     * @param theOutput The output to write to.
+     * @param theRecord The record.
+     * @throws IOException If the record cannot be written.
+     */
+    private static void writeRecord(final DataOutput theOutput, final JournalRecord theRecord) throws IOException {
+        final byte[] frame = encodeFrame(theRecord.myType, theRecord.myKey, theRecord.myPayload);
+        theOutput.write(frame);
+        theOutput.writeInt(checksum(frame));
+    }
+
+    /**
+     * Encodes the part of a record the checksum covers.
+     *
+     * @param theType    The record kind.
+     * @param theKey     The record key.
+     * @param thePayload The encoded record.
+     * @return The record's kind, key, length, and payload.
+     */
+    private static byte[] encodeFrame(final int theType, final long theKey, final byte[] thePayload) {
+        return SaveGame.toBytes(theFrame -> {
+            theFrame.writeByte(theType);
+            theFrame.writeLong(theKey);
+            theFrame.writeInt(thePayload.length);
+            theFrame.write(thePayload);
+        });
+    }
+
+    /**
+     * Computes the checksum of a record.
+     *
+     * @param theFrame The record's kind, key, length, and payload.
+     * @return The CRC-32 of the frame.
+     */
+    private static int checksum(final byte[] theFrame) {
+        final CRC32 checksum = new CRC32();
+        checksum.update(theFrame);
+        return (int) checksum.getValue();
+    }
+
+    /**
+     * Reads records and folds them in until the input ends or a record fails its checksum.
+     *
+     * @param theInput  The input, positioned after the epoch.
+     * @param theFolded The state to fold the records into.
+     * @return True if the input ended cleanly, false if a damaged record was found.
+     */
+    private static boolean replay(final DataInputStream theInput, final FoldedState theFolded) {
+        try {
+            while (true) {
+                final int type = theInput.read();
+                if (type < 0) {
+                    return true;
+                }
+                final long key = theInput.readLong();
+                final int length = theInput.readInt();
+                if (type > RECORD_ROOM || length < 0 || length > MAX_PAYLOAD_SIZE) {
+                    return false;
+                }
+                final byte[] payload = new byte[length];
+                theInput.readFully(payload);
+                if (theInput.readInt() != checksum(encodeFrame(type, key, payload))) {
+                    return false;
+                }
+                theFolded.apply(new JournalRecord(type, key, payload));
+            }
+        } catch (final IOException theException) {
+            // A record torn by a crash ends the replay.
+            return false;
+        }
+    }
+
+    /**
+     * Writes all of a byte array to a channel at its position.
+     *
+     * @param theChannel The channel.
+     * @param theBytes   The bytes.
+     * @throws IOException If the bytes cannot be written.
+     */
+    private static void writeFully(final FileChannel theChannel, final byte[] theBytes) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(theBytes);
+        while (buffer.hasRemaining()) {
+            theChannel.write(buffer);
+        }
+    }
+
+    /**
+     * Opens a file for buffered reading through its channel.
+     *
+     * @param thePath The file.
+     * @return The input.
+     * @throws IOException If the file cannot be opened.
+     */
+    private static DataInputStream openForReading(final Path thePath) throws IOException {
+        return new DataInputStream(new BufferedInputStream(Channels.newInputStream(
+                FileChannel.open(thePath, StandardOpenOption.READ))));
+    }
+
+    /**
+     * Gets the path of an autosave file.
+     *
+     * @param theFileName The file name.
+     * @return The path.
+     */
+    private static Path getPath(final String theFileName) {
+        return Paths.get(SAVE_DIRECTORY, theFileName);
+    }
+
+    /**
+     * One journal record, or a command for the writer.
+     */
+    private static final class JournalRecord {
+
+        /**
+         * The record kind, or a negative command.
+         */
+        private final int myType;
+        /**
+         * The room key for room records, otherwise 0.
+         */
+        private final long myKey;
+        /**
+         * The encoded record.
+         */
+        private final byte[] myPayload;
+
+        /**
+         * Constructs a JournalRecord.
+         *
+         * @param theType    The record kind, or a negative command.
+         * @param theKey     The room key for room records, otherwise 0.
+         * @param thePayload The encoded record.
+         */
+        private JournalRecord(final int theType, final long theKey, final byte[] thePayload) {
+            myType = theType;
+            myKey = theKey;
+            myPayload = thePayload;
+        }
+    }
+
+    /**
+     * The latest record of each kind and of each room.
+     */
+    private static final class FoldedState {
+
+        /**
+         * The latest record of each single record kind, by kind.
+         */
+        private final JournalRecord[] mySingles = new JournalRecord[SINGLE_RECORD_COUNT];
+        /**
+         * The latest record of each room on the current floor, by room key.
+         */
+        private final Map<Long, JournalRecord> myRooms = new LinkedHashMap<>();
+
+        /**
+         * Folds in a record. A floor record drops the rooms of the previous floor.
+         *
+         * @param theRecord The record.
+         */
+        private void apply(final JournalRecord theRecord) {
+            if (theRecord.myType == RECORD_ROOM) {
+                myRooms.put(theRecord.myKey, theRecord);
+            } else {
+                if (theRecord.myType == RECORD_FLOOR) {
+                    myRooms.clear();
+                }
+                mySingles[theRecord.myType] = theRecord;
+            }
+        }
+
+        /**
+         * Forgets every record.
+         */
+        private void clear() {
+            Arrays.fill(mySingles, null);
+            myRooms.clear();
+        }
+
+        /**
+         * Checks if there is a record of every single kind, which is what a game needs to be rebuilt.
+         *
+         * @return True if the state is complete, false otherwise.
+         */
+        private boolean isComplete() {
+            for (final JournalRecord record : mySingles) {
+                if (record == null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Gets every record, single kinds first.
+         *
+         * @return The records.
+         */
+        private List<JournalRecord> getRecords() {
+            final List<JournalRecord> records = new ArrayList<>(List.of(mySingles));
+            records.addAll(myRooms.values());
+            return records;
+        }
+
+        /**
+         * Builds a save from the folded records.
+         *
+         * @return The save.
+         * @throws IOException If a record is missing or damaged.
+         */
+        private SaveGame toSaveGame() throws IOException {
+            if (!isComplete()) {
+                throw new IOException("The autosave is incomplete.");
+            }
+            final DataInputStream floor = new DataInputStream(new ByteArrayInputStream(mySingles[RECORD_FLOOR].myPayload));
+            final String playerName = floor.readUTF();
+            final String characterName = floor.readUTF();
+            final int difficulty = floor.readUnsignedByte();
+            final int floorNumber = floor.readUnsignedByte();
+            final int floorDifficulty = floor.readUnsignedByte();
+            final long floorSeed = floor.readLong();
+            final byte[] summaries = floor.readAllBytes();
+
+            final DataInputStream state = new DataInputStream(new ByteArrayInputStream(mySingles[RECORD_STATE].myPayload));
+            final long savedAt = state.readLong();
+            final long gameTicks = state.readLong();
+            final int pillarsToCollect = state.readUnsignedByte();
+            final long floorStartTick = state.readLong();
+            final long randomState = state.readLong();
+            final long currentRoomKey = state.readLong();
+            final byte[] runStats = state.readAllBytes();
+
+            final Map<Long, byte[]> rooms = new LinkedHashMap<>();
+            for (final JournalRecord room : myRooms.values()) {
+                rooms.put(room.myKey, room.myPayload);
+            }
+            final byte[] worldState = SaveGame.writeWorldState(floorStartTick, randomState, currentRoomKey, summaries, runStats,
+                    mySingles[RECORD_PLAYER].myPayload, mySingles[RECORD_INVENTORY].myPayload, rooms);
+            return new SaveGame(savedAt, playerName, characterName, difficulty, floorNumber, floorDifficulty,
+                    floorSeed, gameTicks, pillarsToCollect, worldState);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package drippyspelunk.model.dungeon;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * A flag shared between whoever starts a dungeon generation and the generation itself.
+ * Cancelling the token makes the generation stop at its next check instead of running to completion.
+ *
+ * @author David Norman
+ * @version 1.0
+ */
+public final class CancellationToken {
+
+    /**
+     * True once the token has been cancelled.
+     */
+    private volatile boolean myCancelled;
+
+    /**
+     * Cancels the token. Cancelling more than once has no further effect.
+     */
+    public void cancel() {
+        myCancelled = true;
+    }
+
+    /**
+     * Checks if the token has been cancelled.
+     *
+     * @return True if the token has been cancelled, false otherwise.
+     */
+    public boolean isCancelled() {
+        return myCancelled;
+    }
+
+    /**
+     * Stops the current work if the token has been cancelled.
+     *
+     * @throws CancellationException if the token has been cancelled.
+     */
+    public void throwIfCancelled() {
+        if (myCancelled) {
+            throw new CancellationException("Dungeon generation was cancelled.");
+        }
+    }
+}
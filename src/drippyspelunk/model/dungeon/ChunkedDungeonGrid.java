@@ -0,0 +1,148 @@
+package drippyspelunk.model.dungeon;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A dungeon grid backed by sparse fixed-size chunks.
+ * Only chunks that contain at least one occupied cell are allocated,
+ * so very large grids at high difficulties cost memory in proportion to the rooms they hold.
+ *
+ * @author David Norman
+ * @version 1.0
+ */
+public final class ChunkedDungeonGrid implements IDungeonGrid {
+
+    /**
+     * The number of bits used for a cell's position inside its chunk.
+     */
+    private static final int CHUNK_SHIFT = 4;
+    /**
+     * The width and height of a chunk in cells.
+     */
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    /**
+     * The mask used to get a cell's position inside its chunk.
+     */
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    /**
+     * The number of rows in the grid.
+     */
+    private final int myHeight;
+    /**
+     * The number of columns in the grid.
+     */
+    private final int myWidth;
+    /**
+     * The allocated chunks, keyed by their chunk row and column.
+     */
+    private final Map<Long, Chunk> myChunks;
+
+    /**
+     * Constructs an empty ChunkedDungeonGrid.
+     *
+     * @param theHeight The number of rows in the grid.
+     * @param theWidth  The number of columns in the grid.
+     */
+    public ChunkedDungeonGrid(final int theHeight, final int theWidth) {
+        if (theHeight <= 0 || theWidth <= 0) {
+            throw new IllegalArgumentException("Grid dimensions must be positive.");
+        }
+        myHeight = theHeight;
+        myWidth = theWidth;
+        myChunks = new HashMap<>();
+    }
+
+    @Override
+    public int getHeight() {
+        return myHeight;
+    }
+
+    @Override
+    public int getWidth() {
+        return myWidth;
+    }
+
+    @Override
+    public int get(final int theRow, final int theColumn) {
+        if (!isInBounds(theRow, theColumn)) {
+            return EMPTY_CELL;
+        }
+        final Chunk chunk = myChunks.get(IDungeonGrid.roomKey(theRow >> CHUNK_SHIFT, theColumn >> CHUNK_SHIFT));
+        return chunk == null ? EMPTY_CELL : chunk.myCells[cellIndex(theRow, theColumn)];
+    }
+
+    @Override
+    public void set(final int theRow, final int theColumn, final int theValue) {
+        if (!isInBounds(theRow, theColumn)) {
+            throw new IndexOutOfBoundsException("Cell (" + theRow + ", " + theColumn + ") is outside the grid.");
+        }
+        final long chunkKey = IDungeonGrid.roomKey(theRow >> CHUNK_SHIFT, theColumn >> CHUNK_SHIFT);
+        Chunk chunk = myChunks.get(chunkKey);
+        if (chunk == null) {
+            if (theValue == EMPTY_CELL) {
+                return;
+            }
+            chunk = new Chunk();
+            myChunks.put(chunkKey, chunk);
+        }
+
+        final int index = cellIndex(theRow, theColumn);
+        final int oldValue = chunk.myCells[index];
+        chunk.myCells[index] = theValue;
+        if (oldValue == EMPTY_CELL && theValue != EMPTY_CELL) {
+            chunk.myOccupied++;
+        } else if (oldValue != EMPTY_CELL && theValue == EMPTY_CELL) {
+            chunk.myOccupied--;
+            if (chunk.myOccupied == 0) {
+                myChunks.remove(chunkKey);
+            }
+        }
+    }
+
+    @Override
+    public void forEachOccupied(final CellVisitor theVisitor) {
+        // Sorting the chunk keys keeps the visiting order stable between runs.
+        final long[] chunkKeys = myChunks.keySet().stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(chunkKeys);
+
+        for (final long chunkKey : chunkKeys) {
+            final Chunk chunk = myChunks.get(chunkKey);
+            final int baseRow = IDungeonGrid.keyRow(chunkKey) << CHUNK_SHIFT;
+            final int baseColumn = IDungeonGrid.keyColumn(chunkKey) << CHUNK_SHIFT;
+            for (int index = 0; index < chunk.myCells.length; index++) {
+                final int value = chunk.myCells[index];
+                if (value != EMPTY_CELL) {
+                    theVisitor.visit(baseRow + (index >> CHUNK_SHIFT), baseColumn + (index & CHUNK_MASK), value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the index of a cell inside its chunk.
+     *
+     * @param theRow    The row of the cell.
+     * @param theColumn The column of the cell.
+     * @return The index into the chunk's cell array.
+     */
+    private static int cellIndex(final int theRow, final int theColumn) {
+        return ((theRow & CHUNK_MASK) << CHUNK_SHIFT) | (theColumn & CHUNK_MASK);
+    }
+
+    /**
+     * A fixed-size block of cells along with a count of how many are occupied.
+     */
+    private static final class Chunk {
+
+        /**
+         * The cell values of the chunk in row-major order.
+         */
+        private final int[] myCells = new int[CHUNK_SIZE * CHUNK_SIZE];
+        /**
+         * The number of non-empty cells in the chunk.
+         */
+        private int myOccupied;
+    }
+}
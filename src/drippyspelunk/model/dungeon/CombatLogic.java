@@ -15,7 +15,7 @@ import java.beans.PropertyChangeSupport;
  *
  * @author David Norman
  * @author Devin Arroyo
- * @version 1.6
+ * @version 1.8
  */
 public class CombatLogic {
 
@@ -347,6 +347,7 @@ public class CombatLogic {
 
         if (myCurrentCombatEnemy != null && !myCurrentCombatEnemy.isAlive() && !myPlayerRanFromCombat) {
             awardExperienceForVictory(myCurrentCombatEnemy);
+            myMainLogic.recordKill();
         }
 
         myInCombat = false;
@@ -376,6 +377,7 @@ public class CombatLogic {
         // Fire property change to notify UI
         myPCS.firePropertyChange(DungeonCrawlerLogic.COMBAT_STATE_CHANGED_PROPERTY, true, false);
         myPCS.firePropertyChange(DungeonCrawlerLogic.COMBAT_ENEMY_PROPERTY, null, null);
+        myMainLogic.autosave();
     }
 
     /**
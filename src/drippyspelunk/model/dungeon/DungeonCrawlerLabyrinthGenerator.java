@@ -8,7 +8,7 @@ import java.util.Random;
  * @author Devin Arroyo
  * @author Mark Malyshev
  * @author David Norman
- * @version 1.5
+ * @version 1.7
  */
 public class DungeonCrawlerLabyrinthGenerator {
 
@@ -38,9 +38,26 @@ public class DungeonCrawlerLabyrinthGenerator {
     private static final int ENDING_ROOM = 10;
 
     /**
-     * A random number generator.
+     * The random number generator every random choice of the layout is drawn from.
      */
-    private final Random myRandom = new Random();
+    private final Random myRandom;
+
+    /**
+     * Constructs a DungeonCrawlerLabyrinthGenerator with an unseeded random number generator.
+     */
+    public DungeonCrawlerLabyrinthGenerator() {
+        this(new Random());
+    }
+
+    /**
+     * Constructs a DungeonCrawlerLabyrinthGenerator that draws every random choice from a given generator,
+     * so a seeded generator always builds the same layout.
+     *
+     * @param theRandom The random number generator to draw from.
+     */
+    public DungeonCrawlerLabyrinthGenerator(final Random theRandom) {
+        myRandom = theRandom;
+    }
 
     /**
      * Generates a dungeon grid with pillars.
@@ -53,23 +70,23 @@ public class DungeonCrawlerLabyrinthGenerator {
      * @param theDifficulty   The difficulty level.
      * @return The generated dungeon grid.
      */
-    public int[][] generateGridPillars(final int[][] theGrid, final int theStartingPosX, final int theStartingPosY, final int thePillarAmount, final int theBigSize, final int theDifficulty) {
+    public IDungeonGrid generateGridPillars(final IDungeonGrid theGrid, final int theStartingPosX, final int theStartingPosY, final int thePillarAmount, final int theBigSize, final int theDifficulty) {
         int startI = theStartingPosX;
         int startJ = theStartingPosY;
         final int[] pillar_starts_I = {theStartingPosX, theStartingPosX, theBigSize - theStartingPosX, theBigSize - theStartingPosX};
         final int[] pillar_starts_J = {theStartingPosY, theBigSize - theStartingPosY, theStartingPosY, theBigSize - theStartingPosY};
 
         generateGrid(theGrid, startI, startJ, -2, 0);
-        final int[][] newGrid = insertArray(theGrid, theBigSize);
+        final IDungeonGrid newGrid = insertArray(theGrid, theBigSize);
         asciiGrid(newGrid);
         for (int p = 0; p < thePillarAmount; p++) {
 
             startI = pillar_starts_I[p];
             startJ = pillar_starts_J[p];
 
-            newGrid[startI][startJ] = PILLAR_ROOM + p;
+            newGrid.set(startI, startJ, PILLAR_ROOM + p);
             generateGrid(newGrid, startI, startJ, 2, p + 3);
-            newGrid[startI][startJ] = PILLAR_ROOM + p;
+            newGrid.set(startI, startJ, PILLAR_ROOM + p);
         }
 
         return newGrid;
@@ -84,7 +101,7 @@ public class DungeonCrawlerLabyrinthGenerator {
      * @param theGoalValue    The value representing the goal.
      * @param theBiome        The biome value for new rooms.
      */
-    public void generateGrid(final int[][] theGrid, final int theStartingPosX, final int theStartingPosY, final int theGoalValue, final int theBiome) {
+    public void generateGrid(final IDungeonGrid theGrid, final int theStartingPosX, final int theStartingPosY, final int theGoalValue, final int theBiome) {
 
         int i = theStartingPosX;
         int j = theStartingPosY;
@@ -117,17 +134,17 @@ public class DungeonCrawlerLabyrinthGenerator {
             }
 
             // Check boundaries
-            if (i < 0 || i >= theGrid.length || j < 0 || j >= theGrid[0].length) { //Returns the iterator somewhere back to the path
+            if (!theGrid.isInBounds(i, j)) { //Returns the iterator somewhere back to the path
                 while (true) {
                     if (theGoalValue == -2) {
-                        final int backTrackI = myRandom.nextInt(theGrid.length / 2) * 2;
-                        final int backTrackJ = myRandom.nextInt(theGrid.length / 2) * 2;
+                        final int backTrackI = myRandom.nextInt(theGrid.getHeight() / 2) * 2;
+                        final int backTrackJ = myRandom.nextInt(theGrid.getWidth() / 2) * 2;
 
                         i = backTrackI;
                         ii = backTrackI;
                         j = backTrackJ;
                         jj = backTrackJ;
-                        if (theGrid[i][j] == 2) {
+                        if (theGrid.get(i, j) == 2) {
                             break;
                         }
                     } else {
@@ -142,20 +159,21 @@ public class DungeonCrawlerLabyrinthGenerator {
             }
 
             if (theGoalValue == -2) {
-                if (theGrid[i][j] == theGoalValue) {
-                    theGrid[ii][jj] = 1;
+                if (theGrid.get(i, j) == theGoalValue) {
+                    theGrid.set(ii, jj, 1);
                     break;
                 } else {
-                    theGrid[ii][jj] = 1;
-                    theGrid[i][j] = 2;
+                    theGrid.set(ii, jj, 1);
+                    theGrid.set(i, j, 2);
                 }
             } else {
-                if (theGrid[i][j] >= theGoalValue && theGrid[i][j] != theBiome && theGrid[i][j] != theBiome + 10) {
-                    theGrid[ii][jj] = 1;
+                final int cell = theGrid.get(i, j);
+                if (cell >= theGoalValue && cell != theBiome && cell != theBiome + 10) {
+                    theGrid.set(ii, jj, 1);
                     break;
                 } else {
-                    theGrid[ii][jj] = 1;
-                    theGrid[i][j] = theBiome;
+                    theGrid.set(ii, jj, 1);
+                    theGrid.set(i, j, theBiome);
                 }
             }
 
@@ -172,7 +190,7 @@ public class DungeonCrawlerLabyrinthGenerator {
      *
      * @param theGrid The dungeon grid to display.
      */
-    public void asciiGrid(final int[][] theGrid) {
+    public void asciiGrid(final IDungeonGrid theGrid) {
         StringBuilder line1 = new StringBuilder();
         StringBuilder line2 = new StringBuilder();
         StringBuilder line3 = new StringBuilder();
@@ -183,60 +201,61 @@ public class DungeonCrawlerLabyrinthGenerator {
         final String Empty_Room = "     ";
         final String Empty_Hallway = "   ";
 
-        for (int i = 0; i < theGrid.length; i++) { // Outer loop for rows
+        for (int i = 0; i < theGrid.getHeight(); i++) { // Outer loop for rows
 
             //first row, rooms
             if (i % 2 == 0) {
-                for (int j = 0; j < theGrid[i].length; j++) { // Inner loop for columns
+                for (int j = 0; j < theGrid.getWidth(); j++) { // Inner loop for columns
                     // even j means rooms
+                    final int cell = theGrid.get(i, j);
                     if (j % 2 == 0) {
-                        if (theGrid[i][j] == EMPTY_CELL) {
+                        if (cell == EMPTY_CELL) {
                             line1.append(Empty_Room);
                             line2.append(Empty_Room);
                             line3.append(Empty_Room);
                         }
-                        if (theGrid[i][j] == BLANK_ROOM) {
+                        if (cell == BLANK_ROOM) {
                             line1.append("┌───┐");
                             line2.append("│   │");
                             line3.append("└───┘");
                         }
-                        if (theGrid[i][j] == BLANK_ROOM_TO_PILLAR) {
+                        if (cell == BLANK_ROOM_TO_PILLAR) {
                             line1.append("┌───┐");
                             line2.append("│ 3 │");
                             line3.append("└───┘");
                         }
-                        if (theGrid[i][j] == 4) {
+                        if (cell == 4) {
                             line1.append("┌───┐");
                             line2.append("│ 4 │");
                             line3.append("└───┘");
                         }
-                        if (theGrid[i][j] == 5) {
+                        if (cell == 5) {
                             line1.append("┌───┐");
                             line2.append("│ 5 │");
                             line3.append("└───┘");
                         }
-                        if (theGrid[i][j] == 6) {
+                        if (cell == 6) {
                             line1.append("┌───┐");
                             line2.append("│ 6 │");
                             line3.append("└───┘");
                         }
-                        if (theGrid[i][j] >= PILLAR_ROOM && theGrid[i][j] < PILLAR_ROOM + 4) {
+                        if (cell >= PILLAR_ROOM && cell < PILLAR_ROOM + 4) {
                             line1.append("┌───┐");
                             line2.append("│ P │");
                             line3.append("└───┘");
                         }
-                        if (theGrid[i][j] == STARTING_ROOM) {
+                        if (cell == STARTING_ROOM) {
                             line1.append("┌───┐");
                             line2.append("│ S │");
                             line3.append("└───┘");
                         }
-                        if (theGrid[i][j] == ENDING_ROOM) {
+                        if (cell == ENDING_ROOM) {
                             line1.append("┌───┐");
                             line2.append("│ E │");
                             line3.append("└───┘");
                         }
                     } else { //odd j means hallways
-                        if (theGrid[i][j] == 0) {
+                        if (cell == 0) {
                             line1.append(Empty_Hallway);
                             line2.append(Empty_Hallway);
                             line3.append(Empty_Hallway);
@@ -255,13 +274,14 @@ public class DungeonCrawlerLabyrinthGenerator {
                 line3 = new StringBuilder();
 
             } else { // odd i - vertical will be empty room or a vertical hallway
-                for (int j = 0; j < theGrid[i].length; j++) { // Inner loop for columns
+                for (int j = 0; j < theGrid.getWidth(); j++) { // Inner loop for columns
+                    final int cell = theGrid.get(i, j);
                     if (j % 2 == 1) { //room
                         line1.append(Empty_Hallway);
                         line2.append(Empty_Hallway);
                     } else { //hallway
 
-                        if (theGrid[i][j] == 1) {
+                        if (cell == 1) {
                             line1.append(Vertical_Hallway);
                             line2.append(Vertical_Hallway);
                         } else {
@@ -292,14 +312,10 @@ public class DungeonCrawlerLabyrinthGenerator {
      * @param theGrid The grid to sum.
      * @return The sum of all values.
      */
-    public int sumGrid(final int[][] theGrid) {
-        int sum = 1;
-        for (final int[] ints : theGrid) { // Outer loop for rows
-            for (final int anInt : ints) { // Inner loop for columns
-                sum += anInt;
-            }
-        }
-        return sum;
+    public int sumGrid(final IDungeonGrid theGrid) {
+        final int[] sum = {1};
+        theGrid.forEachOccupied((theRow, theColumn, theValue) -> sum[0] += theValue);
+        return sum[0];
     }
 
     /**
@@ -308,14 +324,12 @@ public class DungeonCrawlerLabyrinthGenerator {
      * @param theGrid The grid to sum.
      * @return The sum of inner room values.
      */
-    public int innerSumGrid(final int[][] theGrid) {
-        int sum = 1;
-        for (final int[] ints : theGrid) { // Outer loop for rows
-            for (final int anInt : ints) { // Inner loop for columns
-                if (anInt == 2) sum += anInt;
-            }
-        }
-        return sum;
+    public int innerSumGrid(final IDungeonGrid theGrid) {
+        final int[] sum = {1};
+        theGrid.forEachOccupied((theRow, theColumn, theValue) -> {
+            if (theValue == BLANK_ROOM) sum[0] += theValue;
+        });
+        return sum[0];
     }
 
     /**
@@ -325,21 +339,19 @@ public class DungeonCrawlerLabyrinthGenerator {
      * @param theBigSize   The size of the larger grid.
      * @return The new, larger grid with the smaller one inserted.
      */
-    public int[][] insertArray(final int[][] theSmallGrid, final int theBigSize) {
-        final int[][] bigGrid = new int[theBigSize][theBigSize];
+    public IDungeonGrid insertArray(final IDungeonGrid theSmallGrid, final int theBigSize) {
+        final IDungeonGrid bigGrid = new ChunkedDungeonGrid(theBigSize, theBigSize);
 
         // Calculate total padding needed on each axis
-        final int rowPadding = theBigSize - theSmallGrid.length;
-        final int colPadding = theBigSize - theSmallGrid[0].length;
+        final int rowPadding = theBigSize - theSmallGrid.getHeight();
+        final int colPadding = theBigSize - theSmallGrid.getWidth();
 
         // Calculate offsets (14 on north/west, 16 on south/east when difference is 30)
         final int rowOffset = rowPadding / 2 - (rowPadding % 2 == 0 ? 0 : 1); // Round down
         final int colOffset = colPadding / 2 - (colPadding % 2 == 0 ? 0 : 1); // Round down
 
         // Insert smallGrid into bigGrid
-        for (int i = 0; i < theSmallGrid.length; i++) {
-            System.arraycopy(theSmallGrid[i], 0, bigGrid[rowOffset + i], colOffset, theSmallGrid[0].length);
-        }
+        theSmallGrid.forEachOccupied((theRow, theColumn, theValue) -> bigGrid.set(rowOffset + theRow, colOffset + theColumn, theValue));
         return bigGrid;
     }
 }
\ No newline at end of file
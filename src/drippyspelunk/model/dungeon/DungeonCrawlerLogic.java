@@ -1,5 +1,7 @@
 package drippyspelunk.model.dungeon;
 
+import drippyspelunk.controller.config.RoomConfigManager;
+import drippyspelunk.controller.database.DatabaseManager;
 import drippyspelunk.model.dungeon.entity.GameObject;
 import drippyspelunk.model.dungeon.entity.Inventory;
 import drippyspelunk.model.dungeon.entity.asset.*;
@@ -12,9 +14,14 @@ import drippyspelunk.model.dungeon.factory.PotionFactory;
 import java.awt.*;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
 import java.util.*;
 import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
@@ -23,7 +30,7 @@ import java.util.concurrent.ConcurrentLinkedQueue;
  * @author Devin Arroyo
  * @author Mark Malyshev
  * @author David Norman
- * @version 1.24
+ * @version 1.37
  */
 public class DungeonCrawlerLogic {
 
@@ -87,10 +94,22 @@ public class DungeonCrawlerLogic {
      * Property constant for when the player's health changes.
      */
     public static final String PLAYER_HEALTH_CHANGED_PROPERTY = "playerHealthChanged";
+    /**
+     * Property constant for when a timed effect changes the player's health, speed, or vision.
+     */
+    public static final String PLAYER_STATS_CHANGED_PROPERTY = "playerStatsChanged";
     /**
      * Property constant for when an enemy's health changes.
      */
     public static final String ENEMY_HEALTH_CHANGED_PROPERTY = "enemyHealthChanged";
+    /**
+     * Property constant for when the player descends to a new floor.
+     */
+    public static final String FLOOR_CHANGED_PROPERTY = "floorChanged";
+    /**
+     * Property constant for when a rebuild of the current room from a reloaded rooms.ini is offered or withdrawn.
+     */
+    public static final String ROOM_REBUILD_PROPERTY = "roomRebuild";
 
     /**
      * The logical width of the game screen.
@@ -101,39 +120,22 @@ public class DungeonCrawlerLogic {
      */
     public static final int LOGICAL_GAME_HEIGHT = 360;
 
-    /**
-     * The size of the small grid used for dungeon generation.
-     */
-    private static final int SMALL_GRID_SIZE = 8;
-    /**
-     * The size of the big grid used for dungeon generation.
-     */
-    private static final int BIG_GRID_SIZE = 16;
-    /**
-     * The percentage of inner rooms to generate.
-     */
-    private static final double ROOM_PERCENT_INNER = 0.8;
-    /**
-     * The percentage of total rooms to generate.
-     */
-    private static final double ROOM_PERCENT = 0.8;
     /**
      * The number of pillars to collect.
      */
-    private static final int PILLAR_AMOUNT = 4;
+    static final int PILLAR_AMOUNT = 4;
     /**
-     * The ID of the starting room.
+     * The number of floors in a run. The exit of the last floor wins the game.
      */
-    private static final int START_ROOM_ID = 9;
+    private static final int FLOOR_COUNT = 3;
     /**
-     * The ID of the ending room.
+     * The highest difficulty a deeper floor is generated at, matching the highest difficulty setting.
      */
-    private static final int END_ROOM_ID = 10;
+    private static final int MAX_FLOOR_DIFFICULTY = 3;
     /**
-     * The initial ID for the starting room during generation.
+     * The name of the thread that generates the next floor.
      */
-    private static final int INIT_START_ROOM_ID = -2;
-
+    private static final String NEXT_FLOOR_THREAD_NAME = "NextFloorGenerator";
     /**
      * The factor to reduce speed for diagonal movement.
      */
@@ -189,17 +191,17 @@ public class DungeonCrawlerLogic {
      */
     private final int myDifficulty;
     /**
-     * A map to track the current animation frame of each enemy.
-     */
-    private final Map<Enemy, Integer> myEnemyAnimationFrames;
-    /**
-     * A random number generator.
+     * A random number generator whose state is kept in saved games.
      */
-    private final Random myRandom = new Random();
+    private final StatefulRandom myRandom = new StatefulRandom();
     /**
      * A queue for handling game ending events.
      */
     private final Queue<GameEndingType> myGameEndingQueue;
+    /**
+     * Summaries of the floors the player has left, in order.
+     */
+    private final List<FloorSummary> myFloorSummaries = new ArrayList<>();
     /**
      * The player character object.
      */
@@ -209,13 +211,13 @@ public class DungeonCrawlerLogic {
      */
     private Inventory<Consumable> myInventory;
     /**
-     * The 2D array representing the dungeon grid.
+     * The grid representing the dungeon layout.
      */
-    private int[][] myDungeonGrid;
+    private IDungeonGrid myDungeonGrid;
     /**
      * A map of all rooms in the dungeon.
      */
-    private Map<Integer, Room> myRooms;
+    private Map<Long, Room> myRooms;
     /**
      * The room the player is currently in.
      */
@@ -240,6 +242,83 @@ public class DungeonCrawlerLogic {
      * A flag to prevent multiple game over events.
      */
     private boolean myGameOverTriggered = false;
+    /**
+     * A dungeon generated ahead of time, or null to generate one during init.
+     */
+    private GeneratedDungeon myGeneratedDungeon;
+    /**
+     * The floor the player is on, starting at 1.
+     */
+    private int myFloor = 1;
+    /**
+     * The difficulty level the current floor was generated for.
+     */
+    private int myFloorDifficulty;
+    /**
+     * The game tick the player entered the current floor on.
+     */
+    private long myFloorStartTick;
+    /**
+     * The seed the current floor was generated from.
+     */
+    private long myFloorSeed;
+    /**
+     * The saved game to continue during init, or null to start a new game.
+     */
+    private SaveGame mySave;
+    /**
+     * The keys of the rooms on the current floor the player has entered.
+     */
+    private final Set<Long> myVisitedRoomKeys = new HashSet<>();
+    /**
+     * The number of enemies defeated this run.
+     */
+    private int myKills;
+    /**
+     * The number of rooms entered this run.
+     */
+    private int myRoomsVisited;
+    /**
+     * The number of pillars collected this run.
+     */
+    private int myPillarsCollected;
+    /**
+     * The autosave journal the game appends to at door transitions, combat ends, and pickups.
+     */
+    private AutosaveJournal myAutosave;
+    /**
+     * The next floor once its background generation has finished, or null.
+     */
+    private volatile GeneratedDungeon myNextFloor;
+    /**
+     * The background thread generating the next floor, or null if none is running.
+     */
+    private Thread myNextFloorThread;
+    /**
+     * The token that cancels the next floor's generation.
+     */
+    private CancellationToken myNextFloorToken;
+    /**
+     * The names of the room templates reloaded since the last update, added from the rooms watcher thread.
+     */
+    private final Set<String> myReloadedTemplates = ConcurrentHashMap.newKeySet();
+    /**
+     * Collects the names of reloaded room templates in development mode.
+     */
+    private final PropertyChangeListener myRoomsListener = theEvent -> {
+        for (final Object name : (Set<?>) theEvent.getNewValue()) {
+            myReloadedTemplates.add((String) name);
+        }
+    };
+    /**
+     * The room whose template was reloaded and can be rebuilt, or null if no rebuild is offered.
+     */
+    private Room myRebuildableRoom;
+    /**
+     * Set from the event dispatch thread when the player asks for the offered rebuild, and consumed by the next
+     * update on the game loop thread, which owns the room's object lists.
+     */
+    private volatile boolean myRoomRebuildRequested;
 
     /**
      * Constructs the DungeonCrawlerLogic with the specified character, name, and difficulty.
@@ -249,53 +328,463 @@ public class DungeonCrawlerLogic {
      * @param theDifficulty              The difficulty level of the game.
      */
     public DungeonCrawlerLogic(final Character theSelectedPlayerCharacter, final String thePlayerName, final int theDifficulty) {
+        this(theSelectedPlayerCharacter, thePlayerName, theDifficulty, null);
+    }
+
+    /**
+     * Constructs the DungeonCrawlerLogic using a dungeon that was generated ahead of time.
+     *
+     * @param theSelectedPlayerCharacter The character selected by the player.
+     * @param thePlayerName              The name of the player.
+     * @param theDifficulty              The difficulty level of the game.
+     * @param theGeneratedDungeon        A pre-generated dungeon, or null to generate one during init.
+     */
+    public DungeonCrawlerLogic(final Character theSelectedPlayerCharacter,
+                               final String thePlayerName,
+                               final int theDifficulty,
+                               final GeneratedDungeon theGeneratedDungeon) {
+        myGeneratedDungeon = theGeneratedDungeon;
         myPCS = new PropertyChangeSupport(this);
         myRooms = new HashMap<>();
         mySelectedPlayerCharacter = theSelectedPlayerCharacter;
         myPlayerName = thePlayerName;
-        myEnemyAnimationFrames = new HashMap<>();
         myGameEndingQueue = new ConcurrentLinkedQueue<>();
         myDifficulty = theDifficulty;
     }
 
+    /**
+     * Constructs the DungeonCrawlerLogic to continue a saved game.
+     *
+     * @param theSelectedPlayerCharacter The character selected by the player, or null if the save has none.
+     * @param theSave                    The saved game to continue.
+     * @param theGeneratedDungeon        The saved floor regenerated from its seed, or null to regenerate it during init.
+     */
+    public DungeonCrawlerLogic(final Character theSelectedPlayerCharacter,
+                               final SaveGame theSave,
+                               final GeneratedDungeon theGeneratedDungeon) {
+        this(theSelectedPlayerCharacter, theSave.getPlayerName(), theSave.getDifficulty(), theGeneratedDungeon);
+        mySave = theSave;
+    }
+
+    /**
+     * Generates a complete dungeon layout and its rooms for the given difficulty.
+     * Safe to call off the game thread, since it touches no game state.
+     *
+     * @param theDifficulty The difficulty level of the dungeon.
+     * @return The generated dungeon.
+     */
+    static GeneratedDungeon generateDungeon(final int theDifficulty) {
+        return DungeonGenerationPipeline.createDefault().run(theDifficulty, new CancellationToken(), null);
+    }
+
+    /**
+     * Regenerates the floor a saved game was on from its seed.
+     * Safe to call off the game thread, since it touches no game state.
+     *
+     * @param theSave The saved game.
+     * @return The floor as it was first generated.
+     */
+    public static GeneratedDungeon regenerateFloor(final SaveGame theSave) {
+        return DungeonGenerationPipeline.createDefault()
+                .run(theSave.getFloorDifficulty(), theSave.getFloorSeed(), new CancellationToken(), null);
+    }
+
     /**
      * Initializes the dungeon, player, and combat system.
+     * Uses the pre-generated dungeon if one was supplied, otherwise generates one now.
+     * When continuing a saved game, the saved floor is regenerated and the saved changes applied on top.
      */
     public void init() {
-        final int smallGridSize = SMALL_GRID_SIZE * myDifficulty;
-        final int bigGridSize = BIG_GRID_SIZE * myDifficulty;
-
-        final int startingPosX = myDifficulty * 2;
-        final int startingPosY = myDifficulty * 2;
-        final int endingPosX = smallGridSize - startingPosX;
-        final int endingPosY = smallGridSize - startingPosY;
-        final DungeonCrawlerRoomConnectionsGenerator generator = new DungeonCrawlerRoomConnectionsGenerator(myDifficulty);
-        final DungeonCrawlerLabyrinthGenerator DT = new DungeonCrawlerLabyrinthGenerator();
-
-        do {
-            final int[][] tempGrid = new int[smallGridSize][smallGridSize];
-            tempGrid[endingPosX][endingPosY] = INIT_START_ROOM_ID;
-            myDungeonGrid = DT.generateGridPillars(tempGrid, startingPosX, startingPosY, PILLAR_AMOUNT, bigGridSize, myDifficulty);
-        } while (!(DT.innerSumGrid(myDungeonGrid) <= smallGridSize * smallGridSize * ROOM_PERCENT_INNER / myDifficulty &&
-                DT.sumGrid(myDungeonGrid) <= bigGridSize * bigGridSize * ROOM_PERCENT / myDifficulty * 1.5));
-
-        myDungeonGrid[endingPosX + (bigGridSize - smallGridSize) / 2][endingPosY + (bigGridSize - smallGridSize) / 2] = END_ROOM_ID;
-        myDungeonGrid[startingPosX + (bigGridSize - smallGridSize) / 2][startingPosY + (bigGridSize - smallGridSize) / 2] = START_ROOM_ID;
-        DT.asciiGrid(myDungeonGrid);
-
-        myRooms = generator.createDungeonFromGrid(myDungeonGrid);
-        setCurrentRoom(myRooms.get((startingPosX + (bigGridSize - smallGridSize) / 2) * myDungeonGrid[1].length + startingPosY + (bigGridSize - smallGridSize) / 2));
-
-        myEnemyAnimationFrames.clear();
-        for (final Enemy enemy : myCurrentRoom.getEnemies()) {
-            myEnemyAnimationFrames.put(enemy, 0);
+        GeneratedDungeon dungeon = myGeneratedDungeon;
+        if (dungeon == null) {
+            dungeon = mySave != null ? regenerateFloor(mySave) : generateDungeon(myDifficulty);
         }
+        myGeneratedDungeon = null;
+
+        if (mySave != null) {
+            myFloor = mySave.getFloor();
+            gameTicks = mySave.getGameTicks();
+        }
+        enterFloor(dungeon);
 
         // Create player with selected character
         createPlayerWithSelectedCharacter();
         myInventory = new Inventory<>();
 
+        if (mySave != null) {
+            restoreSave(mySave);
+            mySave = null;
+        }
+
         myCombatLogic = new CombatLogic(myPCS, myPlayer, myInventory, this);
+
+        myAutosave = new AutosaveJournal();
+        autosaveFloor();
+
+        if (RoomConfigManager.isDevMode()) {
+            RoomConfigManager.getInstance().addRoomsListener(myRoomsListener);
+        }
+    }
+
+    /**
+     * Appends everything needed to rebuild the current floor to the autosave journal,
+     * which replaces the autosave of the previous floor.
+     */
+    private void autosaveFloor() {
+        myAutosave.appendFloor(myPlayerName, getCharacterName(), myDifficulty, myFloor, myFloorDifficulty,
+                myFloorSeed, encodeFloorSummaries());
+        for (final Room room : myRooms.values()) {
+            if (room.isChanged()) {
+                myAutosave.append(AutosaveJournal.RECORD_ROOM, room.getRoomID(), encodeRoom(room));
+            }
+        }
+        autosave();
+    }
+
+    /**
+     * Appends the game's counters, the player, the inventory, and the current room to the autosave journal.
+     * Only encodes a few small records; the journal writes them on its own thread.
+     */
+    void autosave() {
+        if (myAutosave == null || myGameOverTriggered) {
+            return;
+        }
+        myAutosave.appendState(gameTicks, myPillarsToCollect, myFloorStartTick, myRandom.getState(),
+                myCurrentRoom.getRoomID(), encodeRunStats());
+        myAutosave.append(AutosaveJournal.RECORD_PLAYER, 0, encodePlayer());
+        myAutosave.append(AutosaveJournal.RECORD_INVENTORY, 0, encodeInventory());
+        autosaveRoom(myCurrentRoom);
+    }
+
+    /**
+     * Appends a room's changes to the autosave journal.
+     *
+     * @param theRoom The room.
+     */
+    private void autosaveRoom(final Room theRoom) {
+        if (myAutosave != null && !myGameOverTriggered) {
+            myAutosave.append(AutosaveJournal.RECORD_ROOM, theRoom.getRoomID(), encodeRoom(theRoom));
+        }
+    }
+
+    /**
+     * Captures the game in a save. Only rooms that may differ from how they were generated are
+     * stored; the rest are rebuilt from the floor's seed when the save is loaded.
+     *
+     * @return The save.
+     */
+    public SaveGame createSave() {
+        final Map<Long, byte[]> changedRooms = new LinkedHashMap<>();
+        for (final Room room : myRooms.values()) {
+            if (room.isChanged()) {
+                changedRooms.put(room.getRoomID(), encodeRoom(room));
+            }
+        }
+        final byte[] worldState = SaveGame.writeWorldState(myFloorStartTick, myRandom.getState(),
+                myCurrentRoom.getRoomID(), encodeFloorSummaries(), encodeRunStats(), encodePlayer(), encodeInventory(),
+                changedRooms);
+
+        return new SaveGame(System.currentTimeMillis(), myPlayerName, getCharacterName(), myDifficulty, myFloor,
+                myFloorDifficulty, myFloorSeed, gameTicks, myPillarsToCollect, worldState);
+    }
+
+    /**
+     * Gets the name of the selected character template.
+     *
+     * @return The character name, or null if there is none.
+     */
+    private String getCharacterName() {
+        return mySelectedPlayerCharacter != null ? mySelectedPlayerCharacter.getMyName() : null;
+    }
+
+    /**
+     * Encodes the summaries of the floors already left.
+     *
+     * @return The encoded summaries.
+     */
+    private byte[] encodeFloorSummaries() {
+        return SaveGame.toBytes(theOutput -> {
+            theOutput.writeByte(myFloorSummaries.size());
+            for (final FloorSummary summary : myFloorSummaries) {
+                theOutput.writeByte(summary.getFloor());
+                theOutput.writeByte(summary.getDifficulty());
+                theOutput.writeShort(summary.getRoomCount());
+                theOutput.writeLong(summary.getTicksSpent());
+            }
+        });
+    }
+
+    /**
+     * Encodes the statistics of the run so far.
+     *
+     * @return The encoded kills, rooms visited, and pillars collected.
+     */
+    private byte[] encodeRunStats() {
+        return SaveGame.toBytes(theOutput -> {
+            theOutput.writeInt(myKills);
+            theOutput.writeInt(myRoomsVisited);
+            theOutput.writeInt(myPillarsCollected);
+        });
+    }
+
+    /**
+     * Counts an enemy defeated in combat towards the run's statistics.
+     */
+    void recordKill() {
+        myKills++;
+    }
+
+    /**
+     * Records the finished run in the run history.
+     *
+     * @param theEndingType How the run ended.
+     */
+    private void recordRun(final GameEndingType theEndingType) {
+        final RunRecord run = new RunRecord(0, System.currentTimeMillis(), myPlayerName, myPlayer.getCharacterClass(),
+                myDifficulty, myFloorSeed, myFloor, theEndingType, gameTicks, myKills, myRoomsVisited,
+                myPillarsCollected);
+        DatabaseManager.getMyInstance().getRunHistory().record(run);
+    }
+
+    /**
+     * Encodes the player.
+     *
+     * @return The encoded player.
+     */
+    private byte[] encodePlayer() {
+        return SaveGame.toBytes(myPlayer::writeSaveData);
+    }
+
+    /**
+     * Encodes the inventory.
+     *
+     * @return The encoded inventory.
+     */
+    private byte[] encodeInventory() {
+        return SaveGame.toBytes(theOutput -> {
+            theOutput.writeByte(myInventory.getSize());
+            for (final Consumable item : myInventory.getItems()) {
+                SaveGame.writeItem(theOutput, item);
+            }
+        });
+    }
+
+    /**
+     * Encodes how a room differs from how it was generated.
+     *
+     * @param theRoom The room.
+     * @return The encoded room changes.
+     */
+    private static byte[] encodeRoom(final Room theRoom) {
+        return SaveGame.toBytes(theRoom::writeChanges);
+    }
+
+    /**
+     * Applies a saved game to the freshly regenerated floor, player, and inventory.
+     * A room whose saved changes no longer fit is left as generated, and a damaged save
+     * leaves whatever was restored before the damage.
+     *
+     * @param theSave The saved game.
+     */
+    private void restoreSave(final SaveGame theSave) {
+        myPillarsToCollect = theSave.getPillarsToCollect();
+        try (DataInputStream input = theSave.openWorldState()) {
+            myFloorStartTick = input.readLong();
+            myRandom.setState(input.readLong());
+            final Room currentRoom = myRooms.get(input.readLong());
+
+            final int summaryCount = input.readUnsignedByte();
+            for (int i = 0; i < summaryCount; i++) {
+                myFloorSummaries.add(new FloorSummary(input.readUnsignedByte(), input.readUnsignedByte(),
+                        input.readUnsignedShort(), input.readLong()));
+            }
+            myKills = input.readInt();
+            myRoomsVisited = input.readInt();
+            myPillarsCollected = input.readInt();
+
+            myPlayer.readSaveData(input);
+
+            final int itemCount = input.readUnsignedByte();
+            for (int i = 0; i < itemCount; i++) {
+                myInventory.add(SaveGame.readItem(input));
+            }
+
+            final int roomCount = input.readUnsignedShort();
+            for (int i = 0; i < roomCount; i++) {
+                final Room room = myRooms.get(input.readLong());
+                final byte[] roomBytes = new byte[input.readInt()];
+                input.readFully(roomBytes);
+                if (room != null) {
+                    try (DataInputStream roomInput = new DataInputStream(new ByteArrayInputStream(roomBytes))) {
+                        room.readChanges(roomInput);
+                    } catch (final IOException ignored) {
+                        // The room was generated differently, so it stays as generated.
+                    }
+                }
+            }
+
+            // Every room the player entered was saved, since entering a room marks it changed.
+            for (final Room room : myRooms.values()) {
+                if (room.isChanged()) {
+                    myVisitedRoomKeys.add(room.getRoomID());
+                }
+            }
+            if (currentRoom != null) {
+                setCurrentRoom(currentRoom);
+            }
+        } catch (final IOException ignored) {
+            // The save is damaged past this point.
+        }
+
+        resetEnemyAnimations();
+    }
+
+    /**
+     * Makes a generated dungeon the current floor and starts generating the floor below it.
+     *
+     * @param theDungeon The dungeon for the floor.
+     */
+    private void enterFloor(final GeneratedDungeon theDungeon) {
+        myFloorDifficulty = theDungeon.getDifficulty();
+        myFloorSeed = theDungeon.getSeed();
+        myFloorStartTick = gameTicks;
+        myDungeonGrid = theDungeon.getDungeonGrid();
+        myRooms = theDungeon.getRooms();
+        myVisitedRoomKeys.clear();
+        setCurrentRoom(myRooms.get(theDungeon.getStartRoomId()));
+
+        resetEnemyAnimations();
+
+        if (myFloor < FLOOR_COUNT) {
+            startNextFloorGeneration(getFloorDifficulty(myFloor + 1));
+        }
+    }
+
+    /**
+     * Starts the walking animation of every enemy in the current room from its first frame.
+     */
+    private void resetEnemyAnimations() {
+        for (final Enemy enemy : myCurrentRoom.getEnemies()) {
+            enemy.setAnimationFrame(0);
+        }
+    }
+
+    /**
+     * Gets the difficulty a floor is generated at. Each floor is one level harder than the one above it.
+     *
+     * @param theFloor The floor number, starting at 1.
+     * @return The difficulty level of the floor.
+     */
+    private int getFloorDifficulty(final int theFloor) {
+        return Math.max(myDifficulty, Math.min(myDifficulty + theFloor - 1, MAX_FLOOR_DIFFICULTY));
+    }
+
+    /**
+     * Starts generating the next floor on a low priority background thread.
+     *
+     * @param theDifficulty The difficulty level of the next floor.
+     */
+    private void startNextFloorGeneration(final int theDifficulty) {
+        final CancellationToken token = new CancellationToken();
+        myNextFloor = null;
+        myNextFloorToken = token;
+        myNextFloorThread = new Thread(() -> {
+            try {
+                myNextFloor = DungeonGenerationPipeline.createDefault().run(theDifficulty, token, null);
+            } catch (final CancellationException ignored) {
+                // The run ended before the player reached the next floor.
+            } catch (final RuntimeException theException) {
+                // The floor is generated again when the player descends.
+                System.out.println("Could not generate the next floor: " + theException);
+            }
+        }, NEXT_FLOOR_THREAD_NAME);
+        myNextFloorThread.setDaemon(true);
+        myNextFloorThread.setPriority(Thread.MIN_PRIORITY);
+        myNextFloorThread.start();
+    }
+
+    /**
+     * Moves the player down to the next floor. The previous floor is reduced to a summary
+     * and its rooms are released. If the next floor is still generating, waits for it to finish.
+     */
+    private void descendToNextFloor() {
+        myFloorSummaries.add(new FloorSummary(myFloor, myFloorDifficulty, myRooms.size(), gameTicks - myFloorStartTick));
+
+        GeneratedDungeon nextFloor = myNextFloor;
+        if (nextFloor == null) {
+            try {
+                myNextFloorThread.join();
+            } catch (final InterruptedException theException) {
+                Thread.currentThread().interrupt();
+            }
+            nextFloor = myNextFloor;
+        }
+        if (nextFloor == null) {
+            nextFloor = generateDungeon(getFloorDifficulty(myFloor + 1));
+        }
+        myNextFloor = null;
+        myNextFloorThread = null;
+        myNextFloorToken = null;
+
+        // Release the floor being left before building up the next one.
+        myRooms = new HashMap<>();
+        myDungeonGrid = null;
+
+        final int oldFloor = myFloor;
+        myFloor++;
+        enterFloor(nextFloor);
+
+        final Point spawnPoint = myCurrentRoom.getSpawnPoint();
+        myPlayer.setX(spawnPoint.x);
+        myPlayer.setY(spawnPoint.y);
+
+        myPillarsToCollect = PILLAR_AMOUNT;
+        myPCS.firePropertyChange(PILLARS_COLLECTED_PROPERTY, null, myPillarsToCollect);
+        myPCS.firePropertyChange(FLOOR_CHANGED_PROPERTY, oldFloor, myFloor);
+        autosaveFloor();
+    }
+
+    /**
+     * Stops any background work started by the game. Called when the game is left.
+     */
+    public void dispose() {
+        if (RoomConfigManager.isDevMode()) {
+            RoomConfigManager.getInstance().removeRoomsListener(myRoomsListener);
+        }
+        if (myNextFloorToken != null) {
+            myNextFloorToken.cancel();
+        }
+        myNextFloor = null;
+        if (myAutosave != null) {
+            myAutosave.close();
+        }
+    }
+
+    /**
+     * Gets the floor the player is on.
+     *
+     * @return The floor number, starting at 1.
+     */
+    public int getFloor() {
+        return myFloor;
+    }
+
+    /**
+     * Gets the number of floors in a run.
+     *
+     * @return The floor count.
+     */
+    public int getFloorCount() {
+        return FLOOR_COUNT;
+    }
+
+    /**
+     * Gets summaries of the floors the player has already left.
+     *
+     * @return An unmodifiable list of floor summaries, in order.
+     */
+    public List<FloorSummary> getFloorSummaries() {
+        return Collections.unmodifiableList(myFloorSummaries);
     }
 
     /**
@@ -328,6 +817,9 @@ public class DungeonCrawlerLogic {
 
             if (myGameEndingType != null) {
                 myGameOverTriggered = true;
+                // The run is over, so there is nothing left to continue.
+                myAutosave.discard();
+                recordRun(myGameEndingType);
                 myPCS.firePropertyChange(GAME_OVER_PROPERTY, null, myGameEndingType);
                 return;
             }
@@ -337,11 +829,23 @@ public class DungeonCrawlerLogic {
             return;
         }
 
+        if (!myReloadedTemplates.isEmpty()) {
+            offerRoomRebuild();
+        }
+        if (myRoomRebuildRequested) {
+            myRoomRebuildRequested = false;
+            applyRoomRebuild();
+        }
+
         if (!myPlayer.isAlive()) {
             myGameEndingQueue.offer(GameEndingType.ENEMY);
             return;
         }
 
+        final int healthBeforeEffects = myPlayer.getHealth();
+        final int moveSpeedBeforeEffects = myPlayer.getMoveSpeed();
+        final int attackSpeedBeforeEffects = myPlayer.getAttackSpeed();
+        final int visionBeforeEffects = myPlayer.getVisionRange();
         if (myPlayer.isSpeedBoostActive()) {
             myPlayer.tickSpeedBoost();
         }
@@ -357,6 +861,11 @@ public class DungeonCrawlerLogic {
         if (myPlayer.isBlinded()) {
             myPlayer.tickBlind();
         }
+        if (healthBeforeEffects != myPlayer.getHealth() || moveSpeedBeforeEffects != myPlayer.getMoveSpeed()
+                || attackSpeedBeforeEffects != myPlayer.getAttackSpeed()
+                || visionBeforeEffects != myPlayer.getVisionRange()) {
+            myPCS.firePropertyChange(PLAYER_STATS_CHANGED_PROPERTY, null, myPlayer);
+        }
 
         final List<GameObject> objectsToRemove = new ArrayList<>();
         final List<ActiveBomb> bombsToRemove = new ArrayList<>();
@@ -475,6 +984,7 @@ public class DungeonCrawlerLogic {
                 if (playerBounds.intersects(obj.getBounds())) {
                     myPlayer.takeDamage(TRAP_DAMAGE);
                     myCurrentRoom.removeObject(obj);
+                    myPCS.firePropertyChange(PLAYER_HEALTH_CHANGED_PROPERTY, null, myPlayer.getHealth());
                     if (!myPlayer.isAlive()) {
                         myGameEndingQueue.offer(GameEndingType.TRAP);
                     }
@@ -485,6 +995,7 @@ public class DungeonCrawlerLogic {
                     if (myInventory.add((Consumable) obj)) {
                         myCurrentRoom.removeObject(obj);
                         myPCS.firePropertyChange(INVENTORY_CHANGED_PROPERTY, null, myInventory);
+                        autosave();
                     }
                     return;
                 }
@@ -498,18 +1009,24 @@ public class DungeonCrawlerLogic {
 
                     }
                     myPCS.firePropertyChange(INVENTORY_CHANGED_PROPERTY, null, myInventory);
+                    autosave();
                     return;
                 }
             } else if (obj instanceof Pillar) {
                 if (playerBounds.intersects(obj.getBounds())) {
                     myCurrentRoom.removeObject(obj);
                     myPillarsToCollect--;
+                    myPillarsCollected++;
                     myPCS.firePropertyChange(PILLARS_COLLECTED_PROPERTY, null, myPillarsToCollect);
+                    autosave();
                     return;
                 }
             } else if (obj instanceof Exit) {
                 if (playerBounds.intersects(obj.getBounds())) {
-                    if (myPillarsToCollect == 0) {
+                    if (myPillarsToCollect == 0 && myFloor < FLOOR_COUNT) {
+                        descendToNextFloor();
+                        return;
+                    } else if (myPillarsToCollect == 0) {
                         myGameEndingQueue.offer(GameEndingType.WIN);
                         return;
                     } else {
@@ -544,9 +1061,11 @@ public class DungeonCrawlerLogic {
             myGameEndingQueue.offer(GameEndingType.BOMB);
         }
 
+        myCurrentRoom.breakWalls(explosionBounds);
+
         for (final GameObject obj : myCurrentRoom.getObjectsInRoom()) {
             if (explosionBounds.intersects(obj.getBounds())) {
-                if (obj instanceof BreakableWall || obj instanceof Trap) {
+                if (obj instanceof Trap) {
                     theObjectsToRemove.add(obj);
                 }
             }
@@ -591,14 +1110,7 @@ public class DungeonCrawlerLogic {
      * @return True if there is no wall collision, false otherwise.
      */
     private boolean checkWallCollisionAtPosition(final Rectangle theProposedBounds) {
-        for (final GameObject obj : myCurrentRoom.getGameObjects()) {
-            if (obj instanceof Wall || obj instanceof BreakableWall) {
-                if (theProposedBounds.intersects(obj.getBounds())) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return !myCurrentRoom.isWallAt(theProposedBounds);
     }
 
     /**
@@ -610,7 +1122,7 @@ public class DungeonCrawlerLogic {
         for (final Door door : myCurrentRoom.getDoors()) {
             if (playerBounds.intersects(door.getBounds())) {
 
-                final int targetRoomId = door.getTargetRoomId();
+                final long targetRoomId = door.getTargetRoomId();
                 final Room targetRoom = myRooms.get(targetRoomId);
 
                 if (targetRoom != null) {
@@ -618,12 +1130,11 @@ public class DungeonCrawlerLogic {
                     myPlayer.setX(newPlayerPos.x);
                     myPlayer.setY(newPlayerPos.y);
 
+                    autosaveRoom(myCurrentRoom);
                     setCurrentRoom(targetRoom);
                     myPCS.firePropertyChange(PLAYER_DOOR_PROPERTY, null, null);
-                    myEnemyAnimationFrames.clear();
-                    for (final Enemy enemy : myCurrentRoom.getEnemies()) {
-                        myEnemyAnimationFrames.put(enemy, 0);
-                    }
+                    resetEnemyAnimations();
+                    autosave();
                 }
             }
         }
@@ -694,6 +1205,16 @@ public class DungeonCrawlerLogic {
         return myCurrentRoom;
     }
 
+    /**
+     * Gets a room on the current floor.
+     *
+     * @param theRoomId The room's ID.
+     * @return The room, or null if the floor has no room with that ID.
+     */
+    public Room getRoom(final long theRoomId) {
+        return myRooms.get(theRoomId);
+    }
+
     /**
      * Sets the current room and fires a property change event.
      *
@@ -702,9 +1223,63 @@ public class DungeonCrawlerLogic {
     public void setCurrentRoom(final Room theNewRoom) {
         final Room oldRoom = myCurrentRoom;
         myCurrentRoom = theNewRoom;
+        if (theNewRoom != null && myVisitedRoomKeys.add(theNewRoom.getRoomID())) {
+            myRoomsVisited++;
+        }
+        if (theNewRoom != null) {
+            // Enemies move and chests open without the room seeing it, so a visited room is always saved.
+            theNewRoom.markChanged();
+        }
         myPCS.firePropertyChange(CURRENT_ROOM_PROPERTY, oldRoom, theNewRoom);
     }
 
+    /**
+     * Offers to rebuild the current room if its template was among the reloaded ones.
+     */
+    private void offerRoomRebuild() {
+        final Set<String> reloaded = new HashSet<>(myReloadedTemplates);
+        myReloadedTemplates.removeAll(reloaded);
+        if (myCurrentRoom != null && reloaded.contains(myCurrentRoom.getTemplateName())) {
+            final boolean wasOffered = isRoomRebuildOffered();
+            myRebuildableRoom = myCurrentRoom;
+            myPCS.firePropertyChange(ROOM_REBUILD_PROPERTY, wasOffered, true);
+        }
+    }
+
+    /**
+     * Checks whether the current room can be rebuilt from a reloaded rooms.ini.
+     *
+     * @return True if a rebuild of the current room is offered.
+     */
+    public boolean isRoomRebuildOffered() {
+        return myRebuildableRoom != null && myRebuildableRoom == myCurrentRoom;
+    }
+
+    /**
+     * Asks for the current room to be rebuilt from its reloaded template, if a rebuild is offered.
+     * The rebuild happens on the next update, on the game loop thread.
+     */
+    public void rebuildCurrentRoom() {
+        myRoomRebuildRequested = true;
+    }
+
+    /**
+     * Rebuilds the current room's terrain in place from its reloaded template, if a rebuild is still offered.
+     * The floor and walls are replaced; the doors, the player's position and everything living in the room are kept.
+     */
+    private void applyRoomRebuild() {
+        if (!isRoomRebuildOffered() || isInCombat()) {
+            return;
+        }
+        myRebuildableRoom = null;
+        final RoomTemplate template = RoomConfigManager.getInstance().getRoomTemplate(myCurrentRoom.getTemplateName());
+        if (template != null) {
+            new DungeonCrawlerRoomConnectionsGenerator(myFloorDifficulty).rebuildRoom(myCurrentRoom, template);
+            myPCS.firePropertyChange(CURRENT_ROOM_PROPERTY, null, myCurrentRoom);
+        }
+        myPCS.firePropertyChange(ROOM_REBUILD_PROPERTY, true, false);
+    }
+
     /**
      * Gets the logical screen width.
      *
@@ -824,6 +1399,7 @@ public class DungeonCrawlerLogic {
 
         theItem.applyEffect(myPlayer);
         myInventory.remove(theItem);
+        myPCS.firePropertyChange(INVENTORY_CHANGED_PROPERTY, null, myInventory);
 
         // Check for immediate death from instant damage potions and add to queue
         if (!myPlayer.isAlive()) {
@@ -888,9 +1464,9 @@ public class DungeonCrawlerLogic {
     /**
      * Gets the dungeon grid.
      *
-     * @return The 2D array representing the dungeon grid.
+     * @return The grid representing the dungeon layout.
      */
-    public int[][] getDungeonGrid() {
+    public IDungeonGrid getDungeonGrid() {
         return myDungeonGrid;
     }
 
@@ -915,26 +1491,6 @@ public class DungeonCrawlerLogic {
         return null;
     }
 
-    /**
-     * Gets the current animation frame for an enemy.
-     *
-     * @param theEnemy The enemy to get the frame for.
-     * @return The animation frame index.
-     */
-    public int getEnemyAnimationFrame(final Enemy theEnemy) {
-        return myEnemyAnimationFrames.getOrDefault(theEnemy, 0);
-    }
-
-    /**
-     * Sets the animation frame for an enemy.
-     *
-     * @param theEnemy The enemy to set the frame for.
-     * @param theFrame The new animation frame index.
-     */
-    public void setEnemyAnimationFrame(final Enemy theEnemy, final int theFrame) {
-        myEnemyAnimationFrames.put(theEnemy, theFrame);
-    }
-
     /**
      * Gets a list of all game objects in the current room to be drawn.
      *
@@ -946,7 +1502,6 @@ public class DungeonCrawlerLogic {
         }
 
         final List<GameObject> allObjectsToDraw = new ArrayList<>();
-        allObjectsToDraw.addAll(myCurrentRoom.getFloorObjects());
         allObjectsToDraw.addAll(myCurrentRoom.getObjectsInRoom());
         allObjectsToDraw.addAll(myCurrentRoom.getEnemies());
         allObjectsToDraw.add(myPlayer);
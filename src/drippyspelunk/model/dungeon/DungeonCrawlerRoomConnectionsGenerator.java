@@ -19,7 +19,7 @@ import java.util.List;
  * @author Devin Arroyo
  * @author Mark Malyshev
  * @author David Norman
- * @version 1.9
+ * @version 1.17
  */
 public class DungeonCrawlerRoomConnectionsGenerator {
 
@@ -128,9 +128,9 @@ public class DungeonCrawlerRoomConnectionsGenerator {
      */
     private static final int ROOM_GRID_WIDTH = 15;
     /**
-     * A random number generator.
+     * The random number generator every random choice of the rooms is drawn from.
      */
-    private final Random myRandom = new Random();
+    private final Random myRandom;
     /**
      * The database manager for accessing game data.
      */
@@ -139,6 +139,10 @@ public class DungeonCrawlerRoomConnectionsGenerator {
      * The room configuration manager.
      */
     private final RoomConfigManager myRoomConfigManager;
+    /**
+     * The difficulty level the rooms' spawn chances are adjusted for.
+     */
+    private final int myDifficulty;
 
     /**
      * Constructs a new DungeonCrawlerRoomConnectionsGenerator.
@@ -146,52 +150,124 @@ public class DungeonCrawlerRoomConnectionsGenerator {
      * @param theDifficulty The difficulty level to use for room configuration.
      */
     public DungeonCrawlerRoomConnectionsGenerator(final int theDifficulty) {
+        this(theDifficulty, new Random());
+    }
+
+    /**
+     * Constructs a new DungeonCrawlerRoomConnectionsGenerator that draws every random choice from a given generator,
+     * so a seeded generator always builds the same rooms.
+     *
+     * @param theDifficulty The difficulty level to use for room configuration.
+     * @param theRandom     The random number generator to draw from.
+     */
+    public DungeonCrawlerRoomConnectionsGenerator(final int theDifficulty, final Random theRandom) {
+        myRandom = theRandom;
         myDBManager = DatabaseManager.getMyInstance();
-        myRoomConfigManager = RoomConfigManager.getInstance(theDifficulty);
+        myRoomConfigManager = RoomConfigManager.getInstance();
+        myDifficulty = theDifficulty;
     }
 
     /**
      * Creates a map of rooms based on the provided dungeon grid.
+     * Runs every room stage back to back; {@link DungeonGenerationPipeline} runs the same steps as separate stages.
      *
-     * @param theGrid The 2D integer array representing the dungeon layout.
-     * @return A map of room IDs to Room objects.
+     * @param theGrid The dungeon grid.
+     * @return A map of room keys to Room objects.
      */
-    public Map<Integer, Room> createDungeonFromGrid(final int[][] theGrid) {
-        final Map<Integer, Room> rooms = new HashMap<>();
+    public Map<Long, Room> createDungeonFromGrid(final IDungeonGrid theGrid) {
+        final Map<Long, Room> rooms = new HashMap<>();
 
-        for (int rowIndex = 0; rowIndex < theGrid.length; rowIndex = rowIndex + 2) {
-            for (int columnIndex = 0; columnIndex < theGrid[rowIndex].length; columnIndex = columnIndex + 2) {
+        theGrid.forEachOccupied((theRowIndex, theColumnIndex, theRoomType) -> {
+            if (theRowIndex % 2 != 0 || theColumnIndex % 2 != 0 || theRoomType < 2) {
+                return;
+            }
 
-                if (theGrid[rowIndex][columnIndex] >= 2) {
-                    final int roomID = rowIndex * theGrid.length + columnIndex;
-                    final String roomTemplate = String.valueOf(roomID);
+            final RoomPlan plan = planRoom(theGrid, theRowIndex, theColumnIndex, theRoomType);
+            buildTerrain(plan);
+            createAndAddDoors(plan.getRoom(), theGrid, theRowIndex, theColumnIndex);
+            spawnObjectsFromGrid(plan);
+            bindEnemies(plan);
 
-                    final int roomType = theGrid[rowIndex][columnIndex];
-                    final int biome = getBiomeForRoomType(roomType);
+            rooms.put(plan.getRoomKey(), plan.getRoom());
+        });
+        return rooms;
+    }
 
-                    final List<Rectangle> doorBounds = getDoorBounds(theGrid, rowIndex, columnIndex);
+    /**
+     * Plans a room by picking its biome, door openings and template.
+     *
+     * @param theGrid        The dungeon grid.
+     * @param theRowIndex    The row index of the room.
+     * @param theColumnIndex The column index of the room.
+     * @param theRoomType    The room type from the grid.
+     * @return The room plan.
+     */
+    RoomPlan planRoom(final IDungeonGrid theGrid, final int theRowIndex, final int theColumnIndex, final int theRoomType) {
+        final int biome = getBiomeForRoomType(theRoomType);
 
-                    final RoomTemplate template = selectRoomTemplate(roomType, doorBounds.size(), theGrid, rowIndex, columnIndex);
+        final List<Rectangle> doorBounds = getDoorBounds(theGrid, theRowIndex, theColumnIndex);
 
-                    final Room temp_room = new Room(roomID, roomTemplate);
+        final RoomTemplate template = selectRoomTemplate(theRoomType, doorBounds.size(), theGrid, theRowIndex, theColumnIndex);
 
-                    RoomGenerator.generateBackgroundTiles(temp_room, template.getTileset(), biome);
+        return new RoomPlan(theRowIndex, theColumnIndex, theRoomType, biome, doorBounds, template);
+    }
 
-                    RoomGenerator.generateRoomLayout(temp_room, doorBounds, template.getLayout(), biome);
+    /**
+     * Creates the room for a plan and lays down its floor and wall tiles.
+     *
+     * @param thePlan The room plan.
+     */
+    void buildTerrain(final RoomPlan thePlan) {
+        final long roomID = thePlan.getRoomKey();
+        final Room temp_room = new Room(roomID, String.valueOf(roomID));
+        temp_room.setTemplateName(thePlan.getTemplate().getName());
 
-                    createAndAddDoors(temp_room, theGrid, rowIndex, columnIndex);
+        RoomGenerator.generateBackgroundTiles(temp_room, thePlan.getTemplate(), thePlan.getBiome());
 
-                    spawnObjectsFromGrid(temp_room, template, biome);
+        RoomGenerator.generateRoomLayout(temp_room, thePlan.getDoorBounds(), thePlan.getTemplate());
 
-                    if (roomType == BREAKABLE_WALL_ROOM) {
-                        temp_room.addObject(GameObjectFactory.createGameObject(GameObjectFactory.TYPE_BREAKABLE_WALL, Room.TILE_SIZE * 5, Room.TILE_SIZE * 6, 32, 32));
-                    }
+        if (thePlan.getRoomType() == BREAKABLE_WALL_ROOM) {
+            temp_room.placeBreakableWall(6, 5);
+        }
+
+        thePlan.setRoom(temp_room);
+    }
+
+    /**
+     * Rebuilds an existing room's terrain in place from a new version of its template.
+     * The room keeps its doors and biome, and everything living in it is left alone: collected pillars and
+     * items, opened chests and killed enemies stay gone, and the template's spawns are not placed again.
+     * Breakable walls the player has not broken yet are kept where the new layout leaves room for them.
+     *
+     * @param theRoom     The room to rebuild.
+     * @param theTemplate The template to rebuild the room from.
+     */
+    public void rebuildRoom(final Room theRoom, final RoomTemplate theTemplate) {
+        final List<Rectangle> doorBounds = new ArrayList<>();
+        for (final GameObject object : theRoom.getGameObjects()) {
+            if (object instanceof Door) {
+                doorBounds.add(object.getBounds());
+            }
+        }
+        final TileLayer oldWalls = theRoom.getWallLayer();
+
+        theRoom.setTemplateName(theTemplate.getName());
+        RoomGenerator.generateBackgroundTiles(theRoom, theTemplate, theRoom.getBiome());
+        RoomGenerator.generateRoomLayout(theRoom, doorBounds, theTemplate);
 
-                    rooms.put(roomID, temp_room);
+        if (oldWalls != null) {
+            final TileLayer newWalls = theRoom.getWallLayer();
+            for (int row = 0; row < oldWalls.getHeight(); row++) {
+                for (int column = 0; column < oldWalls.getWidth(); column++) {
+                    if (oldWalls.get(row, column) == Room.BREAKABLE_WALL_TILE && (newWalls == null
+                            || row >= newWalls.getHeight() || column >= newWalls.getWidth()
+                            || newWalls.get(row, column) == TileLayer.EMPTY_TILE)) {
+                        theRoom.placeBreakableWall(row, column);
+                    }
                 }
             }
         }
-        return rooms;
+        theRoom.markChanged();
     }
 
     /**
@@ -219,18 +295,18 @@ public class DungeonCrawlerRoomConnectionsGenerator {
      * @param theColumnIndex The column index of the room.
      * @return A list of rectangles representing the door bounds.
      */
-    private List<Rectangle> getDoorBounds(final int[][] theGrid, final int theRowIndex, final int theColumnIndex) {
+    private List<Rectangle> getDoorBounds(final IDungeonGrid theGrid, final int theRowIndex, final int theColumnIndex) {
         final List<Rectangle> doorBounds = new ArrayList<>();
-        if (theRowIndex - 2 >= 0 && theGrid[theRowIndex - 1][theColumnIndex] == HALLWAY) {
+        if (theRowIndex - 2 >= 0 && theGrid.get(theRowIndex - 1, theColumnIndex) == HALLWAY) {
             doorBounds.add(new Rectangle((Room.GRID_WIDTH / 2 - 1) * Room.TILE_SIZE, 0, DOOR_WIDTH_HORIZONTAL, DOOR_HEIGHT_HORIZONTAL));
         }
-        if (theColumnIndex + 2 < theGrid[theRowIndex].length && theGrid[theRowIndex][theColumnIndex + 1] == HALLWAY) {
+        if (theColumnIndex + 2 < theGrid.getWidth() && theGrid.get(theRowIndex, theColumnIndex + 1) == HALLWAY) {
             doorBounds.add(new Rectangle((Room.GRID_WIDTH - 1) * Room.TILE_SIZE, (Room.GRID_HEIGHT / 2 - 1) * Room.TILE_SIZE, DOOR_WIDTH_VERTICAL, DOOR_HEIGHT_VERTICAL));
         }
-        if (theRowIndex + 2 < theGrid.length && theGrid[theRowIndex + 1][theColumnIndex] == HALLWAY) {
+        if (theRowIndex + 2 < theGrid.getHeight() && theGrid.get(theRowIndex + 1, theColumnIndex) == HALLWAY) {
             doorBounds.add(new Rectangle((Room.GRID_WIDTH / 2 - 1) * Room.TILE_SIZE, (Room.GRID_HEIGHT - 1) * Room.TILE_SIZE, DOOR_WIDTH_HORIZONTAL, DOOR_HEIGHT_HORIZONTAL));
         }
-        if (theColumnIndex - 2 >= 0 && theGrid[theRowIndex][theColumnIndex - 1] == HALLWAY) {
+        if (theColumnIndex - 2 >= 0 && theGrid.get(theRowIndex, theColumnIndex - 1) == HALLWAY) {
             doorBounds.add(new Rectangle(0, (Room.GRID_HEIGHT / 2 - 1) * Room.TILE_SIZE, DOOR_WIDTH_VERTICAL, DOOR_HEIGHT_VERTICAL));
         }
         return doorBounds;
@@ -244,101 +320,119 @@ public class DungeonCrawlerRoomConnectionsGenerator {
      * @param theRowIndex    The row index of the room.
      * @param theColumnIndex The column index of the room.
      */
-    private void createAndAddDoors(final Room room, final int[][] theGrid, final int theRowIndex, final int theColumnIndex) {
-        if (theRowIndex - 2 >= 0 && theGrid[theRowIndex - 1][theColumnIndex] == HALLWAY) {
-            room.addDoor((Door) GameObjectFactory.createGameObject(GameObjectFactory.TYPE_DOOR, (Room.GRID_WIDTH / 2 - 1) * Room.TILE_SIZE, 0, DOOR_WIDTH_HORIZONTAL, DOOR_HEIGHT_HORIZONTAL, (theRowIndex - 2) * theGrid.length + theColumnIndex, Door.NORTH));
+    void createAndAddDoors(final Room room, final IDungeonGrid theGrid, final int theRowIndex, final int theColumnIndex) {
+        if (theRowIndex - 2 >= 0 && theGrid.get(theRowIndex - 1, theColumnIndex) == HALLWAY) {
+            room.addDoor((Door) GameObjectFactory.createGameObject(GameObjectFactory.TYPE_DOOR, (Room.GRID_WIDTH / 2 - 1) * Room.TILE_SIZE, 0, DOOR_WIDTH_HORIZONTAL, DOOR_HEIGHT_HORIZONTAL, IDungeonGrid.roomKey(theRowIndex - 2, theColumnIndex), Door.NORTH));
         }
-        if (theColumnIndex + 2 < theGrid[theRowIndex].length && theGrid[theRowIndex][theColumnIndex + 1] == HALLWAY) {
-            room.addDoor((Door) GameObjectFactory.createGameObject(GameObjectFactory.TYPE_DOOR, (Room.GRID_WIDTH - 1) * Room.TILE_SIZE, (Room.GRID_HEIGHT / 2 - 1) * Room.TILE_SIZE, DOOR_WIDTH_VERTICAL, DOOR_HEIGHT_VERTICAL, (theRowIndex) * theGrid.length + theColumnIndex + 2, Door.EAST));
+        if (theColumnIndex + 2 < theGrid.getWidth() && theGrid.get(theRowIndex, theColumnIndex + 1) == HALLWAY) {
+            room.addDoor((Door) GameObjectFactory.createGameObject(GameObjectFactory.TYPE_DOOR, (Room.GRID_WIDTH - 1) * Room.TILE_SIZE, (Room.GRID_HEIGHT / 2 - 1) * Room.TILE_SIZE, DOOR_WIDTH_VERTICAL, DOOR_HEIGHT_VERTICAL, IDungeonGrid.roomKey(theRowIndex, theColumnIndex + 2), Door.EAST));
         }
-        if (theRowIndex + 2 < theGrid.length && theGrid[theRowIndex + 1][theColumnIndex] == HALLWAY) {
-            room.addDoor((Door) GameObjectFactory.createGameObject(GameObjectFactory.TYPE_DOOR, (Room.GRID_WIDTH / 2 - 1) * Room.TILE_SIZE, (Room.GRID_HEIGHT - 1) * Room.TILE_SIZE, DOOR_WIDTH_HORIZONTAL, DOOR_HEIGHT_HORIZONTAL, (theRowIndex + 2) * theGrid.length + theColumnIndex, Door.SOUTH));
+        if (theRowIndex + 2 < theGrid.getHeight() && theGrid.get(theRowIndex + 1, theColumnIndex) == HALLWAY) {
+            room.addDoor((Door) GameObjectFactory.createGameObject(GameObjectFactory.TYPE_DOOR, (Room.GRID_WIDTH / 2 - 1) * Room.TILE_SIZE, (Room.GRID_HEIGHT - 1) * Room.TILE_SIZE, DOOR_WIDTH_HORIZONTAL, DOOR_HEIGHT_HORIZONTAL, IDungeonGrid.roomKey(theRowIndex + 2, theColumnIndex), Door.SOUTH));
         }
-        if (theColumnIndex - 2 >= 0 && theGrid[theRowIndex][theColumnIndex - 1] == HALLWAY) {
-            room.addDoor((Door) GameObjectFactory.createGameObject(GameObjectFactory.TYPE_DOOR, 0, (Room.GRID_HEIGHT / 2 - 1) * Room.TILE_SIZE, DOOR_WIDTH_VERTICAL, DOOR_HEIGHT_VERTICAL, (theRowIndex) * theGrid.length + theColumnIndex - 2, Door.WEST));
+        if (theColumnIndex - 2 >= 0 && theGrid.get(theRowIndex, theColumnIndex - 1) == HALLWAY) {
+            room.addDoor((Door) GameObjectFactory.createGameObject(GameObjectFactory.TYPE_DOOR, 0, (Room.GRID_HEIGHT / 2 - 1) * Room.TILE_SIZE, DOOR_WIDTH_VERTICAL, DOOR_HEIGHT_VERTICAL, IDungeonGrid.roomKey(theRowIndex, theColumnIndex - 2), Door.WEST));
         }
     }
 
     /**
      * Spawns objects in the room based on the room template's spawn grid.
+     * Only the template's precomputed spawn cells are visited, in the same row-major order as the grid,
+     * with the spawn chances of the template's view for this generator's difficulty.
+     * Enemy spawn points are only recorded on the plan, and are filled in by {@link #bindEnemies(RoomPlan)}.
      *
-     * @param theRoom         The room to spawn objects in.
-     * @param theRoomTemplate The room template containing spawn information.
-     * @param theBiome        The biome for the spawned objects.
-     */
-    private void spawnObjectsFromGrid(final Room theRoom, final RoomTemplate theRoomTemplate, final int theBiome) {
-        final int[][] spawns = theRoomTemplate.getSpawns();
-        if (spawns.length == 0 || spawns[0].length == 0) {
-            return;
-        }
+     * @param thePlan The plan of the room to spawn objects in.
+     */
+    void spawnObjectsFromGrid(final RoomPlan thePlan) {
+        final Room theRoom = thePlan.getRoom();
+        final RoomTemplate template = thePlan.getTemplate();
+        final RoomTemplate.DifficultyView chances = template.forDifficulty(myDifficulty);
+        final TileLayer spawns = template.getSpawns();
+        final int width = template.getWidth();
 
-        for (int theRowIndex = 0; theRowIndex < spawns.length; theRowIndex++) {
-            for (int theColumnIndex = 0; theColumnIndex < spawns[theRowIndex].length; theColumnIndex++) {
-                final int spawnType = spawns[theRowIndex][theColumnIndex];
-                final int x = theColumnIndex * Room.TILE_SIZE;
-                final int y = theRowIndex * Room.TILE_SIZE;
-
-                final GameObject objectToAdd = switch (spawnType) {
-                    case GUARANTEED_POTION -> PotionFactory.createRandomPotion(x, y, Room.TILE_SIZE, Room.TILE_SIZE);
-                    case GUARANTEED_ENEMY -> {
-                        final Character enemyTemplate = myDBManager.getRandomEnemyForBiome(theBiome);
-                        yield (enemyTemplate != null) ? new Enemy(x, y, ENEMY_WIDTH, ENEMY_HEIGHT, enemyTemplate) : null;
-                    }
-                    case GUARANTEED_CHEST ->
-                            GameObjectFactory.createGameObject(GameObjectFactory.TYPE_CHEST, x, y, 32, 32);
-                    case RANDOM_POTION -> {
-                        if (myRandom.nextInt(100) < theRoomTemplate.getPotionChance()) {
-                            yield PotionFactory.createRandomPotion(x, y, Room.TILE_SIZE, Room.TILE_SIZE);
-                        }
-                        yield null;
+        for (int i = 0; i < template.getSpawnCellCount(); i++) {
+            final int cell = template.getSpawnCell(i);
+            final int theRowIndex = cell / width;
+            final int theColumnIndex = cell % width;
+            final int spawnType = spawns.get(theRowIndex, theColumnIndex);
+            final int x = theColumnIndex * Room.TILE_SIZE;
+            final int y = theRowIndex * Room.TILE_SIZE;
+
+            final GameObject objectToAdd = switch (spawnType) {
+                case GUARANTEED_POTION -> PotionFactory.createRandomPotion(x, y, Room.TILE_SIZE, Room.TILE_SIZE, myRandom);
+                case GUARANTEED_ENEMY -> {
+                    thePlan.addEnemySpawn(theRowIndex, theColumnIndex);
+                    yield null;
+                }
+                case GUARANTEED_CHEST ->
+                        GameObjectFactory.createGameObject(GameObjectFactory.TYPE_CHEST, x, y, 32, 32);
+                case RANDOM_POTION -> {
+                    if (myRandom.nextInt(100) < chances.getPotionChance()) {
+                        yield PotionFactory.createRandomPotion(x, y, Room.TILE_SIZE, Room.TILE_SIZE, myRandom);
                     }
-                    case RANDOM_ENEMY -> {
-                        if (myRandom.nextInt(100) < theRoomTemplate.getEnemyChance()) {
-                            final Character randomEnemyTemplate = myDBManager.getRandomEnemyForBiome(theBiome);
-                            yield (randomEnemyTemplate != null) ? new Enemy(x, y, ENEMY_WIDTH, ENEMY_HEIGHT, randomEnemyTemplate) : null;
-                        }
-                        yield null;
+                    yield null;
+                }
+                case RANDOM_ENEMY -> {
+                    if (myRandom.nextInt(100) < chances.getEnemyChance()) {
+                        thePlan.addEnemySpawn(theRowIndex, theColumnIndex);
                     }
-                    case RANDOM_CHEST -> {
-                        if (myRandom.nextInt(100) < theRoomTemplate.getChestChance()) {
-                            yield GameObjectFactory.createGameObject(GameObjectFactory.TYPE_CHEST, x, y, 32, 32);
-                        }
-                        yield null;
+                    yield null;
+                }
+                case RANDOM_CHEST -> {
+                    if (myRandom.nextInt(100) < chances.getChestChance()) {
+                        yield GameObjectFactory.createGameObject(GameObjectFactory.TYPE_CHEST, x, y, 32, 32);
                     }
-                    case GUARANTEED_BOMB ->
-                            GameObjectFactory.createGameObject(GameObjectFactory.TYPE_BOMB, x, y, 32, 32);
-                    case RANDOM_BOMB -> {
-                        if (myRandom.nextInt(100) < theRoomTemplate.getBombChance()) {
-                            yield GameObjectFactory.createGameObject(GameObjectFactory.TYPE_BOMB, x, y, 32, 32);
-                        }
-                        yield null;
+                    yield null;
+                }
+                case GUARANTEED_BOMB ->
+                        GameObjectFactory.createGameObject(GameObjectFactory.TYPE_BOMB, x, y, 32, 32);
+                case RANDOM_BOMB -> {
+                    if (myRandom.nextInt(100) < chances.getBombChance()) {
+                        yield GameObjectFactory.createGameObject(GameObjectFactory.TYPE_BOMB, x, y, 32, 32);
                     }
-                    case GUARANTEED_TRAP ->
-                            GameObjectFactory.createGameObject(GameObjectFactory.TYPE_TRAP, x, y, 32, 32, myRandom.nextInt(7) + 1);
-                    case RANDOM_TRAP -> {
-                        if (myRandom.nextInt(100) < theRoomTemplate.getTrapChance()) {
-                            yield GameObjectFactory.createGameObject(GameObjectFactory.TYPE_TRAP, x, y, 32, 32, myRandom.nextInt(7) + 1);
-                        }
-                        yield null;
+                    yield null;
+                }
+                case GUARANTEED_TRAP ->
+                        GameObjectFactory.createGameObject(GameObjectFactory.TYPE_TRAP, x, y, 32, 32, myRandom.nextInt(7) + 1);
+                case RANDOM_TRAP -> {
+                    if (myRandom.nextInt(100) < chances.getTrapChance()) {
+                        yield GameObjectFactory.createGameObject(GameObjectFactory.TYPE_TRAP, x, y, 32, 32, myRandom.nextInt(7) + 1);
                     }
-                    case GUARANTEED_BREAKABLE_WALL ->
-                            GameObjectFactory.createGameObject(GameObjectFactory.TYPE_BREAKABLE_WALL, x, y, 32, 32);
-                    case RANDOM_BREAKABLE_WALL -> {
-                        if (myRandom.nextInt(100) < theRoomTemplate.getBreakableWallChance()) {
-                            yield GameObjectFactory.createGameObject(GameObjectFactory.TYPE_BREAKABLE_WALL, x, y, 32, 32);
-                        }
-                        yield null;
+                    yield null;
+                }
+                case GUARANTEED_BREAKABLE_WALL -> {
+                    theRoom.placeBreakableWall(theRowIndex, theColumnIndex);
+                    yield null;
+                }
+                case RANDOM_BREAKABLE_WALL -> {
+                    if (myRandom.nextInt(100) < chances.getBreakableWallChance()) {
+                        theRoom.placeBreakableWall(theRowIndex, theColumnIndex);
                     }
-                    case GUARANTEED_PILLAR ->
-                            GameObjectFactory.createGameObject(GameObjectFactory.TYPE_PILLAR, x, y, 32, 32);
-                    case GUARANTEED_EXIT ->
-                            GameObjectFactory.createGameObject(GameObjectFactory.TYPE_EXIT, x, y, 32, 32);
-                    default -> null;
-                };
-
-                if (objectToAdd != null) {
-                    theRoom.addObject(objectToAdd);
+                    yield null;
                 }
+                case GUARANTEED_PILLAR ->
+                        GameObjectFactory.createGameObject(GameObjectFactory.TYPE_PILLAR, x, y, 32, 32);
+                case GUARANTEED_EXIT ->
+                        GameObjectFactory.createGameObject(GameObjectFactory.TYPE_EXIT, x, y, 32, 32);
+                default -> null;
+            };
+
+            if (objectToAdd != null) {
+                theRoom.addObject(objectToAdd);
+            }
+        }
+    }
+
+    /**
+     * Binds an enemy character from the database to every enemy spawn point recorded on the plan.
+     *
+     * @param thePlan The plan of the room to add enemies to.
+     */
+    void bindEnemies(final RoomPlan thePlan) {
+        for (final Point spawn : thePlan.getEnemySpawns()) {
+            final Character enemyTemplate = myDBManager.getRandomEnemyForBiome(thePlan.getBiome(), myRandom);
+            if (enemyTemplate != null) {
+                thePlan.getRoom().addObject(new Enemy(spawn.x * Room.TILE_SIZE, spawn.y * Room.TILE_SIZE, ENEMY_WIDTH, ENEMY_HEIGHT, enemyTemplate));
             }
         }
     }
@@ -353,8 +447,7 @@ public class DungeonCrawlerRoomConnectionsGenerator {
      * @param theColumnIndex The column index of the room.
      * @return The selected RoomTemplate.
      */
-    private RoomTemplate selectRoomTemplate(final int theRoomType, final int theConnections, final int[][] theGrid, final int theRowIndex, final int theColumnIndex) {
-        final Random random = new Random();
+    private RoomTemplate selectRoomTemplate(final int theRoomType, final int theConnections, final IDungeonGrid theGrid, final int theRowIndex, final int theColumnIndex) {
         String roomTemplate;
 
         if (theRoomType == 9) {
@@ -364,10 +457,10 @@ public class DungeonCrawlerRoomConnectionsGenerator {
         } else if (theRoomType >= 11 && theRoomType <= 16) {
             roomTemplate = "PILLAR_ROOM";
         } else if (theRoomType >= 2 && theRoomType <= 6) {
-            final boolean hasNorth = theRowIndex - 2 >= 0 && theGrid[theRowIndex - 1][theColumnIndex] == HALLWAY;
-            final boolean hasSouth = theRowIndex + 2 < theGrid.length && theGrid[theRowIndex + 1][theColumnIndex] == HALLWAY;
-            final boolean hasEast = theColumnIndex + 2 < theGrid[theRowIndex].length && theGrid[theRowIndex][theColumnIndex + 1] == HALLWAY;
-            final boolean hasWest = theColumnIndex - 2 >= 0 && theGrid[theRowIndex][theColumnIndex - 1] == HALLWAY;
+            final boolean hasNorth = theRowIndex - 2 >= 0 && theGrid.get(theRowIndex - 1, theColumnIndex) == HALLWAY;
+            final boolean hasSouth = theRowIndex + 2 < theGrid.getHeight() && theGrid.get(theRowIndex + 1, theColumnIndex) == HALLWAY;
+            final boolean hasEast = theColumnIndex + 2 < theGrid.getWidth() && theGrid.get(theRowIndex, theColumnIndex + 1) == HALLWAY;
+            final boolean hasWest = theColumnIndex - 2 >= 0 && theGrid.get(theRowIndex, theColumnIndex - 1) == HALLWAY;
 
             roomTemplate = switch (theConnections) {
                 case 4 -> "CROSS_HALLWAY";
@@ -393,7 +486,7 @@ public class DungeonCrawlerRoomConnectionsGenerator {
                 }
                 default -> {
                     final String[] randomRoomTemplates = new String[]{"BASIC_ROOM", "FOUR_PILLAR_ROOM"};
-                    yield randomRoomTemplates[random.nextInt(randomRoomTemplates.length)];
+                    yield randomRoomTemplates[myRandom.nextInt(randomRoomTemplates.length)];
                 }
             };
         } else {
@@ -0,0 +1,275 @@
+package drippyspelunk.model.dungeon;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Generates a dungeon as a sequence of named stages: layout, template selection, terrain,
+ * doors, spawns and enemy binding. Each stage reports its progress and elapsed time,
+ * checks the cancellation token as it works, and can be replaced or timed on its own.
+ *
+ * @author David Norman
+ * @version 1.1
+ */
+public final class DungeonGenerationPipeline {
+
+    /**
+     * The name of the stage that generates the dungeon grid.
+     */
+    public static final String STAGE_LAYOUT = "Layout";
+    /**
+     * The name of the stage that picks a biome, doors and template for every room.
+     */
+    public static final String STAGE_TEMPLATES = "Templates";
+    /**
+     * The name of the stage that builds each room's floor and wall tiles.
+     */
+    public static final String STAGE_TERRAIN = "Terrain";
+    /**
+     * The name of the stage that connects the rooms with doors.
+     */
+    public static final String STAGE_DOORS = "Doors";
+    /**
+     * The name of the stage that places items, traps and breakable walls.
+     */
+    public static final String STAGE_SPAWNS = "Spawns";
+    /**
+     * The name of the stage that binds enemy characters to their spawn points.
+     */
+    public static final String STAGE_ENEMIES = "Enemies";
+    /**
+     * The size of the small grid used for dungeon generation.
+     */
+    private static final int SMALL_GRID_SIZE = 8;
+    /**
+     * The size of the big grid used for dungeon generation.
+     */
+    private static final int BIG_GRID_SIZE = 16;
+    /**
+     * The percentage of inner rooms to generate.
+     */
+    private static final double ROOM_PERCENT_INNER = 0.8;
+    /**
+     * The percentage of total rooms to generate.
+     */
+    private static final double ROOM_PERCENT = 0.8;
+    /**
+     * The ID of the starting room.
+     */
+    private static final int START_ROOM_ID = 9;
+    /**
+     * The ID of the ending room.
+     */
+    private static final int END_ROOM_ID = 10;
+    /**
+     * The initial ID for the starting room during generation.
+     */
+    private static final int INIT_START_ROOM_ID = -2;
+    /**
+     * The stages of the pipeline, in the order they run.
+     */
+    private final Map<String, IGenerationStage> myStages;
+    /**
+     * The time each stage took during the last run, in nanoseconds.
+     */
+    private final Map<String, Long> myLastStageTimes;
+
+    /**
+     * Constructs an empty pipeline. Use {@link #createDefault()} for the standard stages.
+     */
+    public DungeonGenerationPipeline() {
+        myStages = new LinkedHashMap<>();
+        myLastStageTimes = new LinkedHashMap<>();
+    }
+
+    /**
+     * Creates a pipeline with the standard generation stages.
+     *
+     * @return The default pipeline.
+     */
+    public static DungeonGenerationPipeline createDefault() {
+        final DungeonGenerationPipeline pipeline = new DungeonGenerationPipeline();
+        pipeline.setStage(STAGE_LAYOUT, DungeonGenerationPipeline::generateLayout);
+        pipeline.setStage(STAGE_TEMPLATES, DungeonGenerationPipeline::selectTemplates);
+        pipeline.setStage(STAGE_TERRAIN, theContext -> forEachRoom(theContext,
+                thePlan -> theContext.getRoomGenerator().buildTerrain(thePlan)));
+        pipeline.setStage(STAGE_DOORS, theContext -> forEachRoom(theContext,
+                thePlan -> theContext.getRoomGenerator().createAndAddDoors(thePlan.getRoom(), theContext.getDungeonGrid(), thePlan.getRow(), thePlan.getColumn())));
+        pipeline.setStage(STAGE_SPAWNS, theContext -> forEachRoom(theContext,
+                thePlan -> theContext.getRoomGenerator().spawnObjectsFromGrid(thePlan)));
+        pipeline.setStage(STAGE_ENEMIES, theContext -> forEachRoom(theContext,
+                thePlan -> theContext.getRoomGenerator().bindEnemies(thePlan)));
+        return pipeline;
+    }
+
+    /**
+     * Adds a stage to the end of the pipeline, or replaces the stage with the same name in place.
+     *
+     * @param theStageName The name of the stage.
+     * @param theStage     The stage to run.
+     */
+    public void setStage(final String theStageName, final IGenerationStage theStage) {
+        myStages.put(theStageName, theStage);
+    }
+
+    /**
+     * Gets the names of the stages in the order they run.
+     *
+     * @return An unmodifiable list of stage names.
+     */
+    public List<String> getStageNames() {
+        return List.copyOf(myStages.keySet());
+    }
+
+    /**
+     * Gets the time each stage took during the last completed run.
+     *
+     * @return An unmodifiable map of stage names to nanoseconds, in the order the stages ran.
+     */
+    public Map<String, Long> getLastStageTimes() {
+        return Collections.unmodifiableMap(myLastStageTimes);
+    }
+
+    /**
+     * Runs every stage with a fresh random seed and builds the dungeon.
+     *
+     * @param theDifficulty        The difficulty level of the dungeon.
+     * @param theCancellationToken The token that cancels the generation.
+     * @param theListener          The listener to report progress to, or null.
+     * @return The generated dungeon.
+     * @throws CancellationException if the token is cancelled before the generation finishes.
+     */
+    public GeneratedDungeon run(final int theDifficulty,
+                                final CancellationToken theCancellationToken,
+                                final IGenerationListener theListener) {
+        return run(theDifficulty, ThreadLocalRandom.current().nextLong(), theCancellationToken, theListener);
+    }
+
+    /**
+     * Runs every stage and builds the dungeon. The same seed and difficulty always build the same dungeon,
+     * which lets a saved game rebuild the rooms it did not store.
+     *
+     * @param theDifficulty        The difficulty level of the dungeon.
+     * @param theSeed              The seed every random choice of the generation is derived from.
+     * @param theCancellationToken The token that cancels the generation.
+     * @param theListener          The listener to report progress to, or null.
+     * @return The generated dungeon.
+     * @throws CancellationException if the token is cancelled before the generation finishes.
+     */
+    public GeneratedDungeon run(final int theDifficulty,
+                                final long theSeed,
+                                final CancellationToken theCancellationToken,
+                                final IGenerationListener theListener) {
+        final GenerationContext context = new GenerationContext(theDifficulty, theSeed, theCancellationToken);
+        final int stageCount = myStages.size();
+        int stageIndex = 0;
+        myLastStageTimes.clear();
+
+        for (final Map.Entry<String, IGenerationStage> stage : myStages.entrySet()) {
+            final String stageName = stage.getKey();
+            final int completedStages = stageIndex;
+            if (theListener != null) {
+                context.setStageProgress(theProgress ->
+                        theListener.progressChanged(stageName, (completedStages + theProgress) / stageCount));
+                theListener.progressChanged(stageName, (double) completedStages / stageCount);
+            }
+
+            context.checkCancelled();
+            final long startTime = System.nanoTime();
+            stage.getValue().run(context);
+            final long elapsedTime = System.nanoTime() - startTime;
+            myLastStageTimes.put(stageName, elapsedTime);
+
+            if (theListener != null) {
+                theListener.stageCompleted(stageName, elapsedTime);
+            }
+            stageIndex++;
+        }
+        context.checkCancelled();
+
+        final Map<Long, Room> rooms = new LinkedHashMap<>();
+        for (final RoomPlan plan : context.getRoomPlans()) {
+            plan.getRoom().markGenerated();
+            rooms.put(plan.getRoomKey(), plan.getRoom());
+        }
+        if (theListener != null) {
+            theListener.progressChanged(null, 1.0);
+        }
+        return new GeneratedDungeon(theDifficulty, theSeed, context.getDungeonGrid(), rooms, context.getStartRoomId());
+    }
+
+    /**
+     * The layout stage. Generates dungeon grids until one is within the room limits for the difficulty.
+     *
+     * @param theContext The shared state of the generation.
+     */
+    private static void generateLayout(final GenerationContext theContext) {
+        final int difficulty = theContext.getDifficulty();
+        final int smallGridSize = SMALL_GRID_SIZE * difficulty;
+        final int bigGridSize = BIG_GRID_SIZE * difficulty;
+
+        final int startingPosX = difficulty * 2;
+        final int startingPosY = difficulty * 2;
+        final int endingPosX = smallGridSize - startingPosX;
+        final int endingPosY = smallGridSize - startingPosY;
+        final DungeonCrawlerLabyrinthGenerator DT = new DungeonCrawlerLabyrinthGenerator(theContext.getRandom());
+
+        IDungeonGrid dungeonGrid;
+        do {
+            theContext.checkCancelled();
+            final IDungeonGrid tempGrid = new ChunkedDungeonGrid(smallGridSize, smallGridSize);
+            tempGrid.set(endingPosX, endingPosY, INIT_START_ROOM_ID);
+            dungeonGrid = DT.generateGridPillars(tempGrid, startingPosX, startingPosY, DungeonCrawlerLogic.PILLAR_AMOUNT, bigGridSize, difficulty);
+        } while (!(DT.innerSumGrid(dungeonGrid) <= smallGridSize * smallGridSize * ROOM_PERCENT_INNER / difficulty &&
+                DT.sumGrid(dungeonGrid) <= bigGridSize * bigGridSize * ROOM_PERCENT / difficulty * 1.5));
+
+        final int offset = (bigGridSize - smallGridSize) / 2;
+        dungeonGrid.set(endingPosX + offset, endingPosY + offset, END_ROOM_ID);
+        dungeonGrid.set(startingPosX + offset, startingPosY + offset, START_ROOM_ID);
+        DT.asciiGrid(dungeonGrid);
+
+        theContext.setDungeonGrid(dungeonGrid);
+        theContext.setStartRoomId(IDungeonGrid.roomKey(startingPosX + offset, startingPosY + offset));
+        theContext.reportProgress(1, 1);
+    }
+
+    /**
+     * The template selection stage. Plans every room found in the dungeon grid.
+     *
+     * @param theContext The shared state of the generation.
+     */
+    private static void selectTemplates(final GenerationContext theContext) {
+        final IDungeonGrid grid = theContext.getDungeonGrid();
+        final DungeonCrawlerRoomConnectionsGenerator generator = theContext.getRoomGenerator();
+        final List<RoomPlan> plans = theContext.getRoomPlans();
+        plans.clear();
+
+        grid.forEachOccupied((theRow, theColumn, theRoomType) -> {
+            if (theRow % 2 == 0 && theColumn % 2 == 0 && theRoomType >= 2) {
+                theContext.checkCancelled();
+                plans.add(generator.planRoom(grid, theRow, theColumn, theRoomType));
+            }
+        });
+        theContext.reportProgress(1, 1);
+    }
+
+    /**
+     * Runs an action for every planned room, checking for cancellation and reporting progress between rooms.
+     *
+     * @param theContext The shared state of the generation.
+     * @param theAction  The action to run for each room plan.
+     */
+    private static void forEachRoom(final GenerationContext theContext, final Consumer<RoomPlan> theAction) {
+        final List<RoomPlan> plans = theContext.getRoomPlans();
+        for (int i = 0; i < plans.size(); i++) {
+            theContext.checkCancelled();
+            theAction.accept(plans.get(i));
+            theContext.reportProgress(i + 1, plans.size());
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package drippyspelunk.model.dungeon;
+
+import drippyspelunk.controller.config.ConfigManager;
+import drippyspelunk.controller.config.RoomConfigManager;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A singleton pool of pre-generated dungeons, keyed by difficulty.
+ * A low priority background producer fills a small bounded queue while the title screen is idle,
+ * so starting a new game can take a finished dungeon instead of generating one on the spot.
+ * The pool is cleared whenever settings.ini or rooms.ini change on disk.
+ *
+ * @author David Norman
+ * @version 1.1
+ */
+public final class DungeonPool {
+
+    /**
+     * The maximum number of pre-generated dungeons kept per difficulty.
+     */
+    private static final int POOL_CAPACITY = 2;
+    /**
+     * The name of the background producer thread.
+     */
+    private static final String PRODUCER_THREAD_NAME = "DungeonPoolProducer";
+    /**
+     * The single instance of the DungeonPool.
+     */
+    private static DungeonPool myInstance;
+    /**
+     * The bounded queues of pre-generated dungeons, keyed by difficulty.
+     */
+    private final Map<Integer, BlockingQueue<GeneratedDungeon>> myPools;
+    /**
+     * The lock the producer waits on while it has nothing to do.
+     */
+    private final Object myLock;
+    /**
+     * The background thread that generates dungeons.
+     */
+    private Thread myProducerThread;
+    /**
+     * True while the producer is allowed to generate dungeons.
+     */
+    private volatile boolean myProducing;
+    /**
+     * The difficulty the producer is currently filling the pool for.
+     */
+    private volatile int myTargetDifficulty;
+    /**
+     * Incremented on every clear so dungeons generated from stale settings are discarded.
+     */
+    private volatile long myGeneration;
+    /**
+     * The last known modification time of settings.ini.
+     */
+    private volatile long mySettingsStamp;
+    /**
+     * The last known modification time of rooms.ini.
+     */
+    private volatile long myRoomsStamp;
+    /**
+     * The token of the dungeon currently being generated, or null if the producer is idle.
+     */
+    private volatile CancellationToken myActiveToken;
+
+    /**
+     * Private constructor to enforce the singleton pattern.
+     */
+    private DungeonPool() {
+        myPools = new ConcurrentHashMap<>();
+        myLock = new Object();
+        mySettingsStamp = lastModified(ConfigManager.getConfigFile());
+        myRoomsStamp = lastModified(RoomConfigManager.getRoomsConfigFile());
+    }
+
+    /**
+     * Gets the singleton instance of the DungeonPool.
+     *
+     * @return The singleton DungeonPool instance.
+     */
+    public static synchronized DungeonPool getInstance() {
+        if (myInstance == null) {
+            myInstance = new DungeonPool();
+        }
+        return myInstance;
+    }
+
+    /**
+     * Gets the modification time of a file, or 0 if it does not exist.
+     *
+     * @param theFile The file to check.
+     * @return The last modified time in milliseconds.
+     */
+    private static long lastModified(final File theFile) {
+        return theFile == null ? 0L : theFile.lastModified();
+    }
+
+    /**
+     * Starts or resumes filling the pool for the given difficulty.
+     * Called while the title screen is idle.
+     *
+     * @param theDifficulty The difficulty to generate dungeons for.
+     */
+    public void startProducing(final int theDifficulty) {
+        synchronized (myLock) {
+            myTargetDifficulty = theDifficulty;
+            myProducing = true;
+            if (myProducerThread == null) {
+                myProducerThread = new Thread(this::produce, PRODUCER_THREAD_NAME);
+                myProducerThread.setDaemon(true);
+                myProducerThread.setPriority(Thread.MIN_PRIORITY);
+                myProducerThread.start();
+            }
+            myLock.notifyAll();
+        }
+    }
+
+    /**
+     * Stops filling the pool. A dungeon that is already being generated is abandoned,
+     * so the producer stops using CPU while a game is running.
+     */
+    public void stopProducing() {
+        synchronized (myLock) {
+            myProducing = false;
+            cancelActiveGeneration();
+        }
+    }
+
+    /**
+     * Cancels the dungeon currently being generated, if any.
+     */
+    private void cancelActiveGeneration() {
+        final CancellationToken token = myActiveToken;
+        if (token != null) {
+            token.cancel();
+        }
+    }
+
+    /**
+     * Takes a pre-generated dungeon for the given difficulty.
+     *
+     * @param theDifficulty The difficulty of the dungeon.
+     * @return A pre-generated dungeon, or null if none is available.
+     */
+    public GeneratedDungeon take(final int theDifficulty) {
+        checkSourceFiles();
+        final BlockingQueue<GeneratedDungeon> pool = myPools.get(theDifficulty);
+        final GeneratedDungeon dungeon = pool == null ? null : pool.poll();
+        synchronized (myLock) {
+            myLock.notifyAll();
+        }
+        return dungeon;
+    }
+
+    /**
+     * Discards every pre-generated dungeon.
+     */
+    public void clear() {
+        synchronized (myLock) {
+            myGeneration++;
+            myPools.clear();
+            cancelActiveGeneration();
+            mySettingsStamp = lastModified(ConfigManager.getConfigFile());
+            myRoomsStamp = lastModified(RoomConfigManager.getRoomsConfigFile());
+            myLock.notifyAll();
+        }
+    }
+
+    /**
+     * Clears the pool if settings.ini or rooms.ini changed since it was filled.
+     */
+    private void checkSourceFiles() {
+        if (lastModified(ConfigManager.getConfigFile()) != mySettingsStamp
+                || lastModified(RoomConfigManager.getRoomsConfigFile()) != myRoomsStamp) {
+            clear();
+        }
+    }
+
+    /**
+     * Gets the queue for a difficulty, creating it if needed.
+     *
+     * @param theDifficulty The difficulty level.
+     * @return The bounded queue for that difficulty.
+     */
+    private BlockingQueue<GeneratedDungeon> poolFor(final int theDifficulty) {
+        return myPools.computeIfAbsent(theDifficulty, theKey -> new ArrayBlockingQueue<>(POOL_CAPACITY));
+    }
+
+    /**
+     * The producer loop. Waits until the pool is allowed to grow, then generates one dungeon at a time.
+     */
+    private void produce() {
+        while (!Thread.currentThread().isInterrupted()) {
+            final int difficulty;
+            final long generation;
+            final CancellationToken token = new CancellationToken();
+            checkSourceFiles();
+            try {
+                synchronized (myLock) {
+                    while (!myProducing || poolFor(myTargetDifficulty).remainingCapacity() == 0) {
+                        myLock.wait();
+                    }
+                    difficulty = myTargetDifficulty;
+                    generation = myGeneration;
+                    myActiveToken = token;
+                }
+            } catch (final InterruptedException theException) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            try {
+                final GeneratedDungeon dungeon = DungeonGenerationPipeline.createDefault().run(difficulty, token, null);
+                synchronized (myLock) {
+                    if (generation == myGeneration) {
+                        poolFor(difficulty).offer(dungeon);
+                    }
+                }
+            } catch (final CancellationException ignored) {
+                // The pool was cleared or stopped while generating; the loop decides what to do next.
+            } catch (final RuntimeException ignored) {
+                // A failed background generation falls back to synchronous generation on take.
+                myProducing = false;
+            } finally {
+                myActiveToken = null;
+            }
+        }
+    }
+}
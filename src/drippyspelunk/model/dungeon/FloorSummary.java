@@ -0,0 +1,79 @@
+package drippyspelunk.model.dungeon;
+
+/**
+ * A compact record of a dungeon floor the player has already left.
+ * Kept in place of the floor's rooms and grid so their memory can be released.
+ *
+ * @author David Norman
+ * @version 1.0
+ */
+public final class FloorSummary {
+
+    /**
+     * The floor number, starting at 1.
+     */
+    private final int myFloor;
+    /**
+     * The difficulty level the floor was generated for.
+     */
+    private final int myDifficulty;
+    /**
+     * The number of rooms on the floor.
+     */
+    private final int myRoomCount;
+    /**
+     * The number of game ticks the player spent on the floor.
+     */
+    private final long myTicksSpent;
+
+    /**
+     * Constructs a FloorSummary.
+     *
+     * @param theFloor      The floor number, starting at 1.
+     * @param theDifficulty The difficulty level the floor was generated for.
+     * @param theRoomCount  The number of rooms on the floor.
+     * @param theTicksSpent The number of game ticks the player spent on the floor.
+     */
+    FloorSummary(final int theFloor, final int theDifficulty, final int theRoomCount, final long theTicksSpent) {
+        myFloor = theFloor;
+        myDifficulty = theDifficulty;
+        myRoomCount = theRoomCount;
+        myTicksSpent = theTicksSpent;
+    }
+
+    /**
+     * Gets the floor number.
+     *
+     * @return The floor number, starting at 1.
+     */
+    public int getFloor() {
+        return myFloor;
+    }
+
+    /**
+     * Gets the difficulty level the floor was generated for.
+     *
+     * @return The difficulty level.
+     */
+    public int getDifficulty() {
+        return myDifficulty;
+    }
+
+    /**
+     * Gets the number of rooms on the floor.
+     *
+     * @return The room count.
+     */
+    public int getRoomCount() {
+        return myRoomCount;
+    }
+
+    /**
+     * Gets the number of game ticks the player spent on the floor.
+     *
+     * @return The ticks spent on the floor.
+     */
+    public long getTicksSpent() {
+        return myTicksSpent;
+    }
+}
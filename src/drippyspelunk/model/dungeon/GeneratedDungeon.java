@@ -0,0 +1,101 @@
+package drippyspelunk.model.dungeon;
+
+import java.util.Map;
+
+/**
+ * A fully generated dungeon layout that has not yet been bound to a player.
+ * Holds the dungeon grid, the rooms built from it, the id of the starting room and the seed it was built from,
+ * so generation can happen ahead of time and be handed to a new game later.
+ *
+ * @author David Norman
+ * @version 1.1
+ */
+public final class GeneratedDungeon {
+
+    /**
+     * The difficulty level the dungeon was generated for.
+     */
+    private final int myDifficulty;
+    /**
+     * The seed the dungeon was generated from.
+     */
+    private final long mySeed;
+    /**
+     * The grid representing the dungeon layout.
+     */
+    private final IDungeonGrid myDungeonGrid;
+    /**
+     * A map of all rooms in the dungeon, keyed by their ID.
+     */
+    private final Map<Long, Room> myRooms;
+    /**
+     * The ID of the room the player starts in.
+     */
+    private final long myStartRoomId;
+
+    /**
+     * Constructs a GeneratedDungeon.
+     *
+     * @param theDifficulty  The difficulty level the dungeon was generated for.
+     * @param theSeed        The seed the dungeon was generated from.
+     * @param theDungeonGrid The grid representing the dungeon layout.
+     * @param theRooms       A map of all rooms in the dungeon, keyed by their room key.
+     * @param theStartRoomId The key of the room the player starts in.
+     */
+    GeneratedDungeon(final int theDifficulty,
+                     final long theSeed,
+                     final IDungeonGrid theDungeonGrid,
+                     final Map<Long, Room> theRooms,
+                     final long theStartRoomId) {
+        myDifficulty = theDifficulty;
+        mySeed = theSeed;
+        myDungeonGrid = theDungeonGrid;
+        myRooms = theRooms;
+        myStartRoomId = theStartRoomId;
+    }
+
+    /**
+     * Gets the difficulty level the dungeon was generated for.
+     *
+     * @return The difficulty level.
+     */
+    public int getDifficulty() {
+        return myDifficulty;
+    }
+
+    /**
+     * Gets the seed the dungeon was generated from.
+     *
+     * @return The seed.
+     */
+    public long getSeed() {
+        return mySeed;
+    }
+
+    /**
+     * Gets the dungeon grid.
+     *
+     * @return The grid representing the dungeon layout.
+     */
+    public IDungeonGrid getDungeonGrid() {
+        return myDungeonGrid;
+    }
+
+    /**
+     * Gets the rooms of the dungeon.
+     *
+     * @return A map of all rooms, keyed by their ID.
+     */
+    public Map<Long, Room> getRooms() {
+        return myRooms;
+    }
+
+    /**
+     * Gets the ID of the starting room.
+     *
+     * @return The starting room ID.
+     */
+    public long getStartRoomId() {
+        return myStartRoomId;
+    }
+}
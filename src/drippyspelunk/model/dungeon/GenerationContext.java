@@ -0,0 +1,183 @@
+package drippyspelunk.model.dungeon;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.DoubleConsumer;
+
+/**
+ * The shared state of one dungeon generation, handed from stage to stage by the pipeline.
+ * A context can also be built by hand to run or time a single stage on its own.
+ *
+ * @author David Norman
+ * @version 1.1
+ */
+public final class GenerationContext {
+
+    /**
+     * The difficulty level the dungeon is generated for.
+     */
+    private final int myDifficulty;
+    /**
+     * The token that cancels the generation.
+     */
+    private final CancellationToken myCancellationToken;
+    /**
+     * The seed every random choice of the generation is derived from.
+     */
+    private final long mySeed;
+    /**
+     * The random number generator shared by every stage, seeded with {@link #mySeed}.
+     */
+    private final Random myRandom;
+    /**
+     * The plans for every room, in the order the layout visits them.
+     */
+    private final List<RoomPlan> myRoomPlans;
+    /**
+     * Receives the progress of the stage currently running.
+     */
+    private DoubleConsumer myStageProgress;
+    /**
+     * The room generator shared by the room stages, created on first use.
+     */
+    private DungeonCrawlerRoomConnectionsGenerator myRoomGenerator;
+    /**
+     * The dungeon layout, or null before the layout stage.
+     */
+    private IDungeonGrid myDungeonGrid;
+    /**
+     * The key of the room the player starts in.
+     */
+    private long myStartRoomId;
+
+    /**
+     * Constructs a GenerationContext.
+     *
+     * @param theDifficulty        The difficulty level the dungeon is generated for.
+     * @param theSeed              The seed every random choice of the generation is derived from.
+     * @param theCancellationToken The token that cancels the generation.
+     */
+    public GenerationContext(final int theDifficulty, final long theSeed, final CancellationToken theCancellationToken) {
+        myDifficulty = theDifficulty;
+        mySeed = theSeed;
+        myRandom = new Random(theSeed);
+        myCancellationToken = theCancellationToken;
+        myRoomPlans = new ArrayList<>();
+        myStageProgress = theProgress -> {
+        };
+    }
+
+    /**
+     * Gets the difficulty level the dungeon is generated for.
+     *
+     * @return The difficulty level.
+     */
+    public int getDifficulty() {
+        return myDifficulty;
+    }
+
+    /**
+     * Gets the seed of the generation. The same seed, difficulty and stages always build the same dungeon.
+     *
+     * @return The seed.
+     */
+    public long getSeed() {
+        return mySeed;
+    }
+
+    /**
+     * Gets the random number generator shared by every stage.
+     * Stages draw from it in a fixed order, which keeps the generation reproducible from its seed.
+     *
+     * @return The seeded random number generator.
+     */
+    public Random getRandom() {
+        return myRandom;
+    }
+
+    /**
+     * Stops the current stage if the generation has been cancelled.
+     *
+     * @throws java.util.concurrent.CancellationException if the generation has been cancelled.
+     */
+    public void checkCancelled() {
+        myCancellationToken.throwIfCancelled();
+    }
+
+    /**
+     * Reports how far the current stage has got.
+     *
+     * @param theDone  The amount of work done so far.
+     * @param theTotal The total amount of work in the stage.
+     */
+    public void reportProgress(final int theDone, final int theTotal) {
+        myStageProgress.accept(theTotal <= 0 ? 1.0 : Math.min(1.0, (double) theDone / theTotal));
+    }
+
+    /**
+     * Sets where the progress of the current stage is sent.
+     *
+     * @param theStageProgress Receives the progress of the current stage, from 0.0 to 1.0.
+     */
+    void setStageProgress(final DoubleConsumer theStageProgress) {
+        myStageProgress = theStageProgress;
+    }
+
+    /**
+     * Gets the room generator shared by the room stages.
+     *
+     * @return The room generator for this difficulty.
+     */
+    public DungeonCrawlerRoomConnectionsGenerator getRoomGenerator() {
+        if (myRoomGenerator == null) {
+            myRoomGenerator = new DungeonCrawlerRoomConnectionsGenerator(myDifficulty, myRandom);
+        }
+        return myRoomGenerator;
+    }
+
+    /**
+     * Gets the dungeon layout.
+     *
+     * @return The dungeon grid, or null before the layout stage.
+     */
+    public IDungeonGrid getDungeonGrid() {
+        return myDungeonGrid;
+    }
+
+    /**
+     * Sets the dungeon layout.
+     *
+     * @param theDungeonGrid The dungeon grid.
+     */
+    public void setDungeonGrid(final IDungeonGrid theDungeonGrid) {
+        myDungeonGrid = theDungeonGrid;
+    }
+
+    /**
+     * Gets the key of the room the player starts in.
+     *
+     * @return The starting room key.
+     */
+    public long getStartRoomId() {
+        return myStartRoomId;
+    }
+
+    /**
+     * Sets the key of the room the player starts in.
+     *
+     * @param theStartRoomId The starting room key.
+     */
+    public void setStartRoomId(final long theStartRoomId) {
+        myStartRoomId = theStartRoomId;
+    }
+
+    /**
+     * Gets the plans for every room.
+     *
+     * @return The mutable list of room plans.
+     */
+    public List<RoomPlan> getRoomPlans() {
+        return myRoomPlans;
+    }
+}
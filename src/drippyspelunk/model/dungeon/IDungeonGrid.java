@@ -0,0 +1,116 @@
+package drippyspelunk.model.dungeon;
+
+/**
+ * Interface for the dungeon layout grid. Cells are addressed by row and column,
+ * where even rows and columns hold rooms and odd ones hold the hallways between them.
+ * Implementations only need to store occupied (non-zero) cells, so callers should use
+ * {@link #forEachOccupied(CellVisitor)} rather than scanning every cell.
+ *
+ * @author David Norman
+ * @version 1.0
+ */
+public interface IDungeonGrid {
+
+    /**
+     * The value of an empty cell.
+     */
+    int EMPTY_CELL = 0;
+
+    /**
+     * Builds the stable 64-bit key for a room from its grid position.
+     *
+     * @param theRow    The row of the room.
+     * @param theColumn The column of the room.
+     * @return The room key.
+     */
+    static long roomKey(final int theRow, final int theColumn) {
+        return ((long) theRow << Integer.SIZE) | (theColumn & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Gets the row encoded in a room key.
+     *
+     * @param theRoomKey The room key.
+     * @return The row of the room.
+     */
+    static int keyRow(final long theRoomKey) {
+        return (int) (theRoomKey >> Integer.SIZE);
+    }
+
+    /**
+     * Gets the column encoded in a room key.
+     *
+     * @param theRoomKey The room key.
+     * @return The column of the room.
+     */
+    static int keyColumn(final long theRoomKey) {
+        return (int) theRoomKey;
+    }
+
+    /**
+     * Gets the number of rows in the grid.
+     *
+     * @return The grid height.
+     */
+    int getHeight();
+
+    /**
+     * Gets the number of columns in the grid.
+     *
+     * @return The grid width.
+     */
+    int getWidth();
+
+    /**
+     * Checks if a position lies inside the grid.
+     *
+     * @param theRow    The row to check.
+     * @param theColumn The column to check.
+     * @return True if the position is inside the grid, false otherwise.
+     */
+    default boolean isInBounds(final int theRow, final int theColumn) {
+        return theRow >= 0 && theRow < getHeight() && theColumn >= 0 && theColumn < getWidth();
+    }
+
+    /**
+     * Gets the value of a cell.
+     *
+     * @param theRow    The row of the cell.
+     * @param theColumn The column of the cell.
+     * @return The cell value, or {@link #EMPTY_CELL} if the cell is empty or out of bounds.
+     */
+    int get(int theRow, int theColumn);
+
+    /**
+     * Sets the value of a cell.
+     *
+     * @param theRow    The row of the cell.
+     * @param theColumn The column of the cell.
+     * @param theValue  The new value of the cell.
+     * @throws IndexOutOfBoundsException if the position is outside the grid.
+     */
+    void set(int theRow, int theColumn, int theValue);
+
+    /**
+     * Visits every occupied (non-zero) cell in a stable order.
+     *
+     * @param theVisitor The visitor to call for each occupied cell.
+     */
+    void forEachOccupied(CellVisitor theVisitor);
+
+    /**
+     * Callback used when iterating the occupied cells of a grid.
+     */
+    @FunctionalInterface
+    interface CellVisitor {
+
+        /**
+         * Visits one occupied cell.
+         *
+         * @param theRow    The row of the cell.
+         * @param theColumn The column of the cell.
+         * @param theValue  The value of the cell.
+         */
+        void visit(int theRow, int theColumn, int theValue);
+    }
+}
@@ -0,0 +1,29 @@
+package drippyspelunk.model.dungeon;
+
+/**
+ * Interface for anything that wants to follow the progress of a dungeon generation.
+ * Called on the thread running the generation.
+ *
+ * @author David Norman
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface IGenerationListener {
+
+    /**
+     * Called when the generation makes progress.
+     *
+     * @param theStageName The name of the stage currently running.
+     * @param theProgress  The overall progress of the generation, from 0.0 to 1.0.
+     */
+    void progressChanged(String theStageName, double theProgress);
+
+    /**
+     * Called when a stage finishes.
+     *
+     * @param theStageName   The name of the stage that finished.
+     * @param theElapsedTime The time the stage took, in nanoseconds.
+     */
+    default void stageCompleted(final String theStageName, final long theElapsedTime) {
+    }
+}
@@ -0,0 +1,21 @@
+package drippyspelunk.model.dungeon;
+
+/**
+ * Interface for a single stage of the dungeon generation pipeline.
+ * A stage reads what earlier stages left in the context, adds its own results,
+ * and should check for cancellation and report progress as it works.
+ *
+ * @author David Norman
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface IGenerationStage {
+
+    /**
+     * Runs the stage.
+     *
+     * @param theContext The shared state of the generation.
+     * @throws java.util.concurrent.CancellationException if the generation is cancelled.
+     */
+    void run(GenerationContext theContext);
+}
@@ -11,7 +11,7 @@ import java.util.Set;
  *
  * @author Devin Arroyo
  * @author David Norman
- * @version 1.0
+ * @version 1.2
  */
 public class MiniMapLogic {
 
@@ -20,17 +20,17 @@ public class MiniMapLogic {
      */
     private final DungeonCrawlerLogic myLogic;
     /**
-     * A set of all visited room IDs.
+     * A set of all visited room keys.
      */
-    private final Set<Integer> myVisitedRooms;
+    private final Set<Long> myVisitedRooms;
     /**
-     * A set of all currently visible room IDs.
+     * A set of all currently visible room keys.
      */
-    private final Set<Integer> myVisibleRooms;
+    private final Set<Long> myVisibleRooms;
     /**
-     * The 2D array representing the dungeon layout.
+     * The grid representing the dungeon layout.
      */
-    private int[][] myDungeonGrid;
+    private IDungeonGrid myDungeonGrid;
     /**
      * The width of the dungeon grid.
      */
@@ -67,7 +67,7 @@ public class MiniMapLogic {
         }
 
         final int visionRange = myLogic.getPlayer().getVisionRange();
-        final int currentRoomId = myLogic.getCurrentRoom().getRoomID();
+        final long currentRoomId = myLogic.getCurrentRoom().getRoomID();
 
         updateCurrentRoomPosition(currentRoomId);
 
@@ -82,9 +82,9 @@ public class MiniMapLogic {
     /**
      * Updates the grid position of the current room.
      *
-     * @param theRoomId The ID of the current room.
+     * @param theRoomId The key of the current room.
      */
-    private void updateCurrentRoomPosition(final int theRoomId) {
+    private void updateCurrentRoomPosition(final long theRoomId) {
         final Point position = findRoomPositionById(theRoomId);
         if (position != null) {
             myCurrentRoomGridPosition = position;
@@ -112,8 +112,7 @@ public class MiniMapLogic {
 
             if (isRoom(current.x, current.y) && currentDistance <= theVisionRange) {
                 if (currentDistance > 0) {
-                    final int roomId = current.y * myGridWidth + current.x;
-                    myVisibleRooms.add(roomId);
+                    myVisibleRooms.add(IDungeonGrid.roomKey(current.y, current.x));
                 }
             }
 
@@ -128,11 +127,11 @@ public class MiniMapLogic {
                 final int newY = current.y + dir[1];
                 final Point newPos = new Point(newX, newY);
 
-                if (newX < 0 || newX >= myGridWidth || newY < 0 || newY >= myGridHeight || visited.contains(newPos)) {
+                if (!myDungeonGrid.isInBounds(newY, newX) || visited.contains(newPos)) {
                     continue;
                 }
 
-                if (myDungeonGrid[newY][newX] >= 1) { // Hallways and rooms
+                if (myDungeonGrid.get(newY, newX) >= 1) { // Hallways and rooms
                     visited.add(newPos);
                     queue.add(newPos);
 
@@ -163,9 +162,9 @@ public class MiniMapLogic {
             final int checkX = theX + dir[0];
             final int checkY = theY + dir[1];
 
-            if (checkX >= 0 && checkX < myGridWidth && checkY >= 0 && checkY < myGridHeight) {
+            if (myDungeonGrid.isInBounds(checkY, checkX)) {
                 if (isRoom(checkX, checkY)) {
-                    final int roomId = checkY * myGridWidth + checkX;
+                    final long roomId = IDungeonGrid.roomKey(checkY, checkX);
                     if (myVisibleRooms.contains(roomId) || myVisitedRooms.contains(roomId)) {
                         return true;
                     }
@@ -176,25 +175,19 @@ public class MiniMapLogic {
     }
 
     /**
-     * Finds the grid position of a room by its ID.
+     * Finds the grid position of a room by its key.
+     * The position is decoded straight from the key, so no grid scan is needed.
      *
-     * @param theRoomId The ID of the room to find.
+     * @param theRoomId The key of the room to find.
      * @return The grid position of the room, or null if not found.
      */
-    public Point findRoomPositionById(final int theRoomId) {
+    public Point findRoomPositionById(final long theRoomId) {
         if (myDungeonGrid == null) {
             return null;
         }
-        for (int y = 0; y < myGridHeight; y++) {
-            for (int x = 0; x < myGridWidth; x++) {
-                if (isRoom(x, y)) {
-                    if (y * myGridWidth + x == theRoomId) {
-                        return new Point(x, y);
-                    }
-                }
-            }
-        }
-        return null;
+        final int x = IDungeonGrid.keyColumn(theRoomId);
+        final int y = IDungeonGrid.keyRow(theRoomId);
+        return isRoom(x, y) ? new Point(x, y) : null;
     }
 
     /**
@@ -205,46 +198,51 @@ public class MiniMapLogic {
      * @return True if the position is a room, false otherwise.
      */
     public boolean isRoom(final int theX, final int theY) {
-        return theX >= 0 && theX < myGridWidth && theY >= 0 && theY < myGridHeight && myDungeonGrid[theY][theX] >= 2;
+        return myDungeonGrid != null && myDungeonGrid.get(theY, theX) >= 2;
     }
 
     /**
-     * Gets a copy of the set of visible room IDs.
+     * Gets a copy of the set of visible room keys.
      *
-     * @return A set of visible room IDs.
+     * @return A set of visible room keys.
      */
-    public Set<Integer> getVisibleRooms() {
+    public Set<Long> getVisibleRooms() {
         return new HashSet<>(myVisibleRooms);
     }
 
     /**
-     * Gets a copy of the set of visited room IDs.
+     * Gets a copy of the set of visited room keys.
      *
-     * @return A set of visited room IDs.
+     * @return A set of visited room keys.
      */
-    public Set<Integer> getVisitedRooms() {
+    public Set<Long> getVisitedRooms() {
         return new HashSet<>(myVisitedRooms);
     }
 
     /**
      * Gets the dungeon grid.
      *
-     * @return The 2D array representing the dungeon grid.
+     * @return The grid representing the dungeon layout.
      */
-    public int[][] getDungeonGrid() {
+    public IDungeonGrid getDungeonGrid() {
         return myDungeonGrid;
     }
 
     /**
      * Sets the dungeon grid and updates the grid dimensions.
+     * A different grid means a new floor, so the visited rooms are forgotten.
      *
-     * @param theGrid The 2D array representing the dungeon grid.
+     * @param theGrid The grid representing the dungeon layout.
      */
-    public void setDungeonGrid(final int[][] theGrid) {
-        if (theGrid != null && theGrid.length > 0) {
+    public void setDungeonGrid(final IDungeonGrid theGrid) {
+        if (theGrid != null) {
+            if (theGrid != myDungeonGrid) {
+                myVisitedRooms.clear();
+                myVisibleRooms.clear();
+            }
             myDungeonGrid = theGrid;
-            myGridHeight = theGrid.length;
-            myGridWidth = theGrid[0].length;
+            myGridHeight = theGrid.getHeight();
+            myGridWidth = theGrid.getWidth();
         }
     }
 
@@ -2,22 +2,28 @@ package drippyspelunk.model.dungeon;
 
 import drippyspelunk.model.dungeon.entity.GameObject;
 import drippyspelunk.model.dungeon.entity.asset.ActiveBomb;
+import drippyspelunk.model.dungeon.entity.asset.Chest;
 import drippyspelunk.model.dungeon.entity.asset.Consumable;
 import drippyspelunk.model.dungeon.entity.asset.Door;
 import drippyspelunk.model.dungeon.entity.dungeoncharacter.Enemy;
 
 import java.awt.*;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 
 /**
  * A class representing a room.
  *
  * @author Devin Arroyo
  * @author David Norman
- * @version 2.1
+ * @version 2.5
  */
 public class Room {
     /**
@@ -32,11 +38,15 @@ public class Room {
      * The height of the room grid in tiles.
      */
     public static final int GRID_HEIGHT = 13;
+    /**
+     * The wall layer value of a breakable wall tile.
+     */
+    public static final int BREAKABLE_WALL_TILE = 1;
 
     /**
-     * The unique identifier for the room.
+     * The unique identifier for the room, built from its grid position.
      */
-    private final int myRoomID;
+    private final long myRoomID;
     /**
      * The name of the room.
      */
@@ -45,10 +55,6 @@ public class Room {
      * A list of all game objects in the room.
      */
     private final List<GameObject> myGameObjects;
-    /**
-     * A list of background floor objects.
-     */
-    private final List<GameObject> myFloorObjects;
     /**
      * A list of all doors in the room.
      */
@@ -61,18 +67,41 @@ public class Room {
      * A random number generator for the room.
      */
     private final Random myRandom = new Random();
+    /**
+     * The floor tiles of the room, shared with its template.
+     */
+    private TileLayer myFloorLayer;
+    /**
+     * The wall tiles of the room. Shared with its template until a tile changes.
+     */
+    private TileLayer myWallLayer;
+    /**
+     * The biome used to pick the room's tile sprites.
+     */
+    private int myBiome;
+    /**
+     * The objects the room held when generation finished, in order, or null before then.
+     */
+    private GameObject[] myGeneratedObjects;
+    /**
+     * True once the room may differ from how it was generated.
+     */
+    private boolean myChanged;
+    /**
+     * The name of the template the room was built from, or null if it was not built from one.
+     */
+    private String myTemplateName;
 
     /**
      * Constructs a new room with a given ID and name.
      *
-     * @param theRoomID   The unique ID of the room.
+     * @param theRoomID   The unique key of the room.
      * @param theRoomName The name of the room.
      */
-    public Room(final int theRoomID, final String theRoomName) {
+    public Room(final long theRoomID, final String theRoomName) {
         myRoomID = theRoomID;
         myRoomName = theRoomName;
         myGameObjects = new ArrayList<>();
-        myFloorObjects = new ArrayList<>();
         myDoors = new ArrayList<>();
         myActiveBombs = new ArrayList<>();
     }
@@ -82,7 +111,7 @@ public class Room {
      *
      * @return The room's ID.
      */
-    public int getRoomID() {
+    public long getRoomID() {
         return myRoomID;
     }
 
@@ -101,21 +130,13 @@ public class Room {
      * @param theObject The game object to add.
      */
     public void addObject(final GameObject theObject) {
+        myChanged = true;
         myGameObjects.add(theObject);
         if (theObject instanceof ActiveBomb) {
             myActiveBombs.add((ActiveBomb) theObject);
         }
     }
 
-    /**
-     * Adds a floor object to the room.
-     *
-     * @param theFloorObject The floor object to add.
-     */
-    public void addFloorObject(final GameObject theFloorObject) {
-        myFloorObjects.add(theFloorObject);
-    }
-
     /**
      * Adds a door object to the room.
      *
@@ -136,12 +157,131 @@ public class Room {
     }
 
     /**
-     * Gets an unmodifiable list of all floor objects in the room.
+     * Sets the floor layer of the room.
+     *
+     * @param theFloorLayer The floor tiles.
+     * @param theBiome      The biome used to pick the room's tile sprites.
+     */
+    public void setFloorLayer(final TileLayer theFloorLayer, final int theBiome) {
+        myFloorLayer = theFloorLayer;
+        myBiome = theBiome;
+    }
+
+    /**
+     * Sets the wall layer of the room.
+     *
+     * @param theWallLayer The wall tiles.
+     */
+    public void setWallLayer(final TileLayer theWallLayer) {
+        myWallLayer = theWallLayer;
+    }
+
+    /**
+     * Gets the floor layer of the room.
+     *
+     * @return The floor tiles, or null if the room has none.
+     */
+    public TileLayer getFloorLayer() {
+        return myFloorLayer;
+    }
+
+    /**
+     * Gets the wall layer of the room.
+     *
+     * @return The wall tiles, or null if the room has none.
+     */
+    public TileLayer getWallLayer() {
+        return myWallLayer;
+    }
+
+    /**
+     * Sets the name of the template the room was built from.
+     *
+     * @param theTemplateName The template name.
+     */
+    public void setTemplateName(final String theTemplateName) {
+        myTemplateName = theTemplateName;
+    }
+
+    /**
+     * Gets the name of the template the room was built from.
+     *
+     * @return The template name, or null if the room was not built from one.
+     */
+    public String getTemplateName() {
+        return myTemplateName;
+    }
+
+    /**
+     * Gets the biome used to pick the room's tile sprites.
+     *
+     * @return The biome of the room.
+     */
+    public int getBiome() {
+        return myBiome;
+    }
+
+    /**
+     * Places a breakable wall on a tile. The shared wall layer is copied before it is changed.
+     *
+     * @param theRow    The row of the tile.
+     * @param theColumn The column of the tile.
+     */
+    public void placeBreakableWall(final int theRow, final int theColumn) {
+        if (myWallLayer == null) {
+            myWallLayer = TileLayer.fromGrid(new int[GRID_HEIGHT][GRID_WIDTH]);
+        }
+        myWallLayer = myWallLayer.withTile(theRow, theColumn, BREAKABLE_WALL_TILE);
+        myChanged = true;
+    }
+
+    /**
+     * Removes every breakable wall tile that intersects an area.
      *
-     * @return A list of floor objects.
+     * @param theBounds The area to clear, in pixels.
      */
-    public List<GameObject> getFloorObjects() {
-        return Collections.unmodifiableList(myFloorObjects);
+    public void breakWalls(final Rectangle theBounds) {
+        if (myWallLayer == null || theBounds.isEmpty()) {
+            return;
+        }
+        final int firstRow = Math.max(0, Math.floorDiv(theBounds.y, TILE_SIZE));
+        final int lastRow = Math.min(myWallLayer.getHeight() - 1, Math.floorDiv(theBounds.y + theBounds.height - 1, TILE_SIZE));
+        final int firstColumn = Math.max(0, Math.floorDiv(theBounds.x, TILE_SIZE));
+        final int lastColumn = Math.min(myWallLayer.getWidth() - 1, Math.floorDiv(theBounds.x + theBounds.width - 1, TILE_SIZE));
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                if (myWallLayer.get(row, column) == BREAKABLE_WALL_TILE) {
+                    myWallLayer = myWallLayer.withTile(row, column, TileLayer.EMPTY_TILE);
+                    myChanged = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if an area overlaps any wall tile.
+     *
+     * @param theBounds The area to check, in pixels.
+     * @return True if a wall tile overlaps the area, false otherwise.
+     */
+    public boolean isWallAt(final Rectangle theBounds) {
+        if (myWallLayer == null || theBounds.isEmpty()) {
+            return false;
+        }
+        final int firstRow = Math.floorDiv(theBounds.y, TILE_SIZE);
+        final int lastRow = Math.floorDiv(theBounds.y + theBounds.height - 1, TILE_SIZE);
+        final int firstColumn = Math.floorDiv(theBounds.x, TILE_SIZE);
+        final int lastColumn = Math.floorDiv(theBounds.x + theBounds.width - 1, TILE_SIZE);
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                if (myWallLayer.get(row, column) != TileLayer.EMPTY_TILE) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 
     /**
@@ -189,6 +329,7 @@ public class Room {
      * @param theObject The object to remove.
      */
     public void removeObject(final GameObject theObject) {
+        myChanged = true;
         myGameObjects.remove(theObject);
         if (theObject instanceof ActiveBomb) {
             myActiveBombs.remove(theObject);
@@ -201,6 +342,7 @@ public class Room {
      * @param theConsumable The consumable to remove.
      */
     public void removeObject(final Consumable theConsumable) {
+        myChanged = true;
         myGameObjects.remove(theConsumable);
     }
 
@@ -222,7 +364,7 @@ public class Room {
     }
 
     /**
-     * Checks if a given position is occupied by another game object.
+     * Checks if a given position is occupied by a wall tile or another game object.
      *
      * @param theX      The x-coordinate to check.
      * @param theY      The y-coordinate to check.
@@ -232,6 +374,9 @@ public class Room {
      */
     private boolean isPositionOccupied(final int theX, final int theY, final int theWidth, final int theHeight) {
         final Rectangle newObjectBounds = new Rectangle(theX, theY, theWidth, theHeight);
+        if (isWallAt(newObjectBounds)) {
+            return true;
+        }
         for (final GameObject object : getGameObjects()) {
             if (newObjectBounds.intersects(object.getBounds())) {
                 return true;
@@ -247,6 +392,7 @@ public class Room {
      */
     public void removeObjects(final List<GameObject> theObjects) {
         if (theObjects != null) {
+            myChanged = true;
             myGameObjects.removeAll(theObjects);
             myActiveBombs.removeAll(theObjects);
         }
@@ -260,4 +406,114 @@ public class Room {
     public List<ActiveBomb> getActiveBombs() {
         return Collections.unmodifiableList(myActiveBombs);
     }
-}
\ No newline at end of file
+
+    /**
+     * Records the room as generated. Everything the room holds now can be rebuilt from the
+     * dungeon's seed, so only changes made after this point need to be saved.
+     */
+    void markGenerated() {
+        myGeneratedObjects = myGameObjects.toArray(new GameObject[0]);
+        myChanged = false;
+    }
+
+    /**
+     * Marks the room as possibly differing from how it was generated,
+     * for changes the room cannot see itself, such as enemies moving or chests opening.
+     */
+    public void markChanged() {
+        myChanged = true;
+    }
+
+    /**
+     * Checks if the room may differ from how it was generated.
+     *
+     * @return True if the room has to be saved, false if regenerating it is enough.
+     */
+    public boolean isChanged() {
+        return myChanged;
+    }
+
+    /**
+     * Writes how the room differs from how it was generated: its wall tiles, which generated
+     * objects are still present along with their state, and any active bombs.
+     *
+     * @param theOutput The output to write to.
+     * @throws IOException If the room cannot be written.
+     */
+    void writeChanges(final DataOutput theOutput) throws IOException {
+        theOutput.writeBoolean(myWallLayer != null);
+        if (myWallLayer != null) {
+            myWallLayer.writeTo(theOutput);
+        }
+
+        final GameObject[] generated = myGeneratedObjects != null ? myGeneratedObjects : new GameObject[0];
+        final Set<GameObject> present = Collections.newSetFromMap(new IdentityHashMap<>());
+        present.addAll(myGameObjects);
+        final byte[] presentBits = new byte[(generated.length + Byte.SIZE - 1) / Byte.SIZE];
+        for (int i = 0; i < generated.length; i++) {
+            if (present.contains(generated[i])) {
+                presentBits[i / Byte.SIZE] |= (byte) (1 << (i % Byte.SIZE));
+            }
+        }
+        theOutput.writeShort(generated.length);
+        theOutput.write(presentBits);
+
+        for (final GameObject object : generated) {
+            if (present.contains(object)) {
+                if (object instanceof Chest chest) {
+                    theOutput.writeBoolean(chest.isOpen());
+                } else if (object instanceof Enemy enemy) {
+                    enemy.writeSaveData(theOutput);
+                }
+            }
+        }
+
+        theOutput.writeShort(myActiveBombs.size());
+        for (final ActiveBomb bomb : myActiveBombs) {
+            bomb.writeSaveData(theOutput);
+        }
+    }
+
+    /**
+     * Applies changes written by {@link #writeChanges(DataOutput)} to a freshly generated copy of the room.
+     *
+     * @param theInput The input to read from.
+     * @throws IOException If the changes cannot be read or were written for a different room.
+     */
+    void readChanges(final DataInput theInput) throws IOException {
+        final TileLayer wallLayer = theInput.readBoolean() ? TileLayer.readFrom(theInput) : null;
+
+        final GameObject[] generated = myGeneratedObjects != null ? myGeneratedObjects : new GameObject[0];
+        final int generatedCount = theInput.readUnsignedShort();
+        if (generatedCount != generated.length) {
+            throw new IOException("Room " + myRoomID + " was generated differently when it was saved.");
+        }
+        final byte[] presentBits = new byte[(generatedCount + Byte.SIZE - 1) / Byte.SIZE];
+        theInput.readFully(presentBits);
+
+        final List<GameObject> removed = new ArrayList<>();
+        for (int i = 0; i < generated.length; i++) {
+            final GameObject object = generated[i];
+            if ((presentBits[i / Byte.SIZE] & (1 << (i % Byte.SIZE))) == 0) {
+                removed.add(object);
+            } else if (object instanceof Chest chest) {
+                if (theInput.readBoolean()) {
+                    chest.open();
+                }
+            } else if (object instanceof Enemy enemy) {
+                enemy.readSaveData(theInput);
+            }
+        }
+        removeObjects(removed);
+
+        final int bombCount = theInput.readUnsignedShort();
+        for (int i = 0; i < bombCount; i++) {
+            addObject(ActiveBomb.readSaveData(theInput));
+        }
+
+        if (wallLayer != null) {
+            myWallLayer = wallLayer;
+        }
+        myChanged = true;
+    }
+}
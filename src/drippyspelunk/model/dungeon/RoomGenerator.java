@@ -1,15 +1,14 @@
 package drippyspelunk.model.dungeon;
 
-import drippyspelunk.model.dungeon.factory.GameObjectFactory;
-
 import java.awt.*;
 import java.util.List;
 
 /**
  * Class that generates rooms based on tile presets.
+ * Static terrain is stored as tile layers shared with the room template rather than as one object per tile.
  *
  * @author Devin Arroyo
- * @version 1.1
+ * @version 1.3
  */
 public class RoomGenerator {
 
@@ -18,19 +17,41 @@ public class RoomGenerator {
      *
      * @param theRoom       The room to generate the layout in.
      * @param theDoorBounds The list of door boundaries to avoid placing walls.
-     * @param theLayout     The 2D array representing the wall layout.
-     * @param theBiome      The biome type for the wall tiles.
+     * @param theTemplate   The room template holding the wall layout.
+     */
+    public static void generateRoomLayout(final Room theRoom, final List<Rectangle> theDoorBounds, final RoomTemplate theTemplate) {
+        theRoom.setWallLayer(theTemplate.getWallLayer(theDoorBounds));
+    }
+
+    /**
+     * Generates the background tiles for a room.
+     *
+     * @param theRoom     The room to generate the background tiles in.
+     * @param theTemplate The room template holding the background tileset.
+     * @param theBiome    The biome type for the wall and background tiles.
      */
-    public static void generateRoomLayout(final Room theRoom, final List<Rectangle> theDoorBounds, final int[][] theLayout, final int theBiome) {
-        for (int i = 0; i < theLayout.length; i++) {
-            for (int j = 0; j < theLayout[i].length; j++) {
-                if (theLayout[i][j] != 0) {
-                    int x = j * Room.TILE_SIZE;
-                    int y = i * Room.TILE_SIZE;
+    public static void generateBackgroundTiles(final Room theRoom, final RoomTemplate theTemplate, final int theBiome) {
+        theRoom.setFloorLayer(theTemplate.getFloorLayer(), theBiome);
+    }
+
+    /**
+     * Builds a wall layer from a layout, leaving out any wall that overlaps a door.
+     *
+     * @param theLayout     The wall layout.
+     * @param theDoorBounds The list of door boundaries to avoid placing walls.
+     * @return The wall layer.
+     */
+    static TileLayer buildWallLayer(final TileLayer theLayout, final List<Rectangle> theDoorBounds) {
+        final int[][] walls = new int[theLayout.getHeight()][theLayout.getWidth()];
+
+        for (int i = 0; i < theLayout.getHeight(); i++) {
+            for (int j = 0; j < theLayout.getWidth(); j++) {
+                final int tile = theLayout.get(i, j);
+                if (tile != TileLayer.EMPTY_TILE) {
+                    final Rectangle wallRect = new Rectangle(j * Room.TILE_SIZE, i * Room.TILE_SIZE, Room.TILE_SIZE, Room.TILE_SIZE);
                     boolean isDoorLocation = false;
-                    Rectangle wallRect = new Rectangle(x, y, Room.TILE_SIZE, Room.TILE_SIZE);
 
-                    for (Rectangle doorRect : theDoorBounds) {
+                    for (final Rectangle doorRect : theDoorBounds) {
                         if (wallRect.intersects(doorRect)) {
                             isDoorLocation = true;
                             break;
@@ -38,31 +59,11 @@ public class RoomGenerator {
                     }
 
                     if (!isDoorLocation) {
-                        int wallType = theLayout[i][j];
-                        theRoom.addObject(GameObjectFactory.createGameObject(GameObjectFactory.TYPE_WALL, x, y, Room.TILE_SIZE, Room.TILE_SIZE, wallType, theBiome));
+                        walls[i][j] = tile;
                     }
                 }
             }
         }
+        return TileLayer.fromGrid(walls);
     }
-
-    /**
-     * Generates the background tiles for a room.
-     *
-     * @param theRoom    The room to generate the background tiles in.
-     * @param theTileset The 2D array representing the background tileset.
-     * @param theBiome   The biome type for the background tiles.
-     */
-    public static void generateBackgroundTiles(final Room theRoom, final int[][] theTileset, final int theBiome) {
-        for (int i = 0; i < theTileset.length; i++) {
-            for (int j = 0; j < theTileset[i].length; j++) {
-                if (theTileset[i][j] != 0) {
-                    int x = j * Room.TILE_SIZE;
-                    int y = i * Room.TILE_SIZE;
-                    int floorType = theTileset[i][j];
-                    theRoom.addFloorObject(GameObjectFactory.createGameObject(GameObjectFactory.TYPE_FLOOR, x, y, Room.TILE_SIZE, Room.TILE_SIZE, floorType, theBiome));
-                }
-            }
-        }
-    }
-}
\ No newline at end of file
+}
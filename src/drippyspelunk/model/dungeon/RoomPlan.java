@@ -0,0 +1,171 @@
+package drippyspelunk.model.dungeon;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The plan for one room of a dungeon as it moves through the generation pipeline.
+ * The template stage fills in its position, biome, doors and template,
+ * and later stages attach the room itself and the points where enemies should spawn.
+ *
+ * @author David Norman
+ * @version 1.0
+ */
+public final class RoomPlan {
+
+    /**
+     * The row of the room in the dungeon grid.
+     */
+    private final int myRow;
+    /**
+     * The column of the room in the dungeon grid.
+     */
+    private final int myColumn;
+    /**
+     * The room type from the dungeon grid.
+     */
+    private final int myRoomType;
+    /**
+     * The biome of the room.
+     */
+    private final int myBiome;
+    /**
+     * The bounds of the room's doors.
+     */
+    private final List<Rectangle> myDoorBounds;
+    /**
+     * The template the room is built from.
+     */
+    private final RoomTemplate myTemplate;
+    /**
+     * The tile positions where enemies should be bound, as x for column and y for row.
+     */
+    private final List<Point> myEnemySpawns;
+    /**
+     * The room built from the plan, or null before the terrain stage.
+     */
+    private Room myRoom;
+
+    /**
+     * Constructs a RoomPlan.
+     *
+     * @param theRow        The row of the room in the dungeon grid.
+     * @param theColumn     The column of the room in the dungeon grid.
+     * @param theRoomType   The room type from the dungeon grid.
+     * @param theBiome      The biome of the room.
+     * @param theDoorBounds The bounds of the room's doors.
+     * @param theTemplate   The template the room is built from.
+     */
+    public RoomPlan(final int theRow, final int theColumn, final int theRoomType, final int theBiome,
+                    final List<Rectangle> theDoorBounds, final RoomTemplate theTemplate) {
+        myRow = theRow;
+        myColumn = theColumn;
+        myRoomType = theRoomType;
+        myBiome = theBiome;
+        myDoorBounds = List.copyOf(theDoorBounds);
+        myTemplate = theTemplate;
+        myEnemySpawns = new ArrayList<>();
+    }
+
+    /**
+     * Gets the row of the room in the dungeon grid.
+     *
+     * @return The row.
+     */
+    public int getRow() {
+        return myRow;
+    }
+
+    /**
+     * Gets the column of the room in the dungeon grid.
+     *
+     * @return The column.
+     */
+    public int getColumn() {
+        return myColumn;
+    }
+
+    /**
+     * Gets the key of the room.
+     *
+     * @return The room key built from its grid position.
+     */
+    public long getRoomKey() {
+        return IDungeonGrid.roomKey(myRow, myColumn);
+    }
+
+    /**
+     * Gets the room type from the dungeon grid.
+     *
+     * @return The room type.
+     */
+    public int getRoomType() {
+        return myRoomType;
+    }
+
+    /**
+     * Gets the biome of the room.
+     *
+     * @return The biome.
+     */
+    public int getBiome() {
+        return myBiome;
+    }
+
+    /**
+     * Gets the bounds of the room's doors.
+     *
+     * @return An unmodifiable list of door bounds.
+     */
+    public List<Rectangle> getDoorBounds() {
+        return myDoorBounds;
+    }
+
+    /**
+     * Gets the template the room is built from.
+     *
+     * @return The room template.
+     */
+    public RoomTemplate getTemplate() {
+        return myTemplate;
+    }
+
+    /**
+     * Gets the room built from the plan.
+     *
+     * @return The room, or null before the terrain stage.
+     */
+    public Room getRoom() {
+        return myRoom;
+    }
+
+    /**
+     * Sets the room built from the plan.
+     *
+     * @param theRoom The room.
+     */
+    public void setRoom(final Room theRoom) {
+        myRoom = theRoom;
+    }
+
+    /**
+     * Records a tile where an enemy should be bound.
+     *
+     * @param theRow    The row of the tile.
+     * @param theColumn The column of the tile.
+     */
+    public void addEnemySpawn(final int theRow, final int theColumn) {
+        myEnemySpawns.add(new Point(theColumn, theRow));
+    }
+
+    /**
+     * Gets the tiles where enemies should be bound.
+     *
+     * @return An unmodifiable list of tile positions, with x as the column and y as the row.
+     */
+    public List<Point> getEnemySpawns() {
+        return Collections.unmodifiableList(myEnemySpawns);
+    }
+}
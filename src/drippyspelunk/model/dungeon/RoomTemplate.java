@@ -1,156 +1,373 @@
 package drippyspelunk.model.dungeon;
 
+import java.awt.*;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
- * A data class for a room layout and tileset, parsed from an ini file.
+ * A compiled room layout, parsed from an ini file once and shared by every difficulty.
+ * The layout, tileset and spawn grids are packed one byte per tile, and the spawn cells are listed
+ * ahead of time in row-major order, both all together and by spawn code. Spawn chances are stored
+ * as written in the ini file; {@link #forDifficulty(int)} gives a view with the difficulty applied.
+ * The tile layers built from the layout and tileset are cached here and shared by every room using the template.
  *
  * @author Devin Arroyo
- * @version 1.2
+ * @version 1.5
  */
 public class RoomTemplate {
 
     /**
-     * A 2D array representing the layout of the room.
+     * How much each difficulty level adds to the enemy chance.
+     */
+    private static final int ENEMY_CHANCE_PER_DIFFICULTY = 20;
+    /**
+     * How much each difficulty level takes from the potion, chest and bomb chances.
+     */
+    private static final int ITEM_CHANCE_PER_DIFFICULTY = -8;
+    /**
+     * How much each difficulty level adds to the trap chance.
+     */
+    private static final int TRAP_CHANCE_PER_DIFFICULTY = 5;
+    /**
+     * The spawn code of an empty cell.
+     */
+    private static final int NO_SPAWN = 0;
+
+    /**
+     * The name of the rooms.ini section the template was compiled from.
+     */
+    private final String myName;
+    /**
+     * The wall layout, one byte per tile.
+     */
+    private final TileLayer myLayout;
+    /**
+     * The spawn grid, one byte per tile.
      */
-    private final int[][] myLayout;
+    private final TileLayer mySpawns;
     /**
-     * A 2D array representing the tileset used for the room's appearance.
+     * Every cell with a spawn code, as row * width + column, in row-major order.
      */
-    private final int[][] myTileset;
+    private final int[] mySpawnCells;
     /**
-     * A 2D array representing the spawn points within the room.
+     * The cells with each spawn code, indexed by code, in row-major order.
      */
-    private final int[][] mySpawns;
+    private final int[][] mySpawnCellsByCode;
     /**
-     * The chance of an enemy spawning in the room.
+     * The chance of an enemy spawning, before the difficulty is applied.
      */
     private final int myEnemyChance;
     /**
-     * The chance of a potion spawning in the room.
+     * The chance of a potion spawning, before the difficulty is applied.
      */
     private final int myPotionChance;
     /**
-     * The chance of a chest spawning in the room.
+     * The chance of a chest spawning, before the difficulty is applied.
      */
     private final int myChestChance;
     /**
-     * The chance of a bomb spawning in the room.
+     * The chance of a bomb spawning, before the difficulty is applied.
      */
     private final int myBombChance;
     /**
-     * The chance of a trap spawning in the room.
+     * The chance of a trap spawning, before the difficulty is applied.
      */
     private final int myTrapChance;
     /**
-     * The chance of a breakable wall appearing in the room.
+     * The chance of a breakable wall appearing.
      */
     private final int myBreakableWallChance;
+    /**
+     * The floor layer shared by every room built from this template.
+     */
+    private final TileLayer myFloorLayer;
+    /**
+     * The wall layers shared by every room built from this template, keyed by the door openings cut into them.
+     */
+    private final Map<List<Rectangle>, TileLayer> myWallLayers;
+    /**
+     * The views of this template for each difficulty that has been asked for.
+     */
+    private final Map<Integer, DifficultyView> myDifficultyViews;
 
     /**
      * Constructs a new RoomTemplate with the specified layout, tileset, and spawn information.
      *
+     * @param theName                The name of the rooms.ini section the template was compiled from.
      * @param theLayout              The 2D array for the room's layout.
      * @param theTileset             The 2D array for the room's tileset.
      * @param theSpawns              The 2D array for the spawn points.
-     * @param theEnemyChance         The chance of an enemy spawning.
-     * @param thePotionChance        The chance of a potion spawning.
-     * @param theChestChance         The chance of a chest spawning.
-     * @param theBombChance          The chance of a bomb spawning.
-     * @param theTrapChance          The chance of a trap spawning.
+     * @param theEnemyChance         The chance of an enemy spawning, before the difficulty is applied.
+     * @param thePotionChance        The chance of a potion spawning, before the difficulty is applied.
+     * @param theChestChance         The chance of a chest spawning, before the difficulty is applied.
+     * @param theBombChance          The chance of a bomb spawning, before the difficulty is applied.
+     * @param theTrapChance          The chance of a trap spawning, before the difficulty is applied.
      * @param theBreakableWallChance The chance of a breakable wall appearing.
      */
-    public RoomTemplate(final int[][] theLayout, final int[][] theTileset, final int[][] theSpawns,
+    public RoomTemplate(final String theName, final int[][] theLayout, final int[][] theTileset, final int[][] theSpawns,
                         final int theEnemyChance, final int thePotionChance, final int theChestChance,
                         final int theBombChance, final int theTrapChance,
                         final int theBreakableWallChance) {
-        myLayout = theLayout;
-        myTileset = theTileset;
-        mySpawns = theSpawns;
+        myName = theName;
+        myLayout = TileLayer.fromGrid(theLayout);
+        myFloorLayer = TileLayer.fromGrid(theTileset);
+        mySpawns = TileLayer.fromGrid(theSpawns);
         myEnemyChance = theEnemyChance;
         myPotionChance = thePotionChance;
         myChestChance = theChestChance;
         myBombChance = theBombChance;
         myTrapChance = theTrapChance;
         myBreakableWallChance = theBreakableWallChance;
+        myWallLayers = new ConcurrentHashMap<>();
+        myDifficultyViews = new ConcurrentHashMap<>();
+
+        final int width = mySpawns.getWidth();
+        final int[] codeCounts = new int[256];
+        int cellCount = 0;
+        int maxCode = NO_SPAWN;
+        for (int row = 0; row < mySpawns.getHeight(); row++) {
+            for (int column = 0; column < width; column++) {
+                final int code = mySpawns.get(row, column);
+                if (code != NO_SPAWN) {
+                    codeCounts[code]++;
+                    cellCount++;
+                    maxCode = Math.max(maxCode, code);
+                }
+            }
+        }
+        mySpawnCells = new int[cellCount];
+        mySpawnCellsByCode = new int[maxCode + 1][];
+        for (int code = 0; code <= maxCode; code++) {
+            mySpawnCellsByCode[code] = new int[codeCounts[code]];
+            codeCounts[code] = 0;
+        }
+        int next = 0;
+        for (int row = 0; row < mySpawns.getHeight(); row++) {
+            for (int column = 0; column < width; column++) {
+                final int code = mySpawns.get(row, column);
+                if (code != NO_SPAWN) {
+                    final int cell = row * width + column;
+                    mySpawnCells[next++] = cell;
+                    mySpawnCellsByCode[code][codeCounts[code]++] = cell;
+                }
+            }
+        }
     }
 
     /**
-     * Gets the 2D array representing the room's layout.
+     * Gets a view of this template with its spawn chances adjusted for a difficulty.
+     * Views are cached, so asking again for the same difficulty is a map lookup.
      *
-     * @return The room's layout.
+     * @param theDifficulty The difficulty level.
+     * @return The view.
      */
-    public int[][] getLayout() {
-        return myLayout;
+    public DifficultyView forDifficulty(final int theDifficulty) {
+        return myDifficultyViews.computeIfAbsent(theDifficulty, theKey -> new DifficultyView(this, theKey));
+    }
+
+    /**
+     * Gets the name of the rooms.ini section the template was compiled from.
+     *
+     * @return The template name.
+     */
+    public String getName() {
+        return myName;
     }
 
     /**
-     * Gets the 2D array representing the room's tileset.
+     * Gets the width of the room grids.
      *
-     * @return The room's tileset.
+     * @return The width in tiles.
      */
-    public int[][] getTileset() {
-        return myTileset;
+    public int getWidth() {
+        return mySpawns.getWidth();
     }
 
     /**
-     * Gets the 2D array representing the spawn points.
+     * Gets the height of the room grids.
      *
-     * @return The spawn points.
+     * @return The height in tiles.
      */
-    public int[][] getSpawns() {
+    public int getHeight() {
+        return mySpawns.getHeight();
+    }
+
+    /**
+     * Gets the wall layout, one byte per tile.
+     *
+     * @return The layout.
+     */
+    public TileLayer getLayout() {
+        return myLayout;
+    }
+
+    /**
+     * Gets the spawn grid, one byte per tile.
+     *
+     * @return The spawn codes.
+     */
+    public TileLayer getSpawns() {
         return mySpawns;
     }
 
     /**
-     * Gets the chance of an enemy spawning.
+     * Gets the number of cells with a spawn code.
      *
-     * @return The enemy spawn chance.
+     * @return The spawn cell count.
      */
-    public int getEnemyChance() {
-        return myEnemyChance;
+    public int getSpawnCellCount() {
+        return mySpawnCells.length;
     }
 
     /**
-     * Gets the chance of a potion spawning.
+     * Gets a cell with a spawn code. Cells are in row-major order.
      *
-     * @return The potion spawn chance.
+     * @param theIndex The index of the cell, from 0 to {@link #getSpawnCellCount()}.
+     * @return The cell, as row * width + column.
      */
-    public int getPotionChance() {
-        return myPotionChance;
+    public int getSpawnCell(final int theIndex) {
+        return mySpawnCells[theIndex];
     }
 
     /**
-     * Gets the chance of a chest spawning.
+     * Gets the number of cells with a given spawn code.
      *
-     * @return The chest spawn chance.
+     * @param theCode The spawn code.
+     * @return The cell count.
      */
-    public int getChestChance() {
-        return myChestChance;
+    public int getSpawnCellCount(final int theCode) {
+        return theCode > NO_SPAWN && theCode < mySpawnCellsByCode.length ? mySpawnCellsByCode[theCode].length : 0;
     }
 
     /**
-     * Gets the chance of a bomb spawning.
+     * Gets a cell with a given spawn code. Cells are in row-major order.
      *
-     * @return The bomb spawn chance.
+     * @param theCode  The spawn code.
+     * @param theIndex The index of the cell, from 0 to {@link #getSpawnCellCount(int)}.
+     * @return The cell, as row * width + column.
      */
-    public int getBombChance() {
-        return myBombChance;
+    public int getSpawnCell(final int theCode, final int theIndex) {
+        return mySpawnCellsByCode[theCode][theIndex];
     }
 
     /**
-     * Gets the chance of a trap spawning.
+     * Gets the shared floor layer built from the room's tileset.
      *
-     * @return The trap spawn chance.
+     * @return The floor layer.
      */
-    public int getTrapChance() {
-        return myTrapChance;
+    public TileLayer getFloorLayer() {
+        return myFloorLayer;
     }
 
     /**
-     * Gets the chance of a breakable wall appearing.
+     * Gets the shared wall layer built from the room's layout, with openings cut for the given doors.
+     * Rooms with the same door placement share a single layer.
      *
-     * @return The breakable wall chance.
+     * @param theDoorBounds The list of door boundaries to keep clear of walls.
+     * @return The wall layer.
+     */
+    public TileLayer getWallLayer(final List<Rectangle> theDoorBounds) {
+        return myWallLayers.computeIfAbsent(List.copyOf(theDoorBounds),
+                theKey -> RoomGenerator.buildWallLayer(myLayout, theKey));
+    }
+
+    /**
+     * A room template seen at one difficulty. Harder games have more enemies and traps and
+     * fewer potions, chests and bombs.
      */
-    public int getBreakableWallChance() {
-        return myBreakableWallChance;
+    public static final class DifficultyView {
+
+        /**
+         * The template this view adjusts.
+         */
+        private final RoomTemplate myTemplate;
+        /**
+         * The difficulty level.
+         */
+        private final int myDifficulty;
+
+        /**
+         * Constructs a DifficultyView.
+         *
+         * @param theTemplate   The template to adjust.
+         * @param theDifficulty The difficulty level.
+         */
+        private DifficultyView(final RoomTemplate theTemplate, final int theDifficulty) {
+            myTemplate = theTemplate;
+            myDifficulty = theDifficulty;
+        }
+
+        /**
+         * Gets the template this view adjusts.
+         *
+         * @return The template.
+         */
+        public RoomTemplate getTemplate() {
+            return myTemplate;
+        }
+
+        /**
+         * Gets the difficulty level of this view.
+         *
+         * @return The difficulty.
+         */
+        public int getDifficulty() {
+            return myDifficulty;
+        }
+
+        /**
+         * Gets the chance of an enemy spawning.
+         *
+         * @return The enemy spawn chance.
+         */
+        public int getEnemyChance() {
+            return myTemplate.myEnemyChance + ENEMY_CHANCE_PER_DIFFICULTY * myDifficulty;
+        }
+
+        /**
+         * Gets the chance of a potion spawning.
+         *
+         * @return The potion spawn chance.
+         */
+        public int getPotionChance() {
+            return myTemplate.myPotionChance + ITEM_CHANCE_PER_DIFFICULTY * myDifficulty;
+        }
+
+        /**
+         * Gets the chance of a chest spawning.
+         *
+         * @return The chest spawn chance.
+         */
+        public int getChestChance() {
+            return myTemplate.myChestChance + ITEM_CHANCE_PER_DIFFICULTY * myDifficulty;
+        }
+
+        /**
+         * Gets the chance of a bomb spawning.
+         *
+         * @return The bomb spawn chance.
+         */
+        public int getBombChance() {
+            return myTemplate.myBombChance + ITEM_CHANCE_PER_DIFFICULTY * myDifficulty;
+        }
+
+        /**
+         * Gets the chance of a trap spawning.
+         *
+         * @return The trap spawn chance.
+         */
+        public int getTrapChance() {
+            return myTemplate.myTrapChance + TRAP_CHANCE_PER_DIFFICULTY * myDifficulty;
+        }
+
+        /**
+         * Gets the chance of a breakable wall appearing, which does not depend on the difficulty.
+         *
+         * @return The breakable wall chance.
+         */
+        public int getBreakableWallChance() {
+            return myTemplate.myBreakableWallChance;
+        }
     }
-}
\ No newline at end of file
+}
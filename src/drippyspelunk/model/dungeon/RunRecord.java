@@ -0,0 +1,208 @@
+package drippyspelunk.model.dungeon;
+
+import drippyspelunk.model.dungeon.DungeonCrawlerLogic.GameEndingType;
+
+/**
+ * A finished run, as kept in the run history.
+ *
+ * @author David Norman
+ * @version 1.0
+ */
+public final class RunRecord {
+
+    /**
+     * The number of game ticks in a second.
+     */
+    public static final int TICKS_PER_SECOND = 60;
+
+    /**
+     * The row id of the run, or 0 if it has not been stored yet.
+     */
+    private final long myId;
+    /**
+     * The time the run ended, in milliseconds since the epoch.
+     */
+    private final long myEndedAt;
+    /**
+     * The name the player entered.
+     */
+    private final String myPlayerName;
+    /**
+     * The class of the player character.
+     */
+    private final String myCharacterClass;
+    /**
+     * The difficulty the run was started at.
+     */
+    private final int myDifficulty;
+    /**
+     * The seed of the floor the run ended on.
+     */
+    private final long myFloorSeed;
+    /**
+     * The floor the run ended on.
+     */
+    private final int myFloorReached;
+    /**
+     * How the run ended.
+     */
+    private final GameEndingType myEndingType;
+    /**
+     * The length of the run in game ticks.
+     */
+    private final long myDurationTicks;
+    /**
+     * The number of enemies defeated.
+     */
+    private final int myKills;
+    /**
+     * The number of rooms entered.
+     */
+    private final int myRoomsVisited;
+    /**
+     * The number of pillars collected.
+     */
+    private final int myPillarsCollected;
+
+    /**
+     * Constructs a RunRecord.
+     *
+     * @param theId               The row id of the run, or 0 if it has not been stored yet.
+     * @param theEndedAt          The time the run ended, in milliseconds since the epoch.
+     * @param thePlayerName       The name the player entered.
+     * @param theCharacterClass   The class of the player character.
+     * @param theDifficulty       The difficulty the run was started at.
+     * @param theFloorSeed        The seed of the floor the run ended on.
+     * @param theFloorReached     The floor the run ended on.
+     * @param theEndingType       How the run ended.
+     * @param theDurationTicks    The length of the run in game ticks.
+     * @param theKills            The number of enemies defeated.
+     * @param theRoomsVisited     The number of rooms entered.
+     * @param thePillarsCollected The number of pillars collected.
+     */
+    public RunRecord(final long theId, final long theEndedAt, final String thePlayerName,
+                     final String theCharacterClass, final int theDifficulty, final long theFloorSeed,
+                     final int theFloorReached, final GameEndingType theEndingType, final long theDurationTicks,
+                     final int theKills, final int theRoomsVisited, final int thePillarsCollected) {
+        myId = theId;
+        myEndedAt = theEndedAt;
+        myPlayerName = thePlayerName;
+        myCharacterClass = theCharacterClass;
+        myDifficulty = theDifficulty;
+        myFloorSeed = theFloorSeed;
+        myFloorReached = theFloorReached;
+        myEndingType = theEndingType;
+        myDurationTicks = theDurationTicks;
+        myKills = theKills;
+        myRoomsVisited = theRoomsVisited;
+        myPillarsCollected = thePillarsCollected;
+    }
+
+    /**
+     * Gets the row id of the run.
+     *
+     * @return The id, or 0 if the run has not been stored yet.
+     */
+    public long getId() {
+        return myId;
+    }
+
+    /**
+     * Gets the time the run ended.
+     *
+     * @return The time in milliseconds since the epoch.
+     */
+    public long getEndedAt() {
+        return myEndedAt;
+    }
+
+    /**
+     * Gets the name the player entered.
+     *
+     * @return The player name.
+     */
+    public String getPlayerName() {
+        return myPlayerName;
+    }
+
+    /**
+     * Gets the class of the player character.
+     *
+     * @return The character class.
+     */
+    public String getCharacterClass() {
+        return myCharacterClass;
+    }
+
+    /**
+     * Gets the difficulty the run was started at.
+     *
+     * @return The difficulty level.
+     */
+    public int getDifficulty() {
+        return myDifficulty;
+    }
+
+    /**
+     * Gets the seed of the floor the run ended on.
+     *
+     * @return The floor seed.
+     */
+    public long getFloorSeed() {
+        return myFloorSeed;
+    }
+
+    /**
+     * Gets the floor the run ended on.
+     *
+     * @return The floor number, starting at 1.
+     */
+    public int getFloorReached() {
+        return myFloorReached;
+    }
+
+    /**
+     * Gets how the run ended.
+     *
+     * @return The ending type.
+     */
+    public GameEndingType getEndingType() {
+        return myEndingType;
+    }
+
+    /**
+     * Gets the length of the run.
+     *
+     * @return The duration in game ticks.
+     */
+    public long getDurationTicks() {
+        return myDurationTicks;
+    }
+
+    /**
+     * Gets the number of enemies defeated.
+     *
+     * @return The kill count.
+     */
+    public int getKills() {
+        return myKills;
+    }
+
+    /**
+     * Gets the number of rooms entered.
+     *
+     * @return The rooms visited.
+     */
+    public int getRoomsVisited() {
+        return myRoomsVisited;
+    }
+
+    /**
+     * Gets the number of pillars collected.
+     *
+     * @return The pillars collected.
+     */
+    public int getPillarsCollected() {
+        return myPillarsCollected;
+    }
+}
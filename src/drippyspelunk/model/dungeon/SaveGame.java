@@ -0,0 +1,574 @@
+package drippyspelunk.model.dungeon;
+
+import drippyspelunk.model.dungeon.entity.asset.*;
+import drippyspelunk.model.dungeon.factory.PotionFactory;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A saved game in the versioned binary save format.
+ * The header holds what the load menu shows and what is needed to rebuild the current floor:
+ * its difficulty and generation seed. Rooms the player never changed are not stored at all,
+ * since generating the floor again from its seed rebuilds them exactly. Everything else,
+ * written by {@link DungeonCrawlerLogic}, is kept as an opaque world state block.
+ * Background writes go through one shared writer thread, which a shutdown hook drains before the
+ * application exits, so quitting right after saving does not cut the save off.
+ *
+ * @author David Norman
+ * @version 1.5
+ */
+public final class SaveGame {
+
+    /**
+     * The slot written by Quick Save.
+     */
+    public static final int QUICK_SAVE_SLOT = 0;
+    /**
+     * The number of save slots, including the quick save slot.
+     */
+    public static final int SLOT_COUNT = 4;
+    /**
+     * The first four bytes of every save file, "DCSV".
+     */
+    private static final int MAGIC = 0x44435356;
+    /**
+     * The version of the save format written by this class.
+     */
+    private static final int FORMAT_VERSION = 3;
+    /**
+     * The directory save files are kept in.
+     */
+    private static final String SAVE_DIRECTORY = "res/userdata/saves";
+    /**
+     * The extension of save files.
+     */
+    private static final String SAVE_EXTENSION = ".sav";
+    /**
+     * The extension of a save file that is still being written.
+     */
+    private static final String TEMP_EXTENSION = ".tmp";
+    /**
+     * The name of the thread that writes saves in the background.
+     */
+    private static final String WRITER_THREAD_NAME = "SaveWriter";
+    /**
+     * Keeps two writes from using the same temporary file at once.
+     */
+    private static final Object WRITE_LOCK = new Object();
+    /**
+     * How long the shutdown hook waits for queued writes to finish, in seconds.
+     */
+    private static final long SHUTDOWN_WAIT_SECONDS = 10;
+    /**
+     * The thread that writes saves in the background, drained at shutdown.
+     */
+    private static final ExecutorService WRITER = createWriter();
+
+    /**
+     * The item code of a bomb.
+     */
+    private static final int ITEM_BOMB = 0;
+    /**
+     * The item code of a health potion.
+     */
+    private static final int ITEM_HEALTH_POTION = 1;
+    /**
+     * The item code of a poison potion.
+     */
+    private static final int ITEM_POISON_POTION = 2;
+    /**
+     * The item code of a speed potion.
+     */
+    private static final int ITEM_SPEED_POTION = 3;
+    /**
+     * The item code of a vision potion.
+     */
+    private static final int ITEM_VISION_POTION = 4;
+    /**
+     * The item code of a mystery potion.
+     */
+    private static final int ITEM_MYSTERY_POTION = 5;
+
+    /**
+     * The time the game was saved, in milliseconds since the epoch.
+     */
+    private final long mySavedAt;
+    /**
+     * The name the player entered.
+     */
+    private final String myPlayerName;
+    /**
+     * The name of the selected character template, or an empty string if there was none.
+     */
+    private final String myCharacterName;
+    /**
+     * The difficulty the run was started at.
+     */
+    private final int myDifficulty;
+    /**
+     * The floor the player was on.
+     */
+    private final int myFloor;
+    /**
+     * The difficulty the current floor was generated at.
+     */
+    private final int myFloorDifficulty;
+    /**
+     * The seed the current floor was generated from.
+     */
+    private final long myFloorSeed;
+    /**
+     * The game tick the game was saved on.
+     */
+    private final long myGameTicks;
+    /**
+     * The number of pillars still to collect on the current floor.
+     */
+    private final int myPillarsToCollect;
+    /**
+     * The rest of the game state, as written by {@link DungeonCrawlerLogic}.
+     */
+    private final byte[] myWorldState;
+
+    /**
+     * Constructs a SaveGame.
+     *
+     * @param theSavedAt          The time the game was saved, in milliseconds since the epoch.
+     * @param thePlayerName       The name the player entered.
+     * @param theCharacterName    The name of the selected character template, or null.
+     * @param theDifficulty       The difficulty the run was started at.
+     * @param theFloor            The floor the player was on.
+     * @param theFloorDifficulty  The difficulty the current floor was generated at.
+     * @param theFloorSeed        The seed the current floor was generated from.
+     * @param theGameTicks        The game tick the game was saved on.
+     * @param thePillarsToCollect The number of pillars still to collect.
+     * @param theWorldState       The rest of the game state. Not copied.
+     */
+    SaveGame(final long theSavedAt, final String thePlayerName, final String theCharacterName,
+             final int theDifficulty, final int theFloor, final int theFloorDifficulty, final long theFloorSeed,
+             final long theGameTicks, final int thePillarsToCollect, final byte[] theWorldState) {
+        mySavedAt = theSavedAt;
+        myPlayerName = thePlayerName != null ? thePlayerName : "";
+        myCharacterName = theCharacterName != null ? theCharacterName : "";
+        myDifficulty = theDifficulty;
+        myFloor = theFloor;
+        myFloorDifficulty = theFloorDifficulty;
+        myFloorSeed = theFloorSeed;
+        myGameTicks = theGameTicks;
+        myPillarsToCollect = thePillarsToCollect;
+        myWorldState = theWorldState;
+    }
+
+    /**
+     * Gets the file a save slot is stored in.
+     *
+     * @param theSlot The slot number.
+     * @return The path of the slot's save file.
+     */
+    public static Path getSlotPath(final int theSlot) {
+        checkSlot(theSlot);
+        return Paths.get(SAVE_DIRECTORY, "slot" + theSlot + SAVE_EXTENSION);
+    }
+
+    /**
+     * Checks if a save slot holds a save.
+     *
+     * @param theSlot The slot number.
+     * @return True if the slot has a save file, false otherwise.
+     */
+    public static boolean isSlotUsed(final int theSlot) {
+        return Files.isRegularFile(getSlotPath(theSlot));
+    }
+
+    /**
+     * Picks the slot Save Game writes to: the first empty manual slot, or the oldest one if all are used.
+     *
+     * @return The slot number.
+     */
+    public static int getNextManualSlot() {
+        int oldestSlot = QUICK_SAVE_SLOT + 1;
+        long oldestTime = Long.MAX_VALUE;
+        for (int slot = QUICK_SAVE_SLOT + 1; slot < SLOT_COUNT; slot++) {
+            if (!isSlotUsed(slot)) {
+                return slot;
+            }
+            try {
+                final long time = Files.getLastModifiedTime(getSlotPath(slot)).toMillis();
+                if (time < oldestTime) {
+                    oldestTime = time;
+                    oldestSlot = slot;
+                }
+            } catch (final IOException ignored) {
+                return slot;
+            }
+        }
+        return oldestSlot;
+    }
+
+    /**
+     * Reads the save in a slot.
+     *
+     * @param theSlot The slot number.
+     * @return The save.
+     * @throws IOException If the slot is empty, or its file cannot be read or is not a supported save.
+     */
+    public static SaveGame readSlot(final int theSlot) throws IOException {
+        try (FileChannel channel = FileChannel.open(getSlotPath(theSlot), StandardOpenOption.READ);
+             DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)))) {
+            return readFrom(input);
+        }
+    }
+
+    /**
+     * Reads a save from its binary form.
+     *
+     * @param theInput The input to read from.
+     * @return The save.
+     * @throws IOException If the input is not a supported save.
+     */
+    private static SaveGame readFrom(final DataInput theInput) throws IOException {
+        if (theInput.readInt() != MAGIC) {
+            throw new IOException("Not a save file.");
+        }
+        final int version = theInput.readUnsignedShort();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported save format version " + version + ".");
+        }
+        final long savedAt = theInput.readLong();
+        final String playerName = theInput.readUTF();
+        final String characterName = theInput.readUTF();
+        final int difficulty = theInput.readUnsignedByte();
+        final int floor = theInput.readUnsignedByte();
+        final int floorDifficulty = theInput.readUnsignedByte();
+        final long floorSeed = theInput.readLong();
+        final long gameTicks = theInput.readLong();
+        final int pillarsToCollect = theInput.readUnsignedByte();
+        final byte[] worldState = new byte[theInput.readInt()];
+        theInput.readFully(worldState);
+        return new SaveGame(savedAt, playerName, characterName, difficulty, floor, floorDifficulty,
+                floorSeed, gameTicks, pillarsToCollect, worldState);
+    }
+
+    /**
+     * Writes the save to a slot. The file is written beside the slot, synced, and then moved over it,
+     * so neither a failed write nor a crash after the move destroys the previous save.
+     *
+     * @param theSlot The slot number.
+     * @throws IOException If the save cannot be written.
+     */
+    public void writeToSlot(final int theSlot) throws IOException {
+        final Path path = getSlotPath(theSlot);
+        final Path tempPath = path.resolveSibling(path.getFileName() + TEMP_EXTENSION);
+
+        synchronized (WRITE_LOCK) {
+            Files.createDirectories(path.getParent());
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)))) {
+                writeTo(output);
+                output.flush();
+                channel.force(true);
+            }
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * Writes the save to a slot on the background writer thread, so saving never holds up a frame.
+     *
+     * @param theSlot The slot number.
+     * @return A future that completes when the save is on disk, or completes exceptionally with
+     * an {@link UncheckedIOException} if it could not be written.
+     */
+    public CompletableFuture<Void> writeToSlotAsync(final int theSlot) {
+        checkSlot(theSlot);
+        return CompletableFuture.runAsync(() -> {
+            try {
+                writeToSlot(theSlot);
+            } catch (final IOException theException) {
+                System.out.println("Could not write save slot " + theSlot + ": " + theException.getMessage());
+                throw new UncheckedIOException(theException);
+            }
+        }, WRITER);
+    }
+
+    /**
+     * Creates the background writer thread and the shutdown hook that lets its queued writes finish.
+     * The thread is a daemon so it never keeps the application alive on its own.
+     *
+     * @return The writer.
+     */
+    private static ExecutorService createWriter() {
+        final ExecutorService writer = Executors.newSingleThreadExecutor(theRunnable -> {
+            final Thread thread = new Thread(theRunnable, WRITER_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            writer.shutdown();
+            try {
+                if (!writer.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                    System.out.println("Saves were still being written at exit.");
+                }
+            } catch (final InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        }, "SaveFlush"));
+        return writer;
+    }
+
+    /**
+     * Writes the save in its binary form.
+     *
+     * @param theOutput The output to write to.
+     * @throws IOException If the save cannot be written.
+     */
+    private void writeTo(final DataOutput theOutput) throws IOException {
+        theOutput.writeInt(MAGIC);
+        theOutput.writeShort(FORMAT_VERSION);
+        theOutput.writeLong(mySavedAt);
+        theOutput.writeUTF(myPlayerName);
+        theOutput.writeUTF(myCharacterName);
+        theOutput.writeByte(myDifficulty);
+        theOutput.writeByte(myFloor);
+        theOutput.writeByte(myFloorDifficulty);
+        theOutput.writeLong(myFloorSeed);
+        theOutput.writeLong(myGameTicks);
+        theOutput.writeByte(myPillarsToCollect);
+        theOutput.writeInt(myWorldState.length);
+        theOutput.write(myWorldState);
+    }
+
+    /**
+     * Opens the world state block for reading.
+     *
+     * @return An input positioned at the start of the world state.
+     */
+    DataInputStream openWorldState() {
+        return new DataInputStream(new ByteArrayInputStream(myWorldState));
+    }
+
+    /**
+     * Assembles a world state block from its already encoded parts.
+     *
+     * @param theFloorStartTick The game tick the player entered the current floor on.
+     * @param theRandomState    The state of the game's random number generator.
+     * @param theCurrentRoomKey The key of the room the player is in.
+     * @param theSummaries      The encoded summaries of the floors already left.
+     * @param theRunStats       The encoded statistics of the run so far.
+     * @param thePlayer         The encoded player.
+     * @param theInventory      The encoded inventory.
+     * @param theRooms          The encoded changes of each changed room, by room key.
+     * @return The world state block.
+     */
+    static byte[] writeWorldState(final long theFloorStartTick, final long theRandomState, final long theCurrentRoomKey,
+                                  final byte[] theSummaries, final byte[] theRunStats, final byte[] thePlayer,
+                                  final byte[] theInventory,
+                                  final Map<Long, byte[]> theRooms) {
+        return toBytes(theOutput -> {
+            theOutput.writeLong(theFloorStartTick);
+            theOutput.writeLong(theRandomState);
+            theOutput.writeLong(theCurrentRoomKey);
+            theOutput.write(theSummaries);
+            theOutput.write(theRunStats);
+            theOutput.write(thePlayer);
+            theOutput.write(theInventory);
+            theOutput.writeShort(theRooms.size());
+            for (final Map.Entry<Long, byte[]> room : theRooms.entrySet()) {
+                theOutput.writeLong(room.getKey());
+                theOutput.writeInt(room.getValue().length);
+                theOutput.write(room.getValue());
+            }
+        });
+    }
+
+    /**
+     * Runs a writer against an in-memory buffer.
+     *
+     * @param theWriter The writer.
+     * @return The bytes written.
+     * @throws UncheckedIOException if the writer fails, which only happens for data the format cannot hold.
+     */
+    static byte[] toBytes(final IBlockWriter theWriter) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            theWriter.write(output);
+        } catch (final IOException theException) {
+            throw new UncheckedIOException(theException);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes an inventory item as its item code followed by its parameters.
+     *
+     * @param theOutput The output to write to.
+     * @param theItem   The item to write.
+     * @throws IOException If the item cannot be written or is of an unknown kind.
+     */
+    static void writeItem(final DataOutput theOutput, final Consumable theItem) throws IOException {
+        switch (theItem) {
+            case Bomb ignored -> theOutput.writeByte(ITEM_BOMB);
+            case HealthPotion potion -> {
+                theOutput.writeByte(ITEM_HEALTH_POTION);
+                theOutput.writeInt(potion.getHealAmount());
+            }
+            case PoisonPotion potion -> {
+                theOutput.writeByte(ITEM_POISON_POTION);
+                theOutput.writeInt(potion.getDurationInTicks());
+            }
+            case SpeedPotion potion -> {
+                theOutput.writeByte(ITEM_SPEED_POTION);
+                theOutput.writeInt(potion.getDurationInTicks());
+                theOutput.writeDouble(potion.getSpeedMultiplier());
+            }
+            case VisionPotion potion -> {
+                theOutput.writeByte(ITEM_VISION_POTION);
+                theOutput.writeInt(potion.getDurationInTicks());
+                theOutput.writeDouble(potion.getVisionMultiplier());
+            }
+            case MysteryPotion ignored -> theOutput.writeByte(ITEM_MYSTERY_POTION);
+            default -> throw new IOException("Cannot save item " + theItem.getName() + ".");
+        }
+    }
+
+    /**
+     * Reads an inventory item written by {@link #writeItem(DataOutput, Consumable)}.
+     *
+     * @param theInput The input to read from.
+     * @return The item.
+     * @throws IOException If the item cannot be read or has an unknown item code.
+     */
+    static Consumable readItem(final DataInput theInput) throws IOException {
+        final int itemCode = theInput.readUnsignedByte();
+        return switch (itemCode) {
+            case ITEM_BOMB -> new Bomb(0, 0, 0, 0);
+            case ITEM_HEALTH_POTION -> PotionFactory.createPotion(PotionFactory.TYPE_HEALING, 0, 0, 0, 0,
+                    theInput.readInt());
+            case ITEM_POISON_POTION -> PotionFactory.createPotion(PotionFactory.TYPE_POISON, 0, 0, 0, 0,
+                    theInput.readInt());
+            case ITEM_SPEED_POTION -> PotionFactory.createPotion(PotionFactory.TYPE_SPEED, 0, 0, 0, 0,
+                    theInput.readInt(), theInput.readDouble());
+            case ITEM_VISION_POTION -> PotionFactory.createPotion(PotionFactory.TYPE_VISION, 0, 0, 0, 0,
+                    theInput.readInt(), theInput.readDouble());
+            case ITEM_MYSTERY_POTION -> PotionFactory.createPotion(PotionFactory.TYPE_MYSTERY, 0, 0, 0, 0);
+            default -> throw new IOException("Unknown item code " + itemCode + ".");
+        };
+    }
+
+    /**
+     * Checks that a slot number is valid.
+     *
+     * @param theSlot The slot number.
+     * @throws IllegalArgumentException if the slot does not exist.
+     */
+    private static void checkSlot(final int theSlot) {
+        if (theSlot < 0 || theSlot >= SLOT_COUNT) {
+            throw new IllegalArgumentException("Save slot " + theSlot + " does not exist.");
+        }
+    }
+
+    /**
+     * Gets the time the game was saved.
+     *
+     * @return The time in milliseconds since the epoch.
+     */
+    public long getSavedAt() {
+        return mySavedAt;
+    }
+
+    /**
+     * Gets the name the player entered.
+     *
+     * @return The player name.
+     */
+    public String getPlayerName() {
+        return myPlayerName;
+    }
+
+    /**
+     * Gets the name of the selected character template.
+     *
+     * @return The character name, or an empty string if there was none.
+     */
+    public String getCharacterName() {
+        return myCharacterName;
+    }
+
+    /**
+     * Gets the difficulty the run was started at.
+     *
+     * @return The difficulty level.
+     */
+    public int getDifficulty() {
+        return myDifficulty;
+    }
+
+    /**
+     * Gets the floor the player was on.
+     *
+     * @return The floor number, starting at 1.
+     */
+    public int getFloor() {
+        return myFloor;
+    }
+
+    /**
+     * Gets the difficulty the current floor was generated at.
+     *
+     * @return The floor's difficulty level.
+     */
+    public int getFloorDifficulty() {
+        return myFloorDifficulty;
+    }
+
+    /**
+     * Gets the seed the current floor was generated from.
+     *
+     * @return The floor seed.
+     */
+    public long getFloorSeed() {
+        return myFloorSeed;
+    }
+
+    /**
+     * Gets the game tick the game was saved on.
+     *
+     * @return The game tick.
+     */
+    public long getGameTicks() {
+        return myGameTicks;
+    }
+
+    /**
+     * Gets the number of pillars still to collect on the current floor.
+     *
+     * @return The pillars remaining.
+     */
+    public int getPillarsToCollect() {
+        return myPillarsToCollect;
+    }
+
+    /**
+     * Writes one block of save data.
+     */
+    @FunctionalInterface
+    interface IBlockWriter {
+
+        /**
+         * Writes the block.
+         *
+         * @param theOutput The output to write to.
+         * @throws IOException If the block cannot be written.
+         */
+        void write(DataOutput theOutput) throws IOException;
+    }
+}
@@ -0,0 +1,82 @@
+package drippyspelunk.model.dungeon;
+
+import java.util.Random;
+
+/**
+ * A random number generator whose internal state can be read and restored, so a saved game
+ * continues with the same random sequence it would have produced without the save.
+ * Produces exactly the same numbers as {@link Random} for the same seed.
+ *
+ * @author David Norman
+ * @version 1.0
+ */
+public class StatefulRandom extends Random {
+
+    /**
+     * The multiplier of the linear congruential generator used by {@link Random}.
+     */
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    /**
+     * The addend of the linear congruential generator used by {@link Random}.
+     */
+    private static final long ADDEND = 0xBL;
+    /**
+     * The mask that keeps the state to 48 bits.
+     */
+    private static final long MASK = (1L << 48) - 1;
+    /**
+     * The number of bits in the state.
+     */
+    private static final int STATE_BITS = 48;
+
+    /**
+     * The current 48-bit state.
+     */
+    private long myState;
+
+    /**
+     * Constructs a StatefulRandom with a random seed.
+     */
+    public StatefulRandom() {
+        this(new Random().nextLong());
+    }
+
+    /**
+     * Constructs a StatefulRandom with a seed.
+     *
+     * @param theSeed The seed.
+     */
+    public StatefulRandom(final long theSeed) {
+        super(theSeed);
+    }
+
+    @Override
+    public synchronized void setSeed(final long theSeed) {
+        super.setSeed(theSeed);
+        myState = (theSeed ^ MULTIPLIER) & MASK;
+    }
+
+    @Override
+    protected synchronized int next(final int theBits) {
+        myState = (myState * MULTIPLIER + ADDEND) & MASK;
+        return (int) (myState >>> (STATE_BITS - theBits));
+    }
+
+    /**
+     * Gets the current state of the generator.
+     *
+     * @return The state, to pass to {@link #setState(long)} later.
+     */
+    public synchronized long getState() {
+        return myState;
+    }
+
+    /**
+     * Restores a state read from {@link #getState()}.
+     *
+     * @param theState The state to restore.
+     */
+    public synchronized void setState(final long theState) {
+        myState = theState & MASK;
+    }
+}
@@ -0,0 +1,154 @@
+package drippyspelunk.model.dungeon;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * An immutable layer of static room terrain, stored as one byte per tile.
+ * Layers are shared between every room built from the same template, so a room that needs
+ * to change a tile gets a modified copy through {@link #withTile(int, int, int)} instead.
+ *
+ * @author David Norman
+ * @version 1.1
+ */
+public final class TileLayer {
+
+    /**
+     * The value of an empty tile.
+     */
+    public static final int EMPTY_TILE = 0;
+    /**
+     * The mask used to read a tile value as an unsigned byte.
+     */
+    private static final int BYTE_MASK = 0xFF;
+    /**
+     * The width of the layer in tiles.
+     */
+    private final int myWidth;
+    /**
+     * The height of the layer in tiles.
+     */
+    private final int myHeight;
+    /**
+     * The tile values in row-major order.
+     */
+    private final byte[] myTiles;
+
+    /**
+     * Constructs a TileLayer around an existing tile array.
+     *
+     * @param theWidth  The width of the layer in tiles.
+     * @param theHeight The height of the layer in tiles.
+     * @param theTiles  The tile values in row-major order. Not copied.
+     */
+    private TileLayer(final int theWidth, final int theHeight, final byte[] theTiles) {
+        myWidth = theWidth;
+        myHeight = theHeight;
+        myTiles = theTiles;
+    }
+
+    /**
+     * Creates a layer from a 2D grid of tile values.
+     *
+     * @param theGrid The grid of tile values, indexed by row then column.
+     * @return The new tile layer.
+     * @throws IllegalArgumentException if a value does not fit in an unsigned byte.
+     */
+    public static TileLayer fromGrid(final int[][] theGrid) {
+        final int height = theGrid.length;
+        final int width = height == 0 ? 0 : theGrid[0].length;
+        final byte[] tiles = new byte[width * height];
+
+        for (int row = 0; row < height; row++) {
+            for (int column = 0; column < width; column++) {
+                final int value = theGrid[row][column];
+                if (value < 0 || value > BYTE_MASK) {
+                    throw new IllegalArgumentException("Tile value " + value + " does not fit in a tile layer.");
+                }
+                tiles[row * width + column] = (byte) value;
+            }
+        }
+        return new TileLayer(width, height, tiles);
+    }
+
+    /**
+     * Reads a layer written by {@link #writeTo(DataOutput)}.
+     *
+     * @param theInput The input to read from.
+     * @return The layer that was written.
+     * @throws IOException If the layer cannot be read.
+     */
+    static TileLayer readFrom(final DataInput theInput) throws IOException {
+        final int width = theInput.readUnsignedByte();
+        final int height = theInput.readUnsignedByte();
+        final byte[] tiles = new byte[width * height];
+        theInput.readFully(tiles);
+        return new TileLayer(width, height, tiles);
+    }
+
+    /**
+     * Writes the layer as its size followed by its raw tile bytes.
+     *
+     * @param theOutput The output to write to.
+     * @throws IOException If the layer cannot be written.
+     */
+    void writeTo(final DataOutput theOutput) throws IOException {
+        theOutput.writeByte(myWidth);
+        theOutput.writeByte(myHeight);
+        theOutput.write(myTiles);
+    }
+
+    /**
+     * Gets the width of the layer.
+     *
+     * @return The width in tiles.
+     */
+    public int getWidth() {
+        return myWidth;
+    }
+
+    /**
+     * Gets the height of the layer.
+     *
+     * @return The height in tiles.
+     */
+    public int getHeight() {
+        return myHeight;
+    }
+
+    /**
+     * Gets the value of a tile.
+     *
+     * @param theRow    The row of the tile.
+     * @param theColumn The column of the tile.
+     * @return The tile value, or {@link #EMPTY_TILE} if the position is outside the layer.
+     */
+    public int get(final int theRow, final int theColumn) {
+        if (theRow < 0 || theRow >= myHeight || theColumn < 0 || theColumn >= myWidth) {
+            return EMPTY_TILE;
+        }
+        return myTiles[theRow * myWidth + theColumn] & BYTE_MASK;
+    }
+
+    /**
+     * Returns a layer with one tile changed. This layer is left untouched.
+     *
+     * @param theRow    The row of the tile.
+     * @param theColumn The column of the tile.
+     * @param theValue  The new tile value.
+     * @return A copy of this layer with the tile changed, or this layer if the value is unchanged.
+     * @throws IndexOutOfBoundsException if the position is outside the layer.
+     */
+    public TileLayer withTile(final int theRow, final int theColumn, final int theValue) {
+        if (theRow < 0 || theRow >= myHeight || theColumn < 0 || theColumn >= myWidth) {
+            throw new IndexOutOfBoundsException("Tile (" + theRow + ", " + theColumn + ") is outside the layer.");
+        }
+        if (get(theRow, theColumn) == theValue) {
+            return this;
+        }
+        final byte[] tiles = myTiles.clone();
+        tiles[theRow * myWidth + theColumn] = (byte) theValue;
+        return new TileLayer(myWidth, myHeight, tiles);
+    }
+}
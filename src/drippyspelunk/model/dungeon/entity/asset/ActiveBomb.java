@@ -3,12 +3,15 @@ package drippyspelunk.model.dungeon.entity.asset;
 import drippyspelunk.model.dungeon.entity.GameObject;
 
 import java.awt.*;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
 /**
  * Represents an active bomb in the dungeon, managing its fuse, explosion, and animation state.
  *
  * @author Devin Arroyo
- * @version 1.1
+ * @version 1.3
  */
 public class ActiveBomb extends GameObject {
     /**
@@ -36,6 +39,14 @@ public class ActiveBomb extends GameObject {
      * A flag indicating if the bomb has exploded.
      */
     private boolean myExploded;
+    /**
+     * The current frame of the bomb's ticking or explosion animation.
+     */
+    private int myAnimationFrame;
+    /**
+     * The number of ticks the current animation frame has been shown.
+     */
+    private int myAnimationTicks;
 
     /**
      * Constructs a new ActiveBomb object at a specific position.
@@ -51,6 +62,35 @@ public class ActiveBomb extends GameObject {
         myExploded = false;
     }
 
+    /**
+     * Reads a bomb written by {@link #writeSaveData(DataOutput)}.
+     *
+     * @param theInput The input to read from.
+     * @return The bomb, with its fuse and explosion where they were when it was saved.
+     * @throws IOException If the bomb cannot be read.
+     */
+    public static ActiveBomb readSaveData(final DataInput theInput) throws IOException {
+        final ActiveBomb bomb = new ActiveBomb(theInput.readInt(), theInput.readInt());
+        bomb.myFuseTimer = theInput.readInt();
+        bomb.myExplosionTimer = theInput.readInt();
+        bomb.myExploded = theInput.readBoolean();
+        return bomb;
+    }
+
+    /**
+     * Writes the bomb's position, fuse and explosion state.
+     *
+     * @param theOutput The output to write to.
+     * @throws IOException If the bomb cannot be written.
+     */
+    public void writeSaveData(final DataOutput theOutput) throws IOException {
+        theOutput.writeInt(getX());
+        theOutput.writeInt(getY());
+        theOutput.writeInt(myFuseTimer);
+        theOutput.writeInt(myExplosionTimer);
+        theOutput.writeBoolean(myExploded);
+    }
+
     /**
      * Updates the bomb's state, decrementing the fuse timer.
      * When the fuse timer reaches zero, the bomb explodes.
@@ -106,4 +146,40 @@ public class ActiveBomb extends GameObject {
         }
         return new Rectangle();
     }
+
+    /**
+     * Gets the current frame of the bomb's ticking or explosion animation.
+     *
+     * @return The frame index.
+     */
+    public int getAnimationFrame() {
+        return myAnimationFrame;
+    }
+
+    /**
+     * Sets the current frame of the bomb's ticking or explosion animation.
+     *
+     * @param theFrame The frame index.
+     */
+    public void setAnimationFrame(final int theFrame) {
+        myAnimationFrame = theFrame;
+    }
+
+    /**
+     * Gets the number of ticks the current animation frame has been shown.
+     *
+     * @return The tick count.
+     */
+    public int getAnimationTicks() {
+        return myAnimationTicks;
+    }
+
+    /**
+     * Sets the number of ticks the current animation frame has been shown.
+     *
+     * @param theTicks The tick count.
+     */
+    public void setAnimationTicks(final int theTicks) {
+        myAnimationTicks = theTicks;
+    }
 }
\ No newline at end of file
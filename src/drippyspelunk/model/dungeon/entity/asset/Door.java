@@ -9,7 +9,7 @@ import java.awt.*;
  * This class handles doors that link to other rooms, storing information about the target room and direction.
  *
  * @author Devin Arroyo
- * @version 1.0
+ * @version 1.1
  */
 public class Door extends GameObject {
     /**
@@ -32,7 +32,7 @@ public class Door extends GameObject {
     /**
      * The ID of the room that this door leads to.
      */
-    private final int myTargetRoomId;
+    private final long myTargetRoomId;
     /**
      * The direction this door is facing.
      */
@@ -45,10 +45,10 @@ public class Door extends GameObject {
      * @param theY            The y-coordinate of the door.
      * @param theWidth        The width of the door.
      * @param theHeight       The height of the door.
-     * @param theTargetRoomId The ID of the room the door leads to.
+     * @param theTargetRoomId The key of the room the door leads to.
      * @param theDirection    The direction the door is facing (e.g., NORTH, SOUTH).
      */
-    public Door(final int theX, final int theY, final int theWidth, final int theHeight, final int theTargetRoomId, final int theDirection) {
+    public Door(final int theX, final int theY, final int theWidth, final int theHeight, final long theTargetRoomId, final int theDirection) {
         super(theX, theY, theWidth, theHeight);
         myTargetRoomId = theTargetRoomId;
         myDirection = theDirection;
@@ -67,9 +67,9 @@ public class Door extends GameObject {
     /**
      * Gets the ID of the target room.
      *
-     * @return The ID of the room this door leads to.
+     * @return The key of the room this door leads to.
      */
-    public int getTargetRoomId() {
+    public long getTargetRoomId() {
         return myTargetRoomId;
     }
 
@@ -2,21 +2,32 @@ package drippyspelunk.model.dungeon.entity.asset;
 
 import drippyspelunk.model.dungeon.entity.GameObject;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Dungeon Floor Tiles
  *
  * @author Devin Arroyo
- * @version 1.1
+ * @version 1.3
  */
 public class Floor extends GameObject {
+    /**
+     * The highest floor type that maps to a sprite.
+     */
+    private static final int MAX_FLOOR_TYPE = 10;
+    /**
+     * The sprite identifiers for every floor type, built once per biome and shared by all floor tiles.
+     */
+    private static final Map<Integer, String[]> SPRITE_IDENTIFIERS = new ConcurrentHashMap<>();
     /**
      * The type of floor, used to determine its specific appearance.
      */
     private final int myFloorType;
     /**
-     * The identifier for the floor's sprite, derived from its biome and type.
+     * The biome the floor belongs to.
      */
-    private final String mySpriteIdentifier;
+    private final int myBiome;
 
     /**
      * Constructs a Floor object with specified position, dimensions, type, and biome.
@@ -31,7 +42,7 @@ public class Floor extends GameObject {
     public Floor(final int theX, final int theY, final int theWidth, final int theHeight, final int theFloorType, final int theBiome) {
         super(theX, theY, theWidth, theHeight);
         myFloorType = theFloorType;
-        mySpriteIdentifier = getSpriteIdentifierFromFloorType(theBiome, theFloorType);
+        myBiome = theBiome;
     }
 
     /**
@@ -51,26 +62,41 @@ public class Floor extends GameObject {
     }
 
     /**
-     * Gets the identifier for the floor's sprite.
+     * Gets the biome the floor belongs to.
      *
-     * @return A string representing the sprite identifier.
+     * @return The integer biome.
      */
-    public String getSpriteIdentifier() {
-        return mySpriteIdentifier;
+    public int getBiome() {
+        return myBiome;
     }
 
     /**
-     * Determines the sprite identifier string based on the biome and floor type.
-     * The floor type integers (1-10) are mapped to a specific character ('a'-'j').
+     * Gets the sprite identifier for a floor type in a biome without building a new string.
      *
      * @param theBiome     The biome the floor is in.
      * @param theFloorType The integer type of the floor.
      * @return A string formatted as "floor_sprite_biome[biome]_[character]", or null if the floor type is invalid.
      */
-    private String getSpriteIdentifierFromFloorType(final int theBiome, final int theFloorType) {
-        if (theFloorType > 0 && theFloorType <= 10) {
-            return "floor_sprite_biome" + theBiome + "_" + (char) ('a' + theFloorType - 1);
+    public static String getSpriteIdentifier(final int theBiome, final int theFloorType) {
+        if (theFloorType < 0 || theFloorType > MAX_FLOOR_TYPE) {
+            return null;
+        }
+        return SPRITE_IDENTIFIERS.computeIfAbsent(theBiome, Floor::buildSpriteIdentifiers)[theFloorType];
+    }
+
+    /**
+     * Builds the sprite identifiers for every floor type in a biome.
+     * The floor type integers (1-10) are mapped to a specific character ('a'-'j').
+     *
+     * @param theBiome The biome to build the identifiers for.
+     * @return The identifiers indexed by floor type, with null for invalid types.
+     */
+    private static String[] buildSpriteIdentifiers(final int theBiome) {
+        final String[] identifiers = new String[MAX_FLOOR_TYPE + 1];
+
+        for (int floorType = 1; floorType <= MAX_FLOOR_TYPE; floorType++) {
+            identifiers[floorType] = "floor_sprite_biome" + theBiome + "_" + (char) ('a' + floorType - 1);
         }
-        return null;
+        return identifiers;
     }
 }
\ No newline at end of file
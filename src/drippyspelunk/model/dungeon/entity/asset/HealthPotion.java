@@ -9,7 +9,7 @@ import drippyspelunk.model.dungeon.entity.dungeoncharacter.Player;
  * @author Devin Arroyo
  * @author David Norman
  * @author Mark Malyshev
- * @version 1.3
+ * @version 1.4
  */
 public class HealthPotion extends Potion {
     /**
@@ -41,6 +41,15 @@ public class HealthPotion extends Potion {
         theTarget.heal(myHealAmount);
     }
 
+    /**
+     * Gets the amount of health the potion restores.
+     *
+     * @return The heal amount.
+     */
+    public int getHealAmount() {
+        return myHealAmount;
+    }
+
     /**
      * Gets the name of the potion.
      *
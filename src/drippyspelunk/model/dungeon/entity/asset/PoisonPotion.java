@@ -8,7 +8,7 @@ import drippyspelunk.model.dungeon.entity.dungeoncharacter.Player;
  * @author Devin Arroyo
  * @author David Norman
  * @author Mark Malyshev
- * @version 1.3
+ * @version 1.4
  */
 public class PoisonPotion extends Potion {
     /**
@@ -40,6 +40,15 @@ public class PoisonPotion extends Potion {
         theTarget.setPoisoned(true, myDurationInTicks);
     }
 
+    /**
+     * Gets how long the poison lasts.
+     *
+     * @return The duration in ticks.
+     */
+    public int getDurationInTicks() {
+        return myDurationInTicks;
+    }
+
     /**
      * Gets the name of the potion.
      *
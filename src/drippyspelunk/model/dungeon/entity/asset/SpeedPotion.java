@@ -8,7 +8,7 @@ import drippyspelunk.model.dungeon.entity.dungeoncharacter.Player;
  * @author Devin Arroyo
  * @author David Norman
  * @author Mark Malyshev
- * @version 1.2
+ * @version 1.3
  */
 public class SpeedPotion extends Potion {
     /**
@@ -47,6 +47,24 @@ public class SpeedPotion extends Potion {
         theTarget.setSpeedBoost(true, mySpeedMultiplier, myDurationInTicks);
     }
 
+    /**
+     * Gets how long the speed boost lasts.
+     *
+     * @return The duration in ticks.
+     */
+    public int getDurationInTicks() {
+        return myDurationInTicks;
+    }
+
+    /**
+     * Gets the multiplier applied to the player's speed.
+     *
+     * @return The speed multiplier.
+     */
+    public double getSpeedMultiplier() {
+        return mySpeedMultiplier;
+    }
+
     /**
      * Gets the name of the potion.
      *
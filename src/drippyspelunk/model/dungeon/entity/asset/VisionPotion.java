@@ -7,7 +7,7 @@ import drippyspelunk.model.dungeon.entity.dungeoncharacter.Player;
  *
  * @author Devin Arroyo
  * @author Mark Malyshev
- * @version 1.1
+ * @version 1.2
  */
 public class VisionPotion extends Potion {
     /**
@@ -46,6 +46,24 @@ public class VisionPotion extends Potion {
         theTarget.setVisionBoost(true, myVisionMultiplier, myDurationInTicks);
     }
 
+    /**
+     * Gets how long the vision boost lasts.
+     *
+     * @return The duration in ticks.
+     */
+    public int getDurationInTicks() {
+        return myDurationInTicks;
+    }
+
+    /**
+     * Gets the multiplier applied to the player's vision.
+     *
+     * @return The vision multiplier.
+     */
+    public double getVisionMultiplier() {
+        return myVisionMultiplier;
+    }
+
     /**
      * Gets the name of the potion.
      *
@@ -2,21 +2,32 @@ package drippyspelunk.model.dungeon.entity.asset;
 
 import drippyspelunk.model.dungeon.entity.GameObject;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Dungeon wall tiles.
  *
  * @author Devin Arroyo
- * @version 1.2
+ * @version 1.4
  */
 public class Wall extends GameObject {
+    /**
+     * The highest wall type that maps to a sprite.
+     */
+    private static final int MAX_WALL_TYPE = 42;
+    /**
+     * The sprite identifiers for every wall type, built once per biome and shared by all walls.
+     */
+    private static final Map<Integer, String[]> SPRITE_IDENTIFIERS = new ConcurrentHashMap<>();
     /**
      * The type of wall, used to determine its specific appearance.
      */
     private final int myWallType;
     /**
-     * The identifier for the wall's sprite, derived from its biome and type.
+     * The biome the wall belongs to.
      */
-    private final String mySpriteIdentifier;
+    private final int myBiome;
 
     /**
      * Constructs a Wall object with specified position, dimensions, type, and biome.
@@ -31,7 +42,7 @@ public class Wall extends GameObject {
     public Wall(final int theX, final int theY, final int theWidth, final int theHeight, final int theWallType, final int theBiome) {
         super(theX, theY, theWidth, theHeight);
         myWallType = theWallType;
-        mySpriteIdentifier = getSpriteIdentifierFromWallType(theBiome, theWallType);
+        myBiome = theBiome;
     }
 
     /**
@@ -51,33 +62,47 @@ public class Wall extends GameObject {
     }
 
     /**
-     * Gets the identifier for the wall's sprite.
+     * Gets the biome the wall belongs to.
      *
-     * @return A string representing the sprite identifier.
+     * @return The integer biome.
      */
-    public String getSpriteIdentifier() {
-        return mySpriteIdentifier;
+    public int getBiome() {
+        return myBiome;
     }
 
     /**
-     * Determines the sprite identifier string based on the biome and wall type.
-     * The wall type integers are mapped to specific characters ('A'-'Z', 'a'-'f').
+     * Gets the sprite identifier for a wall type in a biome without building a new string.
      *
      * @param theBiome    The biome the wall is in.
      * @param theWallType The integer type of the wall.
      * @return A string formatted as "wall_sprite_biome[biome]_[character]", or null if the wall type is invalid.
      */
-    private String getSpriteIdentifierFromWallType(final int theBiome, final int theWallType) {
-        char wallCharacter;
-
-        if (theWallType >= 11 && theWallType <= 36) {
-            wallCharacter = (char) ('A' + (theWallType - 11));
-        } else if (theWallType >= 37 && theWallType <= 42) {
-            wallCharacter = (char) ('a' + (theWallType - 37));
-        } else {
+    public static String getSpriteIdentifier(final int theBiome, final int theWallType) {
+        if (theWallType < 0 || theWallType > MAX_WALL_TYPE) {
             return null;
         }
+        return SPRITE_IDENTIFIERS.computeIfAbsent(theBiome, Wall::buildSpriteIdentifiers)[theWallType];
+    }
 
-        return "wall_sprite_biome" + theBiome + "_" + wallCharacter;
+    /**
+     * Builds the sprite identifiers for every wall type in a biome.
+     * The wall type integers are mapped to specific characters ('A'-'Z', 'a'-'f').
+     *
+     * @param theBiome The biome to build the identifiers for.
+     * @return The identifiers indexed by wall type, with null for invalid types.
+     */
+    private static String[] buildSpriteIdentifiers(final int theBiome) {
+        final String[] identifiers = new String[MAX_WALL_TYPE + 1];
+
+        for (int wallType = 11; wallType <= MAX_WALL_TYPE; wallType++) {
+            final char wallCharacter;
+            if (wallType <= 36) {
+                wallCharacter = (char) ('A' + (wallType - 11));
+            } else {
+                wallCharacter = (char) ('a' + (wallType - 37));
+            }
+            identifiers[wallType] = "wall_sprite_biome" + theBiome + "_" + wallCharacter;
+        }
+        return identifiers;
     }
 }
\ No newline at end of file
@@ -4,7 +4,7 @@ package drippyspelunk.model.dungeon.entity.dungeoncharacter;
  * Base character data model representing database character stats.
  *
  * @author David Norman
- * @version 1.3
+ * @version 1.4
  */
 public class Character {
     /**
@@ -128,6 +128,15 @@ public class Character {
         myName = theName;
     }
 
+    /**
+     * Gets the character type.
+     *
+     * @return The character type.
+     */
+    public CharacterType getCharacterType() {
+        return myCharacterType;
+    }
+
     /**
      * Sets the character type.
      *
@@ -299,6 +308,15 @@ public class Character {
         myLevel = theLevel;
     }
 
+    /**
+     * Gets the preferred biome.
+     *
+     * @return The preferred biome, or 0 if the character has none.
+     */
+    public int getPreferredBiome() {
+        return myPreferredBiome;
+    }
+
     /**
      * Sets the preferred biome.
      *
@@ -1,15 +1,21 @@
 package drippyspelunk.model.dungeon.entity.dungeoncharacter;
 
 import drippyspelunk.controller.database.DatabaseManager;
+import drippyspelunk.controller.sprite.AnimationClip;
+import drippyspelunk.controller.sprite.SpriteManager;
 import drippyspelunk.model.dungeon.entity.GameObject;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * Dungeon Enemies object with database integration.
  *
  * @author Devin Arroyo
  * @author David Norman
  * @author Mark Malyshev
- * @version 1.6
+ * @version 1.9
  */
 public class Enemy extends GameObject {
 
@@ -63,6 +69,14 @@ public class Enemy extends GameObject {
      * The current state of the enemy.
      */
     private EnemyState myCurrentState;
+    /**
+     * The current frame of the enemy's walking animation.
+     */
+    private int myAnimationFrame;
+    /**
+     * The animation clip of the enemy's class, resolved the first time the enemy is drawn.
+     */
+    private AnimationClip myAnimationClip;
 
     /**
      * Constructor using character name from a database.
@@ -146,6 +160,40 @@ public class Enemy extends GameObject {
         return myCharacterData != null ? myCharacterData.getCharacterClass().toLowerCase() : "unknown";
     }
 
+    /**
+     * Gets the animation clip of the enemy: its own variant sheet if it has one, such as "orc_berserker"
+     * for an Orc Berserker, or else its class's sheet. The clip is looked up once and kept.
+     *
+     * @return The clip, or null if neither the enemy nor its class has a sprite sheet.
+     */
+    public AnimationClip getAnimationClip() {
+        if (myAnimationClip == null && myName != null) {
+            myAnimationClip = SpriteManager.getAnimationClip(myName.toLowerCase().replace(' ', '_'));
+        }
+        if (myAnimationClip == null) {
+            myAnimationClip = SpriteManager.getAnimationClip(getCharacterClass());
+        }
+        return myAnimationClip;
+    }
+
+    /**
+     * Gets the current frame of the enemy's walking animation.
+     *
+     * @return The frame index.
+     */
+    public int getAnimationFrame() {
+        return myAnimationFrame;
+    }
+
+    /**
+     * Sets the current frame of the enemy's walking animation.
+     *
+     * @param theFrame The frame index.
+     */
+    public void setAnimationFrame(final int theFrame) {
+        myAnimationFrame = theFrame;
+    }
+
     /**
      * Gets the level of the enemy.
      *
@@ -304,6 +352,38 @@ public class Enemy extends GameObject {
         myIsPoisoned = poison;
     }
 
+    /**
+     * Writes the parts of the enemy that change during play: position, health, poison and state.
+     *
+     * @param theOutput The output to write to.
+     * @throws IOException If the enemy cannot be written.
+     */
+    public void writeSaveData(final DataOutput theOutput) throws IOException {
+        theOutput.writeInt(getX());
+        theOutput.writeInt(getY());
+        theOutput.writeInt(myHealth);
+        theOutput.writeBoolean(myIsPoisoned);
+        theOutput.writeInt(myPoisonTurnCounter);
+        theOutput.writeByte(myCurrentState.ordinal());
+    }
+
+    /**
+     * Restores the state written by {@link #writeSaveData(DataOutput)}.
+     *
+     * @param theInput The input to read from.
+     * @throws IOException If the enemy cannot be read.
+     */
+    public void readSaveData(final DataInput theInput) throws IOException {
+        setX(theInput.readInt());
+        setY(theInput.readInt());
+        myHealth = theInput.readInt();
+        myIsPoisoned = theInput.readBoolean();
+        myPoisonTurnCounter = theInput.readInt();
+        final int state = theInput.readUnsignedByte();
+        final EnemyState[] states = EnemyState.values();
+        myCurrentState = state < states.length ? states[state] : EnemyState.STANDING_SOUTH;
+    }
+
     @Override
     public String toString() {
         return String.format("Enemy{name='%s', class='%s', level=%d, hp=%d/%d}",
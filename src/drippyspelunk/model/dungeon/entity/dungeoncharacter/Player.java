@@ -3,12 +3,16 @@ package drippyspelunk.model.dungeon.entity.dungeoncharacter;
 import drippyspelunk.controller.database.DatabaseManager;
 import drippyspelunk.model.dungeon.entity.GameObject;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * Dungeon Player Object with database integration for character classes.
  *
  * @author Devin Arroyo
  * @author David Norman
- * @version 1.11
+ * @version 1.12
  */
 public class Player extends GameObject {
 
@@ -756,6 +760,69 @@ public class Player extends GameObject {
         return myBlinded;
     }
 
+    /**
+     * Writes the parts of the player that change during play: position, health, progression and active effects.
+     * The character template is not written; it is looked up again when the save is loaded.
+     *
+     * @param theOutput The output to write to.
+     * @throws IOException If the player cannot be written.
+     */
+    public void writeSaveData(final DataOutput theOutput) throws IOException {
+        theOutput.writeInt(getX());
+        theOutput.writeInt(getY());
+        theOutput.writeByte(myLastDirection);
+        theOutput.writeInt(myHealth);
+        theOutput.writeInt(myMaxHealth);
+        theOutput.writeInt(myLevel);
+        theOutput.writeInt(myExperience);
+        theOutput.writeInt(mySpeed);
+        theOutput.writeInt(myBaseMoveSpeed);
+        theOutput.writeInt(myVision);
+        theOutput.writeInt(myBaseVision);
+        theOutput.writeBoolean(mySpeedBoostActive);
+        theOutput.writeInt(mySpeedBoostTickCounter);
+        theOutput.writeBoolean(mySlowed);
+        theOutput.writeInt(mySlowTickCounter);
+        theOutput.writeBoolean(myPoisoned);
+        theOutput.writeInt(myPoisonedTickCounter);
+        theOutput.writeBoolean(myVisionBoostActive);
+        theOutput.writeInt(myVisionBoostTickCounter);
+        theOutput.writeBoolean(myBlinded);
+        theOutput.writeInt(myBlindTickCounter);
+    }
+
+    /**
+     * Restores the state written by {@link #writeSaveData(DataOutput)}.
+     *
+     * @param theInput The input to read from.
+     * @throws IOException If the player cannot be read.
+     */
+    public void readSaveData(final DataInput theInput) throws IOException {
+        setX(theInput.readInt());
+        setY(theInput.readInt());
+        final int lastDirection = theInput.readUnsignedByte();
+        myHealth = theInput.readInt();
+        myMaxHealth = theInput.readInt();
+        myLevel = theInput.readInt();
+        myExperience = theInput.readInt();
+        mySpeed = theInput.readInt();
+        myBaseMoveSpeed = theInput.readInt();
+        myVision = theInput.readInt();
+        myBaseVision = theInput.readInt();
+        mySpeedBoostActive = theInput.readBoolean();
+        mySpeedBoostTickCounter = theInput.readInt();
+        mySlowed = theInput.readBoolean();
+        mySlowTickCounter = theInput.readInt();
+        myPoisoned = theInput.readBoolean();
+        myPoisonedTickCounter = theInput.readInt();
+        myVisionBoostActive = theInput.readBoolean();
+        myVisionBoostTickCounter = theInput.readInt();
+        myBlinded = theInput.readBoolean();
+        myBlindTickCounter = theInput.readInt();
+        initializeMovement();
+        myLastDirection = lastDirection <= WEST ? lastDirection : SOUTH;
+    }
+
     @Override
     public String toString() {
         return String.format("Player{class='%s', level=%d, hp=%d/%d, xp=%d}",
@@ -10,7 +10,7 @@ import drippyspelunk.model.dungeon.entity.dungeoncharacter.Player;
  *
  * @author Devin Arroyo
  * @author David Norman
- * @version 1.5
+ * @version 1.6
  */
 public class GameObjectFactory {
 
@@ -108,8 +108,8 @@ public class GameObjectFactory {
             }
 
             case TYPE_DOOR -> {
-                if (theAdditionalParams.length == 2 && theAdditionalParams[0] instanceof Integer && theAdditionalParams[1] instanceof Integer) {
-                    final int targetRoomId = (int) theAdditionalParams[0];
+                if (theAdditionalParams.length == 2 && theAdditionalParams[0] instanceof Long && theAdditionalParams[1] instanceof Integer) {
+                    final long targetRoomId = (long) theAdditionalParams[0];
                     final int direction = (int) theAdditionalParams[1];
                     yield new Door(theX, theY, theWidth, theHeight, targetRoomId, direction);
                 } else {
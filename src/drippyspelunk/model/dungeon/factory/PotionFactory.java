@@ -9,7 +9,7 @@ import java.util.Random;
  *
  * @author Devin Arroyo
  * @author David Norman
- * @version 1.3
+ * @version 1.4
  */
 public class PotionFactory {
 
@@ -109,11 +109,26 @@ public class PotionFactory {
      * @return A randomly created Potion object.
      */
     public static Potion createRandomPotion(final int theX, final int theY, final int theWidth, final int theHeight) {
-        final int potionType = myRandom.nextInt(5);
+        return createRandomPotion(theX, theY, theWidth, theHeight, myRandom);
+    }
+
+    /**
+     * Creates a random Potion instance, drawing the random choices from a given generator.
+     *
+     * @param theX      The x-coordinate of the potion.
+     * @param theY      The y-coordinate of the potion.
+     * @param theWidth  The width of the potion.
+     * @param theHeight The height of the potion.
+     * @param theRandom The random number generator to draw from.
+     * @return A randomly created Potion object.
+     */
+    public static Potion createRandomPotion(final int theX, final int theY, final int theWidth, final int theHeight,
+                                            final Random theRandom) {
+        final int potionType = theRandom.nextInt(5);
 
         return switch (potionType) {
             case 0 -> createPotion(TYPE_HEALING, theX, theY, theWidth, theHeight, 50);
-            case 1 -> createPotion(TYPE_POISON, theX, theY, theWidth, theHeight, myRandom.nextInt(110, 600) + 1);
+            case 1 -> createPotion(TYPE_POISON, theX, theY, theWidth, theHeight, theRandom.nextInt(110, 600) + 1);
             case 2 -> createPotion(TYPE_SPEED, theX, theY, theWidth, theHeight, 600, 1.5);
             case 3 -> createPotion(TYPE_VISION, theX, theY, theWidth, theHeight, 600, 1.5);
             case 4 -> createPotion(TYPE_MYSTERY, theX, theY, theWidth, theHeight);
@@ -1,7 +1,11 @@
 package drippyspelunk.model.menu;
 
 import drippyspelunk.controller.config.ConfigManager;
+import drippyspelunk.controller.config.Settings;
 import drippyspelunk.controller.database.DatabaseManager;
+import drippyspelunk.model.dungeon.IGenerationListener;
+import drippyspelunk.model.dungeon.RunRecord;
+import drippyspelunk.model.dungeon.SaveGame;
 import drippyspelunk.model.dungeon.entity.dungeoncharacter.Character;
 
 import java.beans.PropertyChangeListener;
@@ -14,9 +18,9 @@ import java.util.List;
  *
  * @author Devin Arroyo
  * @author David Norman
- * @version 1.4
+ * @version 1.10
  */
-public class TitleScreenLogic {
+public class TitleScreenLogic implements IGenerationListener {
 
     /**
      * Property constant for game ticks.
@@ -26,6 +30,26 @@ public class TitleScreenLogic {
      * Property constant for when settings are applied.
      */
     public static final String SETTINGS_APPLIED_PROPERTY = "settingsApplied";
+    /**
+     * Property constant for the progress of a new game's dungeon generation.
+     */
+    public static final String GENERATION_PROGRESS_PROPERTY = "generationProgress";
+    /**
+     * Property constant for when the leaderboard has been loaded.
+     */
+    public static final String LEADERBOARD_PROPERTY = "leaderboard";
+    /**
+     * Property constant for when a page of the run history has been loaded.
+     */
+    public static final String RUN_HISTORY_PROPERTY = "runHistory";
+    /**
+     * The number of runs shown on the leaderboard.
+     */
+    private static final int LEADERBOARD_SIZE = 5;
+    /**
+     * The number of runs on a page of the run history.
+     */
+    private static final int HISTORY_PAGE_SIZE = 5;
 
     /**
      * Supports firing property change events.
@@ -39,6 +63,22 @@ public class TitleScreenLogic {
      * The character selected by the player.
      */
     private Character mySelectedCharacter;
+    /**
+     * The name of the generation stage currently running, or null when generation is done.
+     */
+    private volatile String myGenerationStage;
+    /**
+     * The overall progress of the dungeon generation, from 0.0 to 1.0.
+     */
+    private volatile double myGenerationProgress;
+    /**
+     * The runs on the leaderboard, fastest first.
+     */
+    private volatile List<RunRecord> myLeaderboard = List.of();
+    /**
+     * The runs on the current page of the run history, newest first.
+     */
+    private volatile List<RunRecord> myHistoryPage = List.of();
 
     /**
      * Constructs a new TitleScreenLogic object and loads the current settings.
@@ -48,7 +88,7 @@ public class TitleScreenLogic {
     }
 
     /**
-     * Applies and saves the new settings to the configuration file.
+     * Applies the new settings and queues them to be saved to the configuration file.
      *
      * @param theNewSettings The new settings data to apply.
      */
@@ -58,20 +98,17 @@ public class TitleScreenLogic {
             return;
         }
 
-        try {
-            ConfigManager.getInstance().setValue("Scene", "gui_scale", String.valueOf(theNewSettings.getGuiScale()));
-            ConfigManager.getInstance().setValue("Scene", "undecorated", String.valueOf(theNewSettings.isUndecorated()));
-            ConfigManager.getInstance().setValue("Audio", "music", String.valueOf(theNewSettings.getMusicVolume()));
-            ConfigManager.getInstance().setValue("Audio", "sfx", String.valueOf(theNewSettings.getSfxVolume()));
-            ConfigManager.getInstance().setValue("Audio", "ui", String.valueOf(theNewSettings.getUiVolume()));
-            ConfigManager.getInstance().setValue("Scene", "difficulty", String.valueOf(theNewSettings.getDifficulty()));
-
-            final SettingsData oldSettings = myCurrentSettings;
-            myCurrentSettings = theNewSettings;
-            myPCS.firePropertyChange(SETTINGS_APPLIED_PROPERTY, oldSettings, myCurrentSettings);
+        ConfigManager.getInstance().update(new Settings(
+                theNewSettings.getGuiScale(),
+                theNewSettings.isUndecorated(),
+                theNewSettings.getMusicVolume(),
+                theNewSettings.getSfxVolume(),
+                theNewSettings.getUiVolume(),
+                theNewSettings.getDifficulty()));
 
-        } catch (final IOException ignored) {
-        }
+        final SettingsData oldSettings = myCurrentSettings;
+        myCurrentSettings = theNewSettings;
+        myPCS.firePropertyChange(SETTINGS_APPLIED_PROPERTY, oldSettings, myCurrentSettings);
     }
 
     /**
@@ -87,14 +124,14 @@ public class TitleScreenLogic {
      * Loads the current settings from the configuration file.
      */
     public void loadCurrentSettings() {
-        final ConfigManager config = ConfigManager.getInstance();
+        final Settings settings = ConfigManager.getInstance().getSettings();
         myCurrentSettings = new SettingsData(
-                config.getInt("Scene", "gui_scale", 1),
-                config.getBoolean("Scene", "undecorated", false),
-                config.getFloat("Audio", "music", 0.8f),
-                config.getFloat("Audio", "sfx", 0.8f),
-                config.getFloat("Audio", "ui", 0.8f),
-                config.getInt("Scene", "difficulty", 1)
+                settings.guiScale(),
+                settings.undecorated(),
+                settings.musicVolume(),
+                settings.sfxVolume(),
+                settings.uiVolume(),
+                settings.difficulty()
         );
     }
 
@@ -108,6 +145,25 @@ public class TitleScreenLogic {
         return dbManager.getCharactersByType(Character.CharacterType.PLAYER);
     }
 
+    /**
+     * Describes what a save slot holds, for the load game menu.
+     *
+     * @param theSlot The save slot.
+     * @return The slot's name followed by the saved player and floor, or by "Empty" if the slot cannot be loaded.
+     */
+    public String getSaveSlotDescription(final int theSlot) {
+        final String slotName = theSlot == SaveGame.QUICK_SAVE_SLOT ? "Quick Save" : "Slot " + theSlot;
+        if (!SaveGame.isSlotUsed(theSlot)) {
+            return slotName + " - Empty";
+        }
+        try {
+            final SaveGame save = SaveGame.readSlot(theSlot);
+            return slotName + " - " + save.getPlayerName() + ", Floor " + save.getFloor();
+        } catch (final IOException ignored) {
+            return slotName + " - Empty";
+        }
+    }
+
     /**
      * Gets the currently selected character.
      *
@@ -126,6 +182,97 @@ public class TitleScreenLogic {
         mySelectedCharacter = theCharacter;
     }
 
+    /**
+     * Records the progress of the new game's dungeon generation and notifies listeners.
+     * Called on the generator thread.
+     *
+     * @param theStageName The name of the stage currently running, or null when generation is done.
+     * @param theProgress  The overall progress of the generation, from 0.0 to 1.0.
+     */
+    @Override
+    public void progressChanged(final String theStageName, final double theProgress) {
+        final double oldProgress = myGenerationProgress;
+        myGenerationStage = theStageName;
+        myGenerationProgress = theProgress;
+        myPCS.firePropertyChange(GENERATION_PROGRESS_PROPERTY, oldProgress, theProgress);
+    }
+
+    /**
+     * Gets the name of the generation stage currently running.
+     *
+     * @return The stage name, or null when generation is done.
+     */
+    public String getGenerationStage() {
+        return myGenerationStage;
+    }
+
+    /**
+     * Loads the fastest wins at the current difficulty in the background.
+     * Listeners are notified, on the database thread, once they are loaded.
+     */
+    public void loadLeaderboard() {
+        DatabaseManager.getMyInstance().getRunHistory()
+                .getLeaderboardPage(myCurrentSettings.getDifficulty(), null, LEADERBOARD_SIZE)
+                .thenAccept(theRuns -> {
+                    myLeaderboard = theRuns;
+                    myPCS.firePropertyChange(LEADERBOARD_PROPERTY, null, theRuns.size());
+                });
+    }
+
+    /**
+     * Loads the newest page of the run history in the background.
+     */
+    public void loadNewestRuns() {
+        loadHistoryPage(null);
+    }
+
+    /**
+     * Loads the page of the run history after the current one in the background.
+     * Does nothing if the current page is the last one.
+     */
+    public void loadOlderRuns() {
+        final List<RunRecord> page = myHistoryPage;
+        if (page.size() == HISTORY_PAGE_SIZE) {
+            loadHistoryPage(page.get(page.size() - 1));
+        }
+    }
+
+    /**
+     * Loads a page of the run history in the background.
+     * Listeners are notified, on the database thread, once it is loaded.
+     *
+     * @param theAfter The last run of the previous page, or null for the newest page.
+     */
+    private void loadHistoryPage(final RunRecord theAfter) {
+        DatabaseManager.getMyInstance().getRunHistory()
+                .getHistoryPage(theAfter, HISTORY_PAGE_SIZE)
+                .thenAccept(theRuns -> {
+                    // An empty page past the end keeps the last page on screen.
+                    if (!theRuns.isEmpty() || theAfter == null) {
+                        myHistoryPage = theRuns;
+                        myPCS.firePropertyChange(RUN_HISTORY_PROPERTY, null, theRuns.size());
+                    }
+                });
+    }
+
+    /**
+     * Gets the runs on the leaderboard.
+     *
+     * @return The runs, fastest first.
+     */
+    public List<RunRecord> getLeaderboard() {
+        return myLeaderboard;
+    }
+
+    /**
+     * Gets the runs on the current page of the run history.
+     *
+     * @return The runs, newest first.
+     */
+    public List<RunRecord> getHistoryPage() {
+        return myHistoryPage;
+    }
+
     /**
      * Adds a property change listener.
      *
@@ -11,7 +11,7 @@ import java.awt.event.ActionListener;
  *
  * @author David Norman
  * @author Devin Arroyo
- * @version 1.5
+ * @version 1.6
  */
 public class CombatOverlay extends JPanel {
 
@@ -213,7 +213,7 @@ public class CombatOverlay extends JPanel {
     }
 
     /**
-     * Updates the player's health information for rendering.
+     * Updates the player's health information and repaints the health bars.
      *
      * @param theName          The player's name.
      * @param theCurrentHealth The player's current health.
@@ -223,10 +223,11 @@ public class CombatOverlay extends JPanel {
         myPlayerName = theName;
         myCurrentPlayerHealth = theCurrentHealth;
         myMaxPlayerHealth = theMaxHealth;
+        repaint();
     }
 
     /**
-     * Updates the enemy's health information for rendering.
+     * Updates the enemy's health information and repaints the health bars.
      *
      * @param theName          The enemy's name.
      * @param theCurrentHealth The enemy's current health.
@@ -236,6 +237,7 @@ public class CombatOverlay extends JPanel {
         myEnemyName = theName;
         myCurrentEnemyHealth = theCurrentHealth;
         myMaxEnemyHealth = theMaxHealth;
+        repaint();
     }
 
     /**
@@ -1,7 +1,12 @@
 package drippyspelunk.view.dungeon;
 
+import drippyspelunk.controller.sprite.AnimationClip;
+import drippyspelunk.controller.sprite.RenderCapabilities;
+import drippyspelunk.controller.sprite.SpriteAtlas;
 import drippyspelunk.controller.sprite.SpriteManager;
 import drippyspelunk.model.dungeon.DungeonCrawlerLogic;
+import drippyspelunk.model.dungeon.Room;
+import drippyspelunk.model.dungeon.TileLayer;
 import drippyspelunk.model.dungeon.entity.GameObject;
 import drippyspelunk.model.dungeon.entity.asset.*;
 import drippyspelunk.model.dungeon.entity.dungeoncharacter.Enemy;
@@ -9,20 +14,30 @@ import drippyspelunk.model.dungeon.entity.dungeoncharacter.Player;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.HashMap;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * A panel responsible for drawing the game content (dungeon, characters, items, background)
- * within the DungeonCrawlerView's layered pane. It iterates through all game objects
- * and renders the corresponding sprite based on the object's type and state.
+ * within the DungeonCrawlerView's layered pane. The current room's floor and wall tiles are drawn once,
+ * when the room is entered, into a {@link RoomBackgroundCache} and blitted in one draw; the panel then iterates
+ * through all game objects and renders the corresponding sprite based on the object's type and state.
+ * Every sprite is drawn by its atlas handle; animated sprites take their handles from animation clips resolved
+ * when the panel is built, so drawing a frame builds no identifier strings.
+ * <p>
+ * The panel is not repainted whole each tick. {@link #repaintChanges()} compares each object's screen bounds and
+ * sprite handle with the ones of the previous call and repaints only the union of the old and new bounds of the
+ * objects that moved, animated, appeared, or disappeared; painting then skips the objects outside the repainted
+ * region. Entering a room, a change of its terrain, and the room rebuild hint repaint the whole panel.
  *
  * @author Devin Arroyo
  * @author Mark Malyshev
- * @version 1.8
+ * @version 1.16
  */
-public class DungeonContentPanel extends JPanel {
+public class DungeonContentPanel extends JPanel implements PropertyChangeListener {
 
     // Sprite dimension constants
     /**
@@ -41,10 +56,34 @@ public class DungeonContentPanel extends JPanel {
      * The fixed height for a character sprite.
      */
     private static final int CHARACTER_SPRITE_HEIGHT = 64;
+    /**
+     * The fixed width and height for a dragon sprite.
+     */
+    private static final int DRAGON_SPRITE_SIZE = 64;
     /**
      * The fixed size for a consumable item sprite.
      */
     private static final int CONSUMABLE_SPRITE_SIZE = 32;
+    /**
+     * The hint shown in development mode when the current room can be rebuilt from a reloaded rooms.ini.
+     */
+    private static final String ROOM_REBUILD_HINT = "rooms.ini changed - press F5 to rebuild this room";
+    /**
+     * The font size of the room rebuild hint, before GUI scaling.
+     */
+    private static final int ROOM_REBUILD_HINT_FONT_SIZE = 8;
+    /**
+     * The state index of a ticking bomb in the bomb's animation clip.
+     */
+    private static final int BOMB_TICKING = 0;
+    /**
+     * The state index of an exploding bomb in the bomb's animation clip.
+     */
+    private static final int BOMB_EXPLOSION = 1;
+    /**
+     * The number of values a tile can hold.
+     */
+    private static final int TILE_VALUE_COUNT = 256;
 
     /**
      * The main game logic model.
@@ -59,17 +98,101 @@ public class DungeonContentPanel extends JPanel {
      */
     private final int myWallOffscreenAmount;
     /**
-     * A map to track the current animation frame for each enemy.
+     * The current animation frame for the player.
      */
-    private final Map<Enemy, Integer> myEnemyAnimationFrames;
+    private int myPlayerAnimationFrame;
     /**
-     * A map to track the current animation frame for each active bomb.
+     * The player's animation clip.
      */
-    private final Map<ActiveBomb, Integer> myActiveBombAnimationFrames;
+    private final AnimationClip myPlayerClip;
     /**
-     * The current animation frame for the player.
+     * The active bomb's animation clip, with a ticking and an explosion state.
      */
-    private int myPlayerAnimationFrame;
+    private final AnimationClip myBombClip;
+    /**
+     * The dragon's animation clip, used to recognize dragons without comparing class names.
+     */
+    private final AnimationClip myDragonClip;
+    /**
+     * The atlas handle of each floor tile value, by biome.
+     */
+    private final int[][] myFloorHandles;
+    /**
+     * The atlas handle of each wall tile value, by biome. Breakable wall tiles map to the breakable wall sprite.
+     */
+    private final int[][] myWallHandles;
+    /**
+     * The atlas handle of the health potion sprite.
+     */
+    private final int myHealthPotionHandle;
+    /**
+     * The atlas handle of the poison potion sprite.
+     */
+    private final int myPoisonPotionHandle;
+    /**
+     * The atlas handle of the speed potion sprite.
+     */
+    private final int mySpeedPotionHandle;
+    /**
+     * The atlas handle of the mystery potion sprite.
+     */
+    private final int myMysteryPotionHandle;
+    /**
+     * The atlas handle of the vision potion sprite.
+     */
+    private final int myVisionPotionHandle;
+    /**
+     * The atlas handle of the bomb pickup sprite.
+     */
+    private final int myBombHandle;
+    /**
+     * The atlas handle of the breakable wall sprite.
+     */
+    private final int myBreakableWallHandle;
+    /**
+     * The atlas handle of the open chest sprite.
+     */
+    private final int myChestOpenHandle;
+    /**
+     * The atlas handle of the closed chest sprite.
+     */
+    private final int myChestClosedHandle;
+    /**
+     * The atlas handle of the trap sprite.
+     */
+    private final int myTrapHandle;
+    /**
+     * The atlas handle of the pillar sprite.
+     */
+    private final int myPillarHandle;
+    /**
+     * The atlas handle of the exit sprite.
+     */
+    private final int myExitHandle;
+    /**
+     * The static terrain of the current and last few rooms.
+     */
+    private final RoomBackgroundCache myRoomBackgrounds;
+    /**
+     * The screen bounds and sprite handle of each object as of the last call to {@link #repaintChanges()}.
+     */
+    private Map<GameObject, DrawnSprite> myDrawnSprites;
+    /**
+     * The room as of the last call to {@link #repaintChanges()}.
+     */
+    private Room myDrawnRoom;
+    /**
+     * The room's floor layer as of the last call to {@link #repaintChanges()}.
+     */
+    private TileLayer myDrawnFloorLayer;
+    /**
+     * The room's wall layer as of the last call to {@link #repaintChanges()}.
+     */
+    private TileLayer myDrawnWallLayer;
+    /**
+     * Whether the room rebuild hint was shown as of the last call to {@link #repaintChanges()}.
+     */
+    private boolean myDrawnRebuildHint;
 
     /**
      * Constructs the DungeonContentPanel.
@@ -84,42 +207,124 @@ public class DungeonContentPanel extends JPanel {
         myWallOffscreenAmount = theWallOffscreenAmount;
         setOpaque(false);
         myPlayerAnimationFrame = 0;
-        myEnemyAnimationFrames = new HashMap<>();
-        myActiveBombAnimationFrames = new HashMap<>();
+        myPlayerClip = SpriteManager.getAnimationClip("player");
+        myBombClip = SpriteManager.getAnimationClip("bomb");
+        myDragonClip = SpriteManager.getAnimationClip("dragon");
+
+        myHealthPotionHandle = SpriteManager.getHandle("health_potion");
+        myPoisonPotionHandle = SpriteManager.getHandle("poison_potion");
+        mySpeedPotionHandle = SpriteManager.getHandle("speed_potion");
+        myMysteryPotionHandle = SpriteManager.getHandle("mystery_potion");
+        myVisionPotionHandle = SpriteManager.getHandle("vision_potion");
+        myBombHandle = SpriteManager.getHandle("bomb_consumable");
+        myBreakableWallHandle = SpriteManager.getHandle("breakable_wall");
+        myChestOpenHandle = SpriteManager.getHandle("chest_open");
+        myChestClosedHandle = SpriteManager.getHandle("chest_closed");
+        myTrapHandle = SpriteManager.getHandle("trap");
+        myPillarHandle = SpriteManager.getHandle("pillar");
+        myExitHandle = SpriteManager.getHandle("exit");
+
+        myRoomBackgrounds = new RoomBackgroundCache(this::renderTile, Room.TILE_SIZE * myGuiScale,
+                myWallOffscreenAmount * myGuiScale, RenderCapabilities.getConfiguration());
+
+        myFloorHandles = new int[SpriteManager.BIOME_COUNT + 1][TILE_VALUE_COUNT];
+        myWallHandles = new int[SpriteManager.BIOME_COUNT + 1][TILE_VALUE_COUNT];
+        for (int biome = 0; biome <= SpriteManager.BIOME_COUNT; biome++) {
+            for (int tile = 0; tile < TILE_VALUE_COUNT; tile++) {
+                myFloorHandles[biome][tile] = getHandle(Floor.getSpriteIdentifier(biome, tile));
+                myWallHandles[biome][tile] = tile == Room.BREAKABLE_WALL_TILE
+                        ? myBreakableWallHandle : getHandle(Wall.getSpriteIdentifier(biome, tile));
+            }
+        }
+
+        myDrawnSprites = new IdentityHashMap<>();
+
+        myModel.addPropertyChangeListener(DungeonCrawlerLogic.CURRENT_ROOM_PROPERTY, this);
+        myModel.addPropertyChangeListener(DungeonCrawlerLogic.FLOOR_CHANGED_PROPERTY, this);
     }
 
     /**
-     * Sets the player's current animation frame.
+     * Draws the terrain of a room as soon as it is entered, or the tiles that changed when it is rebuilt,
+     * and drops the cached rooms when the floor changes. The model fires these on the game loop thread,
+     * so the terrain is drawn on the event dispatch thread.
      *
-     * @param theFrame The frame index.
+     * @param theEvent The property change event.
      */
-    public void setPlayerAnimationFrame(final int theFrame) {
-        myPlayerAnimationFrame = theFrame;
+    @Override
+    public void propertyChange(final PropertyChangeEvent theEvent) {
+        if (DungeonCrawlerLogic.CURRENT_ROOM_PROPERTY.equals(theEvent.getPropertyName())) {
+            if (theEvent.getNewValue() instanceof Room room) {
+                SwingUtilities.invokeLater(() -> myRoomBackgrounds.update(room, getWidth(), getHeight()));
+            }
+        } else if (DungeonCrawlerLogic.FLOOR_CHANGED_PROPERTY.equals(theEvent.getPropertyName())) {
+            SwingUtilities.invokeLater(myRoomBackgrounds::clear);
+        }
     }
 
     /**
-     * Sets the animation frame for a specific enemy.
+     * Gets the atlas handle of a sprite that may not exist.
      *
-     * @param theEnemy The enemy object.
-     * @param theFrame The frame index.
+     * @param theSpriteIdentifier The sprite identifier, or null.
+     * @return The handle, or {@link SpriteAtlas#NO_SPRITE} if there is no such sprite.
      */
-    public void setEnemyAnimationFrame(final Enemy theEnemy, final int theFrame) {
-        myEnemyAnimationFrames.put(theEnemy, theFrame);
+    private static int getHandle(final String theSpriteIdentifier) {
+        return theSpriteIdentifier == null ? SpriteAtlas.NO_SPRITE : SpriteManager.getHandle(theSpriteIdentifier);
     }
 
     /**
-     * Sets the animation frame for a specific active bomb.
+     * Sets the player's current animation frame.
      *
-     * @param theActiveBomb The active bomb object.
-     * @param theState      The state of the bomb ("ticking" or "explosion").
-     * @param theFrame      The frame index.
+     * @param theFrame The frame index.
      */
-    public void setActiveBombAnimationFrame(final ActiveBomb theActiveBomb, final String theState, final int theFrame) {
-        myActiveBombAnimationFrames.put(theActiveBomb, theFrame);
+    public void setPlayerAnimationFrame(final int theFrame) {
+        myPlayerAnimationFrame = theFrame;
     }
 
     /**
-     * Overrides the paintComponent method to draw all game objects.
+     * Requests a repaint of the parts of the panel that changed since the last call. Each object's old and new
+     * screen bounds are unioned and repainted if it moved or its sprite changed, and the bounds of objects that
+     * appeared or disappeared are repainted. The whole panel is repainted when the room, its terrain,
+     * or the room rebuild hint changed. This method can be called from any thread.
+     */
+    public synchronized void repaintChanges() {
+        final Room room = myModel.getCurrentRoom();
+        final boolean rebuildHint = myModel.isRoomRebuildOffered();
+        final boolean repaintAll = room != myDrawnRoom || rebuildHint != myDrawnRebuildHint
+                || room != null && (room.getFloorLayer() != myDrawnFloorLayer
+                || room.getWallLayer() != myDrawnWallLayer);
+        myDrawnRoom = room;
+        myDrawnFloorLayer = room == null ? null : room.getFloorLayer();
+        myDrawnWallLayer = room == null ? null : room.getWallLayer();
+        myDrawnRebuildHint = rebuildHint;
+
+        final Map<GameObject, DrawnSprite> drawnSprites = new IdentityHashMap<>();
+        for (final GameObject obj : myModel.getAllObjects()) {
+            final DrawnSprite sprite = new DrawnSprite(getSpriteBounds(obj), getSpriteHandle(obj));
+            drawnSprites.put(obj, sprite);
+            final DrawnSprite previous = myDrawnSprites.remove(obj);
+            if (repaintAll) {
+                continue;
+            }
+            if (previous == null) {
+                repaint(sprite.bounds());
+            } else if (previous.handle() != sprite.handle() || !previous.bounds().equals(sprite.bounds())) {
+                repaint(previous.bounds().union(sprite.bounds()));
+            }
+        }
+        if (!repaintAll) {
+            for (final DrawnSprite removed : myDrawnSprites.values()) {
+                repaint(removed.bounds());
+            }
+        }
+        myDrawnSprites = drawnSprites;
+
+        if (repaintAll) {
+            repaint();
+        }
+    }
+
+    /**
+     * Overrides the paintComponent method to draw the room's terrain and then all game objects on top of it.
      *
      * @param theGraphics The Graphics object to draw on.
      */
@@ -128,200 +333,247 @@ public class DungeonContentPanel extends JPanel {
         super.paintComponent(theGraphics);
         final Graphics2D g2d = (Graphics2D) theGraphics;
 
-        // Apply a global Y offset to create a 3D effect for walls
-        final int globalYOffset = myWallOffscreenAmount * myGuiScale;
+        final Room currentRoom = myModel.getCurrentRoom();
+        if (currentRoom != null) {
+            myRoomBackgrounds.draw(g2d, currentRoom, getWidth(), getHeight());
+        }
 
         final List<GameObject> allObjectsToDraw = myModel.getAllObjects();
+        final Rectangle clip = g2d.getClipBounds();
 
-        // Iterate through all objects and render them
+        // Iterate through all objects and render the ones inside the repainted region
         for (final GameObject obj : allObjectsToDraw) {
-            final int renderX = obj.getX() * myGuiScale;
-            final int renderY = obj.getY() * myGuiScale - globalYOffset;
-            final int renderWidth = obj.getWidth() * myGuiScale;
-            final int renderHeight = obj.getHeight() * myGuiScale;
-
-            switch (obj) {
-                case Wall wall ->
-                        renderMatchingSprite(g2d, renderX, renderY, renderWidth, renderHeight, wall.getSpriteIdentifier());
-                case Floor floorTile ->
-                        renderMatchingSprite(g2d, renderX, renderY, renderWidth, renderHeight, floorTile.getSpriteIdentifier());
-                case Player player -> renderPlayerSprite(g2d, renderX, renderY, player);
-                case Enemy enemy -> renderEnemySprite(g2d, renderX, renderY, enemy);
-                case HealthPotion ignored -> renderConsumableSprite(g2d, renderX, renderY, "health_potion");
-                case PoisonPotion ignored -> renderConsumableSprite(g2d, renderX, renderY, "poison_potion");
-                case SpeedPotion ignored -> renderConsumableSprite(g2d, renderX, renderY, "speed_potion");
-                case MysteryPotion ignored -> renderConsumableSprite(g2d, renderX, renderY, "mystery_potion");
-                case VisionPotion ignored -> renderConsumableSprite(g2d, renderX, renderY, "vision_potion");
-                case Bomb ignored -> renderConsumableSprite(g2d, renderX, renderY, "bomb_consumable");
-                case ActiveBomb activeBomb -> renderActiveBombSprite(g2d, renderX, renderY, activeBomb);
-                case BreakableWall ignored ->
-                        renderMatchingSprite(g2d, renderX, renderY, renderWidth, renderHeight, "breakable_wall");
-                case Chest chest -> {
-                    final String spriteIdentifier = chest.isOpen() ? "chest_open" : "chest_closed";
-                    renderMatchingSprite(g2d, renderX, renderY, renderWidth, renderHeight, spriteIdentifier);
-                }
-                case Trap ignored -> renderMatchingSprite(g2d, renderX, renderY, renderWidth, renderHeight, "trap");
-                case Pillar ignored -> renderMatchingSprite(g2d, renderX, renderY, renderWidth, renderHeight, "pillar");
-                case Exit ignored -> renderMatchingSprite(g2d, renderX, renderY, renderWidth, renderHeight, "exit");
-                default -> {
-                    g2d.setColor(Color.MAGENTA);
-                    g2d.fillRect(renderX, renderY, renderWidth, renderHeight);
-                }
+            final Rectangle bounds = getSpriteBounds(obj);
+            if (clip == null || clip.intersects(bounds)) {
+                renderSprite(g2d, bounds.x, bounds.y, bounds.width, bounds.height, getSpriteHandle(obj));
             }
         }
+
+        if (myModel.isRoomRebuildOffered()) {
+            renderRoomRebuildHint(g2d);
+        }
     }
 
     /**
-     * Renders a consumable sprite with its fixed dimensions.
+     * Renders the hint offering to rebuild the current room after rooms.ini was reloaded.
      *
-     * @param theGraphics         The Graphics2D object.
-     * @param theRenderX          The x-coordinate.
-     * @param theRenderY          The y-coordinate.
-     * @param theSpriteIdentifier The sprite identifier.
+     * @param theGraphics The Graphics2D object.
      */
-    private void renderConsumableSprite(final Graphics2D theGraphics, final int theRenderX, final int theRenderY, final String theSpriteIdentifier) {
-        renderMatchingSprite(theGraphics, theRenderX, theRenderY, CONSUMABLE_SPRITE_SIZE * myGuiScale, CONSUMABLE_SPRITE_SIZE * myGuiScale, theSpriteIdentifier);
+    private void renderRoomRebuildHint(final Graphics2D theGraphics) {
+        theGraphics.setFont(new Font("SansSerif", Font.BOLD, ROOM_REBUILD_HINT_FONT_SIZE * myGuiScale));
+        final FontMetrics metrics = theGraphics.getFontMetrics();
+        final int x = (getWidth() - metrics.stringWidth(ROOM_REBUILD_HINT)) / 2;
+        final int y = metrics.getHeight();
+        theGraphics.setColor(Color.BLACK);
+        theGraphics.drawString(ROOM_REBUILD_HINT, x + myGuiScale, y + myGuiScale);
+        theGraphics.setColor(Color.YELLOW);
+        theGraphics.drawString(ROOM_REBUILD_HINT, x, y);
     }
 
     /**
-     * Renders an animated bomb sprite, either ticking or exploding.
+     * Drops the cached room terrain when the panel is removed from the screen.
+     */
+    @Override
+    public void removeNotify() {
+        super.removeNotify();
+        myRoomBackgrounds.clear();
+    }
+
+    /**
+     * Renders the floor tile and then the wall tile of one cell of a room, skipping empty tiles.
      *
-     * @param theGraphics   The Graphics2D object.
-     * @param theRenderX    The x-coordinate.
-     * @param theRenderY    The y-coordinate.
-     * @param theActiveBomb The active bomb object.
-     */
-    private void renderActiveBombSprite(final Graphics2D theGraphics, final int theRenderX, final int theRenderY, final ActiveBomb theActiveBomb) {
-        final int frame = myActiveBombAnimationFrames.getOrDefault(theActiveBomb, 0);
-        final String spriteIdentifier;
-
-        if (theActiveBomb.getMyExploded()) {
-            spriteIdentifier = "bomb_explosion_" + frame;
-        } else {
-            spriteIdentifier = "bomb_ticking_" + frame;
+     * @param theGraphics The Graphics2D object.
+     * @param theRoom     The room.
+     * @param theRow      The cell's row.
+     * @param theColumn   The cell's column.
+     * @return True if both tiles were drawn, false if one was skipped because its sheet is still loading.
+     */
+    private boolean renderTile(final Graphics2D theGraphics, final Room theRoom, final int theRow, final int theColumn) {
+        final int tileSize = Room.TILE_SIZE * myGuiScale;
+        final int x = theColumn * tileSize;
+        final int y = theRow * tileSize - myWallOffscreenAmount * myGuiScale;
+        boolean drawn = true;
+        final TileLayer floorLayer = theRoom.getFloorLayer();
+        if (floorLayer != null && floorLayer.get(theRow, theColumn) != TileLayer.EMPTY_TILE) {
+            drawn = renderSprite(theGraphics, x, y, tileSize, tileSize,
+                    getTileHandle(myFloorHandles, theRoom.getBiome(), floorLayer.get(theRow, theColumn)));
+        }
+        final TileLayer wallLayer = theRoom.getWallLayer();
+        if (wallLayer != null && wallLayer.get(theRow, theColumn) != TileLayer.EMPTY_TILE) {
+            drawn &= renderSprite(theGraphics, x, y, tileSize, tileSize,
+                    getTileHandle(myWallHandles, theRoom.getBiome(), wallLayer.get(theRow, theColumn)));
         }
+        return drawn;
+    }
 
-        final int spriteSizeY = BOMB_SPRITE_SIZE_Y * myGuiScale;
-        final int spriteSizeX = BOMB_SPRITE_SIZE_X * myGuiScale;
+    /**
+     * Gets the handle of a tile from one of the tile handle tables.
+     *
+     * @param theHandles The handle table, by biome and tile value.
+     * @param theBiome   The biome.
+     * @param theTile    The tile value.
+     * @return The handle, or {@link SpriteAtlas#NO_SPRITE} if the biome or tile value is out of range.
+     */
+    private static int getTileHandle(final int[][] theHandles, final int theBiome, final int theTile) {
+        if (theBiome < 0 || theBiome >= theHandles.length || theTile < 0 || theTile >= TILE_VALUE_COUNT) {
+            return SpriteAtlas.NO_SPRITE;
+        }
+        return theHandles[theBiome][theTile];
+    }
 
-        // Adjust position to center the larger sprite on the object's hitbox
-        final int adjustedRenderX = theRenderX - (spriteSizeY - (theActiveBomb.getWidth() * myGuiScale)) / 2;
-        final int adjustedRenderY = theRenderY - (spriteSizeX - (theActiveBomb.getHeight() * myGuiScale)) / 2;
+    /**
+     * Gets the screen bounds an object's sprite is drawn at. Characters are drawn standing on their hitbox,
+     * and bombs centered on theirs.
+     *
+     * @param theObject The object.
+     * @return The bounds, in panel coordinates.
+     */
+    private Rectangle getSpriteBounds(final GameObject theObject) {
+        // Apply a global Y offset to create a 3D effect for walls
+        final int renderX = theObject.getX() * myGuiScale;
+        final int renderY = theObject.getY() * myGuiScale - myWallOffscreenAmount * myGuiScale;
+        final int hitboxWidth = theObject.getWidth() * myGuiScale;
+        final int hitboxHeight = theObject.getHeight() * myGuiScale;
 
-        renderMatchingSprite(theGraphics, adjustedRenderX, adjustedRenderY, spriteSizeX, spriteSizeY, spriteIdentifier);
+        return switch (theObject) {
+            case Player ignored -> {
+                final int visualSpriteHeight = CHARACTER_SPRITE_HEIGHT * myGuiScale;
+                yield new Rectangle(renderX, renderY - (visualSpriteHeight - hitboxHeight),
+                        CHARACTER_SPRITE_WIDTH * myGuiScale, visualSpriteHeight);
+            }
+            case Enemy enemy -> {
+                final boolean isDragon = enemy.getAnimationClip() != null && enemy.getAnimationClip() == myDragonClip;
+                final int visualSpriteWidth = (isDragon ? DRAGON_SPRITE_SIZE : CHARACTER_SPRITE_WIDTH) * myGuiScale;
+                final int visualSpriteHeight = (isDragon ? DRAGON_SPRITE_SIZE : CHARACTER_SPRITE_HEIGHT) * myGuiScale;
+                yield new Rectangle(renderX - (visualSpriteWidth - hitboxWidth) / 2,
+                        renderY - (visualSpriteHeight - hitboxHeight), visualSpriteWidth, visualSpriteHeight);
+            }
+            case ActiveBomb ignored -> {
+                final int spriteSizeY = BOMB_SPRITE_SIZE_Y * myGuiScale;
+                final int spriteSizeX = BOMB_SPRITE_SIZE_X * myGuiScale;
+                yield new Rectangle(renderX - (spriteSizeY - hitboxWidth) / 2,
+                        renderY - (spriteSizeX - hitboxHeight) / 2, spriteSizeX, spriteSizeY);
+            }
+            case Consumable ignored -> new Rectangle(renderX, renderY,
+                    CONSUMABLE_SPRITE_SIZE * myGuiScale, CONSUMABLE_SPRITE_SIZE * myGuiScale);
+            default -> new Rectangle(renderX, renderY, hitboxWidth, hitboxHeight);
+        };
     }
 
     /**
-     * Renders the player's animated sprite based on their current state.
+     * Gets the atlas handle of the sprite an object is drawn with in its current state.
      *
-     * @param theGraphics The Graphics2D object.
-     * @param theRenderX  The x-coordinate.
-     * @param theRenderY  The y-coordinate.
-     * @param thePlayer   The player object.
-     */
-    private void renderPlayerSprite(final Graphics2D theGraphics, final int theRenderX, final int theRenderY, final Player thePlayer) {
-        final String spriteIdentifier;
-        spriteIdentifier = switch (thePlayer.getCurrentState()) {
-            case WALKING_NORTH -> "player_walking_north_" + myPlayerAnimationFrame;
-            case WALKING_SOUTH -> "player_walking_south_" + myPlayerAnimationFrame;
-            case WALKING_EAST -> "player_walking_east_" + myPlayerAnimationFrame;
-            case WALKING_WEST -> "player_walking_west_" + myPlayerAnimationFrame;
-            case STANDING_NORTH -> "player_standing_north_0";
-            case STANDING_SOUTH -> "player_standing_south_0";
-            case STANDING_EAST -> "player_standing_east_0";
-            case STANDING_WEST -> "player_standing_west_0";
-            case IDLE_1, IDLE_2 -> "player_standing_south_0"; // Default to standing south for idle states
+     * @param theObject The object.
+     * @return The handle, or {@link SpriteAtlas#NO_SPRITE} if the object has no sprite.
+     */
+    private int getSpriteHandle(final GameObject theObject) {
+        return switch (theObject) {
+            case Wall wall -> getTileHandle(myWallHandles, wall.getBiome(), wall.getWallType());
+            case Floor floorTile -> getTileHandle(myFloorHandles, floorTile.getBiome(), floorTile.getFloorType());
+            case Player player -> getPlayerHandle(player);
+            case Enemy enemy -> getEnemyHandle(enemy);
+            case HealthPotion ignored -> myHealthPotionHandle;
+            case PoisonPotion ignored -> myPoisonPotionHandle;
+            case SpeedPotion ignored -> mySpeedPotionHandle;
+            case MysteryPotion ignored -> myMysteryPotionHandle;
+            case VisionPotion ignored -> myVisionPotionHandle;
+            case Bomb ignored -> myBombHandle;
+            case ActiveBomb activeBomb -> myBombClip == null ? SpriteAtlas.NO_SPRITE : myBombClip.getFrame(
+                    activeBomb.getMyExploded() ? BOMB_EXPLOSION : BOMB_TICKING,
+                    AnimationClip.NO_DIRECTION, activeBomb.getAnimationFrame());
+            case BreakableWall ignored -> myBreakableWallHandle;
+            case Chest chest -> chest.isOpen() ? myChestOpenHandle : myChestClosedHandle;
+            case Trap ignored -> myTrapHandle;
+            case Pillar ignored -> myPillarHandle;
+            case Exit ignored -> myExitHandle;
+            default -> SpriteAtlas.NO_SPRITE;
         };
-
-        // Adjust position to center the sprite over the hitbox
-        final int visualSpriteHeight = CHARACTER_SPRITE_HEIGHT * myGuiScale;
-        final int hitboxHeight = thePlayer.getHeight() * myGuiScale;
-        final int verticalOffset = visualSpriteHeight - hitboxHeight;
-        final int adjustedRenderY = theRenderY - verticalOffset;
-
-        renderMatchingSprite(theGraphics, theRenderX, adjustedRenderY, CHARACTER_SPRITE_WIDTH * myGuiScale, visualSpriteHeight, spriteIdentifier);
     }
 
     /**
-     * Renders an enemy's animated sprite based on its current state and class.
+     * Gets the handle of the player's animated sprite based on their current state.
      *
-     * @param theGraphics The Graphics2D object.
-     * @param theRenderX  The x-coordinate.
-     * @param theRenderY  The y-coordinate.
-     * @param theEnemy    The enemy object.
+     * @param thePlayer The player object.
+     * @return The handle.
      */
-    private void renderEnemySprite(final Graphics2D theGraphics, final int theRenderX, final int theRenderY, final Enemy theEnemy) {
-        final String spriteIdentifier;
-        final String enemyClass = theEnemy.getCharacterClass();
-        final int enemyAnimationFrame = myEnemyAnimationFrames.getOrDefault(theEnemy, 0);
-
-        // Special handling for dragon's stationary mode
-        final boolean isDragonStationary = "dragon".equals(enemyClass) &&
-                (myModel.getGameTicks() % 400 <= 200);
-
-        spriteIdentifier = switch (theEnemy.getCurrentState()) {
-            case WALKING_NORTH -> enemyClass + "_walking_north_" + (isDragonStationary ? "0" : enemyAnimationFrame);
-            case WALKING_SOUTH -> enemyClass + "_walking_south_" + (isDragonStationary ? "0" : enemyAnimationFrame);
-            case WALKING_EAST -> enemyClass + "_walking_east_" + (isDragonStationary ? "0" : enemyAnimationFrame);
-            case WALKING_WEST -> enemyClass + "_walking_west_" + (isDragonStationary ? "0" : enemyAnimationFrame);
-            case STANDING_NORTH -> enemyClass + "_standing_north_0";
-            case STANDING_SOUTH -> enemyClass + "_standing_south_0";
-            case STANDING_EAST -> enemyClass + "_standing_east_0";
-            case STANDING_WEST -> enemyClass + "_standing_west_0";
+    private int getPlayerHandle(final Player thePlayer) {
+        if (myPlayerClip == null) {
+            return SpriteAtlas.NO_SPRITE;
+        }
+        return switch (thePlayer.getCurrentState()) {
+            case WALKING_NORTH -> myPlayerClip.getFrame(AnimationClip.WALKING, AnimationClip.NORTH, myPlayerAnimationFrame);
+            case WALKING_SOUTH -> myPlayerClip.getFrame(AnimationClip.WALKING, AnimationClip.SOUTH, myPlayerAnimationFrame);
+            case WALKING_EAST -> myPlayerClip.getFrame(AnimationClip.WALKING, AnimationClip.EAST, myPlayerAnimationFrame);
+            case WALKING_WEST -> myPlayerClip.getFrame(AnimationClip.WALKING, AnimationClip.WEST, myPlayerAnimationFrame);
+            case STANDING_NORTH -> myPlayerClip.getFrame(AnimationClip.STANDING, AnimationClip.NORTH, 0);
+            case STANDING_SOUTH -> myPlayerClip.getFrame(AnimationClip.STANDING, AnimationClip.SOUTH, 0);
+            case STANDING_EAST -> myPlayerClip.getFrame(AnimationClip.STANDING, AnimationClip.EAST, 0);
+            case STANDING_WEST -> myPlayerClip.getFrame(AnimationClip.STANDING, AnimationClip.WEST, 0);
+            // Default to standing south for idle states
+            case IDLE_1, IDLE_2 -> myPlayerClip.getFrame(AnimationClip.STANDING, AnimationClip.SOUTH, 0);
         };
+    }
 
-        // Determine sprite dimensions based on enemy type
-        final int spriteWidth, spriteHeight;
-        if ("dragon".equals(enemyClass)) {
-            spriteWidth = 64;
-            spriteHeight = 64;
-        } else {
-            spriteWidth = CHARACTER_SPRITE_WIDTH;
-            spriteHeight = CHARACTER_SPRITE_HEIGHT;
+    /**
+     * Gets the handle of an enemy's animated sprite based on its current state and class.
+     *
+     * @param theEnemy The enemy object.
+     * @return The handle.
+     */
+    private int getEnemyHandle(final Enemy theEnemy) {
+        final AnimationClip clip = theEnemy.getAnimationClip();
+        if (clip == null) {
+            return SpriteAtlas.NO_SPRITE;
         }
 
-        final int visualSpriteWidth = spriteWidth * myGuiScale;
-        final int visualSpriteHeight = spriteHeight * myGuiScale;
-        final int hitboxWidth = theEnemy.getWidth() * myGuiScale;
-        final int hitboxHeight = theEnemy.getHeight() * myGuiScale;
-
-        // Center the sprite over the hitbox
-        final int horizontalOffset = (visualSpriteWidth - hitboxWidth) / 2;
-        final int verticalOffset = visualSpriteHeight - hitboxHeight;
-        final int adjustedRenderX = theRenderX - horizontalOffset;
-        final int adjustedRenderY = theRenderY - verticalOffset;
+        // Special handling for dragon's stationary mode
+        final boolean isDragonStationary = clip == myDragonClip && (myModel.getGameTicks() % 400 <= 200);
+        final int walkingFrame = isDragonStationary ? 0 : theEnemy.getAnimationFrame();
 
-        renderMatchingSprite(theGraphics, adjustedRenderX, adjustedRenderY, visualSpriteWidth, visualSpriteHeight, spriteIdentifier);
+        return switch (theEnemy.getCurrentState()) {
+            case WALKING_NORTH -> clip.getFrame(AnimationClip.WALKING, AnimationClip.NORTH, walkingFrame);
+            case WALKING_SOUTH -> clip.getFrame(AnimationClip.WALKING, AnimationClip.SOUTH, walkingFrame);
+            case WALKING_EAST -> clip.getFrame(AnimationClip.WALKING, AnimationClip.EAST, walkingFrame);
+            case WALKING_WEST -> clip.getFrame(AnimationClip.WALKING, AnimationClip.WEST, walkingFrame);
+            case STANDING_NORTH -> clip.getFrame(AnimationClip.STANDING, AnimationClip.NORTH, 0);
+            case STANDING_SOUTH -> clip.getFrame(AnimationClip.STANDING, AnimationClip.SOUTH, 0);
+            case STANDING_EAST -> clip.getFrame(AnimationClip.STANDING, AnimationClip.EAST, 0);
+            case STANDING_WEST -> clip.getFrame(AnimationClip.STANDING, AnimationClip.WEST, 0);
+        };
     }
 
     /**
-     * Renders a sprite image from the SpriteManager, scaled to a specified size.
+     * Renders a sprite from the atlas, scaled to a specified size.
      *
-     * @param theGraphics         The Graphics2D object to draw on.
-     * @param theRenderX          The x-coordinate for rendering.
-     * @param theRenderY          The y-coordinate for rendering.
-     * @param theRenderWidth      The width to render the sprite.
-     * @param theRenderHeight     The height to render the sprite.
-     * @param theSpriteIdentifier The identifier of the sprite to retrieve.
-     */
-    private void renderMatchingSprite(final Graphics2D theGraphics,
-                                      final int theRenderX,
-                                      final int theRenderY,
-                                      final int theRenderWidth,
-                                      final int theRenderHeight,
-                                      final String theSpriteIdentifier) {
-        if (theSpriteIdentifier != null) {
-            final ImageIcon spriteIcon = SpriteManager.getSprite(theSpriteIdentifier);
-            if (spriteIcon != null) {
-                final Image spriteImage = spriteIcon.getImage();
-                theGraphics.drawImage(spriteImage, theRenderX, theRenderY, theRenderWidth, theRenderHeight, this);
-            } else {
-                theGraphics.setColor(Color.PINK.darker());
-                theGraphics.fillRect(theRenderX, theRenderY, theRenderWidth, theRenderHeight);
-            }
-        } else {
-            theGraphics.setColor(Color.MAGENTA.darker());
-            theGraphics.fillRect(theRenderX, theRenderY, theRenderWidth, theRenderHeight);
+     * @param theGraphics     The Graphics2D object to draw on.
+     * @param theRenderX      The x-coordinate for rendering.
+     * @param theRenderY      The y-coordinate for rendering.
+     * @param theRenderWidth  The width to render the sprite.
+     * @param theRenderHeight The height to render the sprite.
+     * @param theHandle       The atlas handle of the sprite.
+     * @return True if something was drawn, false if the sprite's sheet is still loading.
+     */
+    private boolean renderSprite(final Graphics2D theGraphics,
+                              final int theRenderX,
+                              final int theRenderY,
+                              final int theRenderWidth,
+                              final int theRenderHeight,
+                              final int theHandle) {
+        if (theHandle != SpriteAtlas.NO_SPRITE) {
+            return SpriteManager.drawSprite(theGraphics, theHandle, theRenderX, theRenderY,
+                    theRenderWidth, theRenderHeight);
         }
+        theGraphics.setColor(Color.MAGENTA.darker());
+        theGraphics.fillRect(theRenderX, theRenderY, theRenderWidth, theRenderHeight);
+        return true;
+    }
+
+    /**
+     * Where an object's sprite was and which sprite it was, as of the last repaint request.
+     *
+     * @param bounds The sprite's screen bounds.
+     * @param handle The sprite's atlas handle.
+     */
+    private record DrawnSprite(Rectangle bounds, int handle) {
     }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package drippyspelunk.view.dungeon;
 
+import drippyspelunk.controller.sprite.AnimationClip;
+import drippyspelunk.controller.sprite.SpriteAtlas;
 import drippyspelunk.controller.sprite.SpriteManager;
 
 import javax.swing.*;
@@ -16,7 +18,7 @@ import java.awt.geom.Rectangle2D;
  *
  * @author Devin Arroyo
  * @author David Norman
- * @version 1.4
+ * @version 1.8
  */
 public class DungeonOverlayPanel extends JPanel {
 
@@ -24,6 +26,10 @@ public class DungeonOverlayPanel extends JPanel {
      * The base font size for the buttons.
      */
     private static final int BASE_FONT_SIZE = 14;
+    /**
+     * The base font size for the save status message.
+     */
+    private static final int STATUS_FONT_SIZE = 8;
     /**
      * The base width of the buttons.
      */
@@ -92,10 +98,22 @@ public class DungeonOverlayPanel extends JPanel {
      * The button to quit the application.
      */
     private final JButton myQuitButton;
+    /**
+     * The label showing how the last save went.
+     */
+    private final JLabel myStatusLabel;
     /**
      * The current animation frame index for the overlay's animated image.
      */
     private int myOverlayAnimationFrame;
+    /**
+     * The animation clip of the overlay's animated image.
+     */
+    private final AnimationClip myOverlayClip;
+    /**
+     * The atlas handle of the left panel's background sprite.
+     */
+    private final int myLeftBackgroundHandle;
 
     /**
      * Constructs the DungeonOverlayPanel.
@@ -124,6 +142,10 @@ public class DungeonOverlayPanel extends JPanel {
         mySaveGameButton = createStyledButton(OverlayButtonAction.SAVE_GAME);
         myTitleButton = createStyledButton(OverlayButtonAction.TITLE);
         myQuitButton = createStyledButton(OverlayButtonAction.QUIT);
+        myStatusLabel = new JLabel(" ");
+        myStatusLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        myStatusLabel.setForeground(Color.WHITE);
+        myStatusLabel.setFont(new Font(FONT_NAME, Font.BOLD, STATUS_FONT_SIZE * myGuiScale));
 
         final int buttonSpacing = BUTTON_SPACING * myGuiScale;
         final int verticalPadding = VERTICAL_PADDING * myGuiScale;
@@ -139,6 +161,8 @@ public class DungeonOverlayPanel extends JPanel {
         textPanel.add(myTitleButton);
         textPanel.add(Box.createVerticalStrut(buttonSpacing));
         textPanel.add(myQuitButton);
+        textPanel.add(Box.createVerticalStrut(buttonSpacing));
+        textPanel.add(myStatusLabel);
         textPanel.add(Box.createVerticalStrut(verticalPadding));
 
         add(textPanel, BorderLayout.WEST);
@@ -150,6 +174,8 @@ public class DungeonOverlayPanel extends JPanel {
         add(animationPlaceholder, BorderLayout.CENTER);
 
         myOverlayAnimationFrame = 0;
+        myOverlayClip = SpriteManager.getAnimationClip("overlay_background_right");
+        myLeftBackgroundHandle = SpriteManager.getHandle("overlay_background_left");
     }
 
     /**
@@ -219,12 +245,26 @@ public class DungeonOverlayPanel extends JPanel {
     }
 
     /**
-     * Sets the current animation frame index for the overlay's animated image.
+     * Shows a message about the last save below the buttons.
+     *
+     * @param theMessage The message to show.
+     */
+    public void showStatus(final String theMessage) {
+        // Use SwingUtilities.invokeLater because saves finish on the writer thread.
+        SwingUtilities.invokeLater(() -> myStatusLabel.setText(theMessage));
+    }
+
+    /**
+     * Sets the current animation frame index for the overlay's animated image,
+     * repainting the overlay if the frame changed.
      *
      * @param theFrame The frame index.
      */
     public void setOverlayAnimationFrame(final int theFrame) {
-        myOverlayAnimationFrame = theFrame;
+        if (myOverlayAnimationFrame != theFrame) {
+            myOverlayAnimationFrame = theFrame;
+            repaint();
+        }
     }
 
     /**
@@ -250,10 +290,9 @@ public class DungeonOverlayPanel extends JPanel {
      */
     private void renderLeftPanelBackground(final Graphics2D theGraphics) {
         final int leftPanelWidth = myLogicalWidth / 4;
-        final ImageIcon backgroundSprite = SpriteManager.getSprite("overlay_background_left");
-        if (backgroundSprite != null) {
-            final Image backgroundImage = backgroundSprite.getImage();
-            theGraphics.drawImage(backgroundImage, 0, 0, leftPanelWidth * myGuiScale, myLogicalHeight * myGuiScale, this);
+        if (myLeftBackgroundHandle != SpriteAtlas.NO_SPRITE) {
+            SpriteManager.drawSprite(theGraphics, myLeftBackgroundHandle, 0, 0,
+                    leftPanelWidth * myGuiScale, myLogicalHeight * myGuiScale);
         }
         final Color startColor = new Color(0, 0, 0, 255);
         final Color endColor = new Color(50, 50, 50, 150);
@@ -268,14 +307,14 @@ public class DungeonOverlayPanel extends JPanel {
      * @param theGraphics The Graphics2D object to draw on.
      */
     private void renderAnimatedImage(final Graphics2D theGraphics) {
-        final String spriteIdentifier = "overlay_background_right_normal_" + myOverlayAnimationFrame;
-        final ImageIcon spriteIcon = SpriteManager.getSprite(spriteIdentifier);
-        if (spriteIcon != null) {
+        final int handle = myOverlayClip == null ? SpriteAtlas.NO_SPRITE
+                : myOverlayClip.getFrame(0, AnimationClip.NO_DIRECTION, myOverlayAnimationFrame);
+        if (handle != SpriteAtlas.NO_SPRITE) {
             final int imageWidth = IMAGE_BASE_SIZE * myGuiScale;
             final int imageHeight = IMAGE_BASE_SIZE * myGuiScale;
             final int x = getWidth() - imageWidth;
             final int y = (getHeight() - imageHeight) / 2;
-            theGraphics.drawImage(spriteIcon.getImage(), x, y, imageWidth, imageHeight, this);
+            SpriteManager.drawSprite(theGraphics, handle, x, y, imageWidth, imageHeight);
         } else {
             theGraphics.setColor(Color.RED);
             theGraphics.fill(new Rectangle2D.Double(myLogicalWidth / 4.0 * myGuiScale, 0, myLogicalWidth * 3.0 / 4.0 * myGuiScale, myLogicalHeight * myGuiScale));
@@ -12,11 +12,13 @@ import java.beans.PropertyChangeListener;
  * A panel that composes the various view components for the Dungeon Screen,
  * including the main game view, minimap, player information, and controls.
  * This class acts as a container, organizing and managing the layout of its subpanels.
+ * Each tick only the parts of the game view that changed are repainted; the side panels and overlays
+ * repaint themselves when their data or animation frame changes.
  *
  * @author Devin Arroyo
  * @author David Norman
  * @author Mark Malyshev
- * @version 1.7
+ * @version 1.8
  */
 public class DungeonScreenPanel extends JPanel implements PropertyChangeListener {
 
@@ -131,12 +133,12 @@ public class DungeonScreenPanel extends JPanel implements PropertyChangeListener
     }
 
     /**
-     * Renders the entire dungeon screen panel.
+     * Renders the dungeon screen panel by repainting the regions of the game view that changed since the last render.
      * This method is a public-facing call to trigger a repaint.
      *
      * @param theCurrentTime The current system time, which can be used for animations.
      */
     public void render(final long theCurrentTime) {
-        repaint();
+        myDungeonScreen.getDungeonContentPanel().repaintChanges();
     }
 }
\ No newline at end of file
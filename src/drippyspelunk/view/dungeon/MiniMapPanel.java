@@ -1,6 +1,7 @@
 package drippyspelunk.view.dungeon;
 
 import drippyspelunk.model.dungeon.DungeonCrawlerLogic;
+import drippyspelunk.model.dungeon.IDungeonGrid;
 import drippyspelunk.model.dungeon.MiniMapLogic;
 
 import javax.swing.*;
@@ -11,10 +12,11 @@ import java.util.Set;
 
 /**
  * Minimap panel that shows only connected rooms within vision range.
+ * The panel repaints itself when the current room, the floor, or the player's vision changes.
  *
  * @author Devin Arroyo
  * @author David Norman
- * @version 2.1
+ * @version 2.4
  */
 public class MiniMapPanel extends JPanel implements PropertyChangeListener {
 
@@ -87,15 +89,16 @@ public class MiniMapPanel extends JPanel implements PropertyChangeListener {
 
         // Register as a listener for relevant property changes
         myLogic.addPropertyChangeListener(DungeonCrawlerLogic.CURRENT_ROOM_PROPERTY, this);
-        myLogic.addPropertyChangeListener(DungeonCrawlerLogic.PLAYER_POSITION_PROPERTY, this);
+        myLogic.addPropertyChangeListener(DungeonCrawlerLogic.PLAYER_STATS_CHANGED_PROPERTY, this);
+        myLogic.addPropertyChangeListener(DungeonCrawlerLogic.FLOOR_CHANGED_PROPERTY, this);
     }
 
     /**
      * Sets the dungeon grid data from the generator.
      *
-     * @param theGrid The 2D array representing the dungeon layout.
+     * @param theGrid The grid representing the dungeon layout.
      */
-    public void setDungeonGrid(final int[][] theGrid) {
+    public void setDungeonGrid(final IDungeonGrid theGrid) {
         myMinimapLogic.setDungeonGrid(theGrid);
         updateRoomVisibility();
     }
@@ -116,7 +119,7 @@ public class MiniMapPanel extends JPanel implements PropertyChangeListener {
     protected void paintComponent(final Graphics theGraphics) {
         super.paintComponent(theGraphics);
 
-        final int[][] myDungeonGrid = myMinimapLogic.getDungeonGrid();
+        final IDungeonGrid myDungeonGrid = myMinimapLogic.getDungeonGrid();
         final Point myCurrentRoomGridPosition = myMinimapLogic.getCurrentRoomGridPosition();
 
         if (myDungeonGrid == null || myLogic.getCurrentRoom() == null || myCurrentRoomGridPosition.x == -1) {
@@ -150,9 +153,9 @@ public class MiniMapPanel extends JPanel implements PropertyChangeListener {
         final int startX = MARGIN + (availableWidth - visibleWidth * cellSize) / 2;
         final int startY = MARGIN + (availableHeight - visibleHeight * cellSize) / 2;
 
-        final int currentRoomId = myLogic.getCurrentRoom().getRoomID();
-        final Set<Integer> myVisitedRooms = myMinimapLogic.getVisitedRooms();
-        final Set<Integer> myVisibleRooms = myMinimapLogic.getVisibleRooms();
+        final long currentRoomId = myLogic.getCurrentRoom().getRoomID();
+        final Set<Long> myVisitedRooms = myMinimapLogic.getVisitedRooms();
+        final Set<Long> myVisibleRooms = myMinimapLogic.getVisibleRooms();
 
         // Draw the minimap grid
         for (int y = startGridY; y < endGridY; y++) {
@@ -160,8 +163,8 @@ public class MiniMapPanel extends JPanel implements PropertyChangeListener {
                 final int cellX = startX + (x - startGridX) * cellSize;
                 final int cellY = startY + (y - startGridY) * cellSize;
 
-                final int cellValue = myDungeonGrid[y][x];
-                final int roomId = y * myGridWidth + x;
+                final int cellValue = myDungeonGrid.get(y, x);
+                final long roomId = IDungeonGrid.roomKey(y, x);
 
                 final boolean isCurrent = roomId == currentRoomId;
                 final boolean isVisited = myVisitedRooms.contains(roomId);
@@ -261,8 +264,13 @@ public class MiniMapPanel extends JPanel implements PropertyChangeListener {
     public void propertyChange(final PropertyChangeEvent theEvent) {
         String propertyName = theEvent.getPropertyName();
 
-        if (DungeonCrawlerLogic.CURRENT_ROOM_PROPERTY.equals(propertyName)) {
+        if (DungeonCrawlerLogic.CURRENT_ROOM_PROPERTY.equals(propertyName)
+                || DungeonCrawlerLogic.PLAYER_STATS_CHANGED_PROPERTY.equals(propertyName)) {
             updateRoomVisibility();
+            repaint();
+        } else if (DungeonCrawlerLogic.FLOOR_CHANGED_PROPERTY.equals(propertyName)) {
+            setDungeonGrid(myLogic.getDungeonGrid());
+            repaint();
         }
     }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package drippyspelunk.view.dungeon;
 
+import drippyspelunk.controller.sprite.AnimationClip;
+import drippyspelunk.controller.sprite.SpriteAtlas;
 import drippyspelunk.controller.sprite.SpriteManager;
 import drippyspelunk.model.dungeon.DungeonCrawlerLogic;
 
@@ -13,7 +15,7 @@ import java.beans.PropertyChangeListener;
  *
  * @author Devin Arroyo
  * @author David Norman
- * @version 1.4
+ * @version 1.6
  */
 public class PlayerControlsPanel extends JPanel implements PropertyChangeListener {
 
@@ -29,6 +31,14 @@ public class PlayerControlsPanel extends JPanel implements PropertyChangeListene
      * The total number of pillars to be collected in the game.
      */
     private static final int TOTAL_PILLARS = 4;
+    /**
+     * The state index of the normal controls in the controls animation clip.
+     */
+    private static final int CONTROLS_NORMAL = 0;
+    /**
+     * The state index of the combat controls in the controls animation clip.
+     */
+    private static final int CONTROLS_COMBAT = 1;
 
     // Text styling constants
     /**
@@ -65,6 +75,10 @@ public class PlayerControlsPanel extends JPanel implements PropertyChangeListene
      * The current index of the animation frame for the control sprite.
      */
     private int myAnimationFrameIndex = 0;
+    /**
+     * The animation clip of the control sprite.
+     */
+    private final AnimationClip myControlsClip = SpriteManager.getAnimationClip("controls");
     /**
      * The number of pillars remaining to be collected.
      */
@@ -91,12 +105,15 @@ public class PlayerControlsPanel extends JPanel implements PropertyChangeListene
     }
 
     /**
-     * Sets the current animation frame index for the control sprite.
+     * Sets the current animation frame index for the control sprite, repainting the panel if the frame changed.
      *
      * @param theFrame The frame index.
      */
     public void setAnimationFrame(final int theFrame) {
-        myAnimationFrameIndex = theFrame;
+        if (myAnimationFrameIndex != theFrame) {
+            myAnimationFrameIndex = theFrame;
+            repaint();
+        }
     }
 
     /**
@@ -180,18 +197,16 @@ public class PlayerControlsPanel extends JPanel implements PropertyChangeListene
      * @param theGraphics The Graphics2D object to draw on.
      */
     private void drawControlsSprite(final Graphics2D theGraphics) {
-        final String spriteIdentifier = myLogic.isInCombat()
-                ? "controls_combat_" + myAnimationFrameIndex
-                : "controls_normal_" + myAnimationFrameIndex;
-
-        final ImageIcon spriteIcon = SpriteManager.getSprite(spriteIdentifier);
+        final int handle = myControlsClip == null ? SpriteAtlas.NO_SPRITE : myControlsClip.getFrame(
+                myLogic.isInCombat() ? CONTROLS_COMBAT : CONTROLS_NORMAL,
+                AnimationClip.NO_DIRECTION, myAnimationFrameIndex);
 
         final int scaledWidth = SPRITE_WIDTH * myGuiScale;
         final int scaledHeight = SPRITE_HEIGHT * myGuiScale;
         final int controlsY = TEXT_AREA_HEIGHT * myGuiScale;
-        if (spriteIcon != null) {
+        if (handle != SpriteAtlas.NO_SPRITE) {
             // Position controls below the text area
-            theGraphics.drawImage(spriteIcon.getImage(), 0, controlsY, scaledWidth, scaledHeight, this);
+            SpriteManager.drawSprite(theGraphics, handle, 0, controlsY, scaledWidth, scaledHeight);
         } else {
             // Fallback rectangle below a text
             theGraphics.setColor(Color.MAGENTA);
@@ -209,6 +224,7 @@ public class PlayerControlsPanel extends JPanel implements PropertyChangeListene
     public void propertyChange(final PropertyChangeEvent theEvent) {
         if (DungeonCrawlerLogic.PILLARS_COLLECTED_PROPERTY.equals(theEvent.getPropertyName())) {
             myPillarsCollected = (Integer) theEvent.getNewValue();
+            repaint();
         }
     }
 }
\ No newline at end of file
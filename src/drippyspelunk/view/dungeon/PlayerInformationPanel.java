@@ -1,6 +1,7 @@
 package drippyspelunk.view.dungeon;
 
 import drippyspelunk.controller.input.DungeonCrawlerController;
+import drippyspelunk.controller.sprite.SpriteAtlas;
 import drippyspelunk.controller.sprite.SpriteManager;
 import drippyspelunk.model.dungeon.DungeonCrawlerLogic;
 import drippyspelunk.model.dungeon.entity.asset.Bomb;
@@ -11,17 +12,21 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import java.util.List;
 
 /**
  * Player information panel that shows player stats, combat status, and inventory grid.
+ * The panel is not repainted with the dungeon view each tick; it repaints itself when the model reports
+ * that the player's health, stats, level, or inventory changed.
  *
  * @author Devin Arroyo
  * @author David Norman
  * @author Mark Malyshev
- * @version 2.7
+ * @version 2.9
  */
-public final class PlayerInformationPanel extends JPanel {
+public final class PlayerInformationPanel extends JPanel implements PropertyChangeListener {
 
     /**
      * The number of columns in the inventory grid.
@@ -144,6 +149,24 @@ public final class PlayerInformationPanel extends JPanel {
         setLayout(new BorderLayout());
 
         setupInventoryGrid();
+
+        // Repaint only when the player's information changes
+        myModel.addPropertyChangeListener(DungeonCrawlerLogic.PLAYER_HEALTH_CHANGED_PROPERTY, this);
+        myModel.addPropertyChangeListener(DungeonCrawlerLogic.PLAYER_STATS_CHANGED_PROPERTY, this);
+        myModel.addPropertyChangeListener(DungeonCrawlerLogic.PLAYER_LEVEL_UP_PROPERTY, this);
+        myModel.addPropertyChangeListener(DungeonCrawlerLogic.INVENTORY_CHANGED_PROPERTY, this);
+        myModel.addPropertyChangeListener(DungeonCrawlerLogic.COMBAT_STATE_CHANGED_PROPERTY, this);
+        myModel.addPropertyChangeListener(DungeonCrawlerLogic.FLOOR_CHANGED_PROPERTY, this);
+    }
+
+    /**
+     * Repaints the panel and its inventory slots when the player's information changes.
+     *
+     * @param theEvent The property change event.
+     */
+    @Override
+    public void propertyChange(final PropertyChangeEvent theEvent) {
+        repaint();
     }
 
     /**
@@ -392,10 +415,9 @@ public final class PlayerInformationPanel extends JPanel {
                                       final int theRenderHeight,
                                       final String theSpriteIdentifier) {
         if (theSpriteIdentifier != null) {
-            final ImageIcon spriteIcon = SpriteManager.getSprite(theSpriteIdentifier);
-            if (spriteIcon != null) {
-                final Image spriteImage = spriteIcon.getImage();
-                theGraphics.drawImage(spriteImage, theRenderX, theRenderY, theRenderWidth, theRenderHeight, this);
+            final int handle = SpriteManager.getHandle(theSpriteIdentifier);
+            if (handle != SpriteAtlas.NO_SPRITE) {
+                SpriteManager.drawSprite(theGraphics, handle, theRenderX, theRenderY, theRenderWidth, theRenderHeight);
             } else {
                 theGraphics.setColor(Color.PINK.darker());
                 theGraphics.fillRect(theRenderX, theRenderY, theRenderWidth, theRenderHeight);
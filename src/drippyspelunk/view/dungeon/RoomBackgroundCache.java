@@ -0,0 +1,346 @@
+package drippyspelunk.view.dungeon;
+
+import drippyspelunk.model.dungeon.Room;
+import drippyspelunk.model.dungeon.TileLayer;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The static terrain of the last few rooms, each drawn once into an image the size of the panel.
+ * A room's floor and wall tiles are drawn when it is first entered; tile layers are immutable and replaced
+ * when a tile changes, so when a room's layers differ from the ones its image was drawn from, only the tiles
+ * that changed are drawn again. The last {@value #CACHED_ROOMS} rooms are kept, so walking back and forth
+ * through a door draws no tiles at all. A room drawn while one of its sheets was still loading is drawn again,
+ * in full, on the next draw after that.
+ * <p>
+ * On the volatile image path chosen by {@link drippyspelunk.controller.sprite.RenderCapabilities} the current room's
+ * image is also mirrored into a {@link VolatileImage}. The mirror is copied again from the room's image
+ * when the room or its terrain changes or when {@link VolatileImage#validate} reports that its contents were lost,
+ * and the blit is repeated if they were lost during it.
+ *
+ * @author David Norman
+ * @version 1.2
+ */
+final class RoomBackgroundCache {
+
+    /**
+     * The number of rooms whose terrain is kept.
+     */
+    private static final int CACHED_ROOMS = 4;
+
+    /**
+     * Draws one tile of a room's terrain.
+     */
+    @FunctionalInterface
+    interface TilePainter {
+
+        /**
+         * Draws the floor and wall tiles of one cell of a room, in panel coordinates.
+         *
+         * @param theGraphics The graphics to draw with.
+         * @param theRoom     The room.
+         * @param theRow      The cell's row.
+         * @param theColumn   The cell's column.
+         * @return True if every tile of the cell was drawn, false if one was skipped because its sheet is still loading.
+         */
+        boolean paintTile(Graphics2D theGraphics, Room theRoom, int theRow, int theColumn);
+    }
+
+    /**
+     * Draws the tiles.
+     */
+    private final TilePainter myPainter;
+    /**
+     * The size of a tile on the panel, in pixels.
+     */
+    private final int myTileSize;
+    /**
+     * How far the terrain is drawn above the top of the panel, in pixels.
+     */
+    private final int myYOffset;
+    /**
+     * The screen's graphics configuration, or null if there is no screen.
+     */
+    private final GraphicsConfiguration myConfiguration;
+    /**
+     * The graphics configuration of the volatile mirror, or null on the managed image path.
+     */
+    private final GraphicsConfiguration myVolatileConfiguration;
+    /**
+     * The terrain of the last few rooms, least recently drawn first.
+     */
+    private final Map<Room, Terrain> myTerrains;
+    /**
+     * The volatile mirror of the current room's terrain, or null before it is first drawn.
+     */
+    private VolatileImage myMirror;
+    /**
+     * The terrain the mirror was copied from.
+     */
+    private Terrain myMirroredTerrain;
+    /**
+     * The version of the terrain the mirror was copied from.
+     */
+    private int myMirroredVersion;
+
+    /**
+     * Constructs an empty RoomBackgroundCache.
+     *
+     * @param thePainter                Draws the tiles.
+     * @param theTileSize               The size of a tile on the panel, in pixels.
+     * @param theYOffset                How far the terrain is drawn above the top of the panel, in pixels.
+     * @param theVolatileConfiguration  The graphics configuration to mirror the current room into video memory for,
+     *                                  or null on the managed image path.
+     */
+    RoomBackgroundCache(final TilePainter thePainter, final int theTileSize, final int theYOffset,
+                        final GraphicsConfiguration theVolatileConfiguration) {
+        myPainter = thePainter;
+        myTileSize = theTileSize;
+        myYOffset = theYOffset;
+        myConfiguration = GraphicsEnvironment.isHeadless() ? null
+                : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+        myVolatileConfiguration = theVolatileConfiguration;
+        myTerrains = new LinkedHashMap<>(CACHED_ROOMS + 1, 1, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Room, Terrain> theEldest) {
+                return size() > CACHED_ROOMS;
+            }
+        };
+    }
+
+    /**
+     * Brings a room's terrain up to date, drawing it if the room is not cached and redrawing the tiles that changed
+     * if it is.
+     *
+     * @param theRoom   The room.
+     * @param theWidth  The width of the panel.
+     * @param theHeight The height of the panel.
+     */
+    void update(final Room theRoom, final int theWidth, final int theHeight) {
+        getTerrain(theRoom, theWidth, theHeight);
+    }
+
+    /**
+     * Gets a room's terrain, brought up to date.
+     *
+     * @param theRoom   The room.
+     * @param theWidth  The width of the panel.
+     * @param theHeight The height of the panel.
+     * @return The room's terrain, or null if the panel is empty.
+     */
+    private Terrain getTerrain(final Room theRoom, final int theWidth, final int theHeight) {
+        if (theWidth <= 0 || theHeight <= 0) {
+            return null;
+        }
+        Terrain terrain = myTerrains.get(theRoom);
+        if (terrain == null || terrain.myImage.getWidth() != theWidth || terrain.myImage.getHeight() != theHeight
+                || terrain.myBiome != theRoom.getBiome()) {
+            terrain = new Terrain(createImage(theWidth, theHeight));
+            drawAll(terrain, theRoom);
+            myTerrains.put(theRoom, terrain);
+        } else if (!terrain.myComplete) {
+            drawAll(terrain, theRoom);
+        } else if (terrain.myFloorLayer != theRoom.getFloorLayer() || terrain.myWallLayer != theRoom.getWallLayer()) {
+            drawChanges(terrain, theRoom);
+        }
+        return terrain;
+    }
+
+    /**
+     * Draws a room's terrain, bringing it up to date first.
+     *
+     * @param theGraphics The graphics to draw with.
+     * @param theRoom     The room.
+     * @param theWidth    The width of the panel.
+     * @param theHeight   The height of the panel.
+     */
+    void draw(final Graphics2D theGraphics, final Room theRoom, final int theWidth, final int theHeight) {
+        final Terrain terrain = getTerrain(theRoom, theWidth, theHeight);
+        if (terrain == null) {
+            return;
+        }
+        if (myVolatileConfiguration == null) {
+            theGraphics.drawImage(terrain.myImage, 0, 0, null);
+            return;
+        }
+
+        if (myMirror == null || myMirror.getWidth() != theWidth || myMirror.getHeight() != theHeight) {
+            flush();
+            myMirror = myVolatileConfiguration.createCompatibleVolatileImage(theWidth, theHeight,
+                    Transparency.TRANSLUCENT);
+        }
+        do {
+            int status = myMirror.validate(myVolatileConfiguration);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                myMirror.flush();
+                myMirror = myVolatileConfiguration.createCompatibleVolatileImage(theWidth, theHeight,
+                        Transparency.TRANSLUCENT);
+                status = VolatileImage.IMAGE_RESTORED;
+            }
+            if (status != VolatileImage.IMAGE_OK || myMirroredTerrain != terrain
+                    || myMirroredVersion != terrain.myVersion) {
+                final Graphics2D graphics = myMirror.createGraphics();
+                graphics.setComposite(AlphaComposite.Src);
+                graphics.drawImage(terrain.myImage, 0, 0, null);
+                graphics.dispose();
+                myMirroredTerrain = terrain;
+                myMirroredVersion = terrain.myVersion;
+            }
+            theGraphics.drawImage(myMirror, 0, 0, null);
+        } while (myMirror.contentsLost());
+    }
+
+    /**
+     * Creates an empty image for a room's terrain, in the screen's native format when there is a screen.
+     *
+     * @param theWidth  The width.
+     * @param theHeight The height.
+     * @return The image.
+     */
+    private BufferedImage createImage(final int theWidth, final int theHeight) {
+        return myConfiguration != null
+                ? myConfiguration.createCompatibleImage(theWidth, theHeight, Transparency.TRANSLUCENT)
+                : new BufferedImage(theWidth, theHeight, BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+
+    /**
+     * Clears a room's terrain and draws every tile of the room into it.
+     *
+     * @param theTerrain The room's terrain.
+     * @param theRoom    The room.
+     */
+    private void drawAll(final Terrain theTerrain, final Room theRoom) {
+        final Graphics2D graphics = theTerrain.myImage.createGraphics();
+        graphics.setComposite(AlphaComposite.Clear);
+        graphics.fillRect(0, 0, theTerrain.myImage.getWidth(), theTerrain.myImage.getHeight());
+        graphics.setComposite(AlphaComposite.SrcOver);
+        boolean complete = true;
+        for (int row = 0; row < Room.GRID_HEIGHT; row++) {
+            for (int column = 0; column < Room.GRID_WIDTH; column++) {
+                complete &= myPainter.paintTile(graphics, theRoom, row, column);
+            }
+        }
+        graphics.dispose();
+        theTerrain.drawn(theRoom, complete);
+    }
+
+    /**
+     * Draws again the tiles of a room whose floor or wall changed since its terrain was drawn.
+     *
+     * @param theTerrain The room's terrain.
+     * @param theRoom    The room.
+     */
+    private void drawChanges(final Terrain theTerrain, final Room theRoom) {
+        final Graphics2D graphics = theTerrain.myImage.createGraphics();
+        boolean complete = true;
+        for (int row = 0; row < Room.GRID_HEIGHT; row++) {
+            for (int column = 0; column < Room.GRID_WIDTH; column++) {
+                if (getTile(theTerrain.myFloorLayer, row, column) != getTile(theRoom.getFloorLayer(), row, column)
+                        || getTile(theTerrain.myWallLayer, row, column) != getTile(theRoom.getWallLayer(), row, column)) {
+                    final int x = column * myTileSize;
+                    final int y = row * myTileSize - myYOffset;
+                    graphics.setClip(x, y, myTileSize, myTileSize);
+                    graphics.setComposite(AlphaComposite.Clear);
+                    graphics.fillRect(x, y, myTileSize, myTileSize);
+                    graphics.setComposite(AlphaComposite.SrcOver);
+                    complete &= myPainter.paintTile(graphics, theRoom, row, column);
+                }
+            }
+        }
+        graphics.dispose();
+        theTerrain.drawn(theRoom, complete);
+    }
+
+    /**
+     * Gets a tile of a layer that may be missing.
+     *
+     * @param theLayer  The layer, or null.
+     * @param theRow    The row.
+     * @param theColumn The column.
+     * @return The tile, or {@link TileLayer#EMPTY_TILE} if there is no layer or the cell is outside it.
+     */
+    private static int getTile(final TileLayer theLayer, final int theRow, final int theColumn) {
+        if (theLayer == null || theRow >= theLayer.getHeight() || theColumn >= theLayer.getWidth()) {
+            return TileLayer.EMPTY_TILE;
+        }
+        return theLayer.get(theRow, theColumn);
+    }
+
+    /**
+     * Drops every cached room and releases the mirror's video memory.
+     */
+    void clear() {
+        myTerrains.clear();
+        myMirroredTerrain = null;
+        flush();
+    }
+
+    /**
+     * Releases the mirror's video memory. The next draw makes a new mirror.
+     */
+    private void flush() {
+        if (myMirror != null) {
+            myMirror.flush();
+            myMirror = null;
+        }
+        myMirroredTerrain = null;
+    }
+
+    /**
+     * The image of one room's terrain and the layers it was drawn from.
+     */
+    private static final class Terrain {
+
+        /**
+         * The image holding the drawn tiles.
+         */
+        private final BufferedImage myImage;
+        /**
+         * The floor layer the image was drawn from.
+         */
+        private TileLayer myFloorLayer;
+        /**
+         * The wall layer the image was drawn from.
+         */
+        private TileLayer myWallLayer;
+        /**
+         * The biome the image was drawn with.
+         */
+        private int myBiome;
+        /**
+         * A counter that advances each time tiles are drawn into the image.
+         */
+        private int myVersion;
+        /**
+         * Whether every tile was drawn, or one was skipped because its sheet was still loading.
+         */
+        private boolean myComplete;
+
+        /**
+         * Constructs a Terrain with an empty image.
+         *
+         * @param theImage The image.
+         */
+        private Terrain(final BufferedImage theImage) {
+            myImage = theImage;
+        }
+
+        /**
+         * Records that the image now shows a room's current layers.
+         *
+         * @param theRoom     The room.
+         * @param theComplete Whether every tile was drawn.
+         */
+        private void drawn(final Room theRoom, final boolean theComplete) {
+            myComplete = theComplete;
+            myFloorLayer = theRoom.getFloorLayer();
+            myWallLayer = theRoom.getWallLayer();
+            myBiome = theRoom.getBiome();
+            myVersion++;
+        }
+    }
+}
@@ -6,10 +6,10 @@ import javax.swing.*;
 import java.awt.*;
 
 /**
- * Panel for load game.
+ * Panel for load game, with a button for the autosave and one per save slot.
  *
  * @author Devin Arroyo
- * @version 1.0
+ * @version 1.2
  */
 class LoadGamePanel extends JPanel {
 
@@ -25,9 +25,11 @@ class LoadGamePanel extends JPanel {
     /**
      * Constructs the LoadGamePanel.
      *
-     * @param theGuiScale The GUI scaling factor.
+     * @param theGuiScale       The GUI scaling factor.
+     * @param theAutosaveButton The button that continues the autosave.
+     * @param theSlotButtons    The buttons that load each save slot, in slot order.
      */
-    LoadGamePanel(final int theGuiScale) {
+    LoadGamePanel(final int theGuiScale, final JButton theAutosaveButton, final JButton[] theSlotButtons) {
         setBackground(Color.GREEN.darker());
         setLayout(new GridBagLayout());
         final GridBagConstraints gbc = new GridBagConstraints();
@@ -42,11 +44,14 @@ class LoadGamePanel extends JPanel {
         gbc.gridy = 0;
         add(titleLabel, gbc);
 
-        // "Coming Soon!" message label
+        // Autosave button
         gbc.gridy++;
-        final JLabel comingSoonLabel = new JLabel("Coming Soon!");
-        comingSoonLabel.setForeground(Color.WHITE);
-        comingSoonLabel.setFont(new Font(GUIConstants.FONT_NAME, Font.PLAIN, 12 * theGuiScale));
-        add(comingSoonLabel, gbc);
+        add(theAutosaveButton, gbc);
+
+        // Save slot buttons
+        for (final JButton slotButton : theSlotButtons) {
+            gbc.gridy++;
+            add(slotButton, gbc);
+        }
     }
 }
\ No newline at end of file
@@ -13,7 +13,7 @@ import java.util.List;
  * A panel for the new game menu, allowing the player to enter a name and select a character.
  *
  * @author David Norman
- * @version 1.1
+ * @version 1.2
  */
 public class NewGamePanel extends JPanel {
 
@@ -42,6 +42,14 @@ public class NewGamePanel extends JPanel {
      * The panel that displays the available characters for selection.
      */
     private final JPanel myCharacterPanel;
+    /**
+     * The button that starts the game, disabled while a dungeon is being generated.
+     */
+    private final JButton myStartGameButton;
+    /**
+     * The bar that shows the progress of the dungeon generation.
+     */
+    private final JProgressBar myGenerationProgressBar;
 
     /**
      * The currently selected character.
@@ -58,6 +66,7 @@ public class NewGamePanel extends JPanel {
     NewGamePanel(final int theGuiScale, final TitleScreenLogic theLogic, final JButton theStartGameButton) {
         myGuiScale = theGuiScale;
         myLogic = theLogic;
+        myStartGameButton = theStartGameButton;
 
         setBackground(new Color(60, 60, 60));
         setLayout(new BorderLayout(0, 10));
@@ -113,6 +122,14 @@ public class NewGamePanel extends JPanel {
         theStartGameButton.setActionCommand("Start New Game");
         theStartGameButton.setFont(new Font("SansSerif", Font.BOLD, INPUT_FONT_SIZE * myGuiScale));
         buttonPanel.add(theStartGameButton);
+
+        // Generation progress, shown only while a dungeon is being generated for the new game
+        myGenerationProgressBar = new JProgressBar(0, 100);
+        myGenerationProgressBar.setStringPainted(true);
+        myGenerationProgressBar.setFont(new Font("SansSerif", Font.BOLD, INPUT_FONT_SIZE * myGuiScale));
+        myGenerationProgressBar.setVisible(false);
+        buttonPanel.add(myGenerationProgressBar);
+
         add(buttonPanel, BorderLayout.SOUTH);
     }
 
@@ -209,4 +226,27 @@ public class NewGamePanel extends JPanel {
     public String getPlayerName() {
         return myNameField.getText().trim();
     }
-}
\ No newline at end of file
+
+    /**
+     * Shows the progress of the dungeon being generated for the new game.
+     *
+     * @param theStageName The name of the generation stage currently running, or null when generation is done.
+     * @param theProgress  The overall progress of the generation, from 0.0 to 1.0.
+     */
+    public void showGenerationProgress(final String theStageName, final double theProgress) {
+        myStartGameButton.setEnabled(false);
+        myGenerationProgressBar.setValue((int) Math.round(theProgress * 100));
+        myGenerationProgressBar.setString(theStageName == null ? "Entering the dungeon..." : "Generating: " + theStageName);
+        myGenerationProgressBar.setVisible(true);
+        revalidate();
+    }
+
+    /**
+     * Hides the generation progress and re-enables the start button.
+     */
+    public void hideGenerationProgress() {
+        myStartGameButton.setEnabled(true);
+        myGenerationProgressBar.setVisible(false);
+        revalidate();
+    }
+}
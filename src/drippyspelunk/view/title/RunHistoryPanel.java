@@ -0,0 +1,191 @@
+package drippyspelunk.view.title;
+
+import drippyspelunk.model.dungeon.RunRecord;
+import drippyspelunk.view.GUIConstants;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.List;
+
+/**
+ * Panel for the run history.
+ * This panel shows the fastest wins at the current difficulty and a page of the most recent runs,
+ * with buttons to page through older runs.
+ *
+ * @author David Norman
+ * @version 1.0
+ */
+public class RunHistoryPanel extends JPanel {
+
+    /**
+     * The background color of the panel.
+     */
+    private static final Color BACKGROUND_COLOR = Color.ORANGE.darker().darker();
+    /**
+     * The font size for the panel's title.
+     */
+    private static final int TITLE_FONT_SIZE = 16;
+    /**
+     * The font size for section headings.
+     */
+    private static final int HEADING_FONT_SIZE = 12;
+    /**
+     * The font size for run rows.
+     */
+    private static final int ROW_FONT_SIZE = 10;
+    /**
+     * The size of the insets (padding) around components.
+     */
+    private static final int INSET_SIZE = 3;
+    /**
+     * The number of seconds in a minute.
+     */
+    private static final int SECONDS_PER_MINUTE = 60;
+    /**
+     * The text shown when a list has no runs.
+     */
+    private static final String NO_RUNS_TEXT = "No runs yet";
+
+    /**
+     * The GUI scaling factor.
+     */
+    private final int myGuiScale;
+    /**
+     * The rows of the leaderboard.
+     */
+    private final JPanel myLeaderboardRows;
+    /**
+     * The rows of the current history page.
+     */
+    private final JPanel myHistoryRows;
+    /**
+     * The heading of the leaderboard, which names the difficulty.
+     */
+    private final JLabel myLeaderboardHeading;
+
+    /**
+     * Constructs the RunHistoryPanel.
+     *
+     * @param theGuiScale     The GUI scaling factor.
+     * @param theOlderButton  The button that shows the next page of older runs.
+     * @param theNewestButton The button that goes back to the newest runs.
+     */
+    RunHistoryPanel(final int theGuiScale, final JButton theOlderButton, final JButton theNewestButton) {
+        myGuiScale = theGuiScale;
+        setBackground(BACKGROUND_COLOR);
+        setLayout(new GridBagLayout());
+        final GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(INSET_SIZE * theGuiScale, 0, INSET_SIZE * theGuiScale, 0);
+        gbc.anchor = GridBagConstraints.CENTER;
+        gbc.gridx = 0;
+
+        // "Run History" title label
+        final JLabel titleLabel = createLabel("Run History", Font.BOLD, TITLE_FONT_SIZE);
+        gbc.gridy = 0;
+        add(titleLabel, gbc);
+
+        // Leaderboard
+        gbc.gridy++;
+        myLeaderboardHeading = createLabel("Fastest Wins", Font.BOLD, HEADING_FONT_SIZE);
+        add(myLeaderboardHeading, gbc);
+        gbc.gridy++;
+        myLeaderboardRows = createRowPanel();
+        add(myLeaderboardRows, gbc);
+
+        // Recent runs
+        gbc.gridy++;
+        add(createLabel("Recent Runs", Font.BOLD, HEADING_FONT_SIZE), gbc);
+        gbc.gridy++;
+        myHistoryRows = createRowPanel();
+        add(myHistoryRows, gbc);
+
+        // Paging buttons
+        gbc.gridy++;
+        final JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, INSET_SIZE * theGuiScale, 0));
+        buttonPanel.setBackground(BACKGROUND_COLOR);
+        buttonPanel.add(theNewestButton);
+        buttonPanel.add(theOlderButton);
+        add(buttonPanel, gbc);
+
+        showLeaderboard(0, List.of());
+        showHistory(List.of());
+    }
+
+    /**
+     * Shows the fastest wins.
+     *
+     * @param theDifficulty The difficulty the leaderboard is for.
+     * @param theRuns       The runs, fastest first.
+     */
+    public void showLeaderboard(final int theDifficulty, final List<RunRecord> theRuns) {
+        myLeaderboardHeading.setText("Fastest Wins - Difficulty " + theDifficulty);
+        myLeaderboardRows.removeAll();
+        int rank = 1;
+        for (final RunRecord run : theRuns) {
+            myLeaderboardRows.add(createLabel(rank + ". " + run.getPlayerName() + " the " + run.getCharacterClass()
+                    + " - " + formatDuration(run) + ", " + run.getKills() + " kills", Font.PLAIN, ROW_FONT_SIZE));
+            rank++;
+        }
+        if (theRuns.isEmpty()) {
+            myLeaderboardRows.add(createLabel(NO_RUNS_TEXT, Font.PLAIN, ROW_FONT_SIZE));
+        }
+        myLeaderboardRows.revalidate();
+        myLeaderboardRows.repaint();
+    }
+
+    /**
+     * Shows a page of recent runs.
+     *
+     * @param theRuns The runs, newest first.
+     */
+    public void showHistory(final List<RunRecord> theRuns) {
+        myHistoryRows.removeAll();
+        for (final RunRecord run : theRuns) {
+            myHistoryRows.add(createLabel(run.getPlayerName() + " the " + run.getCharacterClass() + " - "
+                    + run.getEndingType().name().replace('_', ' ') + " on floor " + run.getFloorReached()
+                    + " - " + formatDuration(run), Font.PLAIN, ROW_FONT_SIZE));
+        }
+        if (theRuns.isEmpty()) {
+            myHistoryRows.add(createLabel(NO_RUNS_TEXT, Font.PLAIN, ROW_FONT_SIZE));
+        }
+        myHistoryRows.revalidate();
+        myHistoryRows.repaint();
+    }
+
+    /**
+     * Formats the length of a run as minutes and seconds.
+     *
+     * @param theRun The run.
+     * @return The duration, such as "3:07".
+     */
+    private static String formatDuration(final RunRecord theRun) {
+        final long seconds = theRun.getDurationTicks() / RunRecord.TICKS_PER_SECOND;
+        return String.format("%d:%02d", seconds / SECONDS_PER_MINUTE, seconds % SECONDS_PER_MINUTE);
+    }
+
+    /**
+     * Creates a panel that stacks run rows.
+     *
+     * @return The row panel.
+     */
+    private JPanel createRowPanel() {
+        final JPanel panel = new JPanel(new GridLayout(0, 1));
+        panel.setBackground(BACKGROUND_COLOR);
+        return panel;
+    }
+
+    /**
+     * Creates a white, centered label.
+     *
+     * @param theText     The label text.
+     * @param theStyle    The font style.
+     * @param theFontSize The unscaled font size.
+     * @return The label.
+     */
+    private JLabel createLabel(final String theText, final int theStyle, final int theFontSize) {
+        final JLabel label = new JLabel(theText, SwingConstants.CENTER);
+        label.setForeground(Color.WHITE);
+        label.setFont(new Font(GUIConstants.FONT_NAME, theStyle, theFontSize * myGuiScale));
+        return label;
+    }
+}
@@ -11,7 +11,7 @@ import java.awt.event.ActionListener;
  *
  * @author Devin Arroyo
  * @author David Norman
- * @version 1.2
+ * @version 1.3
  */
 public class TitleButtonPanel extends JPanel {
 
@@ -49,6 +49,7 @@ public class TitleButtonPanel extends JPanel {
     private static final String NEW_GAME_TEXT = "New Game";
     private static final String LOAD_GAME_TEXT = "Load Game";
     private static final String SETTINGS_TEXT = "Settings";
+    private static final String RUN_HISTORY_TEXT = "Run History";
     private static final String CREDITS_TEXT = "Credits";
     private static final String CLOSE_APPLICATION_TEXT = "Close Application";
     /**
@@ -71,6 +72,10 @@ public class TitleButtonPanel extends JPanel {
      * The Settings button.
      */
     private final JButton mySettingsButton;
+    /**
+     * The Run History button.
+     */
+    private final JButton myRunHistoryButton;
     /**
      * The Credits button.
      */
@@ -104,6 +109,7 @@ public class TitleButtonPanel extends JPanel {
         myNewGameButton = createStyledButton(NEW_GAME_TEXT);
         myLoadGameButton = createStyledButton(LOAD_GAME_TEXT);
         mySettingsButton = createStyledButton(SETTINGS_TEXT);
+        myRunHistoryButton = createStyledButton(RUN_HISTORY_TEXT);
         myCreditsButton = createStyledButton(CREDITS_TEXT);
         myCloseApplicationButton = createStyledButton(CLOSE_APPLICATION_TEXT);
 
@@ -119,6 +125,8 @@ public class TitleButtonPanel extends JPanel {
         add(Box.createVerticalStrut(buttonSpacing));
         add(mySettingsButton);
         add(Box.createVerticalStrut(buttonSpacing));
+        add(myRunHistoryButton);
+        add(Box.createVerticalStrut(buttonSpacing));
         add(myCreditsButton);
         add(Box.createVerticalStrut(buttonSpacing));
         add(myCloseApplicationButton);
@@ -163,6 +171,7 @@ public class TitleButtonPanel extends JPanel {
         myNewGameButton.addActionListener(theController);
         myLoadGameButton.addActionListener(theController);
         mySettingsButton.addActionListener(theController);
+        myRunHistoryButton.addActionListener(theController);
         myCreditsButton.addActionListener(theController);
         myCloseApplicationButton.addActionListener(theController);
     }
@@ -176,6 +185,7 @@ public class TitleButtonPanel extends JPanel {
         myNewGameButton.removeActionListener(theListener);
         myLoadGameButton.removeActionListener(theListener);
         mySettingsButton.removeActionListener(theListener);
+        myRunHistoryButton.removeActionListener(theListener);
         myCreditsButton.removeActionListener(theListener);
         myCloseApplicationButton.removeActionListener(theListener);
     }
@@ -1,5 +1,7 @@
 package drippyspelunk.view.title;
 
+import drippyspelunk.model.dungeon.AutosaveJournal;
+import drippyspelunk.model.dungeon.SaveGame;
 import drippyspelunk.model.menu.SettingsData;
 import drippyspelunk.model.menu.TitleScreenLogic;
 import drippyspelunk.view.GUIConstants;
@@ -14,10 +16,27 @@ import java.awt.event.ActionListener;
  * on the title screen, such as New Game, Settings, and Credits.
  *
  * @author Devin Arroyo
- * @version 1.2
+ * @version 1.5
  */
 public class TitleExpandedMenu extends JPanel {
 
+    /**
+     * The start of the action command of a load slot button, followed by the slot number.
+     */
+    public static final String LOAD_SLOT_COMMAND_PREFIX = "Load Slot ";
+    /**
+     * The action command of the button that continues the autosave.
+     */
+    public static final String LOAD_AUTOSAVE_COMMAND = "Load Autosave";
+    /**
+     * The action command of the button that shows older runs.
+     */
+    public static final String OLDER_RUNS_COMMAND = "Older Runs";
+    /**
+     * The action command of the button that goes back to the newest runs.
+     */
+    public static final String NEWEST_RUNS_COMMAND = "Newest Runs";
+
     /**
      * Constant string identifiers for the CardLayout.
      */
@@ -25,6 +44,7 @@ public class TitleExpandedMenu extends JPanel {
     private static final String NEW_GAME = "NEW_GAME";
     private static final String LOAD_GAME = "LOAD_GAME";
     private static final String SETTINGS = "SETTINGS";
+    private static final String RUN_HISTORY = "RUN_HISTORY";
     private static final String CREDITS = "CREDITS";
     private static final String CLOSE_APPLICATION = "CLOSE_APPLICATION";
     /**
@@ -43,6 +63,10 @@ public class TitleExpandedMenu extends JPanel {
      * The CardLayout manager for this panel.
      */
     private final CardLayout myCardLayout;
+    /**
+     * The run history panel.
+     */
+    private final RunHistoryPanel myRunHistoryPanel;
     /**
      * The settings panel.
      */
@@ -67,6 +91,22 @@ public class TitleExpandedMenu extends JPanel {
      * The 'No' button for closing the application.
      */
     private final JButton myCloseAppNoButton;
+    /**
+     * The buttons that load each save slot, in slot order.
+     */
+    private final JButton[] myLoadSlotButtons;
+    /**
+     * The button that continues the autosave.
+     */
+    private final JButton myLoadAutosaveButton;
+    /**
+     * The button that shows older runs.
+     */
+    private final JButton myOlderRunsButton;
+    /**
+     * The button that goes back to the newest runs.
+     */
+    private final JButton myNewestRunsButton;
 
     /**
      * Constructs a TitleExpandedMenu.
@@ -94,13 +134,26 @@ public class TitleExpandedMenu extends JPanel {
         mySettingsApplyButton = createStyledButton("Apply");
         myCloseAppYesButton = createStyledButton("Yes");
         myCloseAppNoButton = createStyledButton("No");
+        myOlderRunsButton = createStyledButton(OLDER_RUNS_COMMAND);
+        myNewestRunsButton = createStyledButton(NEWEST_RUNS_COMMAND);
+        myLoadAutosaveButton = createStyledButton("Continue Autosave");
+        myLoadAutosaveButton.setActionCommand(LOAD_AUTOSAVE_COMMAND);
+        myLoadAutosaveButton.setEnabled(AutosaveJournal.exists());
+        myLoadSlotButtons = new JButton[SaveGame.SLOT_COUNT];
+        for (int slot = 0; slot < SaveGame.SLOT_COUNT; slot++) {
+            myLoadSlotButtons[slot] = createStyledButton(theLogic.getSaveSlotDescription(slot));
+            myLoadSlotButtons[slot].setActionCommand(LOAD_SLOT_COMMAND_PREFIX + slot);
+            myLoadSlotButtons[slot].setEnabled(SaveGame.isSlotUsed(slot));
+        }
 
         final EmptyPanel myEmptyPanel = new EmptyPanel();
         add(myEmptyPanel, EMPTY);
         add(new NewGamePanel(theGuiScale, theLogic, myNewGameStartButton), NEW_GAME);
-        add(new LoadGamePanel(theGuiScale), LOAD_GAME);
+        add(new LoadGamePanel(theGuiScale, myLoadAutosaveButton, myLoadSlotButtons), LOAD_GAME);
         mySettingsPanel = new SettingsPanel(theInitialSettings, mySettingsApplyButton);
         add(mySettingsPanel, SETTINGS);
+        myRunHistoryPanel = new RunHistoryPanel(theGuiScale, myOlderRunsButton, myNewestRunsButton);
+        add(myRunHistoryPanel, RUN_HISTORY);
         add(new CreditsPanel(theGuiScale), CREDITS);
         add(new CloseApplicationPanel(theGuiScale, myCloseAppYesButton, myCloseAppNoButton), CLOSE_APPLICATION);
 
@@ -138,6 +191,12 @@ public class TitleExpandedMenu extends JPanel {
         mySettingsApplyButton.addActionListener(theListener);
         myCloseAppYesButton.addActionListener(theListener);
         myCloseAppNoButton.addActionListener(theListener);
+        myOlderRunsButton.addActionListener(theListener);
+        myNewestRunsButton.addActionListener(theListener);
+        myLoadAutosaveButton.addActionListener(theListener);
+        for (final JButton slotButton : myLoadSlotButtons) {
+            slotButton.addActionListener(theListener);
+        }
     }
 
     /**
@@ -150,6 +209,12 @@ public class TitleExpandedMenu extends JPanel {
         mySettingsApplyButton.removeActionListener(theListener);
         myCloseAppYesButton.removeActionListener(theListener);
         myCloseAppNoButton.removeActionListener(theListener);
+        myOlderRunsButton.removeActionListener(theListener);
+        myNewestRunsButton.removeActionListener(theListener);
+        myLoadAutosaveButton.removeActionListener(theListener);
+        for (final JButton slotButton : myLoadSlotButtons) {
+            slotButton.removeActionListener(theListener);
+        }
     }
 
     /**
@@ -170,6 +235,15 @@ public class TitleExpandedMenu extends JPanel {
         return mySettingsPanel;
     }
 
+    /**
+     * Gets the run history panel instance.
+     *
+     * @return The RunHistoryPanel object.
+     */
+    public RunHistoryPanel getRunHistoryPanel() {
+        return myRunHistoryPanel;
+    }
+
     /**
      * An enumeration representing the different types of panels that can be displayed.
      */
@@ -178,6 +252,7 @@ public class TitleExpandedMenu extends JPanel {
         NEW_GAME,
         LOAD_GAME,
         SETTINGS,
+        RUN_HISTORY,
         CREDITS,
         CLOSE_APPLICATION
     }